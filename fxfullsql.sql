@@ -142,6 +142,8 @@ CREATE TABLE vehicle (
 
   KEY ix_vehicle_tenant (tenant_id),
   KEY ix_vehicle_customer (customer_id),
+  KEY ix_vehicle_tenant_make  (tenant_id, make),   -- ✅ arama: marka önek
+  KEY ix_vehicle_tenant_model (tenant_id, model),  -- ✅ arama: model önek
 
   UNIQUE KEY uq_vehicle_tenant_plate (tenant_id, plate_no),
   UNIQUE KEY uq_vehicle_tenant_vin   (tenant_id, vin_no),  -- ✅ vin NULL ise problem yok
@@ -180,6 +182,8 @@ CREATE TABLE maintenance (
   KEY ix_maintenance_vehicle (vehicle_id),
   KEY ix_maintenance_date (maint_date),
   KEY ix_maintenance_tenant (tenant_id),
+  KEY ix_maintenance_tenant_date (tenant_id, maint_date),                      -- ✅ özet: tenant son bakım
+  KEY ix_maintenance_tenant_vehicle_date (tenant_id, vehicle_id, maint_date),  -- ✅ özet: araç son bakım
 
   CONSTRAINT fk_maint_tenant
     FOREIGN KEY (tenant_id) REFERENCES tenants(tenant_id)
@@ -192,6 +196,42 @@ CREATE TABLE maintenance (
     ON DELETE RESTRICT
 ) ENGINE=InnoDB;
 
+-- 3.4.1 Maintenance summaries (trigger-maintained, see section 7)
+-- vw_vehicle_maintenance_summary bunları okur; her sorguda tüm bakım geçmişini toplamaz.
+CREATE TABLE vehicle_maintenance_summary (
+  tenant_id BIGINT UNSIGNED NOT NULL,
+  vehicle_id INT UNSIGNED NOT NULL,
+
+  maint_count INT UNSIGNED NOT NULL DEFAULT 0,
+  total_cost DECIMAL(14,2) NOT NULL DEFAULT 0.00,
+  last_maint_date DATE NULL,
+  last_km INT UNSIGNED NULL,
+
+  updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+
+  PRIMARY KEY (tenant_id, vehicle_id),
+  KEY ix_vms_tenant_cost (tenant_id, total_cost),  -- ✅ panel: en maliyetli araçlar
+
+  CONSTRAINT fk_vms_vehicle_tenant
+    FOREIGN KEY (tenant_id, vehicle_id) REFERENCES vehicle(tenant_id, vehicle_id)
+    ON DELETE CASCADE
+    ON UPDATE CASCADE
+) ENGINE=InnoDB;
+
+CREATE TABLE tenant_maintenance_totals (
+  tenant_id BIGINT UNSIGNED PRIMARY KEY,
+
+  maint_count INT UNSIGNED NOT NULL DEFAULT 0,
+  total_cost DECIMAL(16,2) NOT NULL DEFAULT 0.00,
+  last_maint_date DATE NULL,
+
+  updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+
+  CONSTRAINT fk_tmt_tenant
+    FOREIGN KEY (tenant_id) REFERENCES tenants(tenant_id)
+    ON DELETE CASCADE
+) ENGINE=InnoDB;
+
 -- 3.5 Assignment (tenant-aware)
 CREATE TABLE assignment (
   assignment_id INT UNSIGNED AUTO_INCREMENT PRIMARY KEY,
@@ -248,7 +288,7 @@ CREATE TABLE qr_tags (
   qr_tag_id BIGINT UNSIGNED AUTO_INCREMENT PRIMARY KEY,
   tenant_id BIGINT UNSIGNED NOT NULL,
 
-  token_hash VARCHAR(255) NOT NULL,
+  token_hash BINARY(32) NOT NULL,                    -- SHA-256(token); token sadece etikette
   display_code VARCHAR(16) NULL,
 
   status ENUM('NEW','ACTIVATED','REVOKED') NOT NULL DEFAULT 'NEW',
@@ -261,6 +301,7 @@ CREATE TABLE qr_tags (
   KEY ix_qr_tenant (tenant_id),
   KEY ix_qr_vehicle (vehicle_id),
   KEY ix_qr_status (status),
+  UNIQUE KEY uq_qr_tokenhash (token_hash),           -- ✅ public tarama: firma bilinmeden token ile arama
   UNIQUE KEY uq_qr_tenant_tokenhash (tenant_id, token_hash),
   UNIQUE KEY uq_qr_tenant_vehicle (tenant_id, vehicle_id),
 
@@ -275,12 +316,24 @@ CREATE TABLE qr_tags (
     ON UPDATE CASCADE
 ) ENGINE=InnoDB;
 
+-- ✅ sp_activate_qr_tag / sp_revoke_qr_tag buraya yazar; public tarama servisi
+--    bellekteki aktif token indeksini change_id sırasıyla bu tablodan günceller
+CREATE TABLE qr_tag_changes (
+  change_id BIGINT UNSIGNED AUTO_INCREMENT PRIMARY KEY,
+  qr_tag_id BIGINT UNSIGNED NOT NULL,
+  tenant_id BIGINT UNSIGNED NOT NULL,
+  token_hash BINARY(32) NOT NULL,
+  vehicle_id INT UNSIGNED NULL,
+  status ENUM('ACTIVATED','REVOKED') NOT NULL,
+  changed_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6)
+) ENGINE=InnoDB;
+
 CREATE TABLE vehicle_public_tokens (
   token_id BIGINT UNSIGNED AUTO_INCREMENT PRIMARY KEY,
   vehicle_id INT UNSIGNED NOT NULL,
   tenant_id BIGINT UNSIGNED NOT NULL,
 
-  token_hash VARCHAR(255) NOT NULL,
+  token_hash BINARY(32) NOT NULL,
   is_active TINYINT(1) NOT NULL DEFAULT 1,
   rotated_at DATETIME NULL,
   created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
@@ -303,6 +356,34 @@ CREATE TABLE vehicle_public_tokens (
 -- =========================================================
 -- 5) REMINDERS
 -- =========================================================
+
+-- 5.1 Service rules: "her 10.000 km veya 12 ayda bir" (maint_type başına)
+CREATE TABLE service_rules (
+  rule_id BIGINT UNSIGNED AUTO_INCREMENT PRIMARY KEY,
+  tenant_id BIGINT UNSIGNED NOT NULL,
+
+  maint_type VARCHAR(50) NOT NULL,        -- maintenance.maint_type ile eşleşir
+  interval_km INT UNSIGNED NULL,
+  interval_months SMALLINT UNSIGNED NULL,
+  lead_days SMALLINT UNSIGNED NOT NULL DEFAULT 7,
+
+  title VARCHAR(120) NOT NULL,
+  channel_email TINYINT(1) NOT NULL DEFAULT 1,
+  channel_sms   TINYINT(1) NOT NULL DEFAULT 0,
+  active TINYINT(1) NOT NULL DEFAULT 1,
+
+  created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+  UNIQUE KEY uq_rule_tenant_type (tenant_id, maint_type),
+
+  CONSTRAINT chk_rule_interval CHECK (interval_km IS NOT NULL OR interval_months IS NOT NULL),
+
+  CONSTRAINT fk_rule_tenant
+    FOREIGN KEY (tenant_id) REFERENCES tenants(tenant_id)
+    ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+-- 5.2 Reminders (manual + generated from service_rules)
 CREATE TABLE reminders (
   reminder_id BIGINT UNSIGNED AUTO_INCREMENT PRIMARY KEY,
   tenant_id BIGINT UNSIGNED NOT NULL,
@@ -318,12 +399,28 @@ CREATE TABLE reminders (
 
   status ENUM('PENDING','SENT','CANCELLED','FAILED') NOT NULL DEFAULT 'PENDING',
   last_error VARCHAR(500) NULL,
+  attempts TINYINT UNSIGNED NOT NULL DEFAULT 0,
+  sent_at DATETIME NULL,
+  -- gönderimi tamamlanan kanallar (bit 1 = e-posta, bit 2 = SMS); tekrar denemede atlanır
+  sent_channels TINYINT UNSIGNED NOT NULL DEFAULT 0,
+
+  -- dağıtıcı kiralaması: satırı hangi uygulama örneği, ne zamana kadar tutuyor
+  claimed_by VARCHAR(64) NULL,
+  claimed_until DATETIME NULL,
+
+  -- kuraldan üretildiyse: kural + dayandığı son bakım (maint_id, kayıt yoksa 0)
+  rule_id BIGINT UNSIGNED NULL,
+  rule_basis INT UNSIGNED NULL,
+
   created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
 
   KEY ix_rem_tenant (tenant_id),
   KEY ix_rem_vehicle (vehicle_id),
   KEY ix_rem_due (remind_at),
   KEY ix_rem_status (status),
+  KEY ix_rem_status_due (status, remind_at),  -- ✅ dağıtıcı: vadesi gelen PENDING satırlar
+  KEY ix_rem_tenant_due (tenant_id, remind_at),  -- ✅ liste: firma hatırlatmaları
+  UNIQUE KEY uq_rem_rule_cycle (vehicle_id, rule_id, rule_basis),  -- ✅ bakım döngüsü başına tek hatırlatma
 
   CONSTRAINT fk_rem_tenant
     FOREIGN KEY (tenant_id) REFERENCES tenants(tenant_id)
@@ -339,6 +436,24 @@ CREATE TABLE reminders (
   CONSTRAINT fk_rem_customer_tenant
     FOREIGN KEY (tenant_id, customer_id) REFERENCES customers(tenant_id, customer_id)
     ON DELETE SET NULL
+    ON UPDATE CASCADE,
+
+  CONSTRAINT fk_rem_rule
+    FOREIGN KEY (rule_id) REFERENCES service_rules(rule_id)
+    ON DELETE SET NULL
+) ENGINE=InnoDB;
+
+-- 5.3 Generator queue: vehicles whose km / maintenance / rules changed since the last run
+CREATE TABLE service_dirty_vehicles (
+  vehicle_id INT UNSIGNED PRIMARY KEY,
+  tenant_id BIGINT UNSIGNED NOT NULL,
+  marked_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+
+  KEY ix_dirty_marked (marked_at),
+
+  CONSTRAINT fk_dirty_vehicle_tenant
+    FOREIGN KEY (tenant_id, vehicle_id) REFERENCES vehicle(tenant_id, vehicle_id)
+    ON DELETE CASCADE
     ON UPDATE CASCADE
 ) ENGINE=InnoDB;
 
@@ -380,14 +495,14 @@ SELECT
   v.plate_no,
   v.make,
   v.model,
-  COUNT(m.maint_id) AS maint_count,
-  COALESCE(SUM(m.cost), 0.00) AS total_cost,
-  MAX(m.maint_date) AS last_maint_date
+  COALESCE(s.maint_count, 0) AS maint_count,
+  COALESCE(s.total_cost, 0.00) AS total_cost,
+  s.last_maint_date,
+  s.last_km
 FROM vehicle v
-LEFT JOIN maintenance m
-  ON m.vehicle_id = v.vehicle_id
- AND m.tenant_id = v.tenant_id
-GROUP BY v.tenant_id, v.vehicle_id, v.plate_no, v.make, v.model;
+LEFT JOIN vehicle_maintenance_summary s
+  ON s.vehicle_id = v.vehicle_id
+ AND s.tenant_id = v.tenant_id;
 
 CREATE OR REPLACE VIEW vw_maintenance_history AS
 SELECT
@@ -408,26 +523,23 @@ JOIN vehicle v
  AND v.tenant_id = m.tenant_id
 ORDER BY m.maint_date DESC;
 
+-- boşta araç / sürücü: açık zimmet uq_active_*_tenant'ta tek anahtar okuması (anti-join)
 CREATE OR REPLACE VIEW vw_available_vehicles AS
 SELECT v.tenant_id, v.vehicle_id, v.plate_no, v.make, v.model, v.current_km
 FROM vehicle v
+LEFT JOIN assignment a
+  ON a.tenant_id = v.tenant_id
+ AND a.active_vehicle_id = v.vehicle_id
 WHERE v.status = 'ACTIVE'
-  AND NOT EXISTS (
-    SELECT 1 FROM assignment a
-    WHERE a.vehicle_id = v.vehicle_id
-      AND a.tenant_id = v.tenant_id
-      AND a.end_datetime IS NULL
-  );
+  AND a.assignment_id IS NULL;
 
 CREATE OR REPLACE VIEW vw_available_drivers AS
 SELECT d.tenant_id, d.driver_id, d.first_name, d.last_name, d.license_no
 FROM drivers d
-WHERE NOT EXISTS (
-    SELECT 1 FROM assignment a
-    WHERE a.driver_id = d.driver_id
-      AND a.tenant_id = d.tenant_id
-      AND a.end_datetime IS NULL
-);
+LEFT JOIN assignment a
+  ON a.tenant_id = d.tenant_id
+ AND a.active_driver_id = d.driver_id
+WHERE a.assignment_id IS NULL;
 
 CREATE OR REPLACE VIEW vw_driver_active_vehicle AS
 SELECT
@@ -450,6 +562,7 @@ CREATE OR REPLACE VIEW vw_public_vehicle_by_tokenhash AS
 SELECT
   t.tenant_id,
   t.qr_tag_id,
+  t.token_hash,
   t.status,
   t.activated_at,
   t.display_code,
@@ -501,6 +614,164 @@ BEGIN
     AND tenant_id = NEW.tenant_id;
 END $$
 
+-- ---------------------------------------------------------
+-- Maintenance summaries: kept current row by row.
+-- Inserts only add; updates/deletes re-read MAX() through
+-- ix_maintenance_tenant_vehicle_date / ix_maintenance_tenant_date.
+-- ---------------------------------------------------------
+CREATE TRIGGER trg_maintenance_summary_ins
+AFTER INSERT ON maintenance
+FOR EACH ROW
+FOLLOWS trg_maintenance_sync_vehicle_km
+BEGIN
+  INSERT INTO vehicle_maintenance_summary
+    (tenant_id, vehicle_id, maint_count, total_cost, last_maint_date, last_km)
+  VALUES
+    (NEW.tenant_id, NEW.vehicle_id, 1, NEW.cost, NEW.maint_date, NEW.odometer_km)
+  ON DUPLICATE KEY UPDATE
+    maint_count = maint_count + 1,
+    total_cost = total_cost + NEW.cost,
+    last_maint_date = GREATEST(COALESCE(last_maint_date, NEW.maint_date), NEW.maint_date),
+    last_km = GREATEST(COALESCE(last_km, NEW.odometer_km), NEW.odometer_km);
+
+  INSERT INTO tenant_maintenance_totals (tenant_id, maint_count, total_cost, last_maint_date)
+  VALUES (NEW.tenant_id, 1, NEW.cost, NEW.maint_date)
+  ON DUPLICATE KEY UPDATE
+    maint_count = maint_count + 1,
+    total_cost = total_cost + NEW.cost,
+    last_maint_date = GREATEST(COALESCE(last_maint_date, NEW.maint_date), NEW.maint_date);
+END $$
+
+CREATE TRIGGER trg_maintenance_summary_upd
+AFTER UPDATE ON maintenance
+FOR EACH ROW
+BEGIN
+  -- eski araçtan düş (araç değişmese de; aşağıda yeniden eklenir)
+  UPDATE vehicle_maintenance_summary
+  SET maint_count = maint_count - 1,
+      total_cost = total_cost - OLD.cost
+  WHERE tenant_id = OLD.tenant_id AND vehicle_id = OLD.vehicle_id;
+
+  INSERT INTO vehicle_maintenance_summary (tenant_id, vehicle_id, maint_count, total_cost)
+  VALUES (NEW.tenant_id, NEW.vehicle_id, 1, NEW.cost)
+  ON DUPLICATE KEY UPDATE
+    maint_count = maint_count + 1,
+    total_cost = total_cost + NEW.cost;
+
+  UPDATE vehicle_maintenance_summary s
+  SET s.last_maint_date = (SELECT MAX(m.maint_date) FROM maintenance m
+                           WHERE m.tenant_id = s.tenant_id AND m.vehicle_id = s.vehicle_id),
+      s.last_km = (SELECT MAX(m.odometer_km) FROM maintenance m
+                   WHERE m.tenant_id = s.tenant_id AND m.vehicle_id = s.vehicle_id)
+  WHERE (s.tenant_id = OLD.tenant_id AND s.vehicle_id = OLD.vehicle_id)
+     OR (s.tenant_id = NEW.tenant_id AND s.vehicle_id = NEW.vehicle_id);
+
+  UPDATE tenant_maintenance_totals
+  SET total_cost = total_cost - OLD.cost + NEW.cost,
+      last_maint_date = (SELECT MAX(m.maint_date) FROM maintenance m WHERE m.tenant_id = NEW.tenant_id)
+  WHERE tenant_id = NEW.tenant_id;
+END $$
+
+CREATE TRIGGER trg_maintenance_summary_del
+AFTER DELETE ON maintenance
+FOR EACH ROW
+BEGIN
+  UPDATE vehicle_maintenance_summary s
+  SET s.maint_count = s.maint_count - 1,
+      s.total_cost = s.total_cost - OLD.cost,
+      s.last_maint_date = (SELECT MAX(m.maint_date) FROM maintenance m
+                           WHERE m.tenant_id = OLD.tenant_id AND m.vehicle_id = OLD.vehicle_id),
+      s.last_km = (SELECT MAX(m.odometer_km) FROM maintenance m
+                   WHERE m.tenant_id = OLD.tenant_id AND m.vehicle_id = OLD.vehicle_id)
+  WHERE s.tenant_id = OLD.tenant_id AND s.vehicle_id = OLD.vehicle_id;
+
+  UPDATE tenant_maintenance_totals t
+  SET t.maint_count = t.maint_count - 1,
+      t.total_cost = t.total_cost - OLD.cost,
+      t.last_maint_date = (SELECT MAX(m.maint_date) FROM maintenance m WHERE m.tenant_id = OLD.tenant_id)
+  WHERE t.tenant_id = OLD.tenant_id;
+END $$
+
+-- ---------------------------------------------------------
+-- Service reminder generator: mark vehicles to recompute.
+-- ---------------------------------------------------------
+CREATE TRIGGER trg_maintenance_dirty_ins
+AFTER INSERT ON maintenance
+FOR EACH ROW
+BEGIN
+  INSERT INTO service_dirty_vehicles (vehicle_id, tenant_id) VALUES (NEW.vehicle_id, NEW.tenant_id)
+  ON DUPLICATE KEY UPDATE marked_at = CURRENT_TIMESTAMP(6);
+END $$
+
+CREATE TRIGGER trg_maintenance_dirty_upd
+AFTER UPDATE ON maintenance
+FOR EACH ROW
+BEGIN
+  INSERT INTO service_dirty_vehicles (vehicle_id, tenant_id) VALUES (NEW.vehicle_id, NEW.tenant_id)
+  ON DUPLICATE KEY UPDATE marked_at = CURRENT_TIMESTAMP(6);
+
+  IF OLD.vehicle_id <> NEW.vehicle_id THEN
+    INSERT INTO service_dirty_vehicles (vehicle_id, tenant_id) VALUES (OLD.vehicle_id, OLD.tenant_id)
+    ON DUPLICATE KEY UPDATE marked_at = CURRENT_TIMESTAMP(6);
+  END IF;
+END $$
+
+CREATE TRIGGER trg_maintenance_dirty_del
+AFTER DELETE ON maintenance
+FOR EACH ROW
+BEGIN
+  INSERT INTO service_dirty_vehicles (vehicle_id, tenant_id) VALUES (OLD.vehicle_id, OLD.tenant_id)
+  ON DUPLICATE KEY UPDATE marked_at = CURRENT_TIMESTAMP(6);
+END $$
+
+CREATE TRIGGER trg_vehicle_dirty_ins
+AFTER INSERT ON vehicle
+FOR EACH ROW
+BEGIN
+  INSERT INTO service_dirty_vehicles (vehicle_id, tenant_id) VALUES (NEW.vehicle_id, NEW.tenant_id)
+  ON DUPLICATE KEY UPDATE marked_at = CURRENT_TIMESTAMP(6);
+END $$
+
+CREATE TRIGGER trg_vehicle_dirty_upd
+AFTER UPDATE ON vehicle
+FOR EACH ROW
+BEGIN
+  IF NOT (NEW.current_km <=> OLD.current_km)
+     OR NOT (NEW.service_entry_date <=> OLD.service_entry_date)
+     OR NOT (NEW.customer_id <=> OLD.customer_id) THEN
+    INSERT INTO service_dirty_vehicles (vehicle_id, tenant_id) VALUES (NEW.vehicle_id, NEW.tenant_id)
+    ON DUPLICATE KEY UPDATE marked_at = CURRENT_TIMESTAMP(6);
+  END IF;
+END $$
+
+CREATE TRIGGER trg_service_rule_dirty_ins
+AFTER INSERT ON service_rules
+FOR EACH ROW
+BEGIN
+  INSERT INTO service_dirty_vehicles (vehicle_id, tenant_id)
+  SELECT vehicle_id, tenant_id FROM vehicle WHERE tenant_id = NEW.tenant_id
+  ON DUPLICATE KEY UPDATE marked_at = CURRENT_TIMESTAMP(6);
+END $$
+
+CREATE TRIGGER trg_service_rule_dirty_upd
+AFTER UPDATE ON service_rules
+FOR EACH ROW
+BEGIN
+  INSERT INTO service_dirty_vehicles (vehicle_id, tenant_id)
+  SELECT vehicle_id, tenant_id FROM vehicle WHERE tenant_id = NEW.tenant_id
+  ON DUPLICATE KEY UPDATE marked_at = CURRENT_TIMESTAMP(6);
+END $$
+
+-- silinen kuralın bekleyen hatırlatmaları gönderilmesin (FK rule_id'yi NULL yapar)
+CREATE TRIGGER trg_service_rule_cancel_del
+BEFORE DELETE ON service_rules
+FOR EACH ROW
+BEGIN
+  UPDATE reminders
+  SET status = 'CANCELLED', claimed_by = NULL, claimed_until = NULL
+  WHERE rule_id = OLD.rule_id AND status = 'PENDING';
+END $$
+
 CREATE PROCEDURE sp_create_assignment(
   IN p_tenant_id BIGINT UNSIGNED,
   IN p_driver_id INT UNSIGNED,
@@ -551,9 +822,7 @@ BEGIN
   IF EXISTS (
     SELECT 1 FROM assignment
     WHERE tenant_id = p_tenant_id
-      AND driver_id = p_driver_id
-      AND end_datetime IS NULL
-    LIMIT 1
+      AND active_driver_id = p_driver_id  -- uq_active_driver_tenant
   ) THEN
     SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'Driver already has an active assignment';
   END IF;
@@ -561,9 +830,7 @@ BEGIN
   IF EXISTS (
     SELECT 1 FROM assignment
     WHERE tenant_id = p_tenant_id
-      AND vehicle_id = p_vehicle_id
-      AND end_datetime IS NULL
-    LIMIT 1
+      AND active_vehicle_id = p_vehicle_id  -- uq_active_vehicle_tenant
   ) THEN
     SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'Vehicle already has an active assignment';
   END IF;
@@ -644,11 +911,11 @@ END $$
 
 CREATE PROCEDURE sp_create_qr_tag(
   IN p_tenant_id BIGINT UNSIGNED,
-  IN p_token_hash VARCHAR(255),
+  IN p_token_hash BINARY(32),
   IN p_display_code VARCHAR(16)
 )
 BEGIN
-  IF (SELECT COUNT(*) FROM tenants WHERE tenant_id = p_tenant_id) = 0 THEN
+  IF NOT EXISTS (SELECT 1 FROM tenants WHERE tenant_id = p_tenant_id) THEN
     SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'Tenant not found';
   END IF;
 
@@ -658,7 +925,7 @@ END $$
 
 CREATE PROCEDURE sp_activate_qr_tag(
   IN p_tenant_id BIGINT UNSIGNED,
-  IN p_token_hash VARCHAR(255),
+  IN p_token_hash BINARY(32),
   IN p_vehicle_id INT UNSIGNED
 )
 BEGIN
@@ -714,6 +981,10 @@ BEGIN
   SET status='ACTIVATED', activated_at=NOW(), vehicle_id=p_vehicle_id
   WHERE qr_tag_id=v_tag_id;
 
+  -- ✅ public tarama indeksi
+  INSERT INTO qr_tag_changes (qr_tag_id, tenant_id, token_hash, vehicle_id, status)
+  VALUES (v_tag_id, p_tenant_id, p_token_hash, p_vehicle_id, 'ACTIVATED');
+
   UPDATE vehicle_public_tokens
   SET is_active = 0, rotated_at = NOW()
   WHERE tenant_id = p_tenant_id
@@ -728,13 +999,39 @@ END $$
 
 CREATE PROCEDURE sp_revoke_qr_tag(
   IN p_tenant_id BIGINT UNSIGNED,
-  IN p_token_hash VARCHAR(255)
+  IN p_token_hash BINARY(32)
 )
 BEGIN
+  DECLARE EXIT HANDLER FOR SQLEXCEPTION
+  BEGIN
+    ROLLBACK;
+    RESIGNAL;
+  END;
+
+  START TRANSACTION;
+
   UPDATE qr_tags
   SET status='REVOKED'
   WHERE tenant_id = p_tenant_id
-    AND token_hash = p_token_hash;
+    AND token_hash = p_token_hash
+    AND status <> 'REVOKED';
+
+  IF ROW_COUNT() > 0 THEN
+    -- ✅ public tarama indeksi
+    INSERT INTO qr_tag_changes (qr_tag_id, tenant_id, token_hash, vehicle_id, status)
+    SELECT qr_tag_id, tenant_id, token_hash, vehicle_id, 'REVOKED'
+    FROM qr_tags
+    WHERE tenant_id = p_tenant_id
+      AND token_hash = p_token_hash;
+
+    UPDATE vehicle_public_tokens
+    SET is_active = 0, rotated_at = NOW()
+    WHERE tenant_id = p_tenant_id
+      AND token_hash = p_token_hash
+      AND is_active = 1;
+  END IF;
+
+  COMMIT;
 END $$
 
 DELIMITER ;
@@ -746,7 +1043,7 @@ DELIMITER ;
 INSERT INTO tenants (name, phone, email, city, address, whatsapp_phone)
 VALUES ('DemoService', '5550000000', 'demo@service.com', 'Istanbul', 'Demo Address', '5550000000');
 
--- DEV seed: login olur (şifre: 1234) - projede şu an düz karşılaştırma var diye böyle bıraktım
+-- DEV seed: login olur (şifre: 1234) - düz yazı, ilk başarılı girişte bcrypt'e çevrilir
 INSERT INTO users (tenant_id, role, status, email, password_hash)
 VALUES (1, 'SERVICE_ADMIN', 'ACTIVE', 'admin@demo.com', '1234');
 
@@ -766,10 +1063,14 @@ VALUES
 INSERT INTO maintenance (tenant_id, maint_date, maint_type, odometer_km, description, cost, vehicle_id)
 VALUES (1, '2025-12-01', 'Oil Change', 119500, 'Regular maintenance', 2500.00, 1);
 
-CALL sp_create_qr_tag(1, 'HASHED_TOKEN_1', 'AB12CD');
-CALL sp_create_qr_tag(1, 'HASHED_TOKEN_2', 'EF34GH');
+INSERT INTO service_rules (tenant_id, maint_type, interval_km, interval_months, lead_days, title)
+VALUES (1, 'Oil Change', 10000, 12, 7, 'Yağ değişimi zamanı yaklaşıyor');
+
+-- demo etiketler: /v/demo-token-1, /v/demo-token-2
+CALL sp_create_qr_tag(1, UNHEX(SHA2('demo-token-1', 256)), 'AB12CD');
+CALL sp_create_qr_tag(1, UNHEX(SHA2('demo-token-2', 256)), 'EF34GH');
 
-CALL sp_activate_qr_tag(1, 'HASHED_TOKEN_1', 1);
+CALL sp_activate_qr_tag(1, UNHEX(SHA2('demo-token-1', 256)), 1);
 
 CALL sp_create_assignment(1, 1, 1, 120000, NOW());
 
@@ -0,0 +1,10 @@
+-- =========================================================
+-- 001) Vehicle search indexes
+-- VehicleDAO.searchPageByTenant prefix-matches plate_no / make / model.
+-- plate_no is already covered by uq_vehicle_tenant_plate.
+-- =========================================================
+USE fleet_service_db;
+
+ALTER TABLE vehicle
+  ADD KEY ix_vehicle_tenant_make  (tenant_id, make),
+  ADD KEY ix_vehicle_tenant_model (tenant_id, model);
@@ -0,0 +1,158 @@
+-- =========================================================
+-- 002) Incrementally maintained maintenance summaries
+-- Per-vehicle and per-tenant totals kept current by triggers;
+-- vw_vehicle_maintenance_summary now reads them instead of
+-- aggregating all maintenance rows on every query.
+-- Run with the application stopped (the backfill is not
+-- synchronised with concurrent maintenance writes).
+-- =========================================================
+USE fleet_service_db;
+
+ALTER TABLE maintenance
+  ADD KEY ix_maintenance_tenant_date (tenant_id, maint_date),
+  ADD KEY ix_maintenance_tenant_vehicle_date (tenant_id, vehicle_id, maint_date);
+
+-- vw_vehicle_maintenance_summary bunları okur; her sorguda tüm bakım geçmişini toplamaz.
+CREATE TABLE vehicle_maintenance_summary (
+  tenant_id BIGINT UNSIGNED NOT NULL,
+  vehicle_id INT UNSIGNED NOT NULL,
+
+  maint_count INT UNSIGNED NOT NULL DEFAULT 0,
+  total_cost DECIMAL(14,2) NOT NULL DEFAULT 0.00,
+  last_maint_date DATE NULL,
+  last_km INT UNSIGNED NULL,
+
+  updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+
+  PRIMARY KEY (tenant_id, vehicle_id),
+  KEY ix_vms_tenant_cost (tenant_id, total_cost),  -- ✅ panel: en maliyetli araçlar
+
+  CONSTRAINT fk_vms_vehicle_tenant
+    FOREIGN KEY (tenant_id, vehicle_id) REFERENCES vehicle(tenant_id, vehicle_id)
+    ON DELETE CASCADE
+    ON UPDATE CASCADE
+) ENGINE=InnoDB;
+
+CREATE TABLE tenant_maintenance_totals (
+  tenant_id BIGINT UNSIGNED PRIMARY KEY,
+
+  maint_count INT UNSIGNED NOT NULL DEFAULT 0,
+  total_cost DECIMAL(16,2) NOT NULL DEFAULT 0.00,
+  last_maint_date DATE NULL,
+
+  updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+
+  CONSTRAINT fk_tmt_tenant
+    FOREIGN KEY (tenant_id) REFERENCES tenants(tenant_id)
+    ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+-- Backfill
+INSERT INTO vehicle_maintenance_summary
+  (tenant_id, vehicle_id, maint_count, total_cost, last_maint_date, last_km)
+SELECT tenant_id, vehicle_id, COUNT(*), SUM(cost), MAX(maint_date), MAX(odometer_km)
+FROM maintenance
+GROUP BY tenant_id, vehicle_id;
+
+INSERT INTO tenant_maintenance_totals (tenant_id, maint_count, total_cost, last_maint_date)
+SELECT tenant_id, COUNT(*), SUM(cost), MAX(maint_date)
+FROM maintenance
+GROUP BY tenant_id;
+
+CREATE OR REPLACE VIEW vw_vehicle_maintenance_summary AS
+SELECT
+  v.tenant_id,
+  v.vehicle_id,
+  v.plate_no,
+  v.make,
+  v.model,
+  COALESCE(s.maint_count, 0) AS maint_count,
+  COALESCE(s.total_cost, 0.00) AS total_cost,
+  s.last_maint_date,
+  s.last_km
+FROM vehicle v
+LEFT JOIN vehicle_maintenance_summary s
+  ON s.vehicle_id = v.vehicle_id
+ AND s.tenant_id = v.tenant_id;
+
+DELIMITER $$
+
+-- ---------------------------------------------------------
+-- Maintenance summaries: kept current row by row.
+-- Inserts only add; updates/deletes re-read MAX() through
+-- ix_maintenance_tenant_vehicle_date / ix_maintenance_tenant_date.
+-- ---------------------------------------------------------
+CREATE TRIGGER trg_maintenance_summary_ins
+AFTER INSERT ON maintenance
+FOR EACH ROW
+FOLLOWS trg_maintenance_sync_vehicle_km
+BEGIN
+  INSERT INTO vehicle_maintenance_summary
+    (tenant_id, vehicle_id, maint_count, total_cost, last_maint_date, last_km)
+  VALUES
+    (NEW.tenant_id, NEW.vehicle_id, 1, NEW.cost, NEW.maint_date, NEW.odometer_km)
+  ON DUPLICATE KEY UPDATE
+    maint_count = maint_count + 1,
+    total_cost = total_cost + NEW.cost,
+    last_maint_date = GREATEST(COALESCE(last_maint_date, NEW.maint_date), NEW.maint_date),
+    last_km = GREATEST(COALESCE(last_km, NEW.odometer_km), NEW.odometer_km);
+
+  INSERT INTO tenant_maintenance_totals (tenant_id, maint_count, total_cost, last_maint_date)
+  VALUES (NEW.tenant_id, 1, NEW.cost, NEW.maint_date)
+  ON DUPLICATE KEY UPDATE
+    maint_count = maint_count + 1,
+    total_cost = total_cost + NEW.cost,
+    last_maint_date = GREATEST(COALESCE(last_maint_date, NEW.maint_date), NEW.maint_date);
+END $$
+
+CREATE TRIGGER trg_maintenance_summary_upd
+AFTER UPDATE ON maintenance
+FOR EACH ROW
+BEGIN
+  -- eski araçtan düş (araç değişmese de; aşağıda yeniden eklenir)
+  UPDATE vehicle_maintenance_summary
+  SET maint_count = maint_count - 1,
+      total_cost = total_cost - OLD.cost
+  WHERE tenant_id = OLD.tenant_id AND vehicle_id = OLD.vehicle_id;
+
+  INSERT INTO vehicle_maintenance_summary (tenant_id, vehicle_id, maint_count, total_cost)
+  VALUES (NEW.tenant_id, NEW.vehicle_id, 1, NEW.cost)
+  ON DUPLICATE KEY UPDATE
+    maint_count = maint_count + 1,
+    total_cost = total_cost + NEW.cost;
+
+  UPDATE vehicle_maintenance_summary s
+  SET s.last_maint_date = (SELECT MAX(m.maint_date) FROM maintenance m
+                           WHERE m.tenant_id = s.tenant_id AND m.vehicle_id = s.vehicle_id),
+      s.last_km = (SELECT MAX(m.odometer_km) FROM maintenance m
+                   WHERE m.tenant_id = s.tenant_id AND m.vehicle_id = s.vehicle_id)
+  WHERE (s.tenant_id = OLD.tenant_id AND s.vehicle_id = OLD.vehicle_id)
+     OR (s.tenant_id = NEW.tenant_id AND s.vehicle_id = NEW.vehicle_id);
+
+  UPDATE tenant_maintenance_totals
+  SET total_cost = total_cost - OLD.cost + NEW.cost,
+      last_maint_date = (SELECT MAX(m.maint_date) FROM maintenance m WHERE m.tenant_id = NEW.tenant_id)
+  WHERE tenant_id = NEW.tenant_id;
+END $$
+
+CREATE TRIGGER trg_maintenance_summary_del
+AFTER DELETE ON maintenance
+FOR EACH ROW
+BEGIN
+  UPDATE vehicle_maintenance_summary s
+  SET s.maint_count = s.maint_count - 1,
+      s.total_cost = s.total_cost - OLD.cost,
+      s.last_maint_date = (SELECT MAX(m.maint_date) FROM maintenance m
+                           WHERE m.tenant_id = OLD.tenant_id AND m.vehicle_id = OLD.vehicle_id),
+      s.last_km = (SELECT MAX(m.odometer_km) FROM maintenance m
+                   WHERE m.tenant_id = OLD.tenant_id AND m.vehicle_id = OLD.vehicle_id)
+  WHERE s.tenant_id = OLD.tenant_id AND s.vehicle_id = OLD.vehicle_id;
+
+  UPDATE tenant_maintenance_totals t
+  SET t.maint_count = t.maint_count - 1,
+      t.total_cost = t.total_cost - OLD.cost,
+      t.last_maint_date = (SELECT MAX(m.maint_date) FROM maintenance m WHERE m.tenant_id = OLD.tenant_id)
+  WHERE t.tenant_id = OLD.tenant_id;
+END $$
+
+DELIMITER ;
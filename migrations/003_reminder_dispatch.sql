@@ -0,0 +1,15 @@
+-- =========================================================
+-- 003) Reminder dispatcher
+-- Lease columns so several application instances can claim due
+-- reminders without sending the same one twice, plus the
+-- indexes used by the claim query and the reminders tab.
+-- =========================================================
+USE fleet_service_db;
+
+ALTER TABLE reminders
+  ADD COLUMN attempts TINYINT UNSIGNED NOT NULL DEFAULT 0 AFTER last_error,
+  ADD COLUMN sent_at DATETIME NULL AFTER attempts,
+  ADD COLUMN claimed_by VARCHAR(64) NULL AFTER sent_at,
+  ADD COLUMN claimed_until DATETIME NULL AFTER claimed_by,
+  ADD KEY ix_rem_status_due (status, remind_at),
+  ADD KEY ix_rem_tenant_due (tenant_id, remind_at);
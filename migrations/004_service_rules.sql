@@ -0,0 +1,142 @@
+-- =========================================================
+-- 004) Service rules and predictive reminders
+-- Per-tenant rules ("every N km or M months" per maint_type)
+-- from which the application generates reminders, and the
+-- queue of vehicles whose km, maintenance or rules changed
+-- since the generator last looked at them.
+-- =========================================================
+USE fleet_service_db;
+
+CREATE TABLE service_rules (
+  rule_id BIGINT UNSIGNED AUTO_INCREMENT PRIMARY KEY,
+  tenant_id BIGINT UNSIGNED NOT NULL,
+
+  maint_type VARCHAR(50) NOT NULL,        -- maintenance.maint_type ile eşleşir
+  interval_km INT UNSIGNED NULL,
+  interval_months SMALLINT UNSIGNED NULL,
+  lead_days SMALLINT UNSIGNED NOT NULL DEFAULT 7,
+
+  title VARCHAR(120) NOT NULL,
+  channel_email TINYINT(1) NOT NULL DEFAULT 1,
+  channel_sms   TINYINT(1) NOT NULL DEFAULT 0,
+  active TINYINT(1) NOT NULL DEFAULT 1,
+
+  created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+  UNIQUE KEY uq_rule_tenant_type (tenant_id, maint_type),
+
+  CONSTRAINT chk_rule_interval CHECK (interval_km IS NOT NULL OR interval_months IS NOT NULL),
+
+  CONSTRAINT fk_rule_tenant
+    FOREIGN KEY (tenant_id) REFERENCES tenants(tenant_id)
+    ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+ALTER TABLE reminders
+  ADD COLUMN rule_id BIGINT UNSIGNED NULL AFTER claimed_until,
+  ADD COLUMN rule_basis INT UNSIGNED NULL AFTER rule_id,
+  ADD UNIQUE KEY uq_rem_rule_cycle (vehicle_id, rule_id, rule_basis),
+  ADD CONSTRAINT fk_rem_rule
+    FOREIGN KEY (rule_id) REFERENCES service_rules(rule_id)
+    ON DELETE SET NULL;
+
+CREATE TABLE service_dirty_vehicles (
+  vehicle_id INT UNSIGNED PRIMARY KEY,
+  tenant_id BIGINT UNSIGNED NOT NULL,
+  marked_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+
+  KEY ix_dirty_marked (marked_at),
+
+  CONSTRAINT fk_dirty_vehicle_tenant
+    FOREIGN KEY (tenant_id, vehicle_id) REFERENCES vehicle(tenant_id, vehicle_id)
+    ON DELETE CASCADE
+    ON UPDATE CASCADE
+) ENGINE=InnoDB;
+
+-- ilk çalıştırmada tüm filo hesaplanır
+INSERT INTO service_dirty_vehicles (vehicle_id, tenant_id)
+SELECT vehicle_id, tenant_id FROM vehicle;
+
+DELIMITER $$
+
+-- ---------------------------------------------------------
+-- Service reminder generator: mark vehicles to recompute.
+-- ---------------------------------------------------------
+CREATE TRIGGER trg_maintenance_dirty_ins
+AFTER INSERT ON maintenance
+FOR EACH ROW
+BEGIN
+  INSERT INTO service_dirty_vehicles (vehicle_id, tenant_id) VALUES (NEW.vehicle_id, NEW.tenant_id)
+  ON DUPLICATE KEY UPDATE marked_at = CURRENT_TIMESTAMP(6);
+END $$
+
+CREATE TRIGGER trg_maintenance_dirty_upd
+AFTER UPDATE ON maintenance
+FOR EACH ROW
+BEGIN
+  INSERT INTO service_dirty_vehicles (vehicle_id, tenant_id) VALUES (NEW.vehicle_id, NEW.tenant_id)
+  ON DUPLICATE KEY UPDATE marked_at = CURRENT_TIMESTAMP(6);
+
+  IF OLD.vehicle_id <> NEW.vehicle_id THEN
+    INSERT INTO service_dirty_vehicles (vehicle_id, tenant_id) VALUES (OLD.vehicle_id, OLD.tenant_id)
+    ON DUPLICATE KEY UPDATE marked_at = CURRENT_TIMESTAMP(6);
+  END IF;
+END $$
+
+CREATE TRIGGER trg_maintenance_dirty_del
+AFTER DELETE ON maintenance
+FOR EACH ROW
+BEGIN
+  INSERT INTO service_dirty_vehicles (vehicle_id, tenant_id) VALUES (OLD.vehicle_id, OLD.tenant_id)
+  ON DUPLICATE KEY UPDATE marked_at = CURRENT_TIMESTAMP(6);
+END $$
+
+CREATE TRIGGER trg_vehicle_dirty_ins
+AFTER INSERT ON vehicle
+FOR EACH ROW
+BEGIN
+  INSERT INTO service_dirty_vehicles (vehicle_id, tenant_id) VALUES (NEW.vehicle_id, NEW.tenant_id)
+  ON DUPLICATE KEY UPDATE marked_at = CURRENT_TIMESTAMP(6);
+END $$
+
+CREATE TRIGGER trg_vehicle_dirty_upd
+AFTER UPDATE ON vehicle
+FOR EACH ROW
+BEGIN
+  IF NOT (NEW.current_km <=> OLD.current_km)
+     OR NOT (NEW.service_entry_date <=> OLD.service_entry_date)
+     OR NOT (NEW.customer_id <=> OLD.customer_id) THEN
+    INSERT INTO service_dirty_vehicles (vehicle_id, tenant_id) VALUES (NEW.vehicle_id, NEW.tenant_id)
+    ON DUPLICATE KEY UPDATE marked_at = CURRENT_TIMESTAMP(6);
+  END IF;
+END $$
+
+CREATE TRIGGER trg_service_rule_dirty_ins
+AFTER INSERT ON service_rules
+FOR EACH ROW
+BEGIN
+  INSERT INTO service_dirty_vehicles (vehicle_id, tenant_id)
+  SELECT vehicle_id, tenant_id FROM vehicle WHERE tenant_id = NEW.tenant_id
+  ON DUPLICATE KEY UPDATE marked_at = CURRENT_TIMESTAMP(6);
+END $$
+
+CREATE TRIGGER trg_service_rule_dirty_upd
+AFTER UPDATE ON service_rules
+FOR EACH ROW
+BEGIN
+  INSERT INTO service_dirty_vehicles (vehicle_id, tenant_id)
+  SELECT vehicle_id, tenant_id FROM vehicle WHERE tenant_id = NEW.tenant_id
+  ON DUPLICATE KEY UPDATE marked_at = CURRENT_TIMESTAMP(6);
+END $$
+
+-- silinen kuralın bekleyen hatırlatmaları gönderilmesin (FK rule_id'yi NULL yapar)
+CREATE TRIGGER trg_service_rule_cancel_del
+BEFORE DELETE ON service_rules
+FOR EACH ROW
+BEGIN
+  UPDATE reminders
+  SET status = 'CANCELLED', claimed_by = NULL, claimed_until = NULL
+  WHERE rule_id = OLD.rule_id AND status = 'PENDING';
+END $$
+
+DELIMITER ;
@@ -0,0 +1,114 @@
+-- =========================================================
+-- 005) Assignment lookups on the generated columns
+-- Availability views and sp_create_assignment's "already
+-- assigned" checks probe uq_active_vehicle_tenant /
+-- uq_active_driver_tenant instead of scanning a driver's or
+-- vehicle's assignment history for end_datetime IS NULL.
+-- =========================================================
+USE fleet_service_db;
+
+-- boşta araç / sürücü: açık zimmet uq_active_*_tenant'ta tek anahtar okuması (anti-join)
+CREATE OR REPLACE VIEW vw_available_vehicles AS
+SELECT v.tenant_id, v.vehicle_id, v.plate_no, v.make, v.model, v.current_km
+FROM vehicle v
+LEFT JOIN assignment a
+  ON a.tenant_id = v.tenant_id
+ AND a.active_vehicle_id = v.vehicle_id
+WHERE v.status = 'ACTIVE'
+  AND a.assignment_id IS NULL;
+
+CREATE OR REPLACE VIEW vw_available_drivers AS
+SELECT d.tenant_id, d.driver_id, d.first_name, d.last_name, d.license_no
+FROM drivers d
+LEFT JOIN assignment a
+  ON a.tenant_id = d.tenant_id
+ AND a.active_driver_id = d.driver_id
+WHERE a.assignment_id IS NULL;
+
+DROP PROCEDURE IF EXISTS sp_create_assignment;
+
+DELIMITER $$
+
+CREATE PROCEDURE sp_create_assignment(
+  IN p_tenant_id BIGINT UNSIGNED,
+  IN p_driver_id INT UNSIGNED,
+  IN p_vehicle_id INT UNSIGNED,
+  IN p_start_km INT UNSIGNED,
+  IN p_start_datetime DATETIME
+)
+BEGIN
+  DECLARE v_vehicle_km INT UNSIGNED;
+  DECLARE v_status VARCHAR(20);
+  DECLARE v_vehicle_tid BIGINT UNSIGNED;
+  DECLARE v_driver_tid BIGINT UNSIGNED;
+
+  DECLARE EXIT HANDLER FOR SQLEXCEPTION
+  BEGIN
+    ROLLBACK;
+    RESIGNAL;
+  END;
+
+  START TRANSACTION;
+
+  SELECT tenant_id INTO v_driver_tid
+  FROM drivers
+  WHERE driver_id = p_driver_id
+  FOR UPDATE;
+
+  IF v_driver_tid IS NULL THEN
+    SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'Driver not found';
+  END IF;
+
+  IF v_driver_tid <> p_tenant_id THEN
+    SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'Tenant mismatch: driver';
+  END IF;
+
+  SELECT current_km, status, tenant_id INTO v_vehicle_km, v_status, v_vehicle_tid
+  FROM vehicle
+  WHERE vehicle_id = p_vehicle_id
+  FOR UPDATE;
+
+  IF v_vehicle_tid IS NULL THEN
+    SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'Vehicle not found';
+  END IF;
+
+  IF v_vehicle_tid <> p_tenant_id THEN
+    SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'Tenant mismatch: vehicle';
+  END IF;
+
+  IF EXISTS (
+    SELECT 1 FROM assignment
+    WHERE tenant_id = p_tenant_id
+      AND active_driver_id = p_driver_id  -- uq_active_driver_tenant
+  ) THEN
+    SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'Driver already has an active assignment';
+  END IF;
+
+  IF EXISTS (
+    SELECT 1 FROM assignment
+    WHERE tenant_id = p_tenant_id
+      AND active_vehicle_id = p_vehicle_id  -- uq_active_vehicle_tenant
+  ) THEN
+    SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'Vehicle already has an active assignment';
+  END IF;
+
+  IF v_status <> 'ACTIVE' THEN
+    SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'Vehicle is not ACTIVE; cannot create assignment';
+  END IF;
+
+  IF p_start_km < v_vehicle_km THEN
+    SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'Start KM cannot be less than vehicle current KM';
+  END IF;
+
+  INSERT INTO assignment (tenant_id, driver_id, vehicle_id, start_km, start_datetime, end_km, end_datetime)
+  VALUES (p_tenant_id, p_driver_id, p_vehicle_id, p_start_km, p_start_datetime, NULL, NULL);
+
+  UPDATE vehicle
+  SET status = 'ASSIGNED', current_km = p_start_km
+  WHERE vehicle_id = p_vehicle_id
+    AND tenant_id = p_tenant_id;
+
+  COMMIT;
+END $$
+
+DELIMITER ;
@@ -0,0 +1,33 @@
+-- =========================================================
+-- 006) Public QR scan service
+-- The embedded HTTP endpoint resolves a scanned token without
+-- knowing the tenant, so token_hash needs its own index; the
+-- second index lets it pick up newly activated tags cheaply.
+-- vw_public_vehicle_by_tokenhash now exposes token_hash.
+-- =========================================================
+USE fleet_service_db;
+
+ALTER TABLE qr_tags
+  ADD KEY ix_qr_tokenhash (token_hash),
+  ADD KEY ix_qr_status_activated (status, activated_at);
+
+CREATE OR REPLACE VIEW vw_public_vehicle_by_tokenhash AS
+SELECT
+  t.tenant_id,
+  t.qr_tag_id,
+  t.token_hash,
+  t.status,
+  t.activated_at,
+  t.display_code,
+  v.vehicle_id,
+  v.plate_no,
+  v.make,
+  v.model,
+  v.model_year,
+  v.colour,
+  v.current_km
+FROM qr_tags t
+LEFT JOIN vehicle v
+  ON v.vehicle_id = t.vehicle_id
+ AND v.tenant_id = t.tenant_id
+WHERE t.status IN ('NEW','ACTIVATED');
@@ -0,0 +1,186 @@
+-- =========================================================
+-- 007) Binary token hashes and the QR change log
+-- qr_tags.token_hash and vehicle_public_tokens.token_hash
+-- become BINARY(32) SHA-256 digests. Existing values that are
+-- 64 hex digits are taken as hex SHA-256 (what the app wrote so
+-- far); anything else is treated as a raw token and hashed.
+-- token_hash gets a global unique key; the ALTER fails if two
+-- tenants share a token, which must be resolved by hand.
+-- sp_activate_qr_tag / sp_revoke_qr_tag log into qr_tag_changes,
+-- which the public scan service polls to keep its in-memory
+-- index of active tokens current.
+-- =========================================================
+USE fleet_service_db;
+
+-- 1) qr_tags
+ALTER TABLE qr_tags ADD COLUMN token_hash_bin BINARY(32) NULL AFTER token_hash;
+
+UPDATE qr_tags
+SET token_hash_bin = IF(token_hash REGEXP '^[0-9a-fA-F]{64}$', UNHEX(token_hash), UNHEX(SHA2(token_hash, 256)));
+
+ALTER TABLE qr_tags
+  DROP KEY uq_qr_tenant_tokenhash,
+  DROP KEY ix_qr_tokenhash,
+  DROP KEY ix_qr_status_activated,
+  DROP COLUMN token_hash;
+
+ALTER TABLE qr_tags
+  CHANGE COLUMN token_hash_bin token_hash BINARY(32) NOT NULL,
+  ADD UNIQUE KEY uq_qr_tokenhash (token_hash),
+  ADD UNIQUE KEY uq_qr_tenant_tokenhash (tenant_id, token_hash);
+
+-- 2) vehicle_public_tokens
+ALTER TABLE vehicle_public_tokens ADD COLUMN token_hash_bin BINARY(32) NULL AFTER token_hash;
+
+UPDATE vehicle_public_tokens
+SET token_hash_bin = IF(token_hash REGEXP '^[0-9a-fA-F]{64}$', UNHEX(token_hash), UNHEX(SHA2(token_hash, 256)));
+
+ALTER TABLE vehicle_public_tokens DROP COLUMN token_hash;
+ALTER TABLE vehicle_public_tokens CHANGE COLUMN token_hash_bin token_hash BINARY(32) NOT NULL;
+
+-- 3) change log; already active tags are picked up by the service's full load
+-- ✅ sp_activate_qr_tag / sp_revoke_qr_tag buraya yazar; public tarama servisi
+--    bellekteki aktif token indeksini change_id sırasıyla bu tablodan günceller
+CREATE TABLE qr_tag_changes (
+  change_id BIGINT UNSIGNED AUTO_INCREMENT PRIMARY KEY,
+  qr_tag_id BIGINT UNSIGNED NOT NULL,
+  tenant_id BIGINT UNSIGNED NOT NULL,
+  token_hash BINARY(32) NOT NULL,
+  vehicle_id INT UNSIGNED NULL,
+  status ENUM('ACTIVATED','REVOKED') NOT NULL,
+  changed_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6)
+) ENGINE=InnoDB;
+
+-- 4) procedures
+DROP PROCEDURE IF EXISTS sp_create_qr_tag;
+DROP PROCEDURE IF EXISTS sp_activate_qr_tag;
+DROP PROCEDURE IF EXISTS sp_revoke_qr_tag;
+
+DELIMITER $$
+
+CREATE PROCEDURE sp_create_qr_tag(
+  IN p_tenant_id BIGINT UNSIGNED,
+  IN p_token_hash BINARY(32),
+  IN p_display_code VARCHAR(16)
+)
+BEGIN
+  IF NOT EXISTS (SELECT 1 FROM tenants WHERE tenant_id = p_tenant_id) THEN
+    SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'Tenant not found';
+  END IF;
+
+  INSERT INTO qr_tags (tenant_id, token_hash, display_code, status)
+  VALUES (p_tenant_id, p_token_hash, p_display_code, 'NEW');
+END $$
+
+CREATE PROCEDURE sp_activate_qr_tag(
+  IN p_tenant_id BIGINT UNSIGNED,
+  IN p_token_hash BINARY(32),
+  IN p_vehicle_id INT UNSIGNED
+)
+BEGIN
+  DECLARE v_tag_id BIGINT UNSIGNED;
+  DECLARE v_status VARCHAR(20);
+  DECLARE v_vehicle_tid BIGINT UNSIGNED;
+
+  DECLARE EXIT HANDLER FOR SQLEXCEPTION
+  BEGIN
+    ROLLBACK;
+    RESIGNAL;
+  END;
+
+  START TRANSACTION;
+
+  SELECT qr_tag_id, status INTO v_tag_id, v_status
+  FROM qr_tags
+  WHERE tenant_id = p_tenant_id AND token_hash = p_token_hash
+  FOR UPDATE;
+
+  IF v_tag_id IS NULL THEN
+    SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'QR tag not found';
+  END IF;
+
+  IF v_status <> 'NEW' THEN
+    SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'QR tag already activated or revoked';
+  END IF;
+
+  SELECT tenant_id INTO v_vehicle_tid
+  FROM vehicle
+  WHERE vehicle_id = p_vehicle_id
+  FOR UPDATE;
+
+  IF v_vehicle_tid IS NULL THEN
+    SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'Vehicle not found';
+  END IF;
+
+  IF v_vehicle_tid <> p_tenant_id THEN
+    SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'Tenant mismatch: vehicle';
+  END IF;
+
+  IF EXISTS (
+    SELECT 1 FROM qr_tags
+    WHERE tenant_id = p_tenant_id
+      AND vehicle_id = p_vehicle_id
+      AND status = 'ACTIVATED'
+    LIMIT 1
+  ) THEN
+    SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'Vehicle already has an activated QR tag';
+  END IF;
+
+  UPDATE qr_tags
+  SET status='ACTIVATED', activated_at=NOW(), vehicle_id=p_vehicle_id
+  WHERE qr_tag_id=v_tag_id;
+
+  -- ✅ public tarama indeksi
+  INSERT INTO qr_tag_changes (qr_tag_id, tenant_id, token_hash, vehicle_id, status)
+  VALUES (v_tag_id, p_tenant_id, p_token_hash, p_vehicle_id, 'ACTIVATED');
+
+  UPDATE vehicle_public_tokens
+  SET is_active = 0, rotated_at = NOW()
+  WHERE tenant_id = p_tenant_id
+    AND vehicle_id = p_vehicle_id
+    AND is_active = 1;
+
+  INSERT INTO vehicle_public_tokens (vehicle_id, tenant_id, token_hash, is_active, rotated_at)
+  VALUES (p_vehicle_id, p_tenant_id, p_token_hash, 1, NOW());
+
+  COMMIT;
+END $$
+
+CREATE PROCEDURE sp_revoke_qr_tag(
+  IN p_tenant_id BIGINT UNSIGNED,
+  IN p_token_hash BINARY(32)
+)
+BEGIN
+  DECLARE EXIT HANDLER FOR SQLEXCEPTION
+  BEGIN
+    ROLLBACK;
+    RESIGNAL;
+  END;
+
+  START TRANSACTION;
+
+  UPDATE qr_tags
+  SET status='REVOKED'
+  WHERE tenant_id = p_tenant_id
+    AND token_hash = p_token_hash
+    AND status <> 'REVOKED';
+
+  IF ROW_COUNT() > 0 THEN
+    -- ✅ public tarama indeksi
+    INSERT INTO qr_tag_changes (qr_tag_id, tenant_id, token_hash, vehicle_id, status)
+    SELECT qr_tag_id, tenant_id, token_hash, vehicle_id, 'REVOKED'
+    FROM qr_tags
+    WHERE tenant_id = p_tenant_id
+      AND token_hash = p_token_hash;
+
+    UPDATE vehicle_public_tokens
+    SET is_active = 0, rotated_at = NOW()
+    WHERE tenant_id = p_tenant_id
+      AND token_hash = p_token_hash
+      AND is_active = 1;
+  END IF;
+
+  COMMIT;
+END $$
+
+DELIMITER ;
@@ -0,0 +1,10 @@
+-- =========================================================
+-- 008) Per-channel reminder delivery
+-- sent_channels records which channels (bit 1 = e-mail,
+-- bit 2 = SMS) already delivered a reminder, so a retry after
+-- a partial failure only sends on the channels that failed.
+-- =========================================================
+USE fleet_service_db;
+
+ALTER TABLE reminders
+  ADD COLUMN sent_channels TINYINT UNSIGNED NOT NULL DEFAULT 0 AFTER sent_at;
@@ -0,0 +1,62 @@
+package com.osman.vssfx.analytics;
+
+import com.osman.vssfx.analytics.MaintenanceCube.Cell;
+import com.osman.vssfx.analytics.MaintenanceCube.Dimension;
+import com.osman.vssfx.analytics.MaintenanceCube.Slice;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/** Pivots over a synthetic cube: top level by month / customer, and a two-level drill-down. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MaintenanceCubeBench {
+
+    private static final String[] MAKES = {"Ford", "Fiat", "Renault", "Toyota", "Volkswagen", "Hyundai"};
+    private static final String[] TYPES = {"Periyodik", "Lastik", "Fren", "Yağ", "Akü", "Kaporta", "Elektrik"};
+
+    @Param({"100000", "1000000", "5000000"})
+    public int rows;
+
+    private MaintenanceCube cube;
+    private Slice drilled;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SplittableRandom r = new SplittableRandom(42);
+        MaintenanceCube.Builder b = MaintenanceCube.builder();
+        int customers = Math.max(10, rows / 50);
+
+        for (int i = 0; i < rows; i++) {
+            String make = MAKES[r.nextInt(MAKES.length)];
+            long customer = r.nextInt(10) == 0 ? 0 : 1 + r.nextInt(customers);
+            b.add(2015 * 12 + r.nextInt(120), TYPES[r.nextInt(TYPES.length)], make, "M" + r.nextInt(8),
+                    customer, "Müşteri " + customer, 5_000 + r.nextInt(2_000_000));
+        }
+        cube = b.build();
+
+        List<Cell> byMake = cube.pivot(Dimension.MAKE_MODEL, Slice.all());
+        List<Cell> byType = cube.pivot(Dimension.TYPE, Slice.all());
+        drilled = Slice.all()
+                .with(Dimension.MAKE_MODEL, byMake.get(0).code())
+                .with(Dimension.TYPE, byType.get(0).code());
+    }
+
+    @Benchmark
+    public List<Cell> byMonth() {
+        return cube.pivot(Dimension.MONTH, Slice.all());
+    }
+
+    @Benchmark
+    public List<Cell> byCustomer() {
+        return cube.pivot(Dimension.CUSTOMER, Slice.all());
+    }
+
+    @Benchmark
+    public List<Cell> drilledByMonth() {
+        return cube.pivot(Dimension.MONTH, drilled);
+    }
+}
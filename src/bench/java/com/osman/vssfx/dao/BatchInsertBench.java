@@ -0,0 +1,85 @@
+package com.osman.vssfx.dao;
+
+import com.osman.vssfx.db.Db;
+import com.osman.vssfx.model.Customer;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CustomerDAO.insertBatch against one INSERT per row, on an in-memory H2 database in MySQL
+ * mode. H2 has no network round trip, so the real gap on MySQL is larger than shown here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class BatchInsertBench {
+
+    static {
+        // Db/DbConfig okunmadan önce
+        System.setProperty("db.driver", "org.h2.Driver");
+        System.setProperty("db.url", "jdbc:h2:mem:bench;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        System.setProperty("db.user", "sa");
+        System.setProperty("db.password", "bench");
+    }
+
+    private static final String INSERT_SQL = """
+            INSERT INTO customers (tenant_id, first_name, last_name, phone, email, user_id)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    @Param({"1000", "10000"})
+    public int rows;
+
+    private final CustomerDAO dao = new CustomerDAO();
+    private List<Customer> data;
+
+    @Setup(Level.Trial)
+    public void schema() throws SQLException {
+        try (Connection c = Db.getConnection(); Statement st = c.createStatement()) {
+            st.execute("""
+                    CREATE TABLE IF NOT EXISTS customers (
+                      customer_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                      tenant_id BIGINT NOT NULL,
+                      first_name VARCHAR(80) NOT NULL,
+                      last_name VARCHAR(80) NOT NULL,
+                      phone VARCHAR(30),
+                      email VARCHAR(150),
+                      user_id BIGINT,
+                      created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                    )
+                    """);
+        }
+        data = SyntheticData.customers(rows);
+        for (Customer c : data) c.setCustomerId(null);
+    }
+
+    @Setup(Level.Invocation)
+    public void truncate() throws SQLException {
+        try (Connection c = Db.getConnection(); Statement st = c.createStatement()) {
+            st.execute("TRUNCATE TABLE customers");
+        }
+    }
+
+    @Benchmark
+    public BatchResult batched() throws SQLException {
+        return dao.insertBatch(1L, data);
+    }
+
+    @Benchmark
+    public long rowByRow() throws SQLException {
+        long last = 0;
+        for (Customer c : data) {
+            last = Jdbc.query("bench.insert", INSERT_SQL).params(
+                    1L, c.getFirstName(), c.getLastName(), c.getPhone(), c.getEmail(), c.getUserId()
+            ).insertKey();
+        }
+        return last;
+    }
+}
@@ -0,0 +1,75 @@
+package com.osman.vssfx.dao;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Forward-only ResultSet over in-memory rows, so mapping can be measured without a server.
+ * Name-based getters resolve the label on every call, as a driver does; both mapping styles
+ * pay the same proxy dispatch, so only the difference between them is meaningful.
+ */
+final class MockResultSet {
+
+    private MockResultSet() {}
+
+    static ResultSet of(String[] labels, Object[][] rows) {
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < labels.length; i++) index.put(labels[i], i + 1);
+
+        ResultSetMetaData md = (ResultSetMetaData) Proxy.newProxyInstance(
+                MockResultSet.class.getClassLoader(), new Class<?>[]{ResultSetMetaData.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getColumnCount" -> labels.length;
+                    case "getColumnLabel", "getColumnName" -> labels[(Integer) args[0] - 1];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+
+        var state = new Object() {
+            int cursor = -1;
+            boolean wasNull;
+
+            Object value(Object column) throws SQLException {
+                int i = column instanceof Integer n ? n : find((String) column);
+                Object v = rows[cursor][i - 1];
+                wasNull = v == null;
+                return v;
+            }
+
+            int find(String label) throws SQLException {
+                Integer i = index.get(label);
+                if (i == null) i = index.get(label.toLowerCase(Locale.ROOT));
+                if (i == null) throw new SQLException("Column not found: " + label);
+                return i;
+            }
+        };
+
+        return (ResultSet) Proxy.newProxyInstance(
+                MockResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "next" -> ++state.cursor < rows.length;
+                    case "wasNull" -> state.wasNull;
+                    case "getMetaData" -> md;
+                    case "findColumn" -> state.find((String) args[0]);
+                    case "getLong" -> state.value(args[0]) instanceof Number n ? n.longValue() : 0L;
+                    case "getInt" -> state.value(args[0]) instanceof Number n ? n.intValue() : 0;
+                    case "getString" -> (String) state.value(args[0]);
+                    case "getBigDecimal" -> (BigDecimal) state.value(args[0]);
+                    case "getDate" -> state.value(args[0]) instanceof LocalDate d ? Date.valueOf(d) : null;
+                    case "getTimestamp" -> state.value(args[0]) instanceof LocalDateTime t ? Timestamp.valueOf(t) : null;
+                    case "getObject" -> state.value(args[0]);
+                    case "close" -> null;
+                    case "isClosed" -> false;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
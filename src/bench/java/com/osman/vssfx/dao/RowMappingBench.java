@@ -0,0 +1,80 @@
+package com.osman.vssfx.dao;
+
+import com.osman.vssfx.model.Vehicle;
+import com.osman.vssfx.model.VehicleStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * VehicleDAO row mapping: the shared index-based mapper against the previous per-row
+ * name lookups. Run with {@code -prof gc} to compare allocation per row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RowMappingBench {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private Object[][] data;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        data = SyntheticData.vehicleRows(rows);
+    }
+
+    @Benchmark
+    public List<Vehicle> indexMapper() throws SQLException {
+        ResultSet rs = MockResultSet.of(SyntheticData.VEHICLE_COLUMNS, data);
+        RowMapper<Vehicle> mapper = VehicleDAO.VEHICLE.create(new Columns(rs.getMetaData()));
+
+        List<Vehicle> out = new ArrayList<>();
+        while (rs.next()) out.add(mapper.map(rs));
+        return out;
+    }
+
+    @Benchmark
+    public List<Vehicle> nameLookupMapper() throws SQLException {
+        ResultSet rs = MockResultSet.of(SyntheticData.VEHICLE_COLUMNS, data);
+
+        List<Vehicle> out = new ArrayList<>();
+        while (rs.next()) out.add(mapByName(rs));
+        return out;
+    }
+
+    // Önceki VehicleDAO.map: her satırda kolon adıyla arama, Date/Timestamp ara nesneleri
+    private static Vehicle mapByName(ResultSet rs) throws SQLException {
+        Vehicle v = new Vehicle();
+        v.setVehicleId(rs.getLong("vehicle_id"));
+        v.setTenantId(rs.getLong("tenant_id"));
+
+        long cust = rs.getLong("customer_id");
+        v.setCustomerId(rs.wasNull() ? null : cust);
+
+        v.setPublicId(rs.getString("public_id"));
+        v.setPlateNo(rs.getString("plate_no"));
+        v.setVinNo(rs.getString("vin_no"));
+        v.setMake(rs.getString("make"));
+        v.setModel(rs.getString("model"));
+        v.setModelYear(rs.getInt("model_year"));
+        v.setColour(rs.getString("colour"));
+        v.setCurrentKm(rs.getLong("current_km"));
+        v.setStatus(VehicleStatus.fromDb(rs.getString("status")));
+        v.setNotes(rs.getString("notes"));
+
+        Date d = rs.getDate("service_entry_date");
+        v.setServiceEntryDate(d == null ? null : d.toLocalDate());
+
+        Timestamp ts = rs.getTimestamp("created_at");
+        v.setCreatedAt(ts == null ? null : ts.toLocalDateTime());
+        return v;
+    }
+}
@@ -0,0 +1,72 @@
+package com.osman.vssfx.dao;
+
+import com.osman.vssfx.model.Customer;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/** Deterministic synthetic rows shaped like the vehicle / customers tables. */
+public final class SyntheticData {
+
+    static final String[] VEHICLE_COLUMNS = {
+            "vehicle_id", "tenant_id", "customer_id", "public_id",
+            "plate_no", "vin_no", "make", "model", "model_year", "colour",
+            "current_km", "status", "notes", "service_entry_date", "created_at"
+    };
+
+    private static final String[] MAKES = {"Fiat", "Renault", "Ford", "Toyota", "Volkswagen", "Hyundai", "Opel", "Peugeot"};
+    private static final String[] MODELS = {"Egea", "Clio", "Focus", "Corolla", "Passat", "i20", "Astra", "3008"};
+    private static final String[] COLOURS = {"Beyaz", "Siyah", "Gri", "Kırmızı", null};
+    private static final String[] STATUSES = {"ACTIVE", "IN_SERVICE", "ASSIGNED", "INACTIVE"};
+    private static final String[] FIRST = {"Ahmet", "Mehmet", "Ayşe", "Fatma", "Emre", "Zeynep", "İsmail", "Şule"};
+    private static final String[] LAST = {"Yılmaz", "Kaya", "Demir", "Çelik", "Şahin", "Öztürk", "Aydın", "Arslan"};
+
+    private SyntheticData() {}
+
+    /** Vehicle rows in {@link #VEHICLE_COLUMNS} order, id descending like the DAO queries. */
+    static Object[][] vehicleRows(int n) {
+        SplittableRandom r = new SplittableRandom(42);
+        LocalDateTime created = LocalDateTime.of(2024, 1, 1, 9, 0);
+        Object[][] rows = new Object[n][];
+
+        for (int i = 0; i < n; i++) {
+            long id = n - i;
+            rows[i] = new Object[]{
+                    id, 1L, r.nextInt(4) == 0 ? null : (Object) (long) r.nextInt(1, 5_000),
+                    "00000000-0000-4000-8000-" + String.format("%012d", id),
+                    plate(r, id), r.nextBoolean() ? null : "VF1" + id,
+                    MAKES[r.nextInt(MAKES.length)], MODELS[r.nextInt(MODELS.length)],
+                    2005 + r.nextInt(20), COLOURS[r.nextInt(COLOURS.length)],
+                    (long) r.nextInt(400_000), STATUSES[r.nextInt(STATUSES.length)],
+                    r.nextInt(3) == 0 ? "Not " + id : null,
+                    r.nextBoolean() ? LocalDate.of(2024, 1 + r.nextInt(12), 1 + r.nextInt(28)) : null,
+                    created.plusMinutes(id)
+            };
+        }
+        return rows;
+    }
+
+    public static List<Customer> customers(int n) {
+        SplittableRandom r = new SplittableRandom(7);
+        List<Customer> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Customer c = new Customer();
+            c.setCustomerId((long) (n - i));
+            c.setTenantId(1L);
+            c.setFirstName(FIRST[r.nextInt(FIRST.length)]);
+            c.setLastName(LAST[r.nextInt(LAST.length)]);
+            c.setPhone(r.nextInt(5) == 0 ? null : "0555" + (1_000_000 + r.nextInt(9_000_000)));
+            c.setEmail(r.nextInt(3) == 0 ? null : "musteri" + i + "@ornek.com");
+            out.add(c);
+        }
+        return out;
+    }
+
+    private static String plate(SplittableRandom r, long id) {
+        return String.format("%02d %c%c %d", 1 + r.nextInt(81),
+                (char) ('A' + r.nextInt(26)), (char) ('A' + r.nextInt(26)), id);
+    }
+}
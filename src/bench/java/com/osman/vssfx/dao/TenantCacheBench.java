@@ -0,0 +1,63 @@
+package com.osman.vssfx.dao;
+
+import com.osman.vssfx.model.Vehicle;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.SQLException;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Cache hit, page slicing and single-row patching on one tenant's cached vehicle list. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TenantCacheBench {
+
+    private static final long TENANT = 1L;
+    private static final int PAGE = 200;
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private TenantCache<Vehicle> cache;
+    private List<Vehicle> loaded;
+    private Vehicle updated;
+    private long midId;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        ResultSet rs = MockResultSet.of(SyntheticData.VEHICLE_COLUMNS, SyntheticData.vehicleRows(rows));
+        RowMapper<Vehicle> mapper = VehicleDAO.VEHICLE.create(new Columns(rs.getMetaData()));
+        loaded = new ArrayList<>(rows);
+        while (rs.next()) loaded.add(mapper.map(rs));
+
+        cache = new TenantCache<>(Vehicle::getVehicleId, 64, 3600);
+        cache.get(TENANT, tid -> loaded);
+
+        midId = loaded.get(rows / 2).getVehicleId();
+        updated = loaded.get(rows / 2);
+    }
+
+    @Benchmark
+    public List<Vehicle> hit() throws SQLException {
+        return cache.get(TENANT, tid -> { throw new IllegalStateException("miss"); });
+    }
+
+    /** What VehicleDAO.findPageByTenant does for a cached tenant, mid-list. */
+    @Benchmark
+    public List<Vehicle> page() {
+        List<Vehicle> all = cache.peek(TENANT);
+        int pos = cache.indexOf(all, midId);
+        int from = pos >= 0 ? pos + 1 : -pos - 1;
+        return new ArrayList<>(all.subList(from, Math.min(all.size(), from + PAGE)));
+    }
+
+    /** Write path: replace one row (copy-on-write of the tenant list). */
+    @Benchmark
+    public int patchRow() {
+        cache.put(TENANT, updated);
+        return cache.peek(TENANT).size();
+    }
+}
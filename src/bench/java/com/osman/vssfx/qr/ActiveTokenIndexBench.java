@@ -0,0 +1,60 @@
+package com.osman.vssfx.qr;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/** Scan resolution in memory: known token, unknown token, and the SHA-256 in front of both. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ActiveTokenIndexBench {
+
+    private static final int PROBES = 1024;
+
+    @Param({"10000", "1000000"})
+    public int tokens;
+
+    private ActiveTokenIndex index;
+    private String[] knownTokens;
+    private byte[][] known;
+    private byte[][] unknown;
+    private int i;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SecureRandom random = new SecureRandom();
+        index = new ActiveTokenIndex(tokens);
+        knownTokens = new String[PROBES];
+        known = new byte[PROBES][];
+        unknown = new byte[PROBES][];
+
+        for (int n = 0; n < tokens; n++) {
+            String token = QrTokens.newToken(random);
+            byte[] h = TokenHasher.hash(token);
+            index.put(h, 1, n + 1);
+            if (n < PROBES) {
+                knownTokens[n] = token;
+                known[n] = h;
+            }
+        }
+        for (int n = 0; n < PROBES; n++) unknown[n] = TokenHasher.hash(QrTokens.newToken(random));
+    }
+
+    @Benchmark
+    public ActiveTokenIndex.Target hit() {
+        return index.get(known[i++ & (PROBES - 1)]);
+    }
+
+    @Benchmark
+    public ActiveTokenIndex.Target miss() {
+        return index.get(unknown[i++ & (PROBES - 1)]);
+    }
+
+    /** What a scan costs before any I/O. */
+    @Benchmark
+    public ActiveTokenIndex.Target hashAndHit() {
+        return index.get(TokenHasher.hash(knownTokens[i++ & (PROBES - 1)]));
+    }
+}
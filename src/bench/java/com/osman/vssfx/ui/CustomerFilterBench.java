@@ -0,0 +1,59 @@
+package com.osman.vssfx.ui;
+
+import com.osman.vssfx.dao.SyntheticData;
+import com.osman.vssfx.model.Customer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/** One keystroke in the Customers search box: the predicate evaluated over every row. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CustomerFilterBench {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"ay", "0555123", "ornek.com"})
+    public String query;
+
+    private List<Customer> customers;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        customers = SyntheticData.customers(rows);
+    }
+
+    @Benchmark
+    public int filters() {
+        return count(Filters.customer(query));
+    }
+
+    @Benchmark
+    public int lowerCaseCopies() {
+        return count(legacy(query));
+    }
+
+    private int count(Predicate<Customer> p) {
+        int n = 0;
+        for (Customer c : customers) if (p.test(c)) n++;
+        return n;
+    }
+
+    // Önceki CustomersController.applyFilter: her satırda dört toLowerCase kopyası
+    private static Predicate<Customer> legacy(String q) {
+        String s = q == null ? "" : q.trim().toLowerCase();
+        return c -> {
+            if (s.isEmpty()) return true;
+            return safe(c.getFirstName()).contains(s)
+                    || safe(c.getLastName()).contains(s)
+                    || safe(c.getPhone()).contains(s)
+                    || safe(c.getEmail()).contains(s);
+        };
+    }
+
+    private static String safe(String x) { return x == null ? "" : x.toLowerCase(); }
+}
@@ -0,0 +1,68 @@
+package com.osman.vssfx.ui;
+
+import com.osman.vssfx.dao.SyntheticData;
+import com.osman.vssfx.model.Customer;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filling the ObservableList behind a table (no toolkit needed): one setAll, page-sized
+ * addAll calls as KeysetPager does, row-by-row add, and re-filtering a FilteredList.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ListPopulationBench {
+
+    private static final int PAGE = 200;
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private List<Customer> data;
+    private ObservableList<Customer> target;
+    private FilteredList<Customer> filtered;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        data = SyntheticData.customers(rows);
+    }
+
+    @Setup(Level.Invocation)
+    public void fresh() {
+        target = FXCollections.observableArrayList();
+        filtered = new FilteredList<>(target, c -> true);
+    }
+
+    @Benchmark
+    public int setAll() {
+        target.setAll(data);
+        return filtered.size();
+    }
+
+    @Benchmark
+    public int pagedAddAll() {
+        for (int from = 0; from < data.size(); from += PAGE) {
+            target.addAll(data.subList(from, Math.min(data.size(), from + PAGE)));
+        }
+        return filtered.size();
+    }
+
+    @Benchmark
+    public int addEach() {
+        for (Customer c : data) target.add(c);
+        return filtered.size();
+    }
+
+    @Benchmark
+    public int refilter() {
+        target.setAll(data);
+        filtered.setPredicate(Filters.customer("ay"));
+        return filtered.size();
+    }
+}
@@ -0,0 +1,31 @@
+package com.osman.vssfx.analytics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Dense int codes for the distinct values of one column; codes are assigned in first-seen order. */
+final class Dictionary {
+
+    private final Map<Object, Integer> codes = new HashMap<>();
+    private final List<String> labels = new ArrayList<>();
+
+    int encode(Object key, String label) {
+        Integer code = codes.get(key);
+        if (code != null) return code;
+
+        code = labels.size();
+        codes.put(key, code);
+        labels.add(label);
+        return code;
+    }
+
+    String label(int code) {
+        return labels.get(code);
+    }
+
+    int size() {
+        return labels.size();
+    }
+}
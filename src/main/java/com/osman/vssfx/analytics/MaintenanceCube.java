@@ -0,0 +1,250 @@
+package com.osman.vssfx.analytics;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * A tenant's maintenance rows held column-wise in primitive arrays, for pivots that do not go
+ * back to the database.
+ * <p>
+ * Cost is kept as long cents; type, make/model and customer are dictionary-encoded ints and
+ * the month is a dense index from the earliest month. A pivot is one pass over the key
+ * column summing into per-code arrays; large cubes are split across the common pool and
+ * the partial sums merged. Instances are immutable and safe to share between threads.
+ */
+public final class MaintenanceCube {
+
+    public enum Dimension {
+        MONTH("Ay"), MAKE_MODEL("Marka / Model"), TYPE("Bakım Türü"), CUSTOMER("Müşteri");
+
+        private final String label;
+
+        Dimension(String label) { this.label = label; }
+
+        @Override public String toString() { return label; }
+    }
+
+    /** One pivot row. */
+    public record Cell(Dimension dimension, int code, String label, long count, long costCents) {
+        public BigDecimal cost() {
+            return BigDecimal.valueOf(costCents, 2);
+        }
+    }
+
+    /** Drill-down filter: for each dimension either one fixed code or all. Immutable. */
+    public static final class Slice {
+        private static final Slice ALL = new Slice(filled(-1));
+
+        private final int[] codes;
+
+        private Slice(int[] codes) { this.codes = codes; }
+
+        public static Slice all() { return ALL; }
+
+        public Slice with(Dimension d, int code) {
+            int[] next = codes.clone();
+            next[d.ordinal()] = code;
+            return new Slice(next);
+        }
+
+        public boolean isFixed(Dimension d) { return codes[d.ordinal()] >= 0; }
+
+        int code(Dimension d) { return codes[d.ordinal()]; }
+
+        private static int[] filled(int v) {
+            int[] a = new int[Dimension.values().length];
+            Arrays.fill(a, v);
+            return a;
+        }
+    }
+
+    // Bu boyutun altında tek thread daha hızlı
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private final int size;
+    private final int[][] keys; // Dimension.ordinal() -> kod sütunu
+    private final long[] costCents;
+
+    private final int firstMonth;
+    private final int monthCount;
+    private final Dictionary makeModels, types, customers;
+
+    private MaintenanceCube(Builder b) {
+        this.size = b.size;
+        this.costCents = Arrays.copyOf(b.costCents, b.size);
+
+        int minMonth = Integer.MAX_VALUE, maxMonth = Integer.MIN_VALUE;
+        for (int i = 0; i < b.size; i++) {
+            minMonth = Math.min(minMonth, b.months[i]);
+            maxMonth = Math.max(maxMonth, b.months[i]);
+        }
+        this.firstMonth = b.size == 0 ? 0 : minMonth;
+        this.monthCount = b.size == 0 ? 0 : maxMonth - minMonth + 1;
+
+        int[] months = new int[b.size];
+        for (int i = 0; i < b.size; i++) months[i] = b.months[i] - firstMonth;
+
+        this.keys = new int[Dimension.values().length][];
+        keys[Dimension.MONTH.ordinal()] = months;
+        keys[Dimension.MAKE_MODEL.ordinal()] = Arrays.copyOf(b.makeModelCodes, b.size);
+        keys[Dimension.TYPE.ordinal()] = Arrays.copyOf(b.typeCodes, b.size);
+        keys[Dimension.CUSTOMER.ordinal()] = Arrays.copyOf(b.customerCodes, b.size);
+
+        this.makeModels = b.makeModels;
+        this.types = b.types;
+        this.customers = b.customers;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int cardinality(Dimension d) {
+        return switch (d) {
+            case MONTH -> monthCount;
+            case MAKE_MODEL -> makeModels.size();
+            case TYPE -> types.size();
+            case CUSTOMER -> customers.size();
+        };
+    }
+
+    public String label(Dimension d, int code) {
+        return switch (d) {
+            case MONTH -> {
+                int m = firstMonth + code;
+                yield String.format("%04d-%02d", m / 12, m % 12 + 1);
+            }
+            case MAKE_MODEL -> makeModels.label(code);
+            case TYPE -> types.label(code);
+            case CUSTOMER -> customers.label(code);
+        };
+    }
+
+    /**
+     * Count and cost per value of {@code by} over the rows in {@code slice}. Months come back in
+     * calendar order, everything else by cost descending; empty groups are left out.
+     */
+    public List<Cell> pivot(Dimension by, Slice slice) {
+        int card = cardinality(by);
+        int[] key = keys[by.ordinal()];
+
+        List<int[]> filterCols = new ArrayList<>();
+        List<Integer> filterCodes = new ArrayList<>();
+        for (Dimension d : Dimension.values()) {
+            if (!slice.isFixed(d)) continue;
+            filterCols.add(keys[d.ordinal()]);
+            filterCodes.add(slice.code(d));
+        }
+        int[][] fcols = filterCols.toArray(new int[0][]);
+        int[] fcodes = filterCodes.stream().mapToInt(Integer::intValue).toArray();
+
+        Partial total;
+        if (size < PARALLEL_THRESHOLD) {
+            total = aggregate(0, size, key, card, fcols, fcodes);
+        } else {
+            int chunks = ForkJoinPool.getCommonPoolParallelism() + 1;
+            int step = (size + chunks - 1) / chunks;
+            total = IntStream.range(0, chunks).parallel()
+                    .mapToObj(c -> aggregate(c * step, Math.min(size, (c + 1) * step), key, card, fcols, fcodes))
+                    .reduce(Partial::merge)
+                    .orElseGet(() -> new Partial(card));
+        }
+
+        List<Cell> cells = new ArrayList<>();
+        for (int code = 0; code < card; code++) {
+            if (total.counts[code] == 0) continue;
+            cells.add(new Cell(by, code, label(by, code), total.counts[code], total.sums[code]));
+        }
+
+        if (by != Dimension.MONTH) {
+            cells.sort(Comparator.comparingLong(Cell::costCents).reversed());
+        }
+        return cells;
+    }
+
+    private record Partial(long[] counts, long[] sums) {
+        Partial(int card) { this(new long[card], new long[card]); }
+
+        Partial merge(Partial o) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += o.counts[i];
+                sums[i] += o.sums[i];
+            }
+            return this;
+        }
+    }
+
+    private Partial aggregate(int from, int to, int[] key, int card, int[][] fcols, int[] fcodes) {
+        Partial p = new Partial(card);
+        long[] counts = p.counts, sums = p.sums;
+
+        rows:
+        for (int i = from; i < to; i++) {
+            for (int f = 0; f < fcodes.length; f++) {
+                if (fcols[f][i] != fcodes[f]) continue rows;
+            }
+            int k = key[i];
+            counts[k]++;
+            sums[k] += costCents[i];
+        }
+        return p;
+    }
+
+    /** Appends rows while a result is streamed; not thread-safe. */
+    public static final class Builder {
+        private int size;
+        private int[] months = new int[1024];
+        private int[] makeModelCodes = new int[1024];
+        private int[] typeCodes = new int[1024];
+        private int[] customerCodes = new int[1024];
+        private long[] costCents = new long[1024];
+
+        private final Dictionary makeModels = new Dictionary();
+        private final Dictionary types = new Dictionary();
+        private final Dictionary customers = new Dictionary();
+
+        private Builder() {}
+
+        /**
+         * @param monthIndex year * 12 + (month - 1)
+         * @param customerId 0 if the vehicle has no customer
+         */
+        public Builder add(int monthIndex, String type, String make, String model,
+                           long customerId, String customerName, long cents) {
+            if (size == months.length) grow();
+
+            String makeModel = make + " " + model;
+            months[size] = monthIndex;
+            makeModelCodes[size] = makeModels.encode(makeModel, makeModel);
+            typeCodes[size] = types.encode(type, type);
+            customerCodes[size] = customerId == 0
+                    ? customers.encode(0L, "(Müşterisiz)")
+                    : customers.encode(customerId, customerName);
+            costCents[size] = cents;
+            size++;
+            return this;
+        }
+
+        public MaintenanceCube build() {
+            return new MaintenanceCube(this);
+        }
+
+        private void grow() {
+            int n = months.length * 2;
+            months = Arrays.copyOf(months, n);
+            makeModelCodes = Arrays.copyOf(makeModelCodes, n);
+            typeCodes = Arrays.copyOf(typeCodes, n);
+            customerCodes = Arrays.copyOf(customerCodes, n);
+            costCents = Arrays.copyOf(costCents, n);
+        }
+    }
+}
@@ -1,31 +1,108 @@
 package com.osman.vssfx.app;
 
 import javafx.application.Application;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
+import javafx.application.Platform;
 import javafx.stage.Stage;
 
+import java.util.concurrent.CompletableFuture;
+
 public class MainApp extends Application {
+
+    private Startup startup;
+    private boolean stopping;
+
+    // arka planda başlatılır, stop() ile kapanır (ikisi de bu nesne üzerinde senkronize)
+    private com.osman.vssfx.reminders.ReminderDispatcher reminders;
+    private com.osman.vssfx.reminders.ServiceReminderGenerator serviceReminders;
+    private com.osman.vssfx.web.PublicScanServer publicScan;
+
     @Override
     public void start(Stage stage) throws Exception {
-        var url = getClass().getResource("/com/osman/vssfx/ui/views/LoginView.fxml");
-        if (url == null) throw new IllegalStateException("LoginView.fxml bulunamadı!");
+        startup = new Startup();
+
+        // 1) FX thread: sadece giriş ekranı, pencere hemen görünsün
+        startup.shown(() -> {
+            var scene = com.osman.vssfx.ui.AppNavigator.createScene(com.osman.vssfx.ui.AppNavigator.View.LOGIN, 1100, 700);
+
+            // UI tercihleri burada bir kez okunur; sonrası bellekten, yazma arka planda
+            var theme = com.osman.vssfx.ui.ThemeManager.loadTheme();
+            com.osman.vssfx.ui.ThemeManager.apply(scene, theme);
+
+            stage.setTitle("Araç Takip Sistemi");
+            stage.setScene(scene);
+            com.osman.vssfx.ui.ViewState.bindWindow(stage, "window");
+            stage.show();
+        });
+
+        // 2) arka planda, paralel: kullanıcı giriş bilgilerini yazarken biter
+        // JDBC sürücüsü + havuz (Db static init), ping, kalan bağlantılar
+        CompletableFuture<Void> db = startup.async("db", () -> {
+            System.out.println("DB Ping: " + com.osman.vssfx.db.Db.ping());
+            com.osman.vssfx.db.Db.prefill();
+        });
 
-        var loader = new FXMLLoader(url);
-        Parent root = (Parent) loader.load();   // ✅ cast
+        // ana ekran ve sekmelerinin sınıfları (ilk açılışta sadece nesne üretilsin)
+        CompletableFuture<Void> ui = startup.async("ui", () -> com.osman.vssfx.ui.FxmlWarmup.preload(
+                com.osman.vssfx.ui.FxmlWarmup.withTabs("MainView.fxml")));
 
-        var scene = new Scene(root, 1100, 700);
+        // girişten sonra en olası ekran: kayıt (giriş ekranı zaten önbellekte)
+        CompletableFuture<Void> views = startup.async("views",
+                () -> com.osman.vssfx.ui.AppNavigator.preload(com.osman.vssfx.ui.AppNavigator.View.REGISTER));
 
-        var theme = com.osman.vssfx.ui.ThemeManager.loadTheme();
-        com.osman.vssfx.ui.ThemeManager.apply(scene, theme);
+        // BCrypt maliyetini bu makineye göre ölç (kendi havuzunda sürer, ilk girişten önce biter)
+        CompletableFuture<Void> auth = startup.async("auth", () -> com.osman.vssfx.auth.PasswordHasher.shared().start());
 
+        // DAO metrikleri: jconsole / VisualVM -> com.osman.vssfx:type=DaoMetrics
+        CompletableFuture<Void> jmx = startup.async("jmx", com.osman.vssfx.metrics.Metrics::registerJmx);
 
-        System.out.println("DB Ping: " + com.osman.vssfx.db.Db.ping());
+        // veritabanına bağlı arka plan servisleri
+        CompletableFuture<Void> services = startup.after(db, "services", this::startServices);
 
-        stage.setTitle("Araç Takip Sistemi");
-        stage.setScene(scene);
-        stage.show();
+        startup.report(db, ui, views, auth, jmx, services).thenRun(() -> {
+            // AppCDS eğitim çalıştırması (-Pappcds,appcds-train): ısındıktan sonra kapan, arşiv yazılsın
+            if (Boolean.getBoolean("vssfx.startup.exitWhenWarm")) Platform.exit();
+        });
+    }
+
+    private synchronized void startServices() throws Exception {
+        if (stopping) return;
+
+        // vadesi gelen hatırlatmaları gönderir (birden çok örnek aynı anda çalışabilir)
+        if (com.osman.vssfx.config.AppConfig.remindersEnabled()) {
+            reminders = com.osman.vssfx.reminders.ReminderDispatcher.fromConfig();
+            reminders.start();
+        }
+
+        // bakım kurallarından (km / ay) hatırlatma üretir; sadece değişen araçlar yeniden hesaplanır
+        if (com.osman.vssfx.config.AppConfig.serviceGeneratorEnabled()) {
+            serviceReminders = com.osman.vssfx.reminders.ServiceReminderGenerator.fromConfig();
+            serviceReminders.start();
+        }
+
+        // QR taramaları için herkese açık uç (varsayılan kapalı)
+        if (com.osman.vssfx.config.AppConfig.publicScanEnabled()) {
+            publicScan = com.osman.vssfx.web.PublicScanServer.fromConfig();
+            try {
+                publicScan.start();
+            } catch (java.io.IOException e) {
+                System.err.println("[public-scan] not started: " + e.getMessage());
+                publicScan = null;
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (startup != null) startup.cancel();
+        synchronized (this) {
+            stopping = true;
+            if (publicScan != null) publicScan.close();
+            if (serviceReminders != null) serviceReminders.close();
+            if (reminders != null) reminders.close();
+        }
+        com.osman.vssfx.auth.PasswordHasher.shared().close();
+        com.osman.vssfx.db.Db.shutdown();
+        com.osman.vssfx.ui.UiPrefs.flush(); // bekleyen pencere / tablo değişiklikleri
     }
 
     public static void main(String[] args) { launch(args); }
@@ -0,0 +1,109 @@
+package com.osman.vssfx.app;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Startup phases and their timings. The FX-thread phase ends with {@code stage.show()}; after
+ * that, independent phases run in parallel on a few daemon threads and dependent ones chain
+ * with {@link #after}. {@link #report} prints one line once everything has finished:
+ * <pre>
+ * [startup] shown 310 ms (jvm 890 ms) | db 420 ms | ui 160 ms | auth 8 ms | services 5 ms | ready 760 ms
+ * </pre>
+ * A failing phase is logged and reported as FAILED; phases that depend on it do not run.
+ */
+final class Startup {
+
+    @FunctionalInterface
+    interface Phase {
+        void run() throws Exception;
+    }
+
+    private record Timing(String name, long nanos, boolean failed) {}
+
+    private final long t0 = System.nanoTime();
+    private final List<Timing> timings = new ArrayList<>();
+    private final ExecutorService pool;
+    private long shownAt;
+
+    Startup() {
+        AtomicInteger n = new AtomicInteger();
+        int threads = Math.min(4, Math.max(2, Runtime.getRuntime().availableProcessors()));
+        pool = Executors.newFixedThreadPool(threads,
+                r -> Thread.ofPlatform().daemon().name("startup-" + n.incrementAndGet()).unstarted(r));
+    }
+
+    /** Runs on the calling (FX) thread; marks the moment the window is visible. */
+    void shown(Phase phase) throws Exception {
+        long start = System.nanoTime();
+        phase.run();
+        shownAt = System.nanoTime();
+        record("shown", shownAt - start, false);
+    }
+
+    CompletableFuture<Void> async(String name, Phase phase) {
+        return CompletableFuture.runAsync(() -> timed(name, phase), pool);
+    }
+
+    CompletableFuture<Void> after(CompletableFuture<?> dependency, String name, Phase phase) {
+        return dependency.thenRunAsync(() -> timed(name, phase), pool);
+    }
+
+    /** Prints the report when all phases are done, then releases the threads. */
+    CompletableFuture<Void> report(CompletableFuture<?>... phases) {
+        return CompletableFuture.allOf(phases)
+                .handle((ok, e) -> null)
+                .thenRun(() -> {
+                    System.err.println(line(System.nanoTime()));
+                    pool.shutdown();
+                });
+    }
+
+    void cancel() {
+        pool.shutdownNow();
+    }
+
+    // ---------------------------------------------------------------
+
+    private void timed(String name, Phase phase) {
+        long start = System.nanoTime();
+        try {
+            phase.run();
+            record(name, System.nanoTime() - start, false);
+        } catch (Exception e) {
+            record(name, System.nanoTime() - start, true);
+            System.err.println("[startup] " + name + " failed: " + e);
+            throw new IllegalStateException(name + " failed", e);
+        }
+    }
+
+    private synchronized void record(String name, long nanos, boolean failed) {
+        timings.add(new Timing(name, nanos, failed));
+    }
+
+    private synchronized String line(long readyAt) {
+        StringBuilder sb = new StringBuilder("[startup]");
+        for (Timing t : timings) {
+            sb.append(t == timings.get(0) ? " " : " | ").append(t.name()).append(' ').append(ms(t.nanos()));
+            if (t.failed()) sb.append(" FAILED");
+            if (t.name().equals("shown")) {
+                // JVM açılışından pencereye kadar (sınıf yükleme dahil)
+                long jvm = ManagementFactory.getRuntimeMXBean().getUptime()
+                        - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - shownAt);
+                sb.append(" (jvm ").append(jvm).append(" ms)");
+            }
+        }
+        return sb.append(" | ready ").append(ms(readyAt - t0)).toString();
+    }
+
+    private static String ms(long nanos) {
+        return String.format(Locale.ROOT, "%d ms", TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+}
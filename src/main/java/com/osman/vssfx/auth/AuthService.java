@@ -1,11 +1,13 @@
 package com.osman.vssfx.auth;
 
-import at.favre.lib.crypto.bcrypt.BCrypt;
+import com.osman.vssfx.dao.Jdbc;
+import com.osman.vssfx.dao.RowMapper;
 import com.osman.vssfx.dao.UserDAO;
 
 public class AuthService {
 
     private final UserDAO userDAO = new UserDAO();
+    private final PasswordHasher hasher = PasswordHasher.shared();
 
     public void login(long tenantId, String email, String password) throws Exception {
         if (email == null || email.isBlank()) throw new IllegalArgumentException("E-posta boş olamaz.");
@@ -23,15 +25,15 @@ public class AuthService {
             throw new IllegalArgumentException("Bu kullanıcı için şifre tanımlı değil.");
         }
 
-        // Dev kolaylığı: Hash bcrypt değilse (ör. düz yazı) eşitlik kontrolü yap.
-        boolean ok;
-        if (hash.startsWith("$2a$") || hash.startsWith("$2b$") || hash.startsWith("$2y$")) {
-            ok = BCrypt.verifyer().verify(password.toCharArray(), hash).verified;
-        } else {
-            ok = password.equals(hash);
-        }
+        // BCrypt ayrı havuzda doğrulanır; düz yazı (eski/dev) kayıtlar da kabul edilir
+        PasswordHasher.Check check = hasher.verify(password, hash);
+        if (!check.ok()) throw new IllegalArgumentException("Şifre hatalı.");
 
-        if (!ok) throw new IllegalArgumentException("Şifre hatalı.");
+        // düz yazı veya düşük maliyetli hash: arka planda güncel maliyetle yeniden yaz
+        if (check.needsRehash()) {
+            long userId = row.userId();
+            hasher.rehashLater(password, fresh -> userDAO.replacePasswordHash(userId, hash, fresh));
+        }
 
         userDAO.updateLastLogin(row.userId());
         SessionContext.set(row.tenantId(), row.userId(), row.role(), row.email());
@@ -46,66 +48,33 @@ public class AuthService {
 
         String normalizedEmail = email.trim().toLowerCase();
 
-        // ✅ favre BCrypt ile hash üret (login verifyer ile uyumlu)
-        String hash = BCrypt.withDefaults().hashToString(10, rawPassword.toCharArray());
-
-        try (var conn = com.osman.vssfx.db.Db.getConnection()) {
-            conn.setAutoCommit(false);
-
-            try {
-                // 1) Tenant oluştur
-                long tenantId;
-                try (var ps = conn.prepareStatement(
-                        "INSERT INTO tenants (name) VALUES (?)",
-                        java.sql.Statement.RETURN_GENERATED_KEYS
-                )) {
-                    ps.setString(1, companyName.trim());
-                    ps.executeUpdate();
-
-                    try (var rs = ps.getGeneratedKeys()) {
-                        if (!rs.next()) throw new IllegalStateException("Tenant ID alınamadı.");
-                        tenantId = rs.getLong(1);
-                    }
-                }
-
-                // 2) Aynı tenant içinde email var mı kontrol
-                try (var ps = conn.prepareStatement(
-                        "SELECT 1 FROM users WHERE tenant_id = ? AND email = ? LIMIT 1"
-                )) {
-                    ps.setLong(1, tenantId);
-                    ps.setString(2, normalizedEmail);
-                    try (var rs = ps.executeQuery()) {
-                        if (rs.next()) throw new IllegalStateException("Bu e-posta zaten kayıtlı.");
-                    }
-                }
-
-                // 3) Admin kullanıcı oluştur (users tablosunda full_name yok)
-                // users enumlarına göre:
-                // role: SERVICE_ADMIN / SERVICE_STAFF / CUSTOMER
-                // status: ACTIVE / DISABLED
-                try (var ps = conn.prepareStatement(
-                        "INSERT INTO users (tenant_id, role, status, email, password_hash) VALUES (?, ?, ?, ?, ?)"
-                )) {
-                    ps.setLong(1, tenantId);
-                    ps.setString(2, "SERVICE_ADMIN");
-                    ps.setString(3, "ACTIVE");
-                    ps.setString(4, normalizedEmail);
-                    ps.setString(5, hash);
-                    ps.executeUpdate();
-                }
-
-                // Not: fullName şu an DB'de saklanacak kolon olmadığı için kullanılmıyor.
-                // İstersen users tablosuna full_name ekleyip burada kaydederiz.
-
-                conn.commit();
-                return tenantId;
-
-            } catch (Exception ex) {
-                conn.rollback();
-                throw ex;
-            } finally {
-                conn.setAutoCommit(true);
-            }
-        }
+        // ✅ favre BCrypt ile hash üret (maliyet bu makineye göre ölçülür, bkz. PasswordHasher)
+        String hash = hasher.hash(rawPassword);
+
+        return Jdbc.inTransaction("auth.register", tx -> {
+            // 1) Tenant oluştur
+            long tenantId = tx.query("tenant.insert", "INSERT INTO tenants (name) VALUES (?)")
+                    .params(companyName.trim())
+                    .insertKey();
+
+            // 2) Aynı tenant içinde email var mı kontrol
+            Long existing = tx.query("user.exists", "SELECT 1 FROM users WHERE tenant_id = ? AND email = ? LIMIT 1")
+                    .params(tenantId, normalizedEmail)
+                    .one(RowMapper.firstLong());
+            if (existing != null) throw new IllegalStateException("Bu e-posta zaten kayıtlı.");
+
+            // 3) Admin kullanıcı oluştur (users tablosunda full_name yok)
+            // users enumlarına göre:
+            // role: SERVICE_ADMIN / SERVICE_STAFF / CUSTOMER
+            // status: ACTIVE / DISABLED
+            tx.query("user.insert", "INSERT INTO users (tenant_id, role, status, email, password_hash) VALUES (?, ?, ?, ?, ?)")
+                    .params(tenantId, "SERVICE_ADMIN", "ACTIVE", normalizedEmail, hash)
+                    .update();
+
+            // Not: fullName şu an DB'de saklanacak kolon olmadığı için kullanılmıyor.
+            // İstersen users tablosuna full_name ekleyip burada kaydederiz.
+
+            return tenantId;
+        });
     }
 }
@@ -0,0 +1,199 @@
+package com.osman.vssfx.auth;
+
+import at.favre.lib.crypto.bcrypt.BCrypt;
+import com.osman.vssfx.config.AppConfig;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BCrypt hashing and verification on a small dedicated pool, so a burst of logins queues here
+ * instead of taking every core (each verify is one CPU-bound thread for the whole target time).
+ * The queue is bounded; when it is full the caller gets a "busy" error right away.
+ * <p>
+ * The cost is not fixed: {@link #start()} measures one hash on this machine and picks the
+ * highest cost whose verify stays under {@code targetMillis} (every +1 doubles the time),
+ * clamped to {@code [minCost, maxCost]}. Until that finishes, {@code minCost} is used.
+ * {@code auth.bcrypt.cost} pins the cost and skips the measurement.
+ * <p>
+ * {@link Check#needsRehash()} tells the caller a verified password should be stored again:
+ * legacy plaintext rows, or BCrypt hashes with a lower cost than the current one.
+ */
+public final class PasswordHasher implements AutoCloseable {
+
+    public record Settings(int fixedCost, int minCost, int maxCost, long targetMillis, int threads, int queue) {
+
+        public static Settings fromConfig() {
+            return new Settings(
+                    AppConfig.bcryptCost(),
+                    AppConfig.bcryptMinCost(),
+                    AppConfig.bcryptMaxCost(),
+                    AppConfig.bcryptTargetMillis(),
+                    AppConfig.authThreads(),
+                    AppConfig.authQueue());
+        }
+    }
+
+    /** Outcome of {@link #verify}. */
+    public record Check(boolean ok, boolean needsRehash) {
+        static final Check FAILED = new Check(false, false);
+    }
+
+    private static final PasswordHasher SHARED = new PasswordHasher(Settings.fromConfig());
+
+    private final Settings settings;
+    private final ThreadPoolExecutor pool;
+    private volatile int cost;
+
+    public PasswordHasher(Settings settings) {
+        this.settings = settings;
+        this.cost = settings.fixedCost() > 0 ? settings.fixedCost() : settings.minCost();
+
+        AtomicInteger n = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(settings.threads(), settings.threads(), 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(settings.queue()),
+                r -> Thread.ofPlatform().daemon().name("auth-bcrypt-" + n.incrementAndGet()).unstarted(r),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public static PasswordHasher shared() { return SHARED; }
+
+    /** Starts the cost measurement in the background (no-op when the cost is pinned). */
+    public void start() {
+        if (settings.fixedCost() > 0) return;
+        try {
+            pool.execute(this::calibrate);
+        } catch (RejectedExecutionException e) {
+            log("calibration skipped: pool busy");
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    public int cost() { return cost; }
+
+    /** New BCrypt hash at the current cost. */
+    public String hash(String password) throws Exception {
+        return run(() -> {
+            char[] pw = password.toCharArray();
+            try {
+                return BCrypt.withDefaults().hashToString(cost, pw);
+            } finally {
+                Arrays.fill(pw, '\0');
+            }
+        });
+    }
+
+    public Check verify(String password, String stored) throws Exception {
+        if (stored == null || stored.isBlank()) return Check.FAILED;
+
+        if (!isBcrypt(stored)) {
+            // eski düz yazı kayıt: sabit süreli karşılaştır, doğruysa bcrypt'e çevrilsin
+            boolean ok = MessageDigest.isEqual(
+                    password.getBytes(StandardCharsets.UTF_8), stored.getBytes(StandardCharsets.UTF_8));
+            return ok ? new Check(true, true) : Check.FAILED;
+        }
+
+        return run(() -> {
+            char[] pw = password.toCharArray();
+            try {
+                if (!BCrypt.verifyer().verify(pw, stored).verified) return Check.FAILED;
+            } finally {
+                Arrays.fill(pw, '\0');
+            }
+            return new Check(true, costOf(stored) < cost);
+        });
+    }
+
+    /**
+     * Hashes in the background and hands the result to {@code store}; dropped silently when the
+     * pool is busy, the next login tries again.
+     */
+    public void rehashLater(String password, HashConsumer store) {
+        try {
+            pool.execute(() -> {
+                try {
+                    char[] pw = password.toCharArray();
+                    String fresh;
+                    try {
+                        fresh = BCrypt.withDefaults().hashToString(cost, pw);
+                    } finally {
+                        Arrays.fill(pw, '\0');
+                    }
+                    store.accept(fresh);
+                } catch (Exception e) {
+                    log("rehash failed: " + e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException ignored) {
+            // kuyruk dolu: giriş zaten başarılı, bir sonrakinde tekrar denenir
+        }
+    }
+
+    @FunctionalInterface
+    public interface HashConsumer {
+        void accept(String hash) throws Exception;
+    }
+
+    // ---------------------------------------------------------------
+
+    private void calibrate() {
+        char[] sample = "calibration-sample".toCharArray();
+        int base = settings.minCost();
+        BCrypt.withDefaults().hash(Math.max(4, base - 2), sample); // ısınma: JIT olmadan ilk ölçüm iki kat çıkıyor
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 2; i++) {
+            long t0 = System.nanoTime();
+            BCrypt.withDefaults().hash(base, sample);
+            best = Math.min(best, System.nanoTime() - t0);
+        }
+
+        long target = TimeUnit.MILLISECONDS.toNanos(settings.targetMillis());
+        int chosen = base;
+        for (long t = best * 2; chosen < settings.maxCost() && t <= target; t *= 2) chosen++;
+
+        cost = chosen;
+        log(String.format("cost %d (cost %d took %.1f ms, target %d ms)",
+                chosen, base, best / 1e6, settings.targetMillis()));
+    }
+
+    private <T> T run(Callable<T> work) throws Exception {
+        try {
+            return pool.submit(work).get();
+        } catch (RejectedExecutionException e) {
+            throw new IllegalStateException("Sistem şu an yoğun, lütfen tekrar deneyin.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception ex) throw ex;
+            throw e;
+        }
+    }
+
+    private static boolean isBcrypt(String hash) {
+        return hash.length() == 60
+                && (hash.startsWith("$2a$") || hash.startsWith("$2b$") || hash.startsWith("$2y$"));
+    }
+
+    /** "$2a$10$..." -> 10 */
+    private static int costOf(String hash) {
+        return (hash.charAt(4) - '0') * 10 + (hash.charAt(5) - '0');
+    }
+
+    private static void log(String s) {
+        System.err.println("[auth] " + s);
+    }
+}
@@ -30,4 +30,8 @@ public final class SessionContext {
     public static boolean isLoggedIn() {
         return tenantId != null && userId != null;
     }
+
+    public static boolean isAdmin() {
+        return isLoggedIn() && "SERVICE_ADMIN".equals(role);
+    }
 }
@@ -0,0 +1,111 @@
+package com.osman.vssfx.config;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Application (non-DB) settings from {@code /app.properties}.
+ * A JVM system property with the same key (-Dkey=value) overrides the file.
+ */
+public final class AppConfig {
+    private static final String PROPS_FILE = "/app.properties";
+    private static final Properties PROPS = load();
+
+    private AppConfig() {}
+
+    private static Properties load() {
+        Properties p = new Properties();
+        try (InputStream in = AppConfig.class.getResourceAsStream(PROPS_FILE)) {
+            if (in != null) p.load(in);
+            return p;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to load app.properties", e);
+        }
+    }
+
+    // UI
+    public static boolean prewarmTabs() { return bool("ui.tabs.prewarm", true); }
+    public static long prewarmDelayMs() { return longProp("ui.tabs.prewarmDelayMs", 800); }
+    /** Views never loaded in the background; they load when their tab is first selected. */
+    public static Set<String> prewarmSkip() {
+        String v = get("ui.tabs.prewarmSkip");
+        if (v == null) return Set.of("ReportsView.fxml", "DashboardView.fxml", "RemindersView.fxml");
+        return Arrays.stream(v.split(",")).map(String::trim).filter(s -> !s.isEmpty()).collect(Collectors.toUnmodifiableSet());
+    }
+    /** Otherwise the diagnostics tab opens with Ctrl+Shift+D. */
+    public static boolean showDiagnostics() { return bool("ui.diagnostics", false); }
+
+    // DAO cache
+    public static int cacheMaxTenants() { return (int) longProp("cache.maxTenants", 64); }
+    public static long cacheTtlSeconds() { return longProp("cache.ttlSeconds", 300); }
+
+    // Reminder dispatcher
+    public static boolean remindersEnabled() { return bool("reminders.enabled", true); }
+    public static int reminderBatchSize() { return (int) longProp("reminders.batchSize", 100); }
+    public static long reminderHorizonSeconds() { return longProp("reminders.horizonSeconds", 300); }
+    public static long reminderPollSeconds() { return longProp("reminders.pollSeconds", 30); }
+    public static long reminderLeaseSeconds() { return longProp("reminders.leaseSeconds", 120); }
+    public static int reminderMaxAttempts() { return (int) longProp("reminders.maxAttempts", 3); }
+    public static long reminderRetrySeconds() { return longProp("reminders.retrySeconds", 300); }
+
+    // Service reminder generator
+    public static boolean serviceGeneratorEnabled() { return bool("reminders.generator.enabled", true); }
+    public static long serviceGeneratorIntervalSeconds() { return longProp("reminders.generator.intervalSeconds", 60); }
+    public static int serviceGeneratorBatchSize() { return (int) longProp("reminders.generator.batchSize", 200); }
+    public static int serviceGeneratorRemindHour() { return (int) longProp("reminders.generator.remindHour", 9); }
+
+    public static Path reminderOutboxDir() {
+        String dir = get("reminders.outboxDir");
+        return dir != null ? Path.of(dir) : Path.of(System.getProperty("user.home"), ".vssfx", "outbox");
+    }
+
+    // Authentication
+    /** 0 = measure on startup. */
+    public static int bcryptCost() { return (int) longProp("auth.bcrypt.cost", 0); }
+    public static int bcryptMinCost() { return (int) longProp("auth.bcrypt.minCost", 10); }
+    public static int bcryptMaxCost() { return (int) longProp("auth.bcrypt.maxCost", 14); }
+    public static long bcryptTargetMillis() { return longProp("auth.bcrypt.targetMillis", 250); }
+    public static int authThreads() { return (int) longProp("auth.threads", Math.max(1, Runtime.getRuntime().availableProcessors() / 2)); }
+    public static int authQueue() { return (int) longProp("auth.queue", 32); }
+
+    // Public QR scan endpoint
+    public static boolean publicScanEnabled() { return bool("public.http.enabled", false); }
+    public static String publicScanBind() { String v = get("public.http.bind"); return v == null ? "0.0.0.0" : v; }
+    public static int publicScanPort() { return (int) longProp("public.http.port", 8085); }
+    public static boolean publicScanTrustProxy() { return bool("public.http.trustProxy", false); }
+    public static int publicScanProxyHops() { return (int) longProp("public.http.proxyHops", 1); }
+    public static int publicScanRatePerMinute() { return (int) longProp("public.http.rate.perMinute", 60); }
+    public static int publicScanRateBurst() { return (int) longProp("public.http.rate.burst", 20); }
+    public static int publicScanMaxClients() { return (int) longProp("public.http.rate.maxClients", 100_000); }
+    public static int publicScanCacheSize() { return (int) longProp("public.http.cache.size", 10_000); }
+    public static long publicScanCacheTtlSeconds() { return longProp("public.http.cache.ttlSeconds", 60); }
+    public static long publicScanIndexPollSeconds() { return longProp("public.http.index.pollSeconds", 2); }
+    public static long publicScanIndexRebuildSeconds() { return longProp("public.http.index.rebuildSeconds", 3600); }
+    /** Address printed into QR stickers; must reach the scan endpoint from a phone. */
+    public static String publicScanBaseUrl() { String v = get("public.http.baseUrl"); return v == null ? "http://localhost:8085" : v; }
+
+    static String get(String key) {
+        String v = System.getProperty(key);
+        if (v == null) v = PROPS.getProperty(key);
+        return (v == null || v.isBlank()) ? null : v.trim();
+    }
+
+    static boolean bool(String key, boolean def) {
+        String v = get(key);
+        return v == null ? def : Boolean.parseBoolean(v);
+    }
+
+    static long longProp(String key, long def) {
+        String v = get(key);
+        if (v == null) return def;
+        try {
+            return Long.parseLong(v);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Invalid number for property " + key + ": " + v, e);
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package com.osman.vssfx.config;
 
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.Properties;
 
+/**
+ * Database settings from {@code /db.properties}.
+ * A JVM system property with the same key (-Dkey=value) overrides the file, e.g. to point
+ * benchmarks at an embedded database.
+ */
 public final class DbConfig {
     private static final String PROPS_FILE = "/db.properties";
     private static final Properties PROPS = load();
@@ -25,11 +31,57 @@ public final class DbConfig {
     public static String url() { return required("db.url"); }
     public static String user() { return required("db.user"); }
     public static String password() { return required("db.password"); }
-    public static String driver() { return PROPS.getProperty("db.driver", "com.mysql.cj.jdbc.Driver"); }
+    public static String driver() {
+        String v = get("db.driver");
+        return v == null ? "com.mysql.cj.jdbc.Driver" : v;
+    }
+
+    // Connection pool
+    public static int poolMinSize() { return intProp("db.pool.minSize", 2); }
+    public static int poolMaxSize() { return intProp("db.pool.maxSize", 10); }
+    public static long poolConnectionTimeoutMs() { return longProp("db.pool.connectionTimeoutMs", 5_000); }
+    public static long poolIdleTimeoutMs() { return longProp("db.pool.idleTimeoutMs", 600_000); }
+    public static int poolValidationTimeoutSec() { return intProp("db.pool.validationTimeoutSec", 2); }
+    public static long poolLeakDetectionMs() { return longProp("db.pool.leakDetectionMs", 30_000); }
+
+    // Slow query log
+    public static long slowQueryThresholdMs() { return longProp("db.slowQuery.thresholdMs", 500); }
+    public static boolean slowQueryExplain() { return bool("db.slowQuery.explain", true); }
+    public static long slowQueryMaxFileKb() { return longProp("db.slowQuery.maxFileKb", 5_120); }
+    public static int slowQueryFiles() { return intProp("db.slowQuery.files", 5); }
+    public static Path slowQueryDir() {
+        String dir = get("db.slowQuery.dir");
+        return dir != null ? Path.of(dir) : Path.of(System.getProperty("user.home"), ".vssfx", "logs");
+    }
+
+    private static String get(String key) {
+        String v = System.getProperty(key);
+        if (v == null) v = PROPS.getProperty(key);
+        return (v == null || v.isBlank()) ? null : v.trim();
+    }
 
     private static String required(String key) {
-        String v = PROPS.getProperty(key);
-        if (v == null || v.isBlank()) throw new IllegalStateException("Missing property: " + key);
-        return v.trim();
+        String v = get(key);
+        if (v == null) throw new IllegalStateException("Missing property: " + key);
+        return v;
+    }
+
+    private static boolean bool(String key, boolean def) {
+        String v = get(key);
+        return v == null ? def : Boolean.parseBoolean(v);
+    }
+
+    private static int intProp(String key, int def) {
+        return (int) longProp(key, def);
+    }
+
+    private static long longProp(String key, long def) {
+        String v = get(key);
+        if (v == null) return def;
+        try {
+            return Long.parseLong(v);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Invalid number for property " + key + ": " + v, e);
+        }
     }
 }
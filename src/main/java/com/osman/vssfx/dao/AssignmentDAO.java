@@ -1,3 +1,155 @@
 package com.osman.vssfx.dao;
 
-public class AssignmentDAO {}
+import com.osman.vssfx.events.EventBus;
+import com.osman.vssfx.events.RowChange;
+import com.osman.vssfx.model.Assignment;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Driver-vehicle assignments. Opening and closing go through sp_create_assignment /
+ * sp_close_assignment, which validate, lock and update vehicle status / km in one transaction.
+ * <p>
+ * Lookups of active assignments use the generated active_vehicle_id / active_driver_id columns:
+ * they are NULL once an assignment is closed, so uq_active_vehicle_tenant and
+ * uq_active_driver_tenant index exactly the open ones. The same unique keys stop two
+ * concurrent dispatches of one vehicle or driver.
+ */
+public class AssignmentDAO {
+
+    /** An ACTIVE vehicle that no open assignment points at. */
+    public record AvailableVehicle(long vehicleId, String plateNo, String make, String model, int currentKm) {}
+
+    private static final String SELECT_SQL = """
+                SELECT a.assignment_id, a.tenant_id, a.driver_id, a.vehicle_id,
+                       a.start_km, a.end_km, a.start_datetime, a.end_datetime,
+                       CONCAT(d.first_name, ' ', d.last_name) AS driver_name, d.license_no,
+                       v.plate_no, CONCAT(v.make, ' ', v.model) AS make_model
+                FROM assignment a
+                JOIN drivers d ON d.tenant_id = a.tenant_id AND d.driver_id = a.driver_id
+                JOIN vehicle v ON v.tenant_id = a.tenant_id AND v.vehicle_id = a.vehicle_id
+                """;
+
+    /** Open assignments: a range over uq_active_vehicle_tenant, closed rows are not in it. */
+    public List<Assignment> findActive(long tenantId) throws SQLException {
+        String sql = SELECT_SQL + """
+                WHERE a.tenant_id = ? AND a.active_vehicle_id IS NOT NULL
+                ORDER BY a.start_datetime DESC
+                """;
+
+        return Jdbc.query("assignment.findActive", sql).params(tenantId).list(ASSIGNMENT);
+    }
+
+    public Assignment findActiveByVehicle(long tenantId, long vehicleId) throws SQLException {
+        String sql = SELECT_SQL + "WHERE a.tenant_id = ? AND a.active_vehicle_id = ?";
+
+        return Jdbc.query("assignment.findActiveByVehicle", sql).params(tenantId, vehicleId).one(ASSIGNMENT);
+    }
+
+    public Assignment findActiveByDriver(long tenantId, long driverId) throws SQLException {
+        String sql = SELECT_SQL + "WHERE a.tenant_id = ? AND a.active_driver_id = ?";
+
+        return Jdbc.query("assignment.findActiveByDriver", sql).params(tenantId, driverId).one(ASSIGNMENT);
+    }
+
+    public Assignment findById(long tenantId, long assignmentId) throws SQLException {
+        String sql = SELECT_SQL + "WHERE a.tenant_id = ? AND a.assignment_id = ?";
+
+        return Jdbc.query("assignment.findById", sql).params(tenantId, assignmentId).one(ASSIGNMENT);
+    }
+
+    /** ACTIVE vehicles without an open assignment (anti-join on uq_active_vehicle_tenant). */
+    public List<AvailableVehicle> findAvailableVehicles(long tenantId) throws SQLException {
+        String sql = """
+                SELECT v.vehicle_id, v.plate_no, v.make, v.model, v.current_km
+                FROM vehicle v
+                LEFT JOIN assignment a ON a.tenant_id = v.tenant_id AND a.active_vehicle_id = v.vehicle_id
+                WHERE v.tenant_id = ? AND v.status = 'ACTIVE' AND a.assignment_id IS NULL
+                ORDER BY v.plate_no
+                """;
+
+        return Jdbc.query("assignment.findAvailableVehicles", sql).params(tenantId).list(AVAILABLE_VEHICLE);
+    }
+
+    // ---------------------------------------------------------------
+    // Zimmet aç / kapat (stored procedure)
+
+    /** @return the new open assignment */
+    public Assignment assign(long tenantId, long driverId, long vehicleId, int startKm, LocalDateTime start) throws SQLException {
+        if (startKm < 0) throw new IllegalArgumentException("Başlangıç KM negatif olamaz.");
+
+        try {
+            Jdbc.call("assignment.create", "{CALL sp_create_assignment(?, ?, ?, ?, ?)}")
+                    .params(tenantId, driverId, vehicleId, startKm, start)
+                    .update();
+        } catch (DaoException e) {
+            if (e.getErrorCode() == 1062) { // uq_active_*: aynı anda başka bir ekrandan zimmetlendi
+                throw new IllegalStateException("Sürücü veya araç az önce başka bir zimmete atandı. Listeyi yenileyin.", e);
+            }
+            throw e;
+        }
+
+        Assignment fresh = findActiveByVehicle(tenantId, vehicleId);
+        if (fresh == null) throw new IllegalStateException("Zimmet oluşturuldu ancak okunamadı.");
+
+        EventBus.publish(RowChange.inserted(Assignment.class, tenantId, fresh.getAssignmentId(), fresh));
+        publishSides(tenantId, driverId, vehicleId);
+        return fresh;
+    }
+
+    public void close(long tenantId, Assignment a, int endKm, LocalDateTime end) throws SQLException {
+        Jdbc.call("assignment.close", "{CALL sp_close_assignment(?, ?, ?, ?)}")
+                .params(tenantId, a.getAssignmentId(), endKm, end)
+                .update();
+
+        Assignment fresh = findById(tenantId, a.getAssignmentId());
+        EventBus.publish(fresh == null
+                ? RowChange.deleted(Assignment.class, tenantId, a.getAssignmentId())
+                : RowChange.updated(Assignment.class, tenantId, a.getAssignmentId(), fresh));
+        publishSides(tenantId, a.getDriverId(), a.getVehicleId());
+    }
+
+    /** The procedures change the vehicle's status / km and the driver's availability. */
+    private static void publishSides(long tenantId, long driverId, long vehicleId) throws SQLException {
+        new DriverDAO().refreshRow(tenantId, driverId);
+        new VehicleDAO().refreshRow(tenantId, vehicleId);
+    }
+
+    // ---------------------------------------------------------------
+
+    private static final RowMapper.Factory<Assignment> ASSIGNMENT = cols -> {
+        int id = cols.of("assignment_id"), tenant = cols.of("tenant_id");
+        int driver = cols.of("driver_id"), vehicle = cols.of("vehicle_id");
+        int startKm = cols.of("start_km"), endKm = cols.of("end_km");
+        int start = cols.of("start_datetime"), end = cols.of("end_datetime");
+        int name = cols.of("driver_name"), license = cols.of("license_no");
+        int plate = cols.of("plate_no"), makeModel = cols.of("make_model");
+
+        return rs -> {
+            Assignment a = new Assignment();
+            a.setAssignmentId(rs.getLong(id));
+            a.setTenantId(rs.getLong(tenant));
+            a.setDriverId(rs.getLong(driver));
+            a.setVehicleId(rs.getLong(vehicle));
+            a.setStartKm(rs.getInt(startKm));
+            a.setEndKm(rs.getObject(endKm, Integer.class));
+            a.setStartDatetime(rs.getObject(start, LocalDateTime.class));
+            a.setEndDatetime(rs.getObject(end, LocalDateTime.class));
+            a.setDriverName(rs.getString(name));
+            a.setLicenseNo(rs.getString(license));
+            a.setPlateNo(rs.getString(plate));
+            a.setMakeModel(rs.getString(makeModel));
+            return a;
+        };
+    };
+
+    private static final RowMapper.Factory<AvailableVehicle> AVAILABLE_VEHICLE = cols -> {
+        int id = cols.of("vehicle_id"), plate = cols.of("plate_no"), make = cols.of("make");
+        int model = cols.of("model"), km = cols.of("current_km");
+
+        return rs -> new AvailableVehicle(rs.getLong(id), rs.getString(plate), rs.getString(make),
+                rs.getString(model), rs.getInt(km));
+    };
+}
@@ -0,0 +1,45 @@
+package com.osman.vssfx.dao;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Outcome of a batch write. {@code keys()[i]} belongs to {@code rows.get(i)} of the call;
+ * rows that failed have key {@code -1} and an entry in {@link #errors()}.
+ */
+public final class BatchResult {
+
+    public record RowError(int index, String message) {}
+
+    private final long[] keys;
+    private final List<RowError> errors;
+
+    BatchResult(long[] keys, List<RowError> errors) {
+        this.keys = keys;
+        this.errors = List.copyOf(errors);
+    }
+
+    public long[] keys() { return keys.clone(); }
+
+    public long key(int index) { return keys[index]; }
+
+    public List<RowError> errors() { return errors; }
+
+    public boolean hasErrors() { return !errors.isEmpty(); }
+
+    public int size() { return keys.length; }
+
+    public int succeeded() { return keys.length - errors.size(); }
+
+    @Override
+    public String toString() {
+        return "BatchResult{rows=" + keys.length + ", failed=" + errors.size()
+                + (errors.isEmpty() ? "" : ", first=" + errors.get(0)) + "}";
+    }
+
+    static long[] emptyKeys(int n) {
+        long[] k = new long[n];
+        Arrays.fill(k, -1);
+        return k;
+    }
+}
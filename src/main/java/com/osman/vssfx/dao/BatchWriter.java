@@ -0,0 +1,216 @@
+package com.osman.vssfx.dao;
+
+import com.osman.vssfx.db.Db;
+import com.osman.vssfx.metrics.Metrics;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Shared chunked batch executor for the DAOs.
+ * <p>
+ * Rows are sent with addBatch/executeBatch (rewritten to multi-row statements by
+ * {@code rewriteBatchedStatements=true}) and committed chunk by chunk. If a chunk fails,
+ * it is rolled back and replayed row by row so that only the offending rows are reported.
+ * Each call is timed into {@link Metrics} as {@code batch.<verb>.<table>}.
+ */
+final class BatchWriter {
+
+    static final int DEFAULT_CHUNK_SIZE = 500;
+
+    @FunctionalInterface
+    interface Binder<T> {
+        void bind(PreparedStatement ps, T row) throws SQLException;
+    }
+
+    private BatchWriter() {}
+
+    /** Runs {@code sql} for every row; keys come from the generated keys of each statement. */
+    static <T> BatchResult insert(String sql, List<T> rows, Binder<T> binder) throws SQLException {
+        long[] keys = BatchResult.emptyKeys(rows.size());
+        List<BatchResult.RowError> errors = new ArrayList<>();
+        run(sql, rows, identity(rows.size()), binder, null, false, keys, errors);
+        return new BatchResult(keys, errors);
+    }
+
+    /**
+     * Like {@link #insert} but statements do not generate keys; {@code keyOf} supplies them.
+     * Update counts are not checked.
+     */
+    static <T> BatchResult execute(String sql, List<T> rows, Binder<T> binder,
+                                   ToLongFunction<T> keyOf) throws SQLException {
+        long[] keys = BatchResult.emptyKeys(rows.size());
+        List<BatchResult.RowError> errors = new ArrayList<>();
+        run(sql, rows, identity(rows.size()), binder, keyOf, false, keys, errors);
+        return new BatchResult(keys, errors);
+    }
+
+    /**
+     * Rows with an id (per {@code idOf}) go through {@code updateSql}, the rest through
+     * {@code insertSql}. Results are reported in the order of {@code rows}.
+     */
+    static <T> BatchResult upsertById(List<T> rows, Function<T, Long> idOf,
+                                      String insertSql, Binder<T> insertBinder,
+                                      String updateSql, Binder<T> updateBinder) throws SQLException {
+        List<T> inserts = new ArrayList<>();
+        List<T> updates = new ArrayList<>();
+        int[] insertSlots = new int[rows.size()];
+        int[] updateSlots = new int[rows.size()];
+
+        for (int i = 0; i < rows.size(); i++) {
+            T row = rows.get(i);
+            if (idOf.apply(row) == null) {
+                insertSlots[inserts.size()] = i;
+                inserts.add(row);
+            } else {
+                updateSlots[updates.size()] = i;
+                updates.add(row);
+            }
+        }
+
+        long[] keys = BatchResult.emptyKeys(rows.size());
+        List<BatchResult.RowError> errors = new ArrayList<>();
+        if (!inserts.isEmpty()) run(insertSql, inserts, insertSlots, insertBinder, null, false, keys, errors);
+        if (!updates.isEmpty()) run(updateSql, updates, updateSlots, updateBinder, r -> idOf.apply(r), true, keys, errors);
+
+        errors.sort(Comparator.comparingInt(BatchResult.RowError::index));
+        return new BatchResult(keys, errors);
+    }
+
+    // ---------------------------------------------------------------
+
+    private static int[] identity(int n) {
+        int[] a = new int[n];
+        for (int i = 0; i < n; i++) a[i] = i;
+        return a;
+    }
+
+    /**
+     * @param slots        slots[i] = index in the caller's list for rows.get(i)
+     * @param keyOf        null = read generated keys
+     * @param requireMatch report rows whose statement touched no row (update count 0)
+     */
+    private static <T> void run(String sql, List<T> rows, int[] slots, Binder<T> binder,
+                                ToLongFunction<T> keyOf, boolean requireMatch,
+                                long[] keys, List<BatchResult.RowError> errors) throws SQLException {
+        boolean generated = keyOf == null;
+        long start = System.nanoTime();
+        int errorsBefore = errors.size();
+        Throwable failure = null;
+
+        try (Connection c = Db.getConnection()) {
+            Metrics.connectionAcquired(System.nanoTime() - start);
+            c.setAutoCommit(false);
+            try (PreparedStatement ps = generated
+                    ? c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                    : c.prepareStatement(sql)) {
+
+                int[] pending = new int[DEFAULT_CHUNK_SIZE];
+                for (int from = 0; from < rows.size(); from += DEFAULT_CHUNK_SIZE) {
+                    int to = Math.min(rows.size(), from + DEFAULT_CHUNK_SIZE);
+
+                    // 1) bind; rows that fail validation never reach the server
+                    int n = 0;
+                    for (int i = from; i < to; i++) {
+                        try {
+                            binder.bind(ps, rows.get(i));
+                            ps.addBatch();
+                            pending[n++] = i;
+                        } catch (RuntimeException | SQLException ex) {
+                            ps.clearParameters();
+                            errors.add(new BatchResult.RowError(slots[i], message(ex)));
+                        }
+                    }
+                    if (n == 0) continue;
+
+                    // 2) one round trip for the chunk
+                    try {
+                        int[] counts = ps.executeBatch();
+                        if (generated) {
+                            readKeys(ps, pending, n, slots, keys);
+                        } else {
+                            for (int k = 0; k < n; k++) {
+                                int i = pending[k];
+                                if (requireMatch && k < counts.length && counts[k] == 0) {
+                                    errors.add(new BatchResult.RowError(slots[i], "Kayıt bulunamadı veya tenant uyuşmuyor."));
+                                } else {
+                                    keys[slots[i]] = keyOf.applyAsLong(rows.get(i));
+                                }
+                            }
+                        }
+                        c.commit();
+                    } catch (SQLException chunkFailure) {
+                        c.rollback();
+                        ps.clearBatch();
+                        replayOneByOne(c, ps, rows, pending, n, slots, binder, keyOf, requireMatch, keys, errors);
+                    }
+                }
+            } finally {
+                c.setAutoCommit(true);
+            }
+        } catch (SQLException | RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            long failed = errors.size() - errorsBefore;
+            Metrics.record(opOf(sql), System.nanoTime() - start, rows.size() - failed,
+                    failure != null || failed == 0 ? failure : new SQLException(failed + " row(s) rejected"));
+        }
+    }
+
+    /** "INSERT INTO vehicles (...)" -> "batch.insert.vehicles" */
+    private static String opOf(String sql) {
+        String[] w = sql.trim().split("[\\s(`]+", 4);
+        String table = w.length > 2 && "INTO".equalsIgnoreCase(w[1]) ? w[2] : w.length > 1 ? w[1] : "?";
+        return ("batch." + w[0] + "." + table).toLowerCase(Locale.ROOT);
+    }
+
+    private static void readKeys(PreparedStatement ps, int[] pending, int n, int[] slots, long[] keys) throws SQLException {
+        try (var rs = ps.getGeneratedKeys()) {
+            int k = 0;
+            while (k < n && rs.next()) keys[slots[pending[k++]]] = rs.getLong(1);
+        }
+    }
+
+    private static <T> void replayOneByOne(Connection c, PreparedStatement ps, List<T> rows,
+                                           int[] pending, int n, int[] slots, Binder<T> binder,
+                                           ToLongFunction<T> keyOf, boolean requireMatch,
+                                           long[] keys, List<BatchResult.RowError> errors) throws SQLException {
+        for (int k = 0; k < n; k++) {
+            int i = pending[k];
+            T row = rows.get(i);
+            try {
+                binder.bind(ps, row);
+                int count = ps.executeUpdate();
+                if (keyOf != null) {
+                    if (requireMatch && count == 0) {
+                        errors.add(new BatchResult.RowError(slots[i], "Kayıt bulunamadı veya tenant uyuşmuyor."));
+                    } else {
+                        keys[slots[i]] = keyOf.applyAsLong(row);
+                    }
+                } else {
+                    try (var rs = ps.getGeneratedKeys()) {
+                        if (rs.next()) keys[slots[i]] = rs.getLong(1);
+                    }
+                }
+            } catch (SQLException ex) {
+                // MySQL rolls back only the failed statement; the rest of the chunk stays
+                errors.add(new BatchResult.RowError(slots[i], message(ex)));
+            }
+        }
+        c.commit();
+    }
+
+    private static String message(Exception ex) {
+        if (ex instanceof SQLException sql) return DaoException.describe(sql);
+        return ex.getMessage() == null ? ex.getClass().getSimpleName() : ex.getMessage();
+    }
+}
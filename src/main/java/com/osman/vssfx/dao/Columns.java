@@ -0,0 +1,31 @@
+package com.osman.vssfx.dao;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/** Column label to 1-based index lookup, built once from a ResultSet's metadata. */
+public final class Columns {
+
+    private final Map<String, Integer> byLabel;
+
+    Columns(ResultSetMetaData md) throws SQLException {
+        int n = md.getColumnCount();
+        byLabel = new HashMap<>(n * 2);
+        for (int i = 1; i <= n; i++) {
+            byLabel.putIfAbsent(md.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+        }
+    }
+
+    public int of(String label) throws SQLException {
+        Integer i = byLabel.get(label.toLowerCase(Locale.ROOT));
+        if (i == null) throw new SQLException("Column not in result: " + label);
+        return i;
+    }
+
+    public boolean has(String label) {
+        return byLabel.containsKey(label.toLowerCase(Locale.ROOT));
+    }
+}
@@ -1,111 +1,179 @@
 package com.osman.vssfx.dao;
 
+import com.osman.vssfx.config.AppConfig;
+import com.osman.vssfx.events.EventBus;
+import com.osman.vssfx.events.RowChange;
 import com.osman.vssfx.model.Customer;
 
-import java.sql.Statement;
-import java.util.ArrayList;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public class CustomerDAO {
 
-    public List<Customer> findAllByTenant(long tenantId) throws Exception {
-        String sql = """
+    private static final TenantCache<Customer> CACHE = new TenantCache<>(
+            Customer::getCustomerId, AppConfig.cacheMaxTenants(), AppConfig.cacheTtlSeconds());
+
+    private static final String SELECT_SQL = """
                 SELECT customer_id, tenant_id, first_name, last_name, phone, email, user_id, created_at
                 FROM customers
+                """;
+
+    /** Full tenant list, served from the shared cache after the first load. */
+    public List<Customer> findAllByTenant(long tenantId) throws Exception {
+        return CACHE.get(tenantId, this::loadAllByTenant);
+    }
+
+    private List<Customer> loadAllByTenant(long tenantId) throws SQLException {
+        String sql = SELECT_SQL + """
                 WHERE tenant_id = ?
                 ORDER BY customer_id DESC
                 """;
 
-        try (var conn = com.osman.vssfx.db.Db.getConnection();
-             var ps = conn.prepareStatement(sql)) {
+        return Jdbc.query("customer.findAll", sql).params(tenantId).list(CUSTOMER);
+    }
 
-            ps.setLong(1, tenantId);
+    public Customer findById(long tenantId, long customerId) throws SQLException {
+        String sql = SELECT_SQL + "WHERE tenant_id = ? AND customer_id = ?";
 
-            try (var rs = ps.executeQuery()) {
-                List<Customer> out = new ArrayList<>();
-                while (rs.next()) {
-                    Customer c = new Customer();
-                    c.setCustomerId(rs.getLong("customer_id"));
-                    c.setTenantId(rs.getLong("tenant_id"));
-                    c.setFirstName(rs.getString("first_name"));
-                    c.setLastName(rs.getString("last_name"));
-                    c.setPhone(rs.getString("phone"));
-                    c.setEmail(rs.getString("email"));
+        return Jdbc.query("customer.findById", sql).params(tenantId, customerId).one(CUSTOMER);
+    }
 
-                    long uid = rs.getLong("user_id");
-                    c.setUserId(rs.wasNull() ? null : uid);
+    /** Re-reads one customer after a write, patches it into the cache and publishes the change. */
+    private void publishRow(long tenantId, long customerId, RowChange.Op op) throws SQLException {
+        Customer fresh = findById(tenantId, customerId);
+        if (fresh == null) {
+            CACHE.remove(tenantId, customerId);
+            EventBus.publish(RowChange.deleted(Customer.class, tenantId, customerId));
+            return;
+        }
 
-                    var ts = rs.getTimestamp("created_at");
-                    c.setCreatedAt(ts == null ? null : ts.toLocalDateTime());
+        CACHE.put(tenantId, fresh);
+        EventBus.publish(op == RowChange.Op.INSERTED
+                ? RowChange.inserted(Customer.class, tenantId, customerId, fresh)
+                : RowChange.updated(Customer.class, tenantId, customerId, fresh));
+    }
 
-                    out.add(c);
-                }
-                return out;
-            }
-        }
+    /** Drops the tenant's cached list so the next read goes to the database. */
+    public void invalidateCache(long tenantId) {
+        CACHE.invalidate(tenantId);
     }
 
-    public long insert(long tenantId, Customer c) throws Exception {
-        String sql = """
-                INSERT INTO customers (tenant_id, first_name, last_name, phone, email, user_id)
-                VALUES (?, ?, ?, ?, ?, ?)
-                """;
+    private void invalidateTenant(long tenantId) {
+        CACHE.invalidate(tenantId);
+        EventBus.publish(RowChange.invalidated(Customer.class, tenantId));
+    }
 
-        try (var conn = com.osman.vssfx.db.Db.getConnection();
-             var ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+    // Paket içi: src/bench de kullanıyor.
+    static final RowMapper.Factory<Customer> CUSTOMER = cols -> {
+        int id = cols.of("customer_id"), tenant = cols.of("tenant_id");
+        int first = cols.of("first_name"), last = cols.of("last_name");
+        int phone = cols.of("phone"), email = cols.of("email");
+        int user = cols.of("user_id"), created = cols.of("created_at");
+
+        return rs -> {
+            Customer c = new Customer();
+            c.setCustomerId(rs.getLong(id));
+            c.setTenantId(rs.getLong(tenant));
+            c.setFirstName(rs.getString(first));
+            c.setLastName(rs.getString(last));
+            c.setPhone(rs.getString(phone));
+            c.setEmail(rs.getString(email));
+
+            long uid = rs.getLong(user);
+            c.setUserId(rs.wasNull() ? null : uid);
+
+            c.setCreatedAt(rs.getObject(created, LocalDateTime.class));
+            return c;
+        };
+    };
+
+    private static final String INSERT_SQL = """
+            INSERT INTO customers (tenant_id, first_name, last_name, phone, email, user_id)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String UPDATE_SQL = """
+            UPDATE customers
+            SET first_name = ?, last_name = ?, phone = ?, email = ?, user_id = ?
+            WHERE tenant_id = ? AND customer_id = ?
+            """;
 
-            ps.setLong(1, tenantId);
-            ps.setString(2, c.getFirstName());
-            ps.setString(3, c.getLastName());
-            ps.setString(4, c.getPhone());
-            ps.setString(5, c.getEmail());
+    public long insert(long tenantId, Customer c) throws Exception {
+        long id = Jdbc.query("customer.insert", INSERT_SQL).bind(ps -> bindInsert(ps, tenantId, c)).insertKey();
+        publishRow(tenantId, id, RowChange.Op.INSERTED);
+        return id;
+    }
 
-            if (c.getUserId() == null) ps.setNull(6, java.sql.Types.BIGINT);
-            else ps.setLong(6, c.getUserId());
+    public void update(long tenantId, Customer c) throws Exception {
+        Jdbc.query("customer.update", UPDATE_SQL).bind(ps -> bindUpdate(ps, tenantId, c)).update();
+        publishRow(tenantId, c.getCustomerId(), RowChange.Op.UPDATED);
+    }
 
-            ps.executeUpdate();
+    /** Multi-row insert in chunks; keys are returned in the order of {@code rows}. */
+    public BatchResult insertBatch(long tenantId, List<Customer> rows) throws SQLException {
+        try {
+            return BatchWriter.insert(INSERT_SQL, rows, (ps, c) -> bindInsert(ps, tenantId, c));
+        } finally {
+            invalidateTenant(tenantId);
+        }
+    }
 
-            try (var rs = ps.getGeneratedKeys()) {
-                if (!rs.next()) throw new IllegalStateException("customer_id alınamadı.");
-                return rs.getLong(1);
-            }
+    /** Rows with a customerId are updated, the others inserted. Keys follow the order of {@code rows}. */
+    public BatchResult upsertBatch(long tenantId, List<Customer> rows) throws SQLException {
+        try {
+            return BatchWriter.upsertById(rows, Customer::getCustomerId,
+                    INSERT_SQL, (ps, c) -> bindInsert(ps, tenantId, c),
+                    UPDATE_SQL, (ps, c) -> bindUpdate(ps, tenantId, c));
+        } finally {
+            invalidateTenant(tenantId);
         }
     }
 
-    public void update(long tenantId, Customer c) throws Exception {
-        String sql = """
-                UPDATE customers
-                SET first_name = ?, last_name = ?, phone = ?, email = ?, user_id = ?
-                WHERE tenant_id = ? AND customer_id = ?
-                """;
+    private static void bindInsert(PreparedStatement ps, long tenantId, Customer c) throws SQLException {
+        requireName(c);
 
-        try (var conn = com.osman.vssfx.db.Db.getConnection();
-             var ps = conn.prepareStatement(sql)) {
+        ps.setLong(1, tenantId);
+        ps.setString(2, c.getFirstName());
+        ps.setString(3, c.getLastName());
+        ps.setString(4, c.getPhone());
+        ps.setString(5, c.getEmail());
+
+        if (c.getUserId() == null) ps.setNull(6, java.sql.Types.BIGINT);
+        else ps.setLong(6, c.getUserId());
+    }
 
-            ps.setString(1, c.getFirstName());
-            ps.setString(2, c.getLastName());
-            ps.setString(3, c.getPhone());
-            ps.setString(4, c.getEmail());
+    private static void bindUpdate(PreparedStatement ps, long tenantId, Customer c) throws SQLException {
+        requireName(c);
 
-            if (c.getUserId() == null) ps.setNull(5, java.sql.Types.BIGINT);
-            else ps.setLong(5, c.getUserId());
+        ps.setString(1, c.getFirstName());
+        ps.setString(2, c.getLastName());
+        ps.setString(3, c.getPhone());
+        ps.setString(4, c.getEmail());
 
-            ps.setLong(6, tenantId);
-            ps.setLong(7, c.getCustomerId());
+        if (c.getUserId() == null) ps.setNull(5, java.sql.Types.BIGINT);
+        else ps.setLong(5, c.getUserId());
 
-            ps.executeUpdate();
+        ps.setLong(6, tenantId);
+        ps.setLong(7, c.getCustomerId());
+    }
+
+    private static void requireName(Customer c) {
+        if (c.getFirstName() == null || c.getFirstName().isBlank()
+                || c.getLastName() == null || c.getLastName().isBlank()) {
+            throw new IllegalArgumentException("Ad ve Soyad boş olamaz.");
         }
     }
 
     public void delete(long tenantId, long customerId) throws Exception {
         String sql = "DELETE FROM customers WHERE tenant_id = ? AND customer_id = ?";
 
-        try (var conn = com.osman.vssfx.db.Db.getConnection();
-             var ps = conn.prepareStatement(sql)) {
+        Jdbc.query("customer.delete", sql).params(tenantId, customerId).update();
+        CACHE.remove(tenantId, customerId);
+        EventBus.publish(RowChange.deleted(Customer.class, tenantId, customerId));
 
-            ps.setLong(1, tenantId);
-            ps.setLong(2, customerId);
-            ps.executeUpdate();
-        }
+        // fk_vehicle_customer_tenant ON DELETE SET NULL: araçların customer_id'si değişti
+        new VehicleDAO().invalidateTenant(tenantId);
     }
 }
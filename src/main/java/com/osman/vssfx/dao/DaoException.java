@@ -0,0 +1,64 @@
+package com.osman.vssfx.dao;
+
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * SQLException with a user-facing (Turkish) message derived from the SQLSTATE / MySQL error
+ * code. The original exception is kept as the cause and {@link #op()} names the DAO call.
+ */
+public class DaoException extends SQLException {
+
+    private static final long serialVersionUID = 1L;
+
+    // sp_create_assignment / sp_close_assignment SIGNAL mesajları
+    private static final Map<String, String> SIGNALS = Map.of(
+            "Driver not found", "Sürücü bulunamadı.",
+            "Vehicle not found", "Araç bulunamadı.",
+            "Assignment not found", "Zimmet kaydı bulunamadı.",
+            "Driver already has an active assignment", "Sürücünün zaten aktif bir zimmeti var.",
+            "Vehicle already has an active assignment", "Araç zaten başka bir sürücüye zimmetli.",
+            "Vehicle is not ACTIVE; cannot create assignment", "Araç AKTİF durumda değil; zimmetlenemez.",
+            "Start KM cannot be less than vehicle current KM", "Başlangıç KM, aracın güncel KM'sinden küçük olamaz.",
+            "Assignment already closed", "Zimmet zaten kapatılmış.",
+            "End KM cannot be less than Start KM", "Bitiş KM, başlangıç KM'sinden küçük olamaz.");
+
+    private final String op;
+
+    public DaoException(String op, SQLException cause) {
+        super(describe(cause), cause.getSQLState(), cause.getErrorCode(), cause);
+        this.op = op;
+    }
+
+    public String op() { return op; }
+
+    static DaoException translate(String op, SQLException e) {
+        return e instanceof DaoException de ? de : new DaoException(op, e);
+    }
+
+    /** User-facing message for {@code e}; SIGNALs from triggers/procedures keep the server message unless translated above. */
+    static String describe(SQLException e) {
+        String state = e.getSQLState() == null ? "" : e.getSQLState();
+        String raw = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+
+        return switch (e.getErrorCode()) {
+            case 1062 -> "Bu kayıt zaten mevcut (tekrarlanan değer).";
+            case 1451 -> "Bu kayda bağlı başka kayıtlar olduğu için işlem yapılamadı.";
+            case 1452 -> "İlişkili kayıt bulunamadı.";
+            case 1048 -> "Zorunlu bir alan boş bırakıldı.";
+            case 1406 -> "Girilen değer çok uzun.";
+            case 1205, 1213 -> "Kayıt şu an başka bir işlem tarafından kullanılıyor, lütfen tekrar deneyin.";
+            case 1317 -> "Sorgu iptal edildi.";
+            default -> {
+                if (state.startsWith("08")) yield "Veritabanına bağlanılamadı: " + raw;
+                if (state.equals("45000")) yield SIGNALS.getOrDefault(raw, raw);
+                yield raw;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "DaoException[" + op + "]: " + getMessage();
+    }
+}
@@ -1,3 +1,129 @@
 package com.osman.vssfx.dao;
 
-public class DriverDAO {}
+import com.osman.vssfx.events.EventBus;
+import com.osman.vssfx.events.RowChange;
+import com.osman.vssfx.model.Driver;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Drivers with their active assignment. The assignment is joined through the generated
+ * active_driver_id column (uq_active_driver_tenant): one unique-key probe per driver that reads
+ * only the index, instead of the NOT EXISTS scan over assignment that vw_available_drivers used.
+ */
+public class DriverDAO {
+
+    private static final String SELECT_SQL = """
+                SELECT d.driver_id, d.tenant_id, d.first_name, d.last_name, d.license_no, d.phone,
+                       a.assignment_id AS active_assignment_id, v.plate_no AS active_plate_no
+                FROM drivers d
+                LEFT JOIN assignment a ON a.tenant_id = d.tenant_id AND a.active_driver_id = d.driver_id
+                LEFT JOIN vehicle v ON v.tenant_id = a.tenant_id AND v.vehicle_id = a.vehicle_id
+                """;
+
+    public List<Driver> findAllByTenant(long tenantId) throws SQLException {
+        String sql = SELECT_SQL + """
+                WHERE d.tenant_id = ?
+                ORDER BY d.driver_id DESC
+                """;
+
+        return Jdbc.query("driver.findAll", sql).params(tenantId).list(DRIVER);
+    }
+
+    public Driver findById(long tenantId, long driverId) throws SQLException {
+        String sql = SELECT_SQL + "WHERE d.tenant_id = ? AND d.driver_id = ?";
+
+        return Jdbc.query("driver.findById", sql).params(tenantId, driverId).one(DRIVER);
+    }
+
+    /** Publishes the driver's current state, e.g. after an assignment was opened or closed. */
+    public void refreshRow(long tenantId, long driverId) throws SQLException {
+        publishRow(tenantId, driverId, RowChange.Op.UPDATED);
+    }
+
+    private void publishRow(long tenantId, long driverId, RowChange.Op op) throws SQLException {
+        Driver fresh = findById(tenantId, driverId);
+        if (fresh == null) {
+            EventBus.publish(RowChange.deleted(Driver.class, tenantId, driverId));
+            return;
+        }
+        EventBus.publish(op == RowChange.Op.INSERTED
+                ? RowChange.inserted(Driver.class, tenantId, driverId, fresh)
+                : RowChange.updated(Driver.class, tenantId, driverId, fresh));
+    }
+
+    private static final RowMapper.Factory<Driver> DRIVER = cols -> {
+        int id = cols.of("driver_id"), tenant = cols.of("tenant_id");
+        int first = cols.of("first_name"), last = cols.of("last_name");
+        int license = cols.of("license_no"), phone = cols.of("phone");
+        int asg = cols.of("active_assignment_id"), plate = cols.of("active_plate_no");
+
+        return rs -> {
+            Driver d = new Driver();
+            d.setDriverId(rs.getLong(id));
+            d.setTenantId(rs.getLong(tenant));
+            d.setFirstName(rs.getString(first));
+            d.setLastName(rs.getString(last));
+            d.setLicenseNo(rs.getString(license));
+            d.setPhone(rs.getString(phone));
+
+            long aid = rs.getLong(asg);
+            d.setActiveAssignmentId(rs.wasNull() ? null : aid);
+            d.setActivePlateNo(rs.getString(plate));
+            return d;
+        };
+    };
+
+    public long insert(long tenantId, Driver d) throws SQLException {
+        requireFields(d);
+        String sql = """
+                INSERT INTO drivers (tenant_id, first_name, last_name, license_no, phone)
+                VALUES (?, ?, ?, ?, ?)
+                """;
+
+        long id = Jdbc.query("driver.insert", sql)
+                .params(tenantId, d.getFirstName(), d.getLastName(), d.getLicenseNo(), d.getPhone())
+                .insertKey();
+        publishRow(tenantId, id, RowChange.Op.INSERTED);
+        return id;
+    }
+
+    public void update(long tenantId, Driver d) throws SQLException {
+        requireFields(d);
+        String sql = """
+                UPDATE drivers
+                SET first_name = ?, last_name = ?, license_no = ?, phone = ?
+                WHERE tenant_id = ? AND driver_id = ?
+                """;
+
+        int affected = Jdbc.query("driver.update", sql)
+                .params(d.getFirstName(), d.getLastName(), d.getLicenseNo(), d.getPhone(), tenantId, d.getDriverId())
+                .update();
+        if (affected == 0) {
+            throw new SQLException("Güncelleme yapılamadı (kayıt bulunamadı veya tenant uyuşmuyor).");
+        }
+        publishRow(tenantId, d.getDriverId(), RowChange.Op.UPDATED);
+    }
+
+    /** Fails with the FK message (fk_asg_driver_tenant RESTRICT) if the driver has assignment history. */
+    public void delete(long tenantId, long driverId) throws SQLException {
+        String sql = "DELETE FROM drivers WHERE tenant_id = ? AND driver_id = ?";
+
+        int affected = Jdbc.query("driver.delete", sql).params(tenantId, driverId).update();
+        if (affected == 0) {
+            throw new SQLException("Silme yapılamadı (kayıt bulunamadı veya tenant uyuşmuyor).");
+        }
+        EventBus.publish(RowChange.deleted(Driver.class, tenantId, driverId));
+    }
+
+    private static void requireFields(Driver d) {
+        if (d.getFirstName() == null || d.getFirstName().isBlank()
+                || d.getLastName() == null || d.getLastName().isBlank()) {
+            throw new IllegalArgumentException("Ad ve Soyad boş olamaz.");
+        }
+        if (d.getLicenseNo() == null || d.getLicenseNo().isBlank()) {
+            throw new IllegalArgumentException("Ehliyet No boş olamaz.");
+        }
+    }
+}
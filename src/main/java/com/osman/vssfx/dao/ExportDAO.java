@@ -0,0 +1,126 @@
+package com.osman.vssfx.dao;
+
+import com.osman.vssfx.export.TabularWriter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Full-tenant exports. Rows are streamed from MySQL ({@link Jdbc#STREAM}) and written to the
+ * file as they arrive, so heap use does not grow with the row count.
+ */
+public class ExportDAO {
+
+    @FunctionalInterface
+    public interface Progress {
+        void rows(long written);
+    }
+
+    private static final int PROGRESS_EVERY = 1_000;
+
+    public long countVehicles(long tenantId) throws SQLException {
+        return Jdbc.query("export.countVehicles", "SELECT COUNT(*) FROM vehicle WHERE tenant_id = ?")
+                .params(tenantId).one(RowMapper.firstLong());
+    }
+
+    public long countMaintenance(long tenantId) throws SQLException {
+        return Jdbc.query("export.countMaintenance", "SELECT COUNT(*) FROM maintenance WHERE tenant_id = ?")
+                .params(tenantId).one(RowMapper.firstLong());
+    }
+
+    public long exportVehicles(long tenantId, TabularWriter out, Progress progress) throws SQLException, IOException {
+        String sql = """
+                SELECT vehicle_id, plate_no, vin_no, make, model, model_year, colour, current_km,
+                       status, service_entry_date, notes, created_at
+                FROM vehicle
+                WHERE tenant_id = ?
+                ORDER BY vehicle_id
+                """;
+
+        out.header("ID", "Plaka", "Şasi No", "Marka", "Model", "Yıl", "Renk", "KM",
+                "Durum", "Servise Giriş", "Notlar", "Oluşturma");
+
+        RowMapper.Factory<Object[]> row = cols -> {
+            int id = cols.of("vehicle_id"), plate = cols.of("plate_no"), vin = cols.of("vin_no");
+            int make = cols.of("make"), model = cols.of("model"), year = cols.of("model_year");
+            int colour = cols.of("colour"), km = cols.of("current_km"), status = cols.of("status");
+            int entry = cols.of("service_entry_date"), notes = cols.of("notes"), created = cols.of("created_at");
+            Object[] values = new Object[12]; // her satırda yeniden kullanılır
+
+            return rs -> {
+                values[0] = rs.getLong(id);
+                values[1] = rs.getString(plate);
+                values[2] = rs.getString(vin);
+                values[3] = rs.getString(make);
+                values[4] = rs.getString(model);
+                values[5] = rs.getInt(year);
+                values[6] = rs.getString(colour);
+                values[7] = rs.getLong(km);
+                values[8] = rs.getString(status);
+                values[9] = rs.getObject(entry, LocalDate.class);
+                values[10] = rs.getString(notes);
+                values[11] = rs.getObject(created, LocalDateTime.class);
+                return values;
+            };
+        };
+
+        return stream("export.vehicles", sql, tenantId, row, out, progress);
+    }
+
+    public long exportMaintenanceHistory(long tenantId, TabularWriter out, Progress progress) throws SQLException, IOException {
+        String sql = """
+                SELECT maint_id, maint_date, plate_no, make, model, maint_type, odometer_km, cost, description
+                FROM vw_maintenance_history
+                WHERE tenant_id = ?
+                """;
+
+        out.header("ID", "Tarih", "Plaka", "Marka", "Model", "Bakım Türü", "KM", "Tutar", "Açıklama");
+
+        RowMapper.Factory<Object[]> row = cols -> {
+            int id = cols.of("maint_id"), date = cols.of("maint_date"), plate = cols.of("plate_no");
+            int make = cols.of("make"), model = cols.of("model"), type = cols.of("maint_type");
+            int km = cols.of("odometer_km"), cost = cols.of("cost"), desc = cols.of("description");
+            Object[] values = new Object[9];
+
+            return rs -> {
+                values[0] = rs.getLong(id);
+                values[1] = rs.getObject(date, LocalDate.class);
+                values[2] = rs.getString(plate);
+                values[3] = rs.getString(make);
+                values[4] = rs.getString(model);
+                values[5] = rs.getString(type);
+                values[6] = rs.getLong(km);
+                values[7] = rs.getBigDecimal(cost);
+                values[8] = rs.getString(desc);
+                return values;
+            };
+        };
+
+        return stream("export.maintenanceHistory", sql, tenantId, row, out, progress);
+    }
+
+    private long stream(String op, String sql, long tenantId, RowMapper.Factory<Object[]> row,
+                        TabularWriter out, Progress progress) throws SQLException, IOException {
+        long[] written = {0};
+        try {
+            Jdbc.query(op, sql)
+                    .params(tenantId)
+                    .fetchSize(Jdbc.STREAM)
+                    .forEach(row, values -> {
+                        try {
+                            out.row(values);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        if (++written[0] % PROGRESS_EVERY == 0) progress.rows(written[0]);
+                    });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        progress.rows(written[0]);
+        return written[0];
+    }
+}
@@ -0,0 +1,331 @@
+package com.osman.vssfx.dao;
+
+import com.osman.vssfx.db.Db;
+import com.osman.vssfx.metrics.Metrics;
+import com.osman.vssfx.metrics.SlowQueryLog;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Shared statement execution for the DAOs: borrow a connection, bind, execute, map, close.
+ * <p>
+ * Every call names its operation (e.g. {@code "vehicle.findPage"}); errors are rethrown as
+ * {@link DaoException}. Result rows are mapped through a {@link RowMapper.Factory}, so column
+ * indexes are resolved once per ResultSet instead of once per row.
+ * <p>
+ * Each call is timed into {@link Metrics} under its operation name (connection wait, execution
+ * and, for {@code forEach}, the row handler), with its row count and any error. Statements
+ * whose own time (after the connection is acquired, without the row handler) is over the slow
+ * threshold also go to {@link SlowQueryLog}.
+ * <p>
+ * Work run under {@link #cancellable} can be stopped from another thread with
+ * {@link Cancellation#cancel()}, which cancels the statement in flight instead of interrupting
+ * the worker.
+ *
+ * <pre>{@code
+ * List<Vehicle> list = Jdbc.query("vehicle.findAll", sql)
+ *         .params(tenantId)
+ *         .list(VEHICLE);
+ * }</pre>
+ */
+public final class Jdbc {
+
+    /** Connector/J row-by-row streaming instead of buffering the whole result. */
+    public static final int STREAM = Integer.MIN_VALUE;
+
+    @FunctionalInterface
+    public interface Binder {
+        void bind(PreparedStatement ps) throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface RowHandler<T> {
+        void accept(T row) throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface TxWork<T> {
+        T run(Tx tx) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface StatementWork<R> {
+        R run(PreparedStatement ps) throws SQLException;
+    }
+
+    private static final ThreadLocal<Cancellation> CANCELLATION = new ThreadLocal<>();
+
+    private Jdbc() {}
+
+    /**
+     * Runs {@code work} on the current thread with {@code cancellation} attached to every
+     * statement it executes through this class.
+     */
+    public static <T> T cancellable(Cancellation cancellation, Callable<T> work) throws Exception {
+        Cancellation outer = CANCELLATION.get();
+        CANCELLATION.set(cancellation);
+        try {
+            return work.call();
+        } finally {
+            if (outer == null) CANCELLATION.remove();
+            else CANCELLATION.set(outer);
+        }
+    }
+
+    /**
+     * Cancels the statements of one unit of work from another thread. Interrupting a virtual
+     * thread blocked in Connector/J I/O closes the pooled connection's socket; {@link #cancel()}
+     * instead asks the server to stop the running statement ({@code Statement.cancel()}, a
+     * {@code KILL QUERY} on a separate connection), so the connection goes back to the pool
+     * intact. Statements started after the cancel fail at once, and row loops stop at the next row.
+     */
+    public static final class Cancellation {
+        private PreparedStatement current; // guarded by this
+        private volatile boolean cancelled;
+
+        /** Blocks while the server is asked to stop the statement; do not call on the FX thread. */
+        public synchronized void cancel() {
+            cancelled = true;
+            if (current == null) return;
+            try {
+                current.cancel();
+            } catch (SQLException ignored) {} // deyim bu arada bittiyse önemli değil
+        }
+
+        public boolean isCancelled() { return cancelled; }
+
+        // exit() de kilidi aldığı için cancel() kapanmış / havuza dönmüş bir deyime ulaşmaz
+        private synchronized void enter(PreparedStatement ps) throws SQLException {
+            check();
+            current = ps;
+        }
+
+        private synchronized void exit() {
+            current = null;
+        }
+
+        private void check() throws SQLException {
+            if (cancelled) throw new SQLException("Sorgu iptal edildi.", "70100", 1317);
+        }
+    }
+
+    public static Query query(String op, String sql) {
+        return new Query(op, sql, null, false);
+    }
+
+    /**
+     * Stored procedure call through a CallableStatement, e.g. {@code "{CALL sp_close_assignment(?, ?, ?, ?)}"}.
+     * The procedure manages its own transaction; SIGNAL messages surface as {@link DaoException}.
+     */
+    public static Query call(String op, String sql) {
+        return new Query(op, sql, null, true);
+    }
+
+    /**
+     * Runs {@code work} on one connection in a single transaction: committed if it returns,
+     * rolled back if it throws.
+     */
+    public static <T> T inTransaction(String op, TxWork<T> work) throws DaoException {
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try (Connection c = Db.getConnection()) {
+            Metrics.connectionAcquired(System.nanoTime() - start);
+            c.setAutoCommit(false);
+            try {
+                T result = work.run(new Tx(c));
+                c.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                c.rollback();
+                throw e;
+            } finally {
+                c.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            failure = e;
+            throw DaoException.translate(op, e);
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            Metrics.record(op, System.nanoTime() - start, 0, failure);
+        }
+    }
+
+    /** Queries issued through a Tx share its connection and transaction. */
+    public static final class Tx {
+        private final Connection connection;
+
+        private Tx(Connection connection) { this.connection = connection; }
+
+        public Query query(String op, String sql) {
+            return new Query(op, sql, connection, false);
+        }
+    }
+
+    public static final class Query {
+        private final String op;
+        private final String sql;
+        private final Connection shared;
+        private final boolean callable;
+        private Binder binder = ps -> {};
+        private Object[] values; // yavaş sorgu kaydı için; bind() ile bağlananlar bilinmez
+        private int fetchSize;
+        private long rows; // metrikler için
+        private long handlerNanos; // forEach: çağıranın satır işleyicisinde geçen süre
+        private Cancellation cancellation; // run() süresince; yoksa null
+
+        private Query(String op, String sql, Connection shared, boolean callable) {
+            this.op = op;
+            this.sql = sql;
+            this.shared = shared;
+            this.callable = callable;
+        }
+
+        public Query bind(Binder binder) {
+            this.binder = binder;
+            this.values = null;
+            return this;
+        }
+
+        /** Positional parameters; null is bound as SQL NULL. */
+        public Query params(Object... values) {
+            this.values = values;
+            this.binder = ps -> {
+                for (int i = 0; i < values.length; i++) {
+                    if (values[i] == null) ps.setNull(i + 1, Types.NULL);
+                    else ps.setObject(i + 1, values[i]);
+                }
+            };
+            return this;
+        }
+
+        /**
+         * Fetch-size hint for large results. Connector/J only honours positive values with
+         * {@code useCursorFetch=true}; {@link #STREAM} streams rows without it.
+         */
+        public Query fetchSize(int rows) {
+            this.fetchSize = rows;
+            return this;
+        }
+
+        public <T> List<T> list(RowMapper.Factory<T> factory) throws DaoException {
+            List<T> out = new ArrayList<>();
+            forEach(factory, out::add);
+            return out;
+        }
+
+        /** First row or null. */
+        public <T> T one(RowMapper.Factory<T> factory) throws DaoException {
+            return run(false, ps -> {
+                ps.setMaxRows(1);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next()) return null;
+                    rows = 1;
+                    return factory.create(new Columns(rs.getMetaData())).map(rs);
+                }
+            });
+        }
+
+        /** Maps rows one at a time without collecting them (exports, aggregation). */
+        public <T> void forEach(RowMapper.Factory<T> factory, RowHandler<T> handler) throws DaoException {
+            run(false, ps -> {
+                try (ResultSet rs = ps.executeQuery()) {
+                    RowMapper<T> mapper = factory.create(new Columns(rs.getMetaData()));
+                    while (rs.next()) {
+                        if (cancellation != null) cancellation.check();
+                        T row = mapper.map(rs);
+                        long h = System.nanoTime();
+                        handler.accept(row);
+                        handlerNanos += System.nanoTime() - h;
+                        rows++;
+                    }
+                }
+                return null;
+            });
+        }
+
+        /** @return affected row count */
+        public int update() throws DaoException {
+            return run(false, ps -> {
+                int n = ps.executeUpdate();
+                rows = n;
+                return n;
+            });
+        }
+
+        /** Executes an INSERT and returns its generated key. */
+        public long insertKey() throws DaoException {
+            return run(true, ps -> {
+                rows = ps.executeUpdate();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    if (!keys.next()) throw new SQLException("No generated key returned.");
+                    return keys.getLong(1);
+                }
+            });
+        }
+
+        // Tüm DAO sorguları buradan geçer
+        private <R> R run(boolean generatedKeys, StatementWork<R> work) throws DaoException {
+            long start = System.nanoTime();
+            long stmtStart = start;
+            Throwable failure = null;
+            Connection c = shared;
+            try {
+                if (c == null) {
+                    c = Db.getConnection();
+                    stmtStart = System.nanoTime();
+                    Metrics.connectionAcquired(stmtStart - start);
+                }
+                try (PreparedStatement ps = prepare(c, generatedKeys)) {
+                    cancellation = CANCELLATION.get();
+                    if (cancellation == null) return work.run(ps);
+                    cancellation.enter(ps);
+                    try {
+                        return work.run(ps);
+                    } finally {
+                        cancellation.exit();
+                    }
+                }
+            } catch (SQLException e) {
+                failure = e;
+                throw DaoException.translate(op, e);
+            } catch (RuntimeException e) {
+                failure = e;
+                throw e;
+            } finally {
+                if (shared == null && c != null) {
+                    try {
+                        c.close();
+                    } catch (SQLException ignored) {}
+                }
+                long end = System.nanoTime();
+                Metrics.record(op, end - start, rows, failure);
+                // havuz beklemesi ve satır işleyicisi sorgunun yavaşlığı sayılmaz
+                SlowQueryLog.maybeRecord(op, sql, values, end - stmtStart - handlerNanos, rows, failure);
+            }
+        }
+
+        private PreparedStatement prepare(Connection c, boolean generatedKeys) throws SQLException {
+            PreparedStatement ps = callable ? c.prepareCall(sql)
+                    : generatedKeys ? c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                    : c.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            try {
+                if (fetchSize != 0) ps.setFetchSize(fetchSize);
+                binder.bind(ps);
+                return ps;
+            } catch (SQLException | RuntimeException e) {
+                ps.close();
+                throw e;
+            }
+        }
+    }
+}
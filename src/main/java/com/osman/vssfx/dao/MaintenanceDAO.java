@@ -1,107 +1,162 @@
 package com.osman.vssfx.dao;
 
+import com.osman.vssfx.events.EventBus;
+import com.osman.vssfx.events.RowChange;
 import com.osman.vssfx.model.Maintenance;
 
 import java.math.BigDecimal;
-import java.sql.Statement;
-import java.util.ArrayList;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
 import java.util.List;
 
 public class MaintenanceDAO {
 
-    public List<Maintenance> findByVehicle(long tenantId, long vehicleId) throws Exception {
-        String sql = """
+    private final VehicleDAO vehicleDAO = new VehicleDAO();
+
+    private static final String SELECT_SQL = """
                 SELECT maint_id, tenant_id, vehicle_id, maint_date, maint_type, odometer_km, description, cost
                 FROM maintenance
+                """;
+
+    public List<Maintenance> findByVehicle(long tenantId, long vehicleId) throws Exception {
+        String sql = SELECT_SQL + """
                 WHERE tenant_id = ? AND vehicle_id = ?
                 ORDER BY maint_date DESC, maint_id DESC
                 """;
 
-        try (var conn = com.osman.vssfx.db.Db.getConnection();
-             var ps = conn.prepareStatement(sql)) {
-
-            ps.setLong(1, tenantId);
-            ps.setLong(2, vehicleId);
-
-            try (var rs = ps.executeQuery()) {
-                List<Maintenance> out = new ArrayList<>();
-                while (rs.next()) {
-                    Maintenance m = new Maintenance();
-                    m.setMaintId(rs.getLong("maint_id"));
-                    m.setTenantId(rs.getLong("tenant_id"));
-                    m.setVehicleId(rs.getLong("vehicle_id"));
-                    m.setMaintDate(rs.getDate("maint_date").toLocalDate());
-                    m.setMaintType(rs.getString("maint_type"));
-                    m.setOdometerKm(rs.getInt("odometer_km"));
-                    m.setDescription(rs.getString("description"));
-
-                    BigDecimal cost = rs.getBigDecimal("cost");
-                    m.setCost(cost == null ? BigDecimal.ZERO : cost);
-
-                    out.add(m);
-                }
-                return out;
-            }
+        return Jdbc.query("maintenance.findByVehicle", sql).params(tenantId, vehicleId).list(MAINTENANCE);
+    }
+
+    public Maintenance findById(long tenantId, long maintId) throws SQLException {
+        String sql = SELECT_SQL + "WHERE tenant_id = ? AND maint_id = ?";
+
+        return Jdbc.query("maintenance.findById", sql).params(tenantId, maintId).one(MAINTENANCE);
+    }
+
+    private static final RowMapper.Factory<Maintenance> MAINTENANCE = cols -> {
+        int id = cols.of("maint_id"), tenant = cols.of("tenant_id"), vehicle = cols.of("vehicle_id");
+        int date = cols.of("maint_date"), type = cols.of("maint_type"), km = cols.of("odometer_km");
+        int desc = cols.of("description"), cost = cols.of("cost");
+
+        return rs -> {
+            Maintenance m = new Maintenance();
+            m.setMaintId(rs.getLong(id));
+            m.setTenantId(rs.getLong(tenant));
+            m.setVehicleId(rs.getLong(vehicle));
+            m.setMaintDate(rs.getObject(date, LocalDate.class));
+            m.setMaintType(rs.getString(type));
+            m.setOdometerKm(rs.getInt(km));
+            m.setDescription(rs.getString(desc));
+
+            BigDecimal c = rs.getBigDecimal(cost);
+            m.setCost(c == null ? BigDecimal.ZERO : c);
+            return m;
+        };
+    };
+
+    /** Re-reads one record after a write and publishes the change. */
+    private void publishRow(long tenantId, long maintId, RowChange.Op op) throws SQLException {
+        Maintenance fresh = findById(tenantId, maintId);
+        if (fresh == null) {
+            EventBus.publish(RowChange.deleted(Maintenance.class, tenantId, maintId));
+            return;
         }
+        EventBus.publish(op == RowChange.Op.INSERTED
+                ? RowChange.inserted(Maintenance.class, tenantId, maintId, fresh)
+                : RowChange.updated(Maintenance.class, tenantId, maintId, fresh));
     }
 
+    // km tetikleyicileri araç satırlarını da değiştirir
+    private void invalidateTenant(long tenantId) {
+        EventBus.publish(RowChange.invalidated(Maintenance.class, tenantId));
+        vehicleDAO.invalidateTenant(tenantId);
+    }
+
+    private static final String INSERT_SQL = """
+            INSERT INTO maintenance (tenant_id, maint_date, maint_type, odometer_km, description, cost, vehicle_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String UPDATE_SQL = """
+            UPDATE maintenance
+            SET maint_date = ?, maint_type = ?, odometer_km = ?, description = ?, cost = ?
+            WHERE tenant_id = ? AND maint_id = ?
+            """;
+
     public long insert(long tenantId, Maintenance m) throws Exception {
-        String sql = """
-                INSERT INTO maintenance (tenant_id, maint_date, maint_type, odometer_km, description, cost, vehicle_id)
-                VALUES (?, ?, ?, ?, ?, ?, ?)
-                """;
+        long id = Jdbc.query("maintenance.insert", INSERT_SQL).bind(ps -> bindInsert(ps, tenantId, m)).insertKey();
+        publishRow(tenantId, id, RowChange.Op.INSERTED);
 
-        try (var conn = com.osman.vssfx.db.Db.getConnection();
-             var ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        // trg_maintenance_sync_vehicle_km aracın current_km'ini güncelledi
+        vehicleDAO.refreshRow(tenantId, m.getVehicleId());
+        return id;
+    }
 
-            ps.setLong(1, tenantId);
-            ps.setDate(2, java.sql.Date.valueOf(m.getMaintDate()));
-            ps.setString(3, m.getMaintType());
-            ps.setInt(4, m.getOdometerKm());
-            ps.setString(5, m.getDescription());
-            ps.setBigDecimal(6, m.getCost() == null ? BigDecimal.ZERO : m.getCost());
-            ps.setLong(7, m.getVehicleId());
+    public void update(long tenantId, Maintenance m) throws Exception {
+        Jdbc.query("maintenance.update", UPDATE_SQL).bind(ps -> bindUpdate(ps, tenantId, m)).update();
+        publishRow(tenantId, m.getMaintId(), RowChange.Op.UPDATED);
+    }
 
-            ps.executeUpdate();
+    /**
+     * Multi-row insert in chunks; keys are returned in the order of {@code rows}.
+     * trg_maintenance_km_check still runs per row, so rows below the vehicle's current KM
+     * are reported individually instead of failing the whole load.
+     */
+    public BatchResult insertBatch(long tenantId, List<Maintenance> rows) throws SQLException {
+        try {
+            return BatchWriter.insert(INSERT_SQL, rows, (ps, m) -> bindInsert(ps, tenantId, m));
+        } finally {
+            invalidateTenant(tenantId);
+        }
+    }
 
-            try (var rs = ps.getGeneratedKeys()) {
-                if (!rs.next()) throw new IllegalStateException("maint_id alınamadı.");
-                return rs.getLong(1);
-            }
+    /** Rows with a maintId are updated, the others inserted. Keys follow the order of {@code rows}. */
+    public BatchResult upsertBatch(long tenantId, List<Maintenance> rows) throws SQLException {
+        try {
+            return BatchWriter.upsertById(rows, Maintenance::getMaintId,
+                    INSERT_SQL, (ps, m) -> bindInsert(ps, tenantId, m),
+                    UPDATE_SQL, (ps, m) -> bindUpdate(ps, tenantId, m));
+        } finally {
+            invalidateTenant(tenantId);
         }
     }
 
-    public void update(long tenantId, Maintenance m) throws Exception {
-        String sql = """
-                UPDATE maintenance
-                SET maint_date = ?, maint_type = ?, odometer_km = ?, description = ?, cost = ?
-                WHERE tenant_id = ? AND maint_id = ?
-                """;
+    private static void bindInsert(PreparedStatement ps, long tenantId, Maintenance m) throws SQLException {
+        requireFields(m);
+        if (m.getVehicleId() == null) throw new IllegalArgumentException("Araç seçilmedi.");
+
+        ps.setLong(1, tenantId);
+        ps.setDate(2, java.sql.Date.valueOf(m.getMaintDate()));
+        ps.setString(3, m.getMaintType());
+        ps.setInt(4, m.getOdometerKm());
+        ps.setString(5, m.getDescription());
+        ps.setBigDecimal(6, m.getCost() == null ? BigDecimal.ZERO : m.getCost());
+        ps.setLong(7, m.getVehicleId());
+    }
 
-        try (var conn = com.osman.vssfx.db.Db.getConnection();
-             var ps = conn.prepareStatement(sql)) {
+    private static void bindUpdate(PreparedStatement ps, long tenantId, Maintenance m) throws SQLException {
+        requireFields(m);
 
-            ps.setDate(1, java.sql.Date.valueOf(m.getMaintDate()));
-            ps.setString(2, m.getMaintType());
-            ps.setInt(3, m.getOdometerKm());
-            ps.setString(4, m.getDescription());
-            ps.setBigDecimal(5, m.getCost() == null ? BigDecimal.ZERO : m.getCost());
-            ps.setLong(6, tenantId);
-            ps.setLong(7, m.getMaintId());
+        ps.setDate(1, java.sql.Date.valueOf(m.getMaintDate()));
+        ps.setString(2, m.getMaintType());
+        ps.setInt(3, m.getOdometerKm());
+        ps.setString(4, m.getDescription());
+        ps.setBigDecimal(5, m.getCost() == null ? BigDecimal.ZERO : m.getCost());
+        ps.setLong(6, tenantId);
+        ps.setLong(7, m.getMaintId());
+    }
 
-            ps.executeUpdate();
-        }
+    private static void requireFields(Maintenance m) {
+        if (m.getMaintDate() == null) throw new IllegalArgumentException("Tarih boş olamaz.");
+        if (m.getMaintType() == null || m.getMaintType().isBlank()) throw new IllegalArgumentException("Bakım türü boş olamaz.");
+        if (m.getOdometerKm() == null) throw new IllegalArgumentException("KM boş olamaz.");
     }
 
     public void delete(long tenantId, long maintId) throws Exception {
         String sql = "DELETE FROM maintenance WHERE tenant_id = ? AND maint_id = ?";
 
-        try (var conn = com.osman.vssfx.db.Db.getConnection();
-             var ps = conn.prepareStatement(sql)) {
-
-            ps.setLong(1, tenantId);
-            ps.setLong(2, maintId);
-            ps.executeUpdate();
-        }
+        Jdbc.query("maintenance.delete", sql).params(tenantId, maintId).update();
+        EventBus.publish(RowChange.deleted(Maintenance.class, tenantId, maintId));
     }
 }
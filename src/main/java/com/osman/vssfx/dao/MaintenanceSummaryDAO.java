@@ -0,0 +1,73 @@
+package com.osman.vssfx.dao;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Reads the trigger-maintained summaries (vehicle_maintenance_summary, tenant_maintenance_totals).
+ * Both queries are primary-key / index lookups and do not touch the maintenance history.
+ */
+public class MaintenanceSummaryDAO {
+
+    public record FleetTotals(long maintCount, BigDecimal totalCost, LocalDate lastMaintDate) {
+        public static final FleetTotals EMPTY = new FleetTotals(0, BigDecimal.ZERO, null);
+    }
+
+    public record VehicleCost(long vehicleId, String plateNo, String make, String model,
+                              long maintCount, BigDecimal totalCost, LocalDate lastMaintDate, Integer lastKm) {}
+
+    public FleetTotals fleetTotals(long tenantId) throws SQLException {
+        String sql = """
+                SELECT maint_count, total_cost, last_maint_date
+                FROM tenant_maintenance_totals
+                WHERE tenant_id = ?
+                """;
+
+        FleetTotals t = Jdbc.query("summary.fleetTotals", sql).params(tenantId).one(FLEET_TOTALS);
+        return t == null ? FleetTotals.EMPTY : t; // henüz bakım kaydı yok
+    }
+
+    /** Most expensive vehicles first; walks ix_vms_tenant_cost backwards and stops after {@code limit}. */
+    public List<VehicleCost> topByCost(long tenantId, int limit) throws SQLException {
+        String sql = """
+                SELECT s.vehicle_id, v.plate_no, v.make, v.model,
+                       s.maint_count, s.total_cost, s.last_maint_date, s.last_km
+                FROM vehicle_maintenance_summary s
+                JOIN vehicle v ON v.tenant_id = s.tenant_id AND v.vehicle_id = s.vehicle_id
+                WHERE s.tenant_id = ? AND s.maint_count > 0
+                ORDER BY s.total_cost DESC
+                LIMIT ?
+                """;
+
+        return Jdbc.query("summary.topByCost", sql).params(tenantId, limit).list(VEHICLE_COST);
+    }
+
+    private static final RowMapper.Factory<FleetTotals> FLEET_TOTALS = cols -> {
+        int count = cols.of("maint_count"), cost = cols.of("total_cost"), last = cols.of("last_maint_date");
+
+        return rs -> new FleetTotals(
+                rs.getLong(count),
+                rs.getBigDecimal(cost),
+                rs.getObject(last, LocalDate.class)
+        );
+    };
+
+    private static final RowMapper.Factory<VehicleCost> VEHICLE_COST = cols -> {
+        int id = cols.of("vehicle_id"), plate = cols.of("plate_no"), make = cols.of("make"), model = cols.of("model");
+        int count = cols.of("maint_count"), cost = cols.of("total_cost");
+        int last = cols.of("last_maint_date"), km = cols.of("last_km");
+
+        return rs -> new VehicleCost(
+                rs.getLong(id),
+                rs.getString(plate),
+                rs.getString(make),
+                rs.getString(model),
+                rs.getLong(count),
+                rs.getBigDecimal(cost),
+                rs.getObject(last, LocalDate.class),
+                rs.getObject(km, Integer.class)
+        );
+    };
+}
@@ -0,0 +1,74 @@
+package com.osman.vssfx.dao;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * Read-only queries behind the public QR scan endpoint. A scan only carries the token; the
+ * service normally maps it to (tenant, vehicle) in memory and asks for the card by vehicle.
+ * {@link #findByTokenHash} covers the time before that index is loaded (uq_qr_tokenhash).
+ */
+public class PublicVehicleDAO {
+
+    /** What a scan shows: the vehicle and how to reach its service. */
+    public record PublicCard(long tenantId, long vehicleId, String displayCode,
+                             String plateNo, String make, String model, int modelYear, String colour,
+                             int currentKm, LocalDate lastMaintDate,
+                             String serviceName, String servicePhone, String serviceWhatsapp) {}
+
+    private static final String SELECT_SQL = """
+                SELECT p.tenant_id, p.vehicle_id, p.display_code,
+                       p.plate_no, p.make, p.model, p.model_year, p.colour, p.current_km,
+                       s.last_maint_date, tn.name AS service_name, tn.phone AS service_phone,
+                       tn.whatsapp_phone AS service_whatsapp
+                FROM vw_public_vehicle_by_tokenhash p
+                JOIN tenants tn ON tn.tenant_id = p.tenant_id
+                LEFT JOIN vehicle_maintenance_summary s
+                  ON s.tenant_id = p.tenant_id AND s.vehicle_id = p.vehicle_id
+                """;
+
+    public PublicCard findByTokenHash(byte[] tokenHash) throws SQLException {
+        String sql = SELECT_SQL + """
+                WHERE p.token_hash = ? AND p.status = 'ACTIVATED' AND p.vehicle_id IS NOT NULL
+                LIMIT 1
+                """;
+
+        return Jdbc.query("public.findByTokenHash", sql).params(tokenHash).one(CARD);
+    }
+
+    /** The card of a vehicle's ACTIVATED tag (uq_qr_tenant_vehicle). */
+    public PublicCard findByVehicle(long tenantId, long vehicleId) throws SQLException {
+        String sql = SELECT_SQL + """
+                WHERE p.tenant_id = ? AND p.vehicle_id = ? AND p.status = 'ACTIVATED'
+                LIMIT 1
+                """;
+
+        return Jdbc.query("public.findByVehicle", sql).params(tenantId, vehicleId).one(CARD);
+    }
+
+    // ---------------------------------------------------------------
+
+    private static final RowMapper.Factory<PublicCard> CARD = cols -> {
+        int tenant = cols.of("tenant_id"), vehicle = cols.of("vehicle_id"), code = cols.of("display_code");
+        int plate = cols.of("plate_no"), make = cols.of("make"), model = cols.of("model");
+        int year = cols.of("model_year"), colour = cols.of("colour"), km = cols.of("current_km");
+        int last = cols.of("last_maint_date"), name = cols.of("service_name");
+        int phone = cols.of("service_phone"), whatsapp = cols.of("service_whatsapp");
+
+        return rs -> new PublicCard(
+                rs.getLong(tenant),
+                rs.getLong(vehicle),
+                rs.getString(code),
+                rs.getString(plate),
+                rs.getString(make),
+                rs.getString(model),
+                rs.getInt(year),
+                rs.getString(colour),
+                rs.getInt(km),
+                rs.getObject(last, LocalDate.class),
+                rs.getString(name),
+                rs.getString(phone),
+                rs.getString(whatsapp)
+        );
+    };
+}
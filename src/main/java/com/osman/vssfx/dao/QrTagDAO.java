@@ -0,0 +1,143 @@
+package com.osman.vssfx.dao;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * QR sticker tags. token_hash is the 32-byte {@code TokenHasher} digest.
+ * <p>
+ * Bulk minting bypasses sp_create_qr_tag, which checks the tenant and inserts one row per
+ * CALL: the tenant is checked once and the rows go in as multi-row INSERTs, all in one
+ * transaction so a roll is either fully stored or not at all.
+ * <p>
+ * The public scan service loads the active tags once and then follows qr_tag_changes, which
+ * sp_activate_qr_tag / sp_revoke_qr_tag append to.
+ */
+public class QrTagDAO {
+
+    public enum Status { NEW, ACTIVATED, REVOKED }
+
+    /** A tag to store; the token itself never reaches the database. */
+    public record NewTag(byte[] tokenHash, String displayCode) {}
+
+    public record ActiveTag(byte[] tokenHash, long tenantId, long vehicleId) {}
+
+    public record Change(long changeId, byte[] tokenHash, long tenantId, long vehicleId, Status status) {}
+
+    /** Rows per INSERT statement (3 parameters each). */
+    static final int INSERT_CHUNK = 1000;
+
+    public interface Progress {
+        void rows(long inserted);
+    }
+
+    public void insertNew(long tenantId, List<NewTag> tags, Progress progress) throws SQLException {
+        if (tags.isEmpty()) return;
+
+        Jdbc.inTransaction("qr.insertNew", tx -> {
+            Long found = tx.query("qr.tenantCheck", "SELECT tenant_id FROM tenants WHERE tenant_id = ?")
+                    .params(tenantId)
+                    .one(RowMapper.firstLong());
+            if (found == null) throw new IllegalArgumentException("Firma bulunamadı.");
+
+            String fullChunk = insertSql(INSERT_CHUNK);
+            for (int from = 0; from < tags.size(); from += INSERT_CHUNK) {
+                List<NewTag> chunk = tags.subList(from, Math.min(tags.size(), from + INSERT_CHUNK));
+                String sql = chunk.size() == INSERT_CHUNK ? fullChunk : insertSql(chunk.size());
+
+                List<Object> params = new ArrayList<>(chunk.size() * 3);
+                for (NewTag t : chunk) {
+                    params.add(tenantId);
+                    params.add(t.tokenHash());
+                    params.add(t.displayCode());
+                }
+                tx.query("qr.insertChunk", sql).params(params.toArray()).update();
+                progress.rows(from + chunk.size());
+            }
+            return null;
+        });
+    }
+
+    public Map<Status, Long> countByStatus(long tenantId) throws SQLException {
+        String sql = """
+                SELECT status, COUNT(*) AS n
+                FROM qr_tags
+                WHERE tenant_id = ?
+                GROUP BY status
+                """;
+
+        Map<Status, Long> counts = new EnumMap<>(Status.class);
+        for (Status s : Status.values()) counts.put(s, 0L);
+        Jdbc.query("qr.countByStatus", sql).params(tenantId).forEach(STATUS_COUNT,
+                row -> counts.put(row.status(), row.count()));
+        return counts;
+    }
+
+    // ---------------------------------------------------------------
+    // Public tarama indeksi
+
+    public long countActive() throws SQLException {
+        String sql = "SELECT COUNT(*) FROM qr_tags WHERE status = 'ACTIVATED'";
+        Long n = Jdbc.query("qr.countActive", sql).one(RowMapper.firstLong());
+        return n == null ? 0 : n;
+    }
+
+    public void forEachActive(Jdbc.RowHandler<ActiveTag> handler) throws SQLException {
+        String sql = """
+                SELECT token_hash, tenant_id, vehicle_id
+                FROM qr_tags
+                WHERE status = 'ACTIVATED' AND vehicle_id IS NOT NULL
+                """;
+
+        Jdbc.query("qr.active", sql).fetchSize(Jdbc.STREAM).forEach(ACTIVE_TAG, handler);
+    }
+
+    /** High-water mark to follow from after a full {@link #forEachActive} load. */
+    public long lastChangeId() throws SQLException {
+        Long n = Jdbc.query("qr.lastChange", "SELECT COALESCE(MAX(change_id), 0) FROM qr_tag_changes")
+                .one(RowMapper.firstLong());
+        return n == null ? 0 : n;
+    }
+
+    /** Changes with change_id > {@code afterId}, oldest first. */
+    public void forEachChange(long afterId, Jdbc.RowHandler<Change> handler) throws SQLException {
+        String sql = """
+                SELECT change_id, token_hash, tenant_id, vehicle_id, status
+                FROM qr_tag_changes
+                WHERE change_id > ?
+                ORDER BY change_id
+                """;
+
+        Jdbc.query("qr.changes", sql).params(afterId).forEach(CHANGE, handler);
+    }
+
+    // ---------------------------------------------------------------
+
+    private static String insertSql(int rows) {
+        return "INSERT INTO qr_tags (tenant_id, token_hash, display_code, status) VALUES "
+                + String.join(",", Collections.nCopies(rows, "(?, ?, ?, 'NEW')"));
+    }
+
+    private static final RowMapper.Factory<ActiveTag> ACTIVE_TAG = cols -> {
+        int hash = cols.of("token_hash"), tenant = cols.of("tenant_id"), vehicle = cols.of("vehicle_id");
+        return rs -> new ActiveTag(rs.getBytes(hash), rs.getLong(tenant), rs.getLong(vehicle));
+    };
+
+    private static final RowMapper.Factory<Change> CHANGE = cols -> {
+        int id = cols.of("change_id"), hash = cols.of("token_hash"), tenant = cols.of("tenant_id");
+        int vehicle = cols.of("vehicle_id"), status = cols.of("status");
+        return rs -> new Change(rs.getLong(id), rs.getBytes(hash), rs.getLong(tenant), rs.getLong(vehicle),
+                Status.valueOf(rs.getString(status)));
+    };
+
+    private record StatusCount(Status status, long count) {}
+
+    private static final RowMapper.Factory<StatusCount> STATUS_COUNT = cols -> {
+        int status = cols.of("status"), n = cols.of("n");
+        return rs -> new StatusCount(Status.valueOf(rs.getString(status)), rs.getLong(n));
+    };
+}
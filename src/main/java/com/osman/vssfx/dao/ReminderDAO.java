@@ -0,0 +1,271 @@
+package com.osman.vssfx.dao;
+
+import com.osman.vssfx.events.EventBus;
+import com.osman.vssfx.events.RowChange;
+import com.osman.vssfx.model.Reminder;
+import com.osman.vssfx.model.ReminderStatus;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+public class ReminderDAO {
+
+    private static final String SELECT_SQL = """
+                SELECT r.reminder_id, r.tenant_id, r.vehicle_id, r.customer_id, r.remind_at, r.title, r.message,
+                       r.channel_email, r.channel_sms, r.status, r.last_error, r.attempts, r.sent_at, r.sent_channels,
+                       v.plate_no, CONCAT(c.first_name, ' ', c.last_name) AS customer_name,
+                       c.email AS customer_email, c.phone AS customer_phone
+                FROM reminders r
+                JOIN vehicle v ON v.tenant_id = r.tenant_id AND v.vehicle_id = r.vehicle_id
+                LEFT JOIN customers c ON c.tenant_id = r.tenant_id AND c.customer_id = r.customer_id
+                """;
+
+    /** Newest {@code limit} reminders by due time (ix_rem_tenant_due). */
+    public List<Reminder> findByTenant(long tenantId, int limit) throws SQLException {
+        String sql = SELECT_SQL + """
+                WHERE r.tenant_id = ?
+                ORDER BY r.remind_at DESC, r.reminder_id DESC
+                LIMIT ?
+                """;
+
+        return Jdbc.query("reminder.findByTenant", sql).params(tenantId, limit).list(REMINDER);
+    }
+
+    public Reminder findById(long tenantId, long reminderId) throws SQLException {
+        String sql = SELECT_SQL + "WHERE r.tenant_id = ? AND r.reminder_id = ?";
+
+        return Jdbc.query("reminder.findById", sql).params(tenantId, reminderId).one(REMINDER);
+    }
+
+    private static final RowMapper.Factory<Reminder> REMINDER = cols -> {
+        int id = cols.of("reminder_id"), tenant = cols.of("tenant_id"), vehicle = cols.of("vehicle_id");
+        int customer = cols.of("customer_id"), at = cols.of("remind_at"), title = cols.of("title");
+        int message = cols.of("message"), email = cols.of("channel_email"), sms = cols.of("channel_sms");
+        int status = cols.of("status"), error = cols.of("last_error"), attempts = cols.of("attempts");
+        int sent = cols.of("sent_at"), sentChannels = cols.of("sent_channels"), plate = cols.of("plate_no"), name = cols.of("customer_name");
+        int cEmail = cols.of("customer_email"), cPhone = cols.of("customer_phone");
+
+        return rs -> {
+            Reminder r = new Reminder();
+            r.setReminderId(rs.getLong(id));
+            r.setTenantId(rs.getLong(tenant));
+            r.setVehicleId(rs.getLong(vehicle));
+            long cid = rs.getLong(customer);
+            r.setCustomerId(rs.wasNull() ? null : cid);
+            r.setRemindAt(rs.getObject(at, LocalDateTime.class));
+            r.setTitle(rs.getString(title));
+            r.setMessage(rs.getString(message));
+            r.setChannelEmail(rs.getBoolean(email));
+            r.setChannelSms(rs.getBoolean(sms));
+            r.setStatus(ReminderStatus.fromDb(rs.getString(status)));
+            r.setLastError(rs.getString(error));
+            r.setAttempts(rs.getInt(attempts));
+            r.setSentAt(rs.getObject(sent, LocalDateTime.class));
+            r.setSentChannels(rs.getInt(sentChannels));
+            r.setPlateNo(rs.getString(plate));
+            r.setCustomerName(rs.getString(name));
+            r.setCustomerEmail(rs.getString(cEmail));
+            r.setCustomerPhone(rs.getString(cPhone));
+            return r;
+        };
+    };
+
+    /** Re-reads one reminder after a write and publishes the change. */
+    private void publishRow(long tenantId, long reminderId, RowChange.Op op) throws SQLException {
+        Reminder fresh = findById(tenantId, reminderId);
+        if (fresh == null) {
+            EventBus.publish(RowChange.deleted(Reminder.class, tenantId, reminderId));
+            return;
+        }
+        EventBus.publish(op == RowChange.Op.INSERTED
+                ? RowChange.inserted(Reminder.class, tenantId, reminderId, fresh)
+                : RowChange.updated(Reminder.class, tenantId, reminderId, fresh));
+    }
+
+    // ---------------------------------------------------------------
+    // Ekran işlemleri
+
+    /** The customer is taken from the vehicle at insert time. */
+    public long insert(long tenantId, Reminder r) throws SQLException {
+        requireFields(r);
+        String sql = """
+                INSERT INTO reminders (tenant_id, vehicle_id, customer_id, remind_at, title, message, channel_email, channel_sms)
+                SELECT v.tenant_id, v.vehicle_id, v.customer_id, ?, ?, ?, ?, ?
+                FROM vehicle v
+                WHERE v.tenant_id = ? AND v.vehicle_id = ?
+                """;
+
+        long id = Jdbc.query("reminder.insert", sql)
+                .params(r.getRemindAt(), r.getTitle(), r.getMessage(), r.isChannelEmail(), r.isChannelSms(),
+                        tenantId, r.getVehicleId())
+                .insertKey();
+        publishRow(tenantId, id, RowChange.Op.INSERTED);
+        return id;
+    }
+
+    /**
+     * Edits a reminder that has not been sent yet. A FAILED one is re-armed; any dispatcher
+     * claim is dropped so the new due time is picked up on the next claim. Channels that already
+     * delivered it ({@code sent_channels}) are not sent again.
+     */
+    public void update(long tenantId, Reminder r) throws SQLException {
+        requireFields(r);
+        String sql = """
+                UPDATE reminders
+                SET vehicle_id = ?, remind_at = ?, title = ?, message = ?, channel_email = ?, channel_sms = ?,
+                    status = 'PENDING', attempts = 0, last_error = NULL, claimed_by = NULL, claimed_until = NULL
+                WHERE tenant_id = ? AND reminder_id = ? AND status IN ('PENDING', 'FAILED')
+                """;
+
+        int n = Jdbc.query("reminder.update", sql)
+                .params(r.getVehicleId(), r.getRemindAt(), r.getTitle(), r.getMessage(),
+                        r.isChannelEmail(), r.isChannelSms(), tenantId, r.getReminderId())
+                .update();
+        if (n == 0) throw new IllegalStateException("Gönderilmiş veya iptal edilmiş hatırlatma değiştirilemez.");
+        publishRow(tenantId, r.getReminderId(), RowChange.Op.UPDATED);
+    }
+
+    public void cancel(long tenantId, long reminderId) throws SQLException {
+        String sql = """
+                UPDATE reminders
+                SET status = 'CANCELLED', claimed_by = NULL, claimed_until = NULL
+                WHERE tenant_id = ? AND reminder_id = ? AND status IN ('PENDING', 'FAILED')
+                """;
+
+        int n = Jdbc.query("reminder.cancel", sql).params(tenantId, reminderId).update();
+        if (n == 0) throw new IllegalStateException("Sadece bekleyen hatırlatmalar iptal edilebilir.");
+        publishRow(tenantId, reminderId, RowChange.Op.UPDATED);
+    }
+
+    public void delete(long tenantId, long reminderId) throws SQLException {
+        String sql = "DELETE FROM reminders WHERE tenant_id = ? AND reminder_id = ?";
+
+        Jdbc.query("reminder.delete", sql).params(tenantId, reminderId).update();
+        EventBus.publish(RowChange.deleted(Reminder.class, tenantId, reminderId));
+    }
+
+    private static void requireFields(Reminder r) {
+        if (r.getVehicleId() == null) throw new IllegalArgumentException("Araç seçilmedi.");
+        if (r.getRemindAt() == null) throw new IllegalArgumentException("Tarih / saat boş olamaz.");
+        if (r.getTitle() == null || r.getTitle().isBlank()) throw new IllegalArgumentException("Başlık boş olamaz.");
+        if (!r.isChannelEmail() && !r.isChannelSms()) throw new IllegalArgumentException("En az bir kanal seçin.");
+    }
+
+    // ---------------------------------------------------------------
+    // Dağıtıcı (tüm firmalar)
+
+    /**
+     * Leases up to {@code limit} PENDING reminders due before {@code horizon} to {@code owner}.
+     * SKIP LOCKED lets other instances claim a different batch concurrently instead of waiting;
+     * rows whose lease has expired (owner gone) are claimable again.
+     */
+    public List<Reminder> claimDue(String owner, LocalDateTime now, LocalDateTime horizon,
+                                   LocalDateTime leaseUntil, int limit) throws SQLException {
+        String pick = """
+                SELECT reminder_id
+                FROM reminders
+                WHERE status = 'PENDING' AND remind_at <= ?
+                  AND (claimed_until IS NULL OR claimed_until < ?)
+                ORDER BY remind_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+                """;
+
+        return Jdbc.inTransaction("reminder.claimDue", tx -> {
+            List<Long> ids = tx.query("reminder.claimDue.pick", pick)
+                    .params(horizon, now, limit)
+                    .list(RowMapper.firstLong());
+            if (ids.isEmpty()) return List.of();
+
+            String in = String.join(",", Collections.nCopies(ids.size(), "?"));
+            List<Object> params = new ArrayList<>(ids.size() + 2);
+            params.add(owner);
+            params.add(leaseUntil);
+            params.addAll(ids);
+
+            tx.query("reminder.claimDue.lease",
+                            "UPDATE reminders SET claimed_by = ?, claimed_until = ? WHERE reminder_id IN (" + in + ")")
+                    .params(params.toArray())
+                    .update();
+
+            return tx.query("reminder.claimDue.load", SELECT_SQL + "WHERE r.reminder_id IN (" + in + ")")
+                    .params(ids.toArray())
+                    .list(REMINDER);
+        });
+    }
+
+    /**
+     * Extends the lease on the given reminders while {@code owner} still holds them. Claims the
+     * owner has lost track of are left to expire so another pass can pick them up.
+     */
+    public void renewClaims(String owner, Collection<Long> ids, LocalDateTime leaseUntil) throws SQLException {
+        if (ids.isEmpty()) return;
+
+        String in = String.join(",", Collections.nCopies(ids.size(), "?"));
+        List<Object> params = new ArrayList<>(ids.size() + 2);
+        params.add(leaseUntil);
+        params.add(owner);
+        params.addAll(ids);
+
+        String sql = "UPDATE reminders SET claimed_until = ? WHERE claimed_by = ? AND status = 'PENDING'"
+                + " AND reminder_id IN (" + in + ")";
+        Jdbc.query("reminder.renewClaims", sql).params(params.toArray()).update();
+    }
+
+    /** Current state of a claimed reminder, or null if it was edited, cancelled or re-claimed meanwhile. */
+    public Reminder findClaimed(long reminderId, String owner) throws SQLException {
+        String sql = SELECT_SQL + "WHERE r.reminder_id = ? AND r.claimed_by = ? AND r.status = 'PENDING'";
+        return Jdbc.query("reminder.findClaimed", sql).params(reminderId, owner).one(REMINDER);
+    }
+
+    /**
+     * Records that one channel delivered the reminder, right after it did, so a later retry of
+     * the other channels skips it. No row event: the reminder is still PENDING.
+     */
+    public void markChannelSent(Reminder r, String owner, int channelBit) throws SQLException {
+        String sql = "UPDATE reminders SET sent_channels = sent_channels | ? WHERE reminder_id = ? AND claimed_by = ?";
+        Jdbc.query("reminder.markChannelSent", sql).params(channelBit, r.getReminderId(), owner).update();
+        r.setSentChannels(r.getSentChannels() | channelBit);
+    }
+
+    public void markSent(Reminder r, String owner, LocalDateTime sentAt) throws SQLException {
+        String sql = """
+                UPDATE reminders
+                SET status = 'SENT', sent_at = ?, attempts = attempts + 1, last_error = NULL,
+                    claimed_by = NULL, claimed_until = NULL
+                WHERE reminder_id = ? AND claimed_by = ?
+                """;
+
+        Jdbc.query("reminder.markSent", sql).params(sentAt, r.getReminderId(), owner).update();
+        publishRow(r.getTenantId(), r.getReminderId(), RowChange.Op.UPDATED);
+    }
+
+    /**
+     * Records a failed attempt. Below {@code maxAttempts} the reminder stays PENDING and becomes
+     * claimable again at {@code retryAt}; otherwise it is FAILED.
+     */
+    public void markFailed(Reminder r, String owner, String error, int maxAttempts, LocalDateTime retryAt) throws SQLException {
+        // MySQL atamaları soldan sağa uygular: status'taki attempts artırılmış değerdir
+        String sql = """
+                UPDATE reminders
+                SET attempts = attempts + 1, last_error = ?,
+                    status = IF(attempts >= ?, 'FAILED', 'PENDING'),
+                    claimed_by = NULL, claimed_until = ?
+                WHERE reminder_id = ? AND claimed_by = ?
+                """;
+
+        String msg = error == null ? "Bilinmeyen hata" : error.length() > 500 ? error.substring(0, 500) : error;
+        Jdbc.query("reminder.markFailed", sql).params(msg, maxAttempts, retryAt, r.getReminderId(), owner).update();
+        publishRow(r.getTenantId(), r.getReminderId(), RowChange.Op.UPDATED);
+    }
+
+    /** Hands everything {@code owner} holds back to the other instances (shutdown). */
+    public void releaseClaims(String owner) throws SQLException {
+        String sql = "UPDATE reminders SET claimed_by = NULL, claimed_until = NULL WHERE claimed_by = ? AND status = 'PENDING'";
+        Jdbc.query("reminder.releaseClaims", sql).params(owner).update();
+    }
+}
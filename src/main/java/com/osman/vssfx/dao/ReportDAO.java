@@ -0,0 +1,47 @@
+package com.osman.vssfx.dao;
+
+import com.osman.vssfx.analytics.MaintenanceCube;
+
+import java.sql.SQLException;
+
+public class ReportDAO {
+
+    /**
+     * Streams the tenant's maintenance rows straight into a {@link MaintenanceCube}; no row
+     * objects are kept. Month index and cents are computed by MySQL so the mapper reads ints.
+     */
+    public MaintenanceCube loadMaintenanceCube(long tenantId) throws SQLException {
+        String sql = """
+                SELECT YEAR(m.maint_date) * 12 + MONTH(m.maint_date) - 1 AS month_idx,
+                       m.maint_type, v.make, v.model,
+                       v.customer_id, CONCAT(c.first_name, ' ', c.last_name) AS customer_name,
+                       CAST(m.cost * 100 AS SIGNED) AS cost_cents
+                FROM maintenance m
+                JOIN vehicle v ON v.tenant_id = m.tenant_id AND v.vehicle_id = m.vehicle_id
+                LEFT JOIN customers c ON c.tenant_id = v.tenant_id AND c.customer_id = v.customer_id
+                WHERE m.tenant_id = ?
+                """;
+
+        MaintenanceCube.Builder cube = MaintenanceCube.builder();
+
+        // Mapper satırı doğrudan sütunlara ekler; handler'a bir şey kalmaz
+        RowMapper.Factory<Void> append = cols -> {
+            int month = cols.of("month_idx"), type = cols.of("maint_type");
+            int make = cols.of("make"), model = cols.of("model");
+            int customer = cols.of("customer_id"), name = cols.of("customer_name"), cents = cols.of("cost_cents");
+
+            return rs -> {
+                cube.add(rs.getInt(month), rs.getString(type), rs.getString(make), rs.getString(model),
+                        rs.getLong(customer), rs.getString(name), rs.getLong(cents));
+                return null;
+            };
+        };
+
+        Jdbc.query("report.maintenanceCube", sql)
+                .params(tenantId)
+                .fetchSize(Jdbc.STREAM)
+                .forEach(append, ignored -> {});
+
+        return cube.build();
+    }
+}
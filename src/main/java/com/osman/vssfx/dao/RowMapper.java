@@ -0,0 +1,24 @@
+package com.osman.vssfx.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps the current row of a ResultSet. Mappers are built per ResultSet by a {@link Factory},
+ * which looks column indexes up once so the per-row code reads by index only.
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    T map(ResultSet rs) throws SQLException;
+
+    @FunctionalInterface
+    interface Factory<T> {
+        RowMapper<T> create(Columns columns) throws SQLException;
+    }
+
+    /** Factory for single-column results (ids, counts). */
+    static Factory<Long> firstLong() {
+        return cols -> rs -> rs.getLong(1);
+    }
+}
@@ -0,0 +1,285 @@
+package com.osman.vssfx.dao;
+
+import com.osman.vssfx.events.EventBus;
+import com.osman.vssfx.events.RowChange;
+import com.osman.vssfx.model.Reminder;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Storage side of the service reminder generator.
+ * <p>
+ * Triggers put a vehicle into service_dirty_vehicles whenever its km, its maintenance history or
+ * its tenant's service_rules change. {@link #runBatch} claims the oldest dirty vehicles in a
+ * short transaction of its own (FOR UPDATE SKIP LOCKED, then deleted, so several instances can
+ * share the queue), then loads their history and the tenants' rules in bulk, asks the
+ * {@link Planner} what each vehicle needs and upserts the reminders in a second transaction.
+ * <p>
+ * The queue rows are not held while reminders are written: the maintenance / vehicle triggers
+ * lock the vehicle row and then mark it dirty, while the reminder writes need a shared lock on
+ * the vehicle for their foreign key, so holding both would deadlock. A vehicle changed meanwhile
+ * is simply marked dirty again; if the second transaction fails, the claimed vehicles go back to
+ * the queue with their original mark time.
+ * <p>
+ * A generated reminder is keyed by (vehicle, rule, basis) where basis is the maint_id of the last
+ * matching maintenance (0 if none): recomputing the same cycle moves the PENDING row, a new
+ * maintenance starts a new cycle and cancels the old one. SENT / CANCELLED rows are never touched.
+ */
+public class ServiceScheduleDAO {
+
+    public record Rule(long ruleId, long tenantId, String maintType, Integer intervalKm, Integer intervalMonths,
+                       int leadDays, String title, boolean channelEmail, boolean channelSms) {}
+
+    public record Reading(long maintId, LocalDate date, String type, int km) {}
+
+    /** {@code readings} are oldest first; {@code since} is service_entry_date or the creation date. */
+    public record VehicleHistory(long tenantId, long vehicleId, Long customerId, String plateNo,
+                                 int currentKm, LocalDate since, List<Reading> readings) {}
+
+    public record Planned(long ruleId, long basis, LocalDateTime remindAt, String title, String message,
+                          boolean channelEmail, boolean channelSms) {}
+
+    @FunctionalInterface
+    public interface Planner {
+        /** Reminders the vehicle should have for the given active rules; rules without a forecast are left out. */
+        List<Planned> plan(VehicleHistory vehicle, List<Rule> rules);
+    }
+
+    /** @return number of vehicles taken from the queue (less than {@code limit} once it is empty) */
+    public int runBatch(int limit, Planner planner) throws SQLException {
+        String pick = """
+                SELECT vehicle_id, marked_at
+                FROM service_dirty_vehicles
+                ORDER BY marked_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+                """;
+
+        Map<Long, LocalDateTime> claimed = new LinkedHashMap<>();
+        Jdbc.inTransaction("schedule.claim", tx -> {
+            tx.query("schedule.pick", pick).params(limit).forEach(CLAIM, c -> claimed.put(c.getKey(), c.getValue()));
+            if (claimed.isEmpty()) return null;
+
+            tx.query("schedule.done", "DELETE FROM service_dirty_vehicles WHERE vehicle_id IN ("
+                            + String.join(",", Collections.nCopies(claimed.size(), "?")) + ")")
+                    .params(claimed.keySet().toArray())
+                    .update();
+            return null;
+        });
+        if (claimed.isEmpty()) return 0;
+
+        String in = String.join(",", Collections.nCopies(claimed.size(), "?"));
+        Object[] idParams = claimed.keySet().toArray();
+
+        Set<Long> tenants = new TreeSet<>();
+        try {
+            Jdbc.inTransaction("schedule.runBatch", tx -> {
+                Map<Long, VehicleHistory> vehicles = loadVehicles(tx, in, idParams);
+                Map<Long, List<Rule>> rules = loadRules(tx, vehicles.values());
+
+                List<Object[]> upserts = new ArrayList<>();
+                Set<String> keep = new HashSet<>();
+                for (VehicleHistory v : vehicles.values()) {
+                    List<Rule> own = rules.getOrDefault(v.tenantId(), List.of());
+                    if (own.isEmpty()) continue;
+
+                    for (Planned p : planner.plan(v, own)) {
+                        keep.add(v.vehicleId() + ":" + p.ruleId() + ":" + p.basis());
+                        upserts.add(new Object[]{v.tenantId(), v.vehicleId(), v.customerId(), p.ruleId(), p.basis(),
+                                p.remindAt(), p.title(), p.message(), p.channelEmail(), p.channelSms()});
+                    }
+                }
+
+                boolean changed = cancelStale(tx, in, idParams, keep);
+                if (!upserts.isEmpty()) {
+                    upsert(tx, upserts);
+                    changed = true;
+                }
+                if (changed) vehicles.values().forEach(v -> tenants.add(v.tenantId()));
+                return null;
+            });
+        } catch (SQLException | RuntimeException e) {
+            requeue(in, idParams, Collections.min(claimed.values()), e);
+            throw e;
+        }
+
+        // açık ekranlar listeyi yeniden okusun (satır bazında yayın yerine firma başına bir olay)
+        for (long tenantId : tenants) EventBus.publish(RowChange.invalidated(Reminder.class, tenantId));
+        return claimed.size();
+    }
+
+    // ---------------------------------------------------------------
+
+    /**
+     * Puts claimed vehicles back at the head of the queue (their batch's oldest mark time), keeping
+     * an earlier mark if a trigger re-marked one meanwhile. Vehicles deleted since are skipped.
+     */
+    private static void requeue(String in, Object[] ids, LocalDateTime markedAt, Exception cause) {
+        String sql = """
+                INSERT INTO service_dirty_vehicles (vehicle_id, tenant_id, marked_at)
+                SELECT vehicle_id, tenant_id, ? FROM vehicle WHERE vehicle_id IN (%s)
+                ON DUPLICATE KEY UPDATE marked_at = LEAST(marked_at, VALUES(marked_at))
+                """.formatted(in);
+
+        Object[] params = new Object[ids.length + 1];
+        params[0] = markedAt;
+        System.arraycopy(ids, 0, params, 1, ids.length);
+        try {
+            Jdbc.query("schedule.requeue", sql).params(params).update();
+        } catch (SQLException e) {
+            cause.addSuppressed(e); // araçlar bir sonraki değişiklikte tekrar işaretlenir
+        }
+    }
+
+    private static Map<Long, VehicleHistory> loadVehicles(Jdbc.Tx tx, String in, Object[] ids) throws SQLException {
+        String vehicleSql = """
+                SELECT vehicle_id, tenant_id, customer_id, plate_no, current_km,
+                       COALESCE(service_entry_date, DATE(created_at)) AS since
+                FROM vehicle
+                WHERE vehicle_id IN (%s)
+                """.formatted(in);
+        String historySql = """
+                SELECT maint_id, vehicle_id, maint_date, maint_type, odometer_km
+                FROM maintenance
+                WHERE vehicle_id IN (%s)
+                ORDER BY vehicle_id, maint_date, maint_id
+                """.formatted(in);
+
+        Map<Long, List<Reading>> history = new HashMap<>();
+        tx.query("schedule.history", historySql).params(ids).forEach(READING, row ->
+                history.computeIfAbsent(row.vehicleId(), k -> new ArrayList<>()).add(row.reading()));
+
+        Map<Long, VehicleHistory> out = new LinkedHashMap<>();
+        tx.query("schedule.vehicles", vehicleSql).params(ids).forEach(VEHICLE, v -> out.put(v.vehicleId(),
+                new VehicleHistory(v.tenantId(), v.vehicleId(), v.customerId(), v.plateNo(), v.currentKm(),
+                        v.since(), history.getOrDefault(v.vehicleId(), List.of()))));
+        return out;
+    }
+
+    private static Map<Long, List<Rule>> loadRules(Jdbc.Tx tx, Iterable<VehicleHistory> vehicles) throws SQLException {
+        Set<Long> tenantIds = new TreeSet<>();
+        for (VehicleHistory v : vehicles) tenantIds.add(v.tenantId());
+        if (tenantIds.isEmpty()) return Map.of();
+
+        String sql = """
+                SELECT rule_id, tenant_id, maint_type, interval_km, interval_months, lead_days,
+                       title, channel_email, channel_sms
+                FROM service_rules
+                WHERE active = 1 AND tenant_id IN (%s)
+                """.formatted(String.join(",", Collections.nCopies(tenantIds.size(), "?")));
+
+        Map<Long, List<Rule>> out = new HashMap<>();
+        tx.query("schedule.rules", sql).params(tenantIds.toArray()).forEach(RULE, r ->
+                out.computeIfAbsent(r.tenantId(), k -> new ArrayList<>()).add(r));
+        return out;
+    }
+
+    /** Cancels PENDING generated reminders of these vehicles that no longer match a planned cycle. */
+    private static boolean cancelStale(Jdbc.Tx tx, String in, Object[] ids, Set<String> keep) throws SQLException {
+        String sql = """
+                SELECT reminder_id, vehicle_id, rule_id, rule_basis
+                FROM reminders
+                WHERE vehicle_id IN (%s) AND rule_id IS NOT NULL AND status = 'PENDING'
+                """.formatted(in);
+
+        List<Long> stale = new ArrayList<>();
+        tx.query("schedule.generated", sql).params(ids).forEach(GENERATED, r -> {
+            if (!keep.contains(r.vehicleId() + ":" + r.ruleId() + ":" + r.basis())) stale.add(r.reminderId());
+        });
+        if (stale.isEmpty()) return false;
+
+        String cancel = "UPDATE reminders SET status = 'CANCELLED', claimed_by = NULL, claimed_until = NULL"
+                + " WHERE status = 'PENDING' AND reminder_id IN ("
+                + String.join(",", Collections.nCopies(stale.size(), "?")) + ")";
+        tx.query("schedule.cancel", cancel).params(stale.toArray()).update();
+        return true;
+    }
+
+    /**
+     * One multi-row upsert. Only PENDING rows are moved; when the due time changes the
+     * dispatcher's claim is dropped first (assignments run left to right, so the comparison
+     * still sees the old remind_at).
+     */
+    private static void upsert(Jdbc.Tx tx, List<Object[]> rows) throws SQLException {
+        String values = String.join(",", Collections.nCopies(rows.size(), "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?)"));
+        String sql = """
+                INSERT INTO reminders
+                  (tenant_id, vehicle_id, customer_id, rule_id, rule_basis, remind_at, title, message, channel_email, channel_sms)
+                VALUES %s
+                ON DUPLICATE KEY UPDATE
+                  claimed_by    = IF(status = 'PENDING' AND remind_at <> VALUES(remind_at), NULL, claimed_by),
+                  claimed_until = IF(status = 'PENDING' AND remind_at <> VALUES(remind_at), NULL, claimed_until),
+                  remind_at     = IF(status = 'PENDING', VALUES(remind_at), remind_at),
+                  customer_id   = IF(status = 'PENDING', VALUES(customer_id), customer_id),
+                  title         = IF(status = 'PENDING', VALUES(title), title),
+                  message       = IF(status = 'PENDING', VALUES(message), message),
+                  channel_email = IF(status = 'PENDING', VALUES(channel_email), channel_email),
+                  channel_sms   = IF(status = 'PENDING', VALUES(channel_sms), channel_sms)
+                """.formatted(values);
+
+        List<Object> params = new ArrayList<>(rows.size() * 10);
+        for (Object[] r : rows) Collections.addAll(params, r);
+        tx.query("schedule.upsert", sql).params(params.toArray()).update();
+    }
+
+    // ---------------------------------------------------------------
+
+    private record VehicleRow(long vehicleId, long tenantId, Long customerId, String plateNo, int currentKm, LocalDate since) {}
+
+    private record HistoryRow(long vehicleId, Reading reading) {}
+
+    private record GeneratedRow(long reminderId, long vehicleId, long ruleId, long basis) {}
+
+    private static final RowMapper.Factory<Map.Entry<Long, LocalDateTime>> CLAIM = cols -> {
+        int id = cols.of("vehicle_id"), marked = cols.of("marked_at");
+
+        return rs -> Map.entry(rs.getLong(id), rs.getObject(marked, LocalDateTime.class));
+    };
+
+    private static final RowMapper.Factory<VehicleRow> VEHICLE = cols -> {
+        int id = cols.of("vehicle_id"), tenant = cols.of("tenant_id"), customer = cols.of("customer_id");
+        int plate = cols.of("plate_no"), km = cols.of("current_km"), since = cols.of("since");
+
+        return rs -> {
+            long cid = rs.getLong(customer);
+            Long customerId = rs.wasNull() ? null : cid;
+            return new VehicleRow(rs.getLong(id), rs.getLong(tenant), customerId, rs.getString(plate),
+                    rs.getInt(km), rs.getObject(since, LocalDate.class));
+        };
+    };
+
+    private static final RowMapper.Factory<HistoryRow> READING = cols -> {
+        int id = cols.of("maint_id"), vehicle = cols.of("vehicle_id"), date = cols.of("maint_date");
+        int type = cols.of("maint_type"), km = cols.of("odometer_km");
+
+        return rs -> new HistoryRow(rs.getLong(vehicle),
+                new Reading(rs.getLong(id), rs.getObject(date, LocalDate.class), rs.getString(type), rs.getInt(km)));
+    };
+
+    private static final RowMapper.Factory<GeneratedRow> GENERATED = cols -> {
+        int id = cols.of("reminder_id"), vehicle = cols.of("vehicle_id"), rule = cols.of("rule_id"), basis = cols.of("rule_basis");
+
+        return rs -> new GeneratedRow(rs.getLong(id), rs.getLong(vehicle), rs.getLong(rule), rs.getLong(basis));
+    };
+
+    private static final RowMapper.Factory<Rule> RULE = cols -> {
+        int id = cols.of("rule_id"), tenant = cols.of("tenant_id"), type = cols.of("maint_type");
+        int km = cols.of("interval_km"), months = cols.of("interval_months"), lead = cols.of("lead_days");
+        int title = cols.of("title"), email = cols.of("channel_email"), sms = cols.of("channel_sms");
+
+        return rs -> new Rule(rs.getLong(id), rs.getLong(tenant), rs.getString(type),
+                rs.getObject(km, Integer.class), rs.getObject(months, Integer.class), rs.getInt(lead),
+                rs.getString(title), rs.getBoolean(email), rs.getBoolean(sms));
+    };
+}
@@ -0,0 +1,180 @@
+package com.osman.vssfx.dao;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.ToLongFunction;
+
+/**
+ * Per-tenant read-through cache of a full, id-descending row list.
+ * <p>
+ * Concurrent misses for the same tenant share one load (single-flight). Entries expire
+ * after a TTL and the least recently used tenant is dropped above {@code maxTenants}.
+ * Writes patch the cached list in place of a reload; a load that overlaps a write is
+ * returned to its callers but not stored, so it can never overwrite the patched state.
+ */
+final class TenantCache<T> {
+
+    @FunctionalInterface
+    interface Loader<T> {
+        List<T> load(long tenantId) throws SQLException;
+    }
+
+    private record Entry<T>(List<T> rows, long loadedAt) {}
+
+    private final ToLongFunction<T> idOf;
+    private final int maxTenants;
+    private final long ttlNanos;
+
+    // guarded by this
+    private final LinkedHashMap<Long, Entry<T>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Long, CompletableFuture<List<T>>> inflight = new HashMap<>();
+    private final Map<Long, Long> versions = new HashMap<>();
+
+    TenantCache(ToLongFunction<T> idOf, int maxTenants, long ttlSeconds) {
+        this.idOf = idOf;
+        this.maxTenants = Math.max(1, maxTenants);
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+    }
+
+    List<T> get(long tenantId, Loader<T> loader) throws SQLException {
+        CompletableFuture<List<T>> future;
+        long version;
+
+        synchronized (this) {
+            List<T> hit = peek(tenantId);
+            if (hit != null) return hit;
+
+            future = inflight.get(tenantId);
+            if (future == null) {
+                future = new CompletableFuture<>();
+                inflight.put(tenantId, future);
+                version = versions.getOrDefault(tenantId, 0L);
+            } else {
+                version = -1; // başka bir thread yüklüyor
+            }
+        }
+
+        if (version < 0) return await(future);
+
+        try {
+            List<T> rows = List.copyOf(loader.load(tenantId));
+            synchronized (this) {
+                inflight.remove(tenantId, future);
+                if (versions.getOrDefault(tenantId, 0L) == version) {
+                    entries.put(tenantId, new Entry<>(rows, System.nanoTime()));
+                    trim();
+                }
+            }
+            future.complete(rows);
+            return rows;
+        } catch (SQLException | RuntimeException ex) {
+            synchronized (this) {
+                inflight.remove(tenantId, future);
+            }
+            future.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    /** Cached rows or null; never triggers a load. */
+    synchronized List<T> peek(long tenantId) {
+        Entry<T> e = entries.get(tenantId);
+        if (e == null) return null;
+        if (System.nanoTime() - e.loadedAt() > ttlNanos) {
+            entries.remove(tenantId);
+            return null;
+        }
+        return e.rows();
+    }
+
+    synchronized boolean contains(long tenantId) {
+        return peek(tenantId) != null;
+    }
+
+    /** Inserts or replaces {@code row} in the tenant's list, keeping id-descending order. */
+    synchronized void put(long tenantId, T row) {
+        bump(tenantId);
+        Entry<T> e = entries.get(tenantId);
+        if (e == null) return;
+
+        long id = idOf.applyAsLong(row);
+        List<T> rows = new ArrayList<>(e.rows().size() + 1);
+        rows.addAll(e.rows());
+
+        int pos = indexOf(rows, id);
+        if (pos >= 0) rows.set(pos, row);
+        else rows.add(-pos - 1, row);
+
+        entries.put(tenantId, new Entry<>(List.copyOf(rows), e.loadedAt()));
+    }
+
+    synchronized void remove(long tenantId, long id) {
+        bump(tenantId);
+        Entry<T> e = entries.get(tenantId);
+        if (e == null) return;
+
+        int pos = indexOf(e.rows(), id);
+        if (pos < 0) return;
+
+        List<T> rows = new ArrayList<>(e.rows());
+        rows.remove(pos);
+        entries.put(tenantId, new Entry<>(List.copyOf(rows), e.loadedAt()));
+    }
+
+    synchronized void invalidate(long tenantId) {
+        bump(tenantId);
+        entries.remove(tenantId);
+    }
+
+    synchronized void clear() {
+        for (Long tid : entries.keySet()) bump(tid);
+        entries.clear();
+    }
+
+    // ---------------------------------------------------------------
+
+    /** Binary search on id-descending rows; same contract as {@link java.util.Collections#binarySearch}. */
+    int indexOf(List<T> rows, long id) {
+        int lo = 0, hi = rows.size() - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long midId = idOf.applyAsLong(rows.get(mid));
+            if (midId == id) return mid;
+            if (midId > id) lo = mid + 1;
+            else hi = mid - 1;
+        }
+        return -(lo + 1);
+    }
+
+    private void bump(long tenantId) {
+        versions.merge(tenantId, 1L, Long::sum);
+    }
+
+    private void trim() {
+        var it = entries.entrySet().iterator();
+        while (entries.size() > maxTenants && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static <T> List<T> await(CompletableFuture<List<T>> future) throws SQLException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a shared load.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException sql) throw sql;
+            if (cause instanceof RuntimeException re) throw re;
+            throw new SQLException(cause);
+        }
+    }
+}
@@ -1,8 +1,6 @@
 package com.osman.vssfx.dao;
 
-import com.osman.vssfx.db.Db;
-
-import java.sql.*;
+import java.sql.SQLException;
 
 public class UserDAO {
 
@@ -17,33 +15,31 @@ public class UserDAO {
             LIMIT 1
         """;
 
-        try (Connection c = Db.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-
-            ps.setLong(1, tenantId);
-            ps.setString(2, email);
-
-            try (ResultSet rs = ps.executeQuery()) {
-                if (!rs.next()) return null;
-
-                return new UserRow(
-                        rs.getLong("user_id"),
-                        rs.getLong("tenant_id"),
-                        rs.getString("role"),
-                        rs.getString("status"),
-                        rs.getString("email"),
-                        rs.getString("password_hash")
-                );
-            }
-        }
+        return Jdbc.query("user.findByEmail", sql).params(tenantId, email).one(USER_ROW);
     }
 
     public void updateLastLogin(long userId) throws SQLException {
         String sql = "UPDATE users SET last_login_at = NOW() WHERE user_id = ?";
-        try (Connection c = Db.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setLong(1, userId);
-            ps.executeUpdate();
-        }
+        Jdbc.query("user.updateLastLogin", sql).params(userId).update();
+    }
+
+    /** Sadece hash okunduğundan beri değişmediyse yazar (araya şifre değişikliği girerse ezmez). */
+    public boolean replacePasswordHash(long userId, String oldHash, String newHash) throws SQLException {
+        String sql = "UPDATE users SET password_hash = ? WHERE user_id = ? AND password_hash = ?";
+        return Jdbc.query("user.rehash", sql).params(newHash, userId, oldHash).update() > 0;
     }
+
+    private static final RowMapper.Factory<UserRow> USER_ROW = cols -> {
+        int id = cols.of("user_id"), tenant = cols.of("tenant_id"), role = cols.of("role");
+        int status = cols.of("status"), email = cols.of("email"), hash = cols.of("password_hash");
+
+        return rs -> new UserRow(
+                rs.getLong(id),
+                rs.getLong(tenant),
+                rs.getString(role),
+                rs.getString(status),
+                rs.getString(email),
+                rs.getString(hash)
+        );
+    };
 }
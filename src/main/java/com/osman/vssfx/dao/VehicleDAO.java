@@ -1,41 +1,166 @@
 package com.osman.vssfx.dao;
 
-import com.osman.vssfx.db.Db;
+import com.osman.vssfx.config.AppConfig;
+import com.osman.vssfx.events.EventBus;
+import com.osman.vssfx.events.RowChange;
 import com.osman.vssfx.model.Vehicle;
 import com.osman.vssfx.model.VehicleStatus;
 
 import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
 
 public class VehicleDAO {
 
+    // DAO örnekleri controller başına oluşturuluyor; önbellek hepsinde ortak
+    private static final TenantCache<Vehicle> CACHE = new TenantCache<>(
+            Vehicle::getVehicleId, AppConfig.cacheMaxTenants(), AppConfig.cacheTtlSeconds());
+
+    private static final String COLUMNS = """
+            vehicle_id, tenant_id, customer_id, public_id,
+            plate_no, vin_no, make, model, model_year, colour,
+            current_km, status, notes, service_entry_date, created_at
+            """;
+
+    /** Full tenant list, served from the shared cache after the first load. */
     public List<Vehicle> findAllByTenant(long tenantId) throws SQLException {
-        String sql = """
-            SELECT vehicle_id, tenant_id, customer_id, public_id,
-                   plate_no, vin_no, make, model, model_year, colour,
-                   current_km, status, notes, service_entry_date, created_at
+        return CACHE.get(tenantId, this::loadAllByTenant);
+    }
+
+    private List<Vehicle> loadAllByTenant(long tenantId) throws SQLException {
+        String sql = "SELECT " + COLUMNS + """
             FROM vehicle
             WHERE tenant_id = ?
             ORDER BY vehicle_id DESC
             """;
 
-        try (Connection c = Db.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
+        return Jdbc.query("vehicle.findAll", sql).params(tenantId).list(VEHICLE);
+    }
 
-            ps.setLong(1, tenantId);
+    /**
+     * Keyset page over (tenant_id, vehicle_id DESC), served by uq_vehicle_tenant_vehicle.
+     * Pass {@code beforeVehicleId = null} for the first page, then the last id of the previous page.
+     */
+    public List<Vehicle> findPageByTenant(long tenantId, Long beforeVehicleId, int limit) throws SQLException {
+        List<Vehicle> cached = CACHE.peek(tenantId);
+        if (cached != null) return pageOf(cached, beforeVehicleId, limit);
 
-            try (ResultSet rs = ps.executeQuery()) {
-                List<Vehicle> list = new ArrayList<>();
-                while (rs.next()) list.add(map(rs));
-                return list;
-            }
+        String sql = "SELECT " + COLUMNS + """
+            FROM vehicle
+            WHERE tenant_id = ?
+              AND vehicle_id < ?
+            ORDER BY vehicle_id DESC
+            LIMIT ?
+            """;
+
+        long before = beforeVehicleId == null ? Long.MAX_VALUE : beforeVehicleId;
+        return Jdbc.query("vehicle.findPage", sql).params(tenantId, before, limit).list(VEHICLE);
+    }
+
+    private List<Vehicle> pageOf(List<Vehicle> rows, Long beforeVehicleId, int limit) {
+        int from = 0;
+        if (beforeVehicleId != null) {
+            int pos = CACHE.indexOf(rows, beforeVehicleId);
+            from = pos >= 0 ? pos + 1 : -pos - 1;
         }
+        return new ArrayList<>(rows.subList(from, Math.min(rows.size(), from + limit)));
     }
 
-    public long insert(long tenantId, Vehicle v) throws SQLException {
+    public Vehicle findById(long tenantId, long vehicleId) throws SQLException {
+        String sql = "SELECT " + COLUMNS + """
+            FROM vehicle
+            WHERE tenant_id = ? AND vehicle_id = ?
+            """;
+
+        return Jdbc.query("vehicle.findById", sql).params(tenantId, vehicleId).one(VEHICLE);
+    }
+
+    /**
+     * Re-reads one vehicle after a write, patches it into the cache and publishes the change,
+     * e.g. after trg_maintenance_sync_vehicle_km changed its current_km. One primary-key
+     * lookup instead of a tenant reload in every open view.
+     */
+    public void refreshRow(long tenantId, long vehicleId) throws SQLException {
+        publishRow(tenantId, vehicleId, RowChange.Op.UPDATED);
+    }
+
+    private void publishRow(long tenantId, long vehicleId, RowChange.Op op) throws SQLException {
+        Vehicle fresh = findById(tenantId, vehicleId);
+        if (fresh == null) {
+            CACHE.remove(tenantId, vehicleId);
+            EventBus.publish(RowChange.deleted(Vehicle.class, tenantId, vehicleId));
+            return;
+        }
+
+        CACHE.put(tenantId, fresh);
+        EventBus.publish(op == RowChange.Op.INSERTED
+                ? RowChange.inserted(Vehicle.class, tenantId, vehicleId, fresh)
+                : RowChange.updated(Vehicle.class, tenantId, vehicleId, fresh));
+    }
+
+    /** Drops the tenant's cached list so the next read goes to the database. */
+    public void invalidateCache(long tenantId) {
+        CACHE.invalidate(tenantId);
+    }
+
+    /** For writes that cannot be patched row by row (batches, FK cascades): open views reload. */
+    public void invalidateTenant(long tenantId) {
+        CACHE.invalidate(tenantId);
+        EventBus.publish(RowChange.invalidated(Vehicle.class, tenantId));
+    }
+
+    /**
+     * Prefix search on plate / make / model, paged the same way as {@link #findPageByTenant}.
+     * Each branch is an index-only range scan (uq_vehicle_tenant_plate, ix_vehicle_tenant_make,
+     * ix_vehicle_tenant_model); only the matching page of ids is joined back to the rows.
+     * Matching is case-insensitive through the column collation.
+     */
+    public List<Vehicle> searchPageByTenant(long tenantId, String query, Long beforeVehicleId, int limit) throws SQLException {
         String sql = """
+            SELECT v.vehicle_id, v.tenant_id, v.customer_id, v.public_id,
+                   v.plate_no, v.vin_no, v.make, v.model, v.model_year, v.colour,
+                   v.current_km, v.status, v.notes, v.service_entry_date, v.created_at
+            FROM vehicle v
+            JOIN (
+                (SELECT vehicle_id FROM vehicle
+                 WHERE tenant_id = ? AND plate_no LIKE ? AND vehicle_id < ?
+                 ORDER BY vehicle_id DESC LIMIT ?)
+                UNION
+                (SELECT vehicle_id FROM vehicle
+                 WHERE tenant_id = ? AND make LIKE ? AND vehicle_id < ?
+                 ORDER BY vehicle_id DESC LIMIT ?)
+                UNION
+                (SELECT vehicle_id FROM vehicle
+                 WHERE tenant_id = ? AND model LIKE ? AND vehicle_id < ?
+                 ORDER BY vehicle_id DESC LIMIT ?)
+            ) hit ON hit.vehicle_id = v.vehicle_id
+            ORDER BY v.vehicle_id DESC
+            LIMIT ?
+            """;
+
+        String prefix = escapeLike(query.trim()) + "%";
+        long before = beforeVehicleId == null ? Long.MAX_VALUE : beforeVehicleId;
+
+        return Jdbc.query("vehicle.search", sql).bind(ps -> {
+            int i = 1;
+            for (int branch = 0; branch < 3; branch++) {
+                ps.setLong(i++, tenantId);
+                ps.setString(i++, prefix);
+                ps.setLong(i++, before);
+                ps.setInt(i++, limit);
+            }
+            ps.setInt(i, limit);
+        }).list(VEHICLE);
+    }
+
+    private static final String INSERT_SQL = """
             INSERT INTO vehicle
               (tenant_id, customer_id, public_id, plate_no, vin_no, make, model, model_year, colour,
                current_km, status, notes, service_entry_date)
@@ -43,52 +168,174 @@ public class VehicleDAO {
               (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
             """;
 
-        if (v.getPublicId() == null || v.getPublicId().isBlank()) {
-            v.setPublicId(UUID.randomUUID().toString());
+    // uq_vehicle_tenant_plate çakışırsa mevcut aracı güncelle (public_id / customer_id korunur).
+    // ON DUPLICATE KEY her benzersiz anahtarda tetiklenir: VIN başka plakalı araçla çakışırsa
+    // (ön kontrolü aşan eşzamanlı kayıt) o araç değiştirilmez, satır hata olarak döner.
+    // plate_no güncellenmediği için koşul tüm atamalarda aynıdır.
+    private static final String UPSERT_SQL = INSERT_SQL + """
+            ON DUPLICATE KEY UPDATE
+              vin_no = IF(plate_no = VALUES(plate_no), VALUES(vin_no), vin_no),
+              make = IF(plate_no = VALUES(plate_no), VALUES(make), make),
+              model = IF(plate_no = VALUES(plate_no), VALUES(model), model),
+              model_year = IF(plate_no = VALUES(plate_no), VALUES(model_year), model_year),
+              colour = IF(plate_no = VALUES(plate_no), VALUES(colour), colour),
+              current_km = IF(plate_no = VALUES(plate_no), VALUES(current_km), current_km),
+              status = IF(plate_no = VALUES(plate_no), VALUES(status), status),
+              notes = IF(plate_no = VALUES(plate_no), VALUES(notes), notes),
+              service_entry_date = IF(plate_no = VALUES(plate_no), VALUES(service_entry_date), service_entry_date)
+            """;
+
+    public long insert(long tenantId, Vehicle v) throws SQLException {
+        long id = Jdbc.query("vehicle.insert", INSERT_SQL).bind(ps -> bindInsert(ps, tenantId, v)).insertKey();
+        publishRow(tenantId, id, RowChange.Op.INSERTED);
+        return id;
+    }
+
+    /** Multi-row insert in chunks; keys are returned in the order of {@code rows}. */
+    public BatchResult insertBatch(long tenantId, List<Vehicle> rows) throws SQLException {
+        try {
+            return BatchWriter.insert(INSERT_SQL, rows, (ps, v) -> bindInsert(ps, tenantId, v));
+        } finally {
+            invalidateTenant(tenantId);
         }
+    }
 
-        try (Connection c = Db.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+    /**
+     * Inserts new plates and updates vehicles whose plate already exists in the tenant.
+     * Keys are resolved by plate afterwards, since generated keys are unreliable for
+     * ON DUPLICATE KEY UPDATE batches.
+     * <p>
+     * A VIN that already belongs to a vehicle with another plate (in the tenant or earlier in
+     * {@code rows}) is reported as a row error and not written; a written row whose plate does
+     * not resolve afterwards is reported too, so every row has either a key or an error.
+     */
+    public BatchResult upsertBatch(long tenantId, List<Vehicle> rows) throws SQLException {
+        List<BatchResult.RowError> errors = new ArrayList<>();
+        List<Integer> accepted = new ArrayList<>();
+        Map<String, String> vinOwners = findPlatesByVins(tenantId, rows); // VIN -> plaka
+
+        for (int i = 0; i < rows.size(); i++) {
+            Vehicle v = rows.get(i);
+            if (!isBlank(v.getVinNo()) && !isBlank(v.getPlateNo())) {
+                String owner = vinOwners.putIfAbsent(v.getVinNo(), v.getPlateNo());
+                if (owner != null && !owner.equalsIgnoreCase(v.getPlateNo())) {
+                    errors.add(new BatchResult.RowError(i, "Şasi no başka bir araçta kayıtlı (" + owner + ")."));
+                    continue;
+                }
+            }
+            accepted.add(i);
+        }
 
-            ps.setLong(1, tenantId);
+        List<Vehicle> toWrite = new ArrayList<>(accepted.size());
+        for (int i : accepted) toWrite.add(rows.get(i));
 
-            if (v.getCustomerId() == null) ps.setNull(2, Types.BIGINT);
-            else ps.setLong(2, v.getCustomerId());
+        BatchResult written;
+        try {
+            written = BatchWriter.execute(UPSERT_SQL, toWrite, (ps, v) -> bindInsert(ps, tenantId, v), v -> 0L);
+        } finally {
+            invalidateTenant(tenantId);
+        }
+        for (BatchResult.RowError e : written.errors()) errors.add(new BatchResult.RowError(accepted.get(e.index()), e.message()));
 
-            ps.setString(3, v.getPublicId());
+        List<String> plates = new ArrayList<>();
+        for (int j = 0; j < toWrite.size(); j++) {
+            if (written.key(j) != -1) plates.add(toWrite.get(j).getPlateNo());
+        }
 
-            ps.setString(4, v.getPlateNo());
+        long[] keys = BatchResult.emptyKeys(rows.size());
+        Map<String, Long> ids = findIdsByPlates(tenantId, plates);
+        for (int j = 0; j < toWrite.size(); j++) {
+            if (written.key(j) == -1) continue;
+            Long id = ids.get(toWrite.get(j).getPlateNo());
+            if (id != null) keys[accepted.get(j)] = id;
+            else errors.add(new BatchResult.RowError(accepted.get(j), "Kayıt yazılamadı (başka bir benzersiz alanla çakışıyor)."));
+        }
 
-            if (v.getVinNo() == null || v.getVinNo().isBlank()) ps.setNull(5, Types.VARCHAR);
-            else ps.setString(5, v.getVinNo());
+        errors.sort(Comparator.comparingInt(BatchResult.RowError::index));
+        return new BatchResult(keys, errors);
+    }
 
-            ps.setString(6, v.getMake());
-            ps.setString(7, v.getModel());
-            ps.setInt(8, v.getModelYear());
+    /** Current VIN -> plate for the non-blank VINs in {@code rows}; keys compared case-insensitively like the column. */
+    private Map<String, String> findPlatesByVins(long tenantId, List<Vehicle> rows) throws SQLException {
+        Map<String, String> out = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        List<String> vins = new ArrayList<>();
+        for (Vehicle v : rows) {
+            if (!isBlank(v.getVinNo())) vins.add(v.getVinNo());
+        }
 
-            if (v.getColour() == null || v.getColour().isBlank()) ps.setNull(9, Types.VARCHAR);
-            else ps.setString(9, v.getColour());
+        for (int from = 0; from < vins.size(); from += BatchWriter.DEFAULT_CHUNK_SIZE) {
+            List<String> chunk = vins.subList(from, Math.min(vins.size(), from + BatchWriter.DEFAULT_CHUNK_SIZE));
+            String sql = "SELECT vin_no, plate_no FROM vehicle WHERE tenant_id = ? AND vin_no IN ("
+                    + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")";
 
-            ps.setLong(10, v.getCurrentKm());
+            Jdbc.query("vehicle.platesByVin", sql).bind(ps -> {
+                ps.setLong(1, tenantId);
+                for (int i = 0; i < chunk.size(); i++) ps.setString(i + 2, chunk.get(i));
+            }).forEach(cols -> rs -> Map.entry(rs.getString(1), rs.getString(2)), e -> out.put(e.getKey(), e.getValue()));
+        }
+        return out;
+    }
 
-            VehicleStatus st = (v.getStatus() == null) ? VehicleStatus.ACTIVE : v.getStatus();
-            ps.setString(11, st.name());
+    private Map<String, Long> findIdsByPlates(long tenantId, List<String> plates) throws SQLException {
+        // collation case-insensitive olduğu için eşleştirme de öyle
+        Map<String, Long> out = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (plates.isEmpty()) return out;
 
-            if (v.getNotes() == null || v.getNotes().isBlank()) ps.setNull(12, Types.VARCHAR);
-            else ps.setString(12, v.getNotes());
+        for (int from = 0; from < plates.size(); from += BatchWriter.DEFAULT_CHUNK_SIZE) {
+            List<String> chunk = plates.subList(from, Math.min(plates.size(), from + BatchWriter.DEFAULT_CHUNK_SIZE));
+            String sql = "SELECT plate_no, vehicle_id FROM vehicle WHERE tenant_id = ? AND plate_no IN ("
+                    + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")";
 
-            if (v.getServiceEntryDate() == null) ps.setNull(13, Types.DATE);
-            else ps.setDate(13, Date.valueOf(v.getServiceEntryDate()));
+            Jdbc.query("vehicle.idsByPlate", sql).bind(ps -> {
+                ps.setLong(1, tenantId);
+                for (int i = 0; i < chunk.size(); i++) ps.setString(i + 2, chunk.get(i));
+            }).forEach(cols -> rs -> Map.entry(rs.getString(1), rs.getLong(2)), e -> out.put(e.getKey(), e.getValue()));
+        }
+        return out;
+    }
 
-            ps.executeUpdate();
+    private static void bindInsert(PreparedStatement ps, long tenantId, Vehicle v) throws SQLException {
+        if (isBlank(v.getPlateNo()) || isBlank(v.getMake()) || isBlank(v.getModel())) {
+            throw new IllegalArgumentException("Plaka / Marka / Model boş olamaz.");
+        }
 
-            try (ResultSet keys = ps.getGeneratedKeys()) {
-                if (keys.next()) return keys.getLong(1);
-                return -1;
-            }
+        if (v.getPublicId() == null || v.getPublicId().isBlank()) {
+            v.setPublicId(UUID.randomUUID().toString());
         }
+
+        ps.setLong(1, tenantId);
+
+        if (v.getCustomerId() == null) ps.setNull(2, Types.BIGINT);
+        else ps.setLong(2, v.getCustomerId());
+
+        ps.setString(3, v.getPublicId());
+
+        ps.setString(4, v.getPlateNo());
+
+        if (v.getVinNo() == null || v.getVinNo().isBlank()) ps.setNull(5, Types.VARCHAR);
+        else ps.setString(5, v.getVinNo());
+
+        ps.setString(6, v.getMake());
+        ps.setString(7, v.getModel());
+        ps.setInt(8, v.getModelYear());
+
+        if (v.getColour() == null || v.getColour().isBlank()) ps.setNull(9, Types.VARCHAR);
+        else ps.setString(9, v.getColour());
+
+        ps.setLong(10, v.getCurrentKm());
+
+        VehicleStatus st = (v.getStatus() == null) ? VehicleStatus.ACTIVE : v.getStatus();
+        ps.setString(11, st.name());
+
+        if (v.getNotes() == null || v.getNotes().isBlank()) ps.setNull(12, Types.VARCHAR);
+        else ps.setString(12, v.getNotes());
+
+        if (v.getServiceEntryDate() == null) ps.setNull(13, Types.DATE);
+        else ps.setDate(13, Date.valueOf(v.getServiceEntryDate()));
     }
 
+    private static boolean isBlank(String s) { return s == null || s.isBlank(); }
+
     public void update(long tenantId, Vehicle v) throws SQLException {
         String sql = """
             UPDATE vehicle
@@ -97,9 +344,7 @@ public class VehicleDAO {
             WHERE vehicle_id=? AND tenant_id=?
             """;
 
-        try (Connection c = Db.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-
+        int affected = Jdbc.query("vehicle.update", sql).bind(ps -> {
             ps.setString(1, v.getPlateNo());
 
             if (v.getVinNo() == null || v.getVinNo().isBlank()) ps.setNull(2, Types.VARCHAR);
@@ -125,55 +370,63 @@ public class VehicleDAO {
 
             ps.setLong(11, v.getVehicleId());
             ps.setLong(12, tenantId);
+        }).update();
 
-            int affected = ps.executeUpdate();
-            if (affected == 0) {
-                throw new SQLException("Güncelleme yapılamadı (kayıt bulunamadı veya tenant uyuşmuyor).");
-            }
+        if (affected == 0) {
+            throw new SQLException("Güncelleme yapılamadı (kayıt bulunamadı veya tenant uyuşmuyor).");
         }
+        publishRow(tenantId, v.getVehicleId(), RowChange.Op.UPDATED);
     }
 
     public void delete(long tenantId, long vehicleId) throws SQLException {
         String sql = "DELETE FROM vehicle WHERE tenant_id=? AND vehicle_id=?";
-        try (Connection c = Db.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setLong(1, tenantId);
-            ps.setLong(2, vehicleId);
-
-            int affected = ps.executeUpdate();
-            if (affected == 0) {
-                throw new SQLException("Silme yapılamadı (kayıt bulunamadı veya tenant uyuşmuyor).");
-            }
+        int affected = Jdbc.query("vehicle.delete", sql).params(tenantId, vehicleId).update();
+        if (affected == 0) {
+            throw new SQLException("Silme yapılamadı (kayıt bulunamadı veya tenant uyuşmuyor).");
         }
+        CACHE.remove(tenantId, vehicleId);
+        EventBus.publish(RowChange.deleted(Vehicle.class, tenantId, vehicleId));
     }
 
-    private Vehicle map(ResultSet rs) throws SQLException {
-        Vehicle v = new Vehicle();
-        v.setVehicleId(rs.getLong("vehicle_id"));
-        v.setTenantId(rs.getLong("tenant_id"));
-
-        long cust = rs.getLong("customer_id");
-        v.setCustomerId(rs.wasNull() ? null : cust);
-
-        v.setPublicId(rs.getString("public_id"));
-        v.setPlateNo(rs.getString("plate_no"));
-        v.setVinNo(rs.getString("vin_no"));
-        v.setMake(rs.getString("make"));
-        v.setModel(rs.getString("model"));
-        v.setModelYear(rs.getInt("model_year"));
-        v.setColour(rs.getString("colour"));
-        v.setCurrentKm(rs.getLong("current_km"));
-
-        v.setStatus(VehicleStatus.fromDb(rs.getString("status")));
-
-        v.setNotes(rs.getString("notes"));
-
-        Date d = rs.getDate("service_entry_date");
-        v.setServiceEntryDate(d == null ? null : d.toLocalDate());
-
-        Timestamp ts = rs.getTimestamp("created_at");
-        v.setCreatedAt(ts == null ? null : ts.toLocalDateTime());
-
-        return v;
+    private static String escapeLike(String s) {
+        return s.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
+
+    // Kolon indeksleri ResultSet başına bir kez çözülür; satır başına isimle arama yok.
+    // Paket içi: src/bench de kullanıyor.
+    static final RowMapper.Factory<Vehicle> VEHICLE = cols -> {
+        int id = cols.of("vehicle_id"), tenant = cols.of("tenant_id"), customer = cols.of("customer_id");
+        int publicId = cols.of("public_id"), plate = cols.of("plate_no"), vin = cols.of("vin_no");
+        int make = cols.of("make"), model = cols.of("model"), year = cols.of("model_year");
+        int colour = cols.of("colour"), km = cols.of("current_km"), status = cols.of("status");
+        int notes = cols.of("notes"), entry = cols.of("service_entry_date"), created = cols.of("created_at");
+
+        return rs -> {
+            Vehicle v = new Vehicle();
+            v.setVehicleId(rs.getLong(id));
+            v.setTenantId(rs.getLong(tenant));
+
+            long cust = rs.getLong(customer);
+            v.setCustomerId(rs.wasNull() ? null : cust);
+
+            v.setPublicId(rs.getString(publicId));
+            v.setPlateNo(rs.getString(plate));
+            v.setVinNo(rs.getString(vin));
+            v.setMake(rs.getString(make));
+            v.setModel(rs.getString(model));
+            v.setModelYear(rs.getInt(year));
+            v.setColour(rs.getString(colour));
+            v.setCurrentKm(rs.getLong(km));
+
+            v.setStatus(VehicleStatus.fromDb(rs.getString(status)));
+
+            v.setNotes(rs.getString(notes));
+
+            // java.sql.Date/Timestamp ara nesnesi olmadan
+            v.setServiceEntryDate(rs.getObject(entry, LocalDate.class));
+            v.setCreatedAt(rs.getObject(created, LocalDateTime.class));
+
+            return v;
+        };
+    };
 }
@@ -0,0 +1,286 @@
+package com.osman.vssfx.db;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * Small bounded JDBC connection pool.
+ * <p>
+ * Borrowed connections are proxies: {@code close()} hands the physical connection back
+ * to the pool instead of closing it, so existing try-with-resources code keeps working.
+ */
+public final class ConnectionPool implements DataSource, AutoCloseable {
+
+    /** Connections used within this window are handed out without an isValid() round trip. */
+    private static final long VALIDATION_BYPASS_MS = 500;
+    private static final long HOUSEKEEPING_PERIOD_MS = 30_000;
+
+    public record Settings(String url, String user, String password,
+                           int minSize, int maxSize,
+                           long connectionTimeoutMs, long idleTimeoutMs,
+                           int validationTimeoutSec, long leakDetectionMs) {
+        public Settings {
+            if (minSize < 0) throw new IllegalArgumentException("minSize < 0");
+            if (maxSize < 1) throw new IllegalArgumentException("maxSize < 1");
+            if (minSize > maxSize) throw new IllegalArgumentException("minSize > maxSize");
+        }
+    }
+
+    private final Settings settings;
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<Entry> idle = new LinkedBlockingDeque<>();
+    private final Set<Entry> all = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    public ConnectionPool(Settings settings) {
+        this.settings = settings;
+        this.permits = new Semaphore(settings.maxSize(), true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep,
+                HOUSEKEEPING_PERIOD_MS, HOUSEKEEPING_PERIOD_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /** Opens connections until {@code minSize} are available. Failures are logged, not thrown. */
+    public void prefill() {
+        while (!closed && all.size() < settings.minSize()) {
+            try {
+                Entry e = open();
+                e.lastUsed = System.currentTimeMillis();
+                idle.offerFirst(e);
+            } catch (SQLException ex) {
+                System.err.println("DB pool prefill failed: " + ex.getMessage());
+                return;
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed.");
+
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(settings.connectionTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", "08001", e);
+        }
+        if (!acquired) {
+            throw new SQLException("Timed out after " + settings.connectionTimeoutMs()
+                    + " ms waiting for a database connection (pool size " + settings.maxSize() + ").", "08001");
+        }
+
+        try {
+            Entry e;
+            while ((e = idle.pollFirst()) != null) {
+                if (isAlive(e)) return borrow(e);
+                discard(e);
+            }
+            return borrow(open());
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Pool uses the configured credentials.");
+    }
+
+    public int totalConnections() { return all.size(); }
+    public int idleConnections() { return idle.size(); }
+    public int activeConnections() { return all.size() - idle.size(); }
+
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        Entry e;
+        while ((e = idle.pollFirst()) != null) discard(e);
+    }
+
+    // ---------------------------------------------------------------
+
+    private Entry open() throws SQLException {
+        Connection raw = DriverManager.getConnection(settings.url(), settings.user(), settings.password());
+        Entry e = new Entry(raw);
+        all.add(e);
+        return e;
+    }
+
+    private boolean isAlive(Entry e) {
+        if (System.currentTimeMillis() - e.lastUsed < VALIDATION_BYPASS_MS) return true;
+        try {
+            return e.raw.isValid(settings.validationTimeoutSec());
+        } catch (SQLException ex) {
+            return false;
+        }
+    }
+
+    private Connection borrow(Entry e) {
+        e.borrowedAt = System.currentTimeMillis();
+        e.leakReported = false;
+        e.borrowSite = settings.leakDetectionMs() > 0
+                ? new Throwable("Connection borrowed by " + Thread.currentThread().getName())
+                : null;
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new Handle(e));
+    }
+
+    private void giveBack(Entry e) {
+        try {
+            if (e.broken || closed) {
+                discard(e);
+                return;
+            }
+            try {
+                if (!e.raw.getAutoCommit()) {
+                    e.raw.rollback();
+                    e.raw.setAutoCommit(true);
+                }
+                if (e.raw.isReadOnly()) e.raw.setReadOnly(false);
+                e.raw.clearWarnings();
+            } catch (SQLException ex) {
+                discard(e);
+                return;
+            }
+            e.borrowSite = null;
+            e.lastUsed = System.currentTimeMillis();
+            idle.offerFirst(e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void discard(Entry e) {
+        all.remove(e);
+        try {
+            e.raw.close();
+        } catch (SQLException ignored) {}
+    }
+
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+
+        // idle eviction: oldest first (tail of the deque), never shrink below minSize
+        if (settings.idleTimeoutMs() > 0) {
+            var it = idle.descendingIterator();
+            while (it.hasNext() && all.size() > settings.minSize()) {
+                Entry e = it.next();
+                if (now - e.lastUsed > settings.idleTimeoutMs() && idle.remove(e)) discard(e);
+            }
+        }
+
+        // leak detection
+        if (settings.leakDetectionMs() > 0) {
+            for (Entry e : all) {
+                Throwable site = e.borrowSite;
+                if (site != null && !e.leakReported && now - e.borrowedAt > settings.leakDetectionMs()) {
+                    e.leakReported = true;
+                    System.err.println("DB pool: connection held for " + (now - e.borrowedAt)
+                            + " ms without being closed (possible leak).");
+                    site.printStackTrace();
+                }
+            }
+        }
+
+        prefill();
+    }
+
+    private static final class Entry {
+        final Connection raw;
+        volatile long lastUsed;
+        volatile long borrowedAt;
+        volatile Throwable borrowSite;
+        volatile boolean leakReported;
+        volatile boolean broken;
+
+        Entry(Connection raw) { this.raw = raw; }
+    }
+
+    private final class Handle implements InvocationHandler {
+        private final Entry entry;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Handle(Entry entry) { this.entry = entry; }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (released.compareAndSet(false, true)) giveBack(entry);
+                    return null;
+                }
+                case "isClosed" -> { return released.get() || entry.raw.isClosed(); }
+                case "equals" -> { return proxy == args[0]; }
+                case "hashCode" -> { return System.identityHashCode(proxy); }
+                case "toString" -> { return "Pooled[" + entry.raw + "]"; }
+                case "unwrap", "isWrapperFor" -> {
+                    if (args[0] instanceof Class<?> c && c.isInstance(proxy)) {
+                        return "unwrap".equals(method.getName()) ? proxy : Boolean.TRUE;
+                    }
+                }
+                default -> { }
+            }
+
+            if (released.get()) throw new SQLException("Connection is closed.", "08003");
+
+            try {
+                return method.invoke(entry.raw, args);
+            } catch (InvocationTargetException ite) {
+                Throwable cause = ite.getCause();
+                if (cause instanceof SQLException sql) {
+                    String state = sql.getSQLState();
+                    if (state != null && state.startsWith("08")) entry.broken = true;
+                }
+                throw cause;
+            }
+        }
+    }
+
+    // --- DataSource boilerplate -------------------------------------
+
+    @Override public PrintWriter getLogWriter() { return null; }
+    @Override public void setLogWriter(PrintWriter out) { }
+    @Override public void setLoginTimeout(int seconds) { }
+    @Override public int getLoginTimeout() { return (int) (settings.connectionTimeoutMs() / 1000); }
+    @Override public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) return (T) this;
+        throw new SQLException("Not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) { return iface.isInstance(this); }
+}
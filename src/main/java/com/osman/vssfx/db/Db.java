@@ -2,8 +2,8 @@ package com.osman.vssfx.db;
 
 import com.osman.vssfx.config.DbConfig;
 
+import javax.sql.DataSource;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 public final class Db {
@@ -17,13 +17,29 @@ public final class Db {
         }
     }
 
+    private static final ConnectionPool POOL = new ConnectionPool(new ConnectionPool.Settings(
+            DbConfig.url(), DbConfig.user(), DbConfig.password(),
+            DbConfig.poolMinSize(), DbConfig.poolMaxSize(),
+            DbConfig.poolConnectionTimeoutMs(), DbConfig.poolIdleTimeoutMs(),
+            DbConfig.poolValidationTimeoutSec(), DbConfig.poolLeakDetectionMs()
+    ));
+
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DbConfig.url(), DbConfig.user(), DbConfig.password());
+        return POOL.getConnection();
     }
 
+    public static DataSource dataSource() { return POOL; }
+
+    public static ConnectionPool pool() { return POOL; }
+
+    /** Opens the configured minimum number of connections up front. */
+    public static void prefill() { POOL.prefill(); }
+
+    public static void shutdown() { POOL.close(); }
+
     public static boolean ping() {
         try (Connection c = getConnection()) {
-            return c.isValid(2);
+            return c.isValid(DbConfig.poolValidationTimeoutSec());
         } catch (Exception e) {
             e.printStackTrace();
             return false;
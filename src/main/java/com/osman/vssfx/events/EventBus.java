@@ -0,0 +1,99 @@
+package com.osman.vssfx.events;
+
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * In-process bus for row-level changes made through the DAOs.
+ * <p>
+ * {@link #publish} may be called from any thread. Changes are queued and delivered on the FX
+ * thread in one batch per pulse: several changes to the same row collapse into the last one,
+ * and an INVALIDATED change swallows the row changes of the same type and tenant.
+ */
+public final class EventBus {
+
+    /** Returned by {@link #subscribe}; closing it stops delivery. */
+    public interface Subscription extends AutoCloseable {
+        @Override void close();
+    }
+
+    private record Subscriber<T>(Class<T> type, Consumer<List<RowChange<T>>> listener) {
+        @SuppressWarnings("unchecked")
+        void deliver(List<RowChange<?>> batch) {
+            List<RowChange<T>> mine = new ArrayList<>();
+            for (RowChange<?> ch : batch) {
+                if (ch.type() == type) mine.add((RowChange<T>) ch);
+            }
+            if (!mine.isEmpty()) listener.accept(mine);
+        }
+    }
+
+    private record RowKey(Class<?> type, long tenantId, long id) {}
+
+    private static final List<Subscriber<?>> SUBSCRIBERS = new CopyOnWriteArrayList<>();
+    private static final ConcurrentLinkedQueue<RowChange<?>> PENDING = new ConcurrentLinkedQueue<>();
+    private static final AtomicBoolean SCHEDULED = new AtomicBoolean();
+
+    private EventBus() {}
+
+    /** Registers {@code listener} for changes of {@code type}; it is always called on the FX thread. */
+    public static <T> Subscription subscribe(Class<T> type, Consumer<List<RowChange<T>>> listener) {
+        Subscriber<T> s = new Subscriber<>(type, listener);
+        SUBSCRIBERS.add(s);
+        return () -> SUBSCRIBERS.remove(s);
+    }
+
+    public static void publish(RowChange<?> change) {
+        PENDING.add(change);
+        if (!SCHEDULED.compareAndSet(false, true)) return; // zaten planlandı
+
+        try {
+            Platform.runLater(EventBus::drain);
+        } catch (IllegalStateException toolkitNotRunning) {
+            drain(); // FX başlamadıysa (ör. komut satırı araçları) aynı thread'de dağıt
+        }
+    }
+
+    private static void drain() {
+        SCHEDULED.set(false);
+
+        List<RowChange<?>> batch = coalesce();
+        if (batch.isEmpty()) return;
+
+        for (Subscriber<?> s : SUBSCRIBERS) {
+            try {
+                s.deliver(batch);
+            } catch (RuntimeException ex) {
+                ex.printStackTrace();
+            }
+        }
+    }
+
+    private static List<RowChange<?>> coalesce() {
+        Map<RowKey, RowChange<?>> byRow = new LinkedHashMap<>();
+
+        RowChange<?> ch;
+        while ((ch = PENDING.poll()) != null) {
+            if (ch.op() == RowChange.Op.INVALIDATED) {
+                RowChange<?> inv = ch;
+                byRow.keySet().removeIf(k -> k.type() == inv.type() && k.tenantId() == inv.tenantId());
+                byRow.put(new RowKey(ch.type(), ch.tenantId(), -1), ch);
+                continue;
+            }
+            if (byRow.containsKey(new RowKey(ch.type(), ch.tenantId(), -1))) continue;
+
+            RowKey key = new RowKey(ch.type(), ch.tenantId(), ch.id());
+            byRow.remove(key); // sıra son değişikliğe göre olsun
+            byRow.put(key, ch);
+        }
+        return new ArrayList<>(byRow.values());
+    }
+}
@@ -0,0 +1,27 @@
+package com.osman.vssfx.events;
+
+/**
+ * One row written by a DAO. {@code row} is the fresh database state for INSERTED / UPDATED
+ * and null otherwise; INVALIDATED means "too many rows changed, reload the tenant" and has
+ * no id.
+ */
+public record RowChange<T>(Class<T> type, Op op, long tenantId, long id, T row) {
+
+    public enum Op { INSERTED, UPDATED, DELETED, INVALIDATED }
+
+    public static <T> RowChange<T> inserted(Class<T> type, long tenantId, long id, T row) {
+        return new RowChange<>(type, Op.INSERTED, tenantId, id, row);
+    }
+
+    public static <T> RowChange<T> updated(Class<T> type, long tenantId, long id, T row) {
+        return new RowChange<>(type, Op.UPDATED, tenantId, id, row);
+    }
+
+    public static <T> RowChange<T> deleted(Class<T> type, long tenantId, long id) {
+        return new RowChange<>(type, Op.DELETED, tenantId, id, null);
+    }
+
+    public static <T> RowChange<T> invalidated(Class<T> type, long tenantId) {
+        return new RowChange<>(type, Op.INVALIDATED, tenantId, -1, null);
+    }
+}
@@ -0,0 +1,91 @@
+package com.osman.vssfx.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * RFC 4180 CSV with a semicolon separator (the list separator of Turkish Excel, which would put
+ * a comma separated row into one column), CRLF, fields quoted only when needed. Starts with a
+ * UTF-8 BOM so Excel shows Turkish characters correctly; decimals always use a dot.
+ * <p>
+ * Text that Excel would run as a formula ({@code = + - @}, tab or CR first) gets a leading
+ * {@code '}; numbers and dates are written as they are.
+ */
+final class CsvWriter implements TabularWriter {
+
+    private static final int BUFFER = 64 * 1024;
+    private static final char SEPARATOR = ';';
+
+    private final BufferedWriter out;
+
+    CsvWriter(Path file) throws IOException {
+        this.out = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8), BUFFER);
+        out.write('\uFEFF');
+    }
+
+    @Override
+    public void header(String... names) throws IOException {
+        row((Object[]) names);
+    }
+
+    @Override
+    public void row(Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) out.write(SEPARATOR);
+            writeField(values[i]);
+        }
+        out.write("\r\n");
+    }
+
+    private void writeField(Object v) throws IOException {
+        if (v == null) return;
+        if (v instanceof BigDecimal d) {
+            out.write(d.toPlainString());
+            return;
+        }
+        if (v instanceof Number) {
+            out.write(v.toString());
+            return;
+        }
+
+        String s = v.toString(); // LocalDate / LocalDateTime: ISO-8601
+        if (v instanceof CharSequence && isFormulaLike(s)) s = "'" + s;
+        if (!needsQuotes(s)) {
+            out.write(s);
+            return;
+        }
+
+        out.write('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"') out.write('"');
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    private static boolean needsQuotes(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == SEPARATOR || c == '"' || c == '\r' || c == '\n') return true;
+        }
+        return false;
+    }
+
+    // CSV injection: hücre formül olarak çalışmasın
+    private static boolean isFormulaLike(String s) {
+        if (s.isEmpty()) return false;
+        char c = s.charAt(0);
+        return c == '=' || c == '+' || c == '-' || c == '@' || c == '\t' || c == '\r';
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
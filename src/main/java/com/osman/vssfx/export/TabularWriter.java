@@ -0,0 +1,34 @@
+package com.osman.vssfx.export;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Row-at-a-time file writer for exports; nothing but the current row is held in memory.
+ * Values may be null, String, Number, LocalDate or LocalDateTime.
+ */
+public interface TabularWriter extends AutoCloseable {
+
+    void header(String... names) throws IOException;
+
+    void row(Object... values) throws IOException;
+
+    @Override void close() throws IOException;
+
+    enum Format {
+        CSV("csv"), XLSX("xlsx");
+
+        private final String extension;
+
+        Format(String extension) { this.extension = extension; }
+
+        public String extension() { return extension; }
+
+        public TabularWriter open(Path file, String sheetName) throws IOException {
+            return switch (this) {
+                case CSV -> new CsvWriter(file);
+                case XLSX -> new XlsxWriter(file, sheetName);
+            };
+        }
+    }
+}
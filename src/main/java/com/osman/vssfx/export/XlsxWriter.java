@@ -0,0 +1,146 @@
+package com.osman.vssfx.export;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Minimal single-sheet XLSX written as a stream: the package parts are fixed, and the sheet
+ * XML is written row by row into the zip entry with inline strings, so no shared-string table
+ * or row buffer is needed. Numbers are numeric cells; dates are written as ISO text.
+ */
+final class XlsxWriter implements TabularWriter {
+
+    /** Excel's hard row limit, header included. */
+    static final int MAX_ROWS = 1_048_576;
+
+    private static final String CONTENT_TYPES = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Types xmlns="http://schemas.openxmlformats.org/package/2006/content-types">
+            <Default Extension="rels" ContentType="application/vnd.openxmlformats-package.relationships+xml"/>
+            <Default Extension="xml" ContentType="application/xml"/>
+            <Override PartName="/xl/workbook.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml"/>
+            <Override PartName="/xl/worksheets/sheet1.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml"/>
+            </Types>
+            """;
+
+    private static final String ROOT_RELS = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">
+            <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument" Target="xl/workbook.xml"/>
+            </Relationships>
+            """;
+
+    private static final String WORKBOOK = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <workbook xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main" xmlns:r="http://schemas.openxmlformats.org/officeDocument/2006/relationships">
+            <sheets><sheet name="%s" sheetId="1" r:id="rId1"/></sheets>
+            </workbook>
+            """;
+
+    private static final String WORKBOOK_RELS = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">
+            <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet" Target="worksheets/sheet1.xml"/>
+            </Relationships>
+            """;
+
+    private final ZipOutputStream zip;
+    private final Writer out;
+    private int rows;
+
+    XlsxWriter(Path file, String sheetName) throws IOException {
+        this.zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024));
+        this.out = new OutputStreamWriter(zip, StandardCharsets.UTF_8);
+
+        try {
+            part("[Content_Types].xml", CONTENT_TYPES);
+            part("_rels/.rels", ROOT_RELS);
+            part("xl/workbook.xml", WORKBOOK.formatted(escape(sheetName)));
+            part("xl/_rels/workbook.xml.rels", WORKBOOK_RELS);
+
+            zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+            out.write("""
+                    <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                    <worksheet xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main"><sheetData>""");
+        } catch (IOException e) {
+            zip.close();
+            throw e;
+        }
+    }
+
+    private void part(String name, String xml) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        out.write(xml);
+        out.flush();
+        zip.closeEntry();
+    }
+
+    @Override
+    public void header(String... names) throws IOException {
+        row((Object[]) names);
+    }
+
+    @Override
+    public void row(Object... values) throws IOException {
+        if (++rows > MAX_ROWS) {
+            throw new IOException("Excel satır sınırı aşıldı (" + MAX_ROWS + "). Bu veri için CSV kullanın.");
+        }
+
+        out.write("<row>");
+        for (Object v : values) {
+            if (v == null) {
+                out.write("<c/>");
+            } else if (v instanceof Number n) {
+                out.write("<c><v>");
+                out.write(n instanceof BigDecimal d ? d.toPlainString() : n.toString());
+                out.write("</v></c>");
+            } else {
+                out.write("<c t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+                out.write(escape(v.toString()));
+                out.write("</t></is></c>");
+            }
+        }
+        out.write("</row>");
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            out.write("</sheetData></worksheet>");
+            out.flush();
+            zip.closeEntry();
+        } finally {
+            zip.close();
+        }
+    }
+
+    /** XML text escaping; control characters that XML 1.0 cannot carry are dropped. */
+    private static String escape(String s) {
+        StringBuilder sb = null;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            String rep = switch (c) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                default -> (c < 0x20 && c != '\t' && c != '\n' && c != '\r') ? "" : null;
+            };
+            if (rep == null) {
+                if (sb != null) sb.append(c);
+                continue;
+            }
+            if (sb == null) sb = new StringBuilder(s.length() + 16).append(s, 0, i);
+            sb.append(rep);
+        }
+        return sb == null ? s : sb.toString();
+    }
+}
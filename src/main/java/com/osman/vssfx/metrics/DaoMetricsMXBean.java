@@ -0,0 +1,16 @@
+package com.osman.vssfx.metrics;
+
+import java.util.List;
+
+/** JMX view of {@link Metrics} ({@code com.osman.vssfx:type=DaoMetrics}). */
+public interface DaoMetricsMXBean {
+
+    /** Per operation, slowest p99 first. */
+    List<Metrics.OpSnapshot> getOperations();
+
+    List<Metrics.OpSnapshot> getOperationsByTenant();
+
+    Metrics.PoolSnapshot getPool();
+
+    void reset();
+}
@@ -0,0 +1,110 @@
+package com.osman.vssfx.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram in microseconds with HdrHistogram-style log-linear buckets:
+ * exact below 128 µs, then 64 sub-buckets per power of two, so every bucket is within 1.6%
+ * of the values it holds. Fixed size (about 14 KB), values above ~71 minutes are clamped.
+ * <p>
+ * {@link #record} is a couple of atomic increments; reading goes through a {@link Snapshot},
+ * which is not atomic across buckets but close enough for monitoring.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 6;
+    private static final int SUB = 1 << SUB_BITS;      // 64 per power of two
+    private static final int LINEAR = SUB * 2;         // 0..127 exact
+    private static final long MAX_MICROS = (1L << 32) - 1;
+    private static final int BUCKETS = index(MAX_MICROS) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sumMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public void recordNanos(long nanos) {
+        record(nanos / 1_000);
+    }
+
+    public void record(long micros) {
+        long v = Math.min(Math.max(micros, 0), MAX_MICROS);
+        counts.incrementAndGet(index(v));
+        total.increment();
+        sumMicros.add(v);
+        if (v > maxMicros.get()) maxMicros.accumulateAndGet(v, Math::max);
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        total.reset();
+        sumMicros.reset();
+        maxMicros.set(0);
+    }
+
+    public Snapshot snapshot() {
+        long[] c = new long[BUCKETS];
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) n += (c[i] = counts.get(i));
+        return new Snapshot(c, n, sumMicros.sum(), maxMicros.get());
+    }
+
+    static int index(long v) {
+        if (v < LINEAR) return (int) v;
+        int shift = 63 - Long.numberOfLeadingZeros(v) - SUB_BITS; // v >>> shift is in [64, 128)
+        return (shift << SUB_BITS) + (int) (v >>> shift);
+    }
+
+    /** Highest value that falls into bucket {@code i}. */
+    static long highestIn(int i) {
+        if (i < LINEAR) return i;
+        int shift = (i >>> SUB_BITS) - 1;
+        long sub = (i & (SUB - 1)) | SUB;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    /** Point-in-time copy; can be merged to aggregate several histograms. */
+    public static final class Snapshot {
+        private final long[] counts;
+        private long count, sumMicros, maxMicros;
+
+        private Snapshot(long[] counts, long count, long sumMicros, long maxMicros) {
+            this.counts = counts;
+            this.count = count;
+            this.sumMicros = sumMicros;
+            this.maxMicros = maxMicros;
+        }
+
+        public static Snapshot empty() {
+            return new Snapshot(new long[BUCKETS], 0, 0, 0);
+        }
+
+        public Snapshot merge(Snapshot other) {
+            for (int i = 0; i < BUCKETS; i++) counts[i] += other.counts[i];
+            count += other.count;
+            sumMicros += other.sumMicros;
+            maxMicros = Math.max(maxMicros, other.maxMicros);
+            return this;
+        }
+
+        public long count() { return count; }
+
+        public long maxMicros() { return maxMicros; }
+
+        public double meanMicros() { return count == 0 ? 0 : (double) sumMicros / count; }
+
+        /** @param q 0..1, e.g. 0.99 */
+        public long percentileMicros(double q) {
+            if (count == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(q * count));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Math.min(highestIn(i), maxMicros);
+            }
+            return maxMicros;
+        }
+    }
+}
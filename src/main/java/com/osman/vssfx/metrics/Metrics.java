@@ -0,0 +1,159 @@
+package com.osman.vssfx.metrics;
+
+import com.osman.vssfx.auth.SessionContext;
+import com.osman.vssfx.db.ConnectionPool;
+import com.osman.vssfx.db.Db;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide DAO metrics, fed by {@code Jdbc} for every statement and transaction: latency
+ * histogram, calls, rows and errors per operation name and tenant, plus connection acquire time.
+ * Recording is a map lookup and a few atomic adds, cheap next to a database round trip.
+ * <p>
+ * The tenant is the logged-in one unless the thread bound another with {@link #bindTenant};
+ * background services that work across tenants bind {@link #SYSTEM}.
+ * <p>
+ * Read by the diagnostics tab and over JMX as {@code com.osman.vssfx:type=DaoMetrics}.
+ */
+public final class Metrics {
+
+    /** Tenant id for work that belongs to no single tenant. */
+    public static final long SYSTEM = 0;
+
+    /** One row of the diagnostics table; {@code tenantId} is -1 when aggregated over tenants. */
+    public record OpSnapshot(String op, long tenantId, long calls, long errors, long rows,
+                             double meanMillis, double p50Millis, double p90Millis, double p99Millis,
+                             double maxMillis, String lastError) {}
+
+    public record PoolSnapshot(int total, int idle, int active,
+                               long acquires, double acquireP50Millis, double acquireP99Millis,
+                               double acquireMaxMillis) {}
+
+    private static final class OpStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        volatile String lastError;
+    }
+
+    private static final Map<String, Map<Long, OpStats>> OPS = new ConcurrentHashMap<>();
+    private static final LatencyHistogram ACQUIRE = new LatencyHistogram();
+    private static final ThreadLocal<Long> TENANT = new ThreadLocal<>();
+
+    private Metrics() {}
+
+    /** Attributes this thread's queries to {@code tenantId} instead of the session's. */
+    public static void bindTenant(long tenantId) {
+        TENANT.set(tenantId);
+    }
+
+    public static void record(String op, long nanos, long rows, Throwable error) {
+        OpStats s = OPS.computeIfAbsent(op, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(currentTenant(), k -> new OpStats());
+        s.latency.recordNanos(nanos);
+        if (rows > 0) s.rows.add(rows);
+        if (error != null) {
+            s.errors.increment();
+            // tanılama sekmesinde görünür: yavaş sorgu kaydındaki gibi değerler maskelenir
+            s.lastError = error.getClass().getSimpleName() + ": " + SlowQueryLog.redactMessage(error.getMessage());
+        }
+    }
+
+    public static void connectionAcquired(long nanos) {
+        ACQUIRE.recordNanos(nanos);
+    }
+
+    /**
+     * @param byTenant one row per operation and tenant, or one per operation
+     * @return slowest p99 first
+     */
+    public static List<OpSnapshot> operations(boolean byTenant) {
+        List<OpSnapshot> out = new ArrayList<>();
+        OPS.forEach((op, tenants) -> {
+            if (byTenant) {
+                tenants.forEach((tenant, s) -> out.add(toSnapshot(op, tenant, s.latency.snapshot(),
+                        s.errors.sum(), s.rows.sum(), s.lastError)));
+                return;
+            }
+            LatencyHistogram.Snapshot merged = LatencyHistogram.Snapshot.empty();
+            long errors = 0, rows = 0;
+            String lastError = null;
+            for (OpStats s : tenants.values()) {
+                merged.merge(s.latency.snapshot());
+                errors += s.errors.sum();
+                rows += s.rows.sum();
+                if (s.lastError != null) lastError = s.lastError;
+            }
+            out.add(toSnapshot(op, -1, merged, errors, rows, lastError));
+        });
+        out.sort(Comparator.comparingDouble(OpSnapshot::p99Millis).reversed());
+        return out;
+    }
+
+    public static PoolSnapshot pool() {
+        ConnectionPool p = Db.pool();
+        LatencyHistogram.Snapshot a = ACQUIRE.snapshot();
+        return new PoolSnapshot(p.totalConnections(), p.idleConnections(), p.activeConnections(),
+                a.count(), millis(a.percentileMicros(0.50)), millis(a.percentileMicros(0.99)),
+                millis(a.maxMicros()));
+    }
+
+    public static void reset() {
+        OPS.clear();
+        ACQUIRE.reset();
+    }
+
+    /** Registers the MXBean once; later calls are no-ops. */
+    public static void registerJmx() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new Jmx(),
+                    new ObjectName("com.osman.vssfx:type=DaoMetrics"));
+        } catch (InstanceAlreadyExistsException ignored) {
+            // zaten kayıtlı
+        } catch (JMException e) {
+            System.err.println("[metrics] JMX registration failed: " + e.getMessage());
+        }
+    }
+
+    /** The bound tenant, else the session's, else {@link #SYSTEM}. */
+    public static long currentTenant() {
+        Long bound = TENANT.get();
+        if (bound != null) return bound;
+        Long session = SessionContext.tenantId();
+        return session == null ? SYSTEM : session;
+    }
+
+    // ---------------------------------------------------------------
+
+    private static OpSnapshot toSnapshot(String op, long tenant, LatencyHistogram.Snapshot h,
+                                         long errors, long rows, String lastError) {
+        return new OpSnapshot(op, tenant, h.count(), errors, rows,
+                h.meanMicros() / 1_000.0,
+                millis(h.percentileMicros(0.50)),
+                millis(h.percentileMicros(0.90)),
+                millis(h.percentileMicros(0.99)),
+                millis(h.maxMicros()),
+                lastError);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1_000.0;
+    }
+
+    private static final class Jmx implements DaoMetricsMXBean {
+        @Override public List<OpSnapshot> getOperations() { return operations(false); }
+        @Override public List<OpSnapshot> getOperationsByTenant() { return operations(true); }
+        @Override public PoolSnapshot getPool() { return pool(); }
+        @Override public void reset() { Metrics.reset(); }
+    }
+}
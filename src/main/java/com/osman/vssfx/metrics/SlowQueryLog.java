@@ -0,0 +1,221 @@
+package com.osman.vssfx.metrics;
+
+import com.osman.vssfx.config.DbConfig;
+import com.osman.vssfx.db.Db;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.temporal.TemporalAccessor;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Statements slower than {@code db.slowQuery.thresholdMs}, one JSON object per line in
+ * {@code slow-queries.log} (rotated to {@code .1 .. .N} by size).
+ * <p>
+ * Each line has the operation, tenant, duration, rows, SQL and parameters. Parameters are
+ * redacted: numbers, dates and enums are kept (ids are what makes a plan reproducible), text
+ * and binary values are replaced by their length. For SELECTs the writer thread also runs
+ * {@code EXPLAIN FORMAT=JSON} with the original values on its own connection, at most once a
+ * minute per operation, and strips string literals from the plan before writing it. Error
+ * messages get the same treatment ({@link #redactMessage}): MySQL quotes the offending value,
+ * e.g. {@code Duplicate entry 'a@b.com' for key ...}.
+ * <p>
+ * The caller only pays for the threshold check; everything else happens on one daemon thread
+ * behind a bounded queue, and entries are dropped (and counted) when it is full.
+ */
+public final class SlowQueryLog {
+
+    private record Entry(Instant at, String op, long tenantId, String sql, Object[] params,
+                         long nanos, long rows, Throwable error) {}
+
+    private static final long THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(DbConfig.slowQueryThresholdMs());
+    private static final boolean EXPLAIN = DbConfig.slowQueryExplain();
+    private static final long EXPLAIN_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final int QUEUE = 256;
+
+    private static final Pattern SELECT = Pattern.compile("^\\s*(SELECT|WITH)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern SQL_STRING = Pattern.compile("'(?:[^'\\\\]|\\\\.)*'");
+    // hata mesajlarındaki değerler; anahtar / kolon / tablo adları kalır
+    private static final Pattern MESSAGE_VALUE = Pattern.compile("(?<!(?i:key|column|table) )'(?:[^'\\\\]|\\\\.|'')*'");
+
+    private static final BlockingQueue<Entry> PENDING = new ArrayBlockingQueue<>(QUEUE);
+    private static final LongAdder DROPPED = new LongAdder();
+    private static volatile Thread writer;
+
+    private SlowQueryLog() {}
+
+    /**
+     * Called by {@code Jdbc} after every statement.
+     *
+     * @param params bound values, or null if the statement used a custom binder
+     */
+    public static void maybeRecord(String op, String sql, Object[] params, long nanos, long rows, Throwable error) {
+        if (THRESHOLD_NANOS <= 0 || nanos < THRESHOLD_NANOS) return;
+
+        Entry e = new Entry(Instant.now(), op, Metrics.currentTenant(), sql, params, nanos, rows, error);
+        if (!PENDING.offer(e)) {
+            DROPPED.increment();
+            return;
+        }
+        if (writer == null) startWriter();
+    }
+
+    // ---------------------------------------------------------------
+
+    private static synchronized void startWriter() {
+        if (writer != null) return;
+        writer = Thread.ofPlatform().daemon().name("slow-query-log").start(SlowQueryLog::writeLoop);
+    }
+
+    private static void writeLoop() {
+        Metrics.bindTenant(Metrics.SYSTEM);
+        Map<String, Long> lastExplain = new HashMap<>();
+        Path file = DbConfig.slowQueryDir().resolve("slow-queries.log");
+
+        while (true) {
+            Entry e;
+            try {
+                e = PENDING.take();
+            } catch (InterruptedException ie) {
+                return;
+            }
+
+            String plan = null;
+            if (EXPLAIN && e.params() != null && SELECT.matcher(e.sql()).find()) {
+                long now = System.nanoTime();
+                Long last = lastExplain.get(e.op());
+                if (last == null || now - last > EXPLAIN_INTERVAL_NANOS) {
+                    lastExplain.put(e.op(), now);
+                    plan = explain(e);
+                }
+            }
+
+            try {
+                append(file, toJson(e, plan));
+            } catch (IOException ex) {
+                System.err.println("[slow-query] write failed: " + ex.getMessage());
+            }
+        }
+    }
+
+    /** Runs outside Jdbc so the EXPLAIN itself is neither timed nor logged. */
+    private static String explain(Entry e) {
+        try (Connection c = Db.getConnection();
+             PreparedStatement ps = c.prepareStatement("EXPLAIN FORMAT=JSON " + e.sql())) {
+            ps.setQueryTimeout(5);
+            Object[] p = e.params();
+            for (int i = 0; i < p.length; i++) {
+                if (p[i] == null) ps.setNull(i + 1, Types.NULL);
+                else ps.setObject(i + 1, p[i]);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return null;
+                // plan koşulları bağlanan değerleri içerir: metin sabitlerini temizle
+                return SQL_STRING.matcher(rs.getString(1)).replaceAll("'?'");
+            }
+        } catch (SQLException ex) {
+            return null;
+        }
+    }
+
+    private static void append(Path file, String line) throws IOException {
+        byte[] bytes = (line + "\n").getBytes(StandardCharsets.UTF_8);
+        Files.createDirectories(file.getParent());
+        if (Files.exists(file) && Files.size(file) + bytes.length > DbConfig.slowQueryMaxFileKb() * 1024L) {
+            rotate(file, DbConfig.slowQueryFiles());
+        }
+        Files.write(file, bytes, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    /** slow-queries.log -> .1 -> .2 ... ; the oldest is deleted */
+    private static void rotate(Path file, int keep) throws IOException {
+        String name = file.getFileName().toString();
+        Files.deleteIfExists(file.resolveSibling(name + "." + keep));
+        for (int i = keep - 1; i >= 1; i--) {
+            Path from = file.resolveSibling(name + "." + i);
+            if (Files.exists(from)) Files.move(from, file.resolveSibling(name + "." + (i + 1)), StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (keep >= 1) Files.move(file, file.resolveSibling(name + ".1"), StandardCopyOption.REPLACE_EXISTING);
+        else Files.delete(file);
+    }
+
+    private static String toJson(Entry e, String plan) {
+        StringBuilder sb = new StringBuilder(512)
+                .append("{\"at\":").append(str(e.at().toString()))
+                .append(",\"op\":").append(str(e.op()))
+                .append(",\"tenant\":").append(e.tenantId())
+                .append(",\"ms\":").append(String.format(Locale.ROOT, "%.1f", e.nanos() / 1e6))
+                .append(",\"rows\":").append(e.rows());
+        if (e.error() != null) sb.append(",\"error\":").append(str(redactMessage(e.error().getMessage())));
+        sb.append(",\"sql\":").append(str(e.sql().trim().replaceAll("\\s+", " ")));
+
+        sb.append(",\"params\":");
+        if (e.params() == null) {
+            sb.append("null");
+        } else {
+            sb.append('[');
+            for (int i = 0; i < e.params().length; i++) {
+                if (i > 0) sb.append(',');
+                sb.append(redact(e.params()[i]));
+            }
+            sb.append(']');
+        }
+
+        long dropped = DROPPED.sumThenReset();
+        if (dropped > 0) sb.append(",\"droppedBefore\":").append(dropped);
+        if (plan != null) sb.append(",\"explain\":").append(plan.trim().startsWith("{") ? plan : str(plan));
+        return sb.append('}').toString();
+    }
+
+    /** {@code message} with quoted values replaced by {@code '?'}; quoted key, column and table names are kept. */
+    public static String redactMessage(String message) {
+        return message == null ? null : MESSAGE_VALUE.matcher(message).replaceAll("'?'");
+    }
+
+    private static String redact(Object v) {
+        if (v == null) return "null";
+        if (v instanceof Number || v instanceof Boolean) return v.toString();
+        if (v instanceof Enum<?> en) return str(en.name());
+        if (v instanceof TemporalAccessor || v instanceof java.util.Date) return str(v.toString());
+        if (v instanceof CharSequence s) return str("<metin:" + s.length() + ">");
+        if (v instanceof byte[] b) return str("<bytes:" + b.length + ">");
+        return str("<" + v.getClass().getSimpleName() + ">");
+    }
+
+    private static String str(String s) {
+        if (s == null) return "null";
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            switch (ch) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (ch < 0x20) sb.append(String.format("\\u%04x", (int) ch));
+                    else sb.append(ch);
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -1,3 +1,59 @@
 package com.osman.vssfx.model;
 
-public class Assignment {}
+import java.time.LocalDateTime;
+
+public class Assignment {
+    private Long assignmentId;
+    private Long tenantId;
+    private Long driverId;
+    private Long vehicleId;
+
+    private int startKm;
+    private Integer endKm;
+    private LocalDateTime startDatetime;
+    private LocalDateTime endDatetime;
+
+    // JOIN ile gelen, sadece okunur alanlar
+    private String driverName;
+    private String licenseNo;
+    private String plateNo;
+    private String makeModel;
+
+    public Long getAssignmentId() { return assignmentId; }
+    public void setAssignmentId(Long assignmentId) { this.assignmentId = assignmentId; }
+
+    public Long getTenantId() { return tenantId; }
+    public void setTenantId(Long tenantId) { this.tenantId = tenantId; }
+
+    public Long getDriverId() { return driverId; }
+    public void setDriverId(Long driverId) { this.driverId = driverId; }
+
+    public Long getVehicleId() { return vehicleId; }
+    public void setVehicleId(Long vehicleId) { this.vehicleId = vehicleId; }
+
+    public int getStartKm() { return startKm; }
+    public void setStartKm(int startKm) { this.startKm = startKm; }
+
+    public Integer getEndKm() { return endKm; }
+    public void setEndKm(Integer endKm) { this.endKm = endKm; }
+
+    public LocalDateTime getStartDatetime() { return startDatetime; }
+    public void setStartDatetime(LocalDateTime startDatetime) { this.startDatetime = startDatetime; }
+
+    public LocalDateTime getEndDatetime() { return endDatetime; }
+    public void setEndDatetime(LocalDateTime endDatetime) { this.endDatetime = endDatetime; }
+
+    public boolean isActive() { return endDatetime == null; }
+
+    public String getDriverName() { return driverName; }
+    public void setDriverName(String driverName) { this.driverName = driverName; }
+
+    public String getLicenseNo() { return licenseNo; }
+    public void setLicenseNo(String licenseNo) { this.licenseNo = licenseNo; }
+
+    public String getPlateNo() { return plateNo; }
+    public void setPlateNo(String plateNo) { this.plateNo = plateNo; }
+
+    public String getMakeModel() { return makeModel; }
+    public void setMakeModel(String makeModel) { this.makeModel = makeModel; }
+}
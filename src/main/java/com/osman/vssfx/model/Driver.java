@@ -1,3 +1,43 @@
 package com.osman.vssfx.model;
 
-public class Driver {}
+public class Driver {
+    private Long driverId;
+    private Long tenantId;
+
+    private String firstName;
+    private String lastName;
+    private String licenseNo;
+    private String phone;
+
+    // JOIN ile gelen, sadece okunur: aktif zimmet (yoksa null)
+    private Long activeAssignmentId;
+    private String activePlateNo;
+
+    public Long getDriverId() { return driverId; }
+    public void setDriverId(Long driverId) { this.driverId = driverId; }
+
+    public Long getTenantId() { return tenantId; }
+    public void setTenantId(Long tenantId) { this.tenantId = tenantId; }
+
+    public String getFirstName() { return firstName; }
+    public void setFirstName(String firstName) { this.firstName = firstName; }
+
+    public String getLastName() { return lastName; }
+    public void setLastName(String lastName) { this.lastName = lastName; }
+
+    public String getLicenseNo() { return licenseNo; }
+    public void setLicenseNo(String licenseNo) { this.licenseNo = licenseNo; }
+
+    public String getPhone() { return phone; }
+    public void setPhone(String phone) { this.phone = phone; }
+
+    public Long getActiveAssignmentId() { return activeAssignmentId; }
+    public void setActiveAssignmentId(Long activeAssignmentId) { this.activeAssignmentId = activeAssignmentId; }
+
+    public String getActivePlateNo() { return activePlateNo; }
+    public void setActivePlateNo(String activePlateNo) { this.activePlateNo = activePlateNo; }
+
+    public boolean isAvailable() { return activeAssignmentId == null; }
+
+    public String getFullName() { return firstName + " " + lastName; }
+}
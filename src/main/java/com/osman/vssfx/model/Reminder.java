@@ -0,0 +1,83 @@
+package com.osman.vssfx.model;
+
+import java.time.LocalDateTime;
+
+public class Reminder {
+    private Long reminderId;
+    private Long tenantId;
+    private Long vehicleId;
+    private Long customerId;
+
+    private LocalDateTime remindAt;
+    private String title;
+    private String message;
+
+    private boolean channelEmail = true;
+    private boolean channelSms;
+
+    private ReminderStatus status = ReminderStatus.PENDING;
+    private String lastError;
+    private int attempts;
+    private LocalDateTime sentAt;
+    private int sentChannels; // ReminderChannel.bit() maskesi
+
+    // JOIN ile gelen, sadece okunur alanlar (liste ve gönderim için)
+    private String plateNo;
+    private String customerName;
+    private String customerEmail;
+    private String customerPhone;
+
+    public Long getReminderId() { return reminderId; }
+    public void setReminderId(Long reminderId) { this.reminderId = reminderId; }
+
+    public Long getTenantId() { return tenantId; }
+    public void setTenantId(Long tenantId) { this.tenantId = tenantId; }
+
+    public Long getVehicleId() { return vehicleId; }
+    public void setVehicleId(Long vehicleId) { this.vehicleId = vehicleId; }
+
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+
+    public LocalDateTime getRemindAt() { return remindAt; }
+    public void setRemindAt(LocalDateTime remindAt) { this.remindAt = remindAt; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public boolean isChannelEmail() { return channelEmail; }
+    public void setChannelEmail(boolean channelEmail) { this.channelEmail = channelEmail; }
+
+    public boolean isChannelSms() { return channelSms; }
+    public void setChannelSms(boolean channelSms) { this.channelSms = channelSms; }
+
+    public ReminderStatus getStatus() { return status; }
+    public void setStatus(ReminderStatus status) { this.status = status; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public LocalDateTime getSentAt() { return sentAt; }
+    public void setSentAt(LocalDateTime sentAt) { this.sentAt = sentAt; }
+
+    public int getSentChannels() { return sentChannels; }
+    public void setSentChannels(int sentChannels) { this.sentChannels = sentChannels; }
+
+    public String getPlateNo() { return plateNo; }
+    public void setPlateNo(String plateNo) { this.plateNo = plateNo; }
+
+    public String getCustomerName() { return customerName; }
+    public void setCustomerName(String customerName) { this.customerName = customerName; }
+
+    public String getCustomerEmail() { return customerEmail; }
+    public void setCustomerEmail(String customerEmail) { this.customerEmail = customerEmail; }
+
+    public String getCustomerPhone() { return customerPhone; }
+    public void setCustomerPhone(String customerPhone) { this.customerPhone = customerPhone; }
+}
@@ -0,0 +1,27 @@
+package com.osman.vssfx.model;
+
+public enum ReminderStatus {
+    PENDING,
+    SENT,
+    CANCELLED,
+    FAILED;
+
+    public static ReminderStatus fromDb(String s) {
+        if (s == null || s.isBlank()) return PENDING;
+        return ReminderStatus.valueOf(s.trim().toUpperCase());
+    }
+
+    public String toDb() {
+        return name();
+    }
+
+    @Override
+    public String toString() {
+        return switch (this) {
+            case PENDING -> "Bekliyor";
+            case SENT -> "Gönderildi";
+            case CANCELLED -> "İptal";
+            case FAILED -> "Başarısız";
+        };
+    }
+}
@@ -0,0 +1,176 @@
+package com.osman.vssfx.qr;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * In-memory map of ACTIVATED token hashes to their vehicle, for resolving scans without a
+ * query. Open addressing with linear probing over primitive arrays: per slot two longs of key,
+ * one long tenant id and one int vehicle id (28 bytes, no objects), kept at most half full.
+ * <p>
+ * The key is the first 128 bits of the SHA-256 digest. Digests are uniformly distributed, so
+ * the first long is used directly as the hash code, and a wrong match would need a 128-bit
+ * collision with a token nobody holds.
+ * <p>
+ * One writer at a time (the sync thread); lookups take an optimistic read and only fall back
+ * to the read lock if a write overlapped.
+ */
+public final class ActiveTokenIndex {
+
+    public record Target(long tenantId, long vehicleId) {}
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final int MIN_CAPACITY = 1024;
+
+    private final StampedLock lock = new StampedLock();
+
+    // slot i: keys[2i], keys[2i+1], tenants[i], vehicles[i]; vehicles[i] == 0 means empty
+    private long[] keys;
+    private long[] tenants;
+    private int[] vehicles;
+    private int mask;
+    private int size;
+
+    public ActiveTokenIndex(int expected) {
+        allocate(capacityFor(expected));
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /** @return null if the hash is not an active token */
+    public Target get(byte[] hash) {
+        long k0 = (long) LONGS.get(hash, 0), k1 = (long) LONGS.get(hash, 8);
+
+        long stamp = lock.tryOptimisticRead();
+        Target t = find(k0, k1);
+        if (lock.validate(stamp)) return t;
+
+        stamp = lock.readLock();
+        try {
+            return find(k0, k1);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void put(byte[] hash, long tenantId, long vehicleId) {
+        // INT UNSIGNED; 0 boş slot demek, 2^32 ve üstü int'e sığmaz
+        if (vehicleId <= 0 || vehicleId > 0xFFFF_FFFFL) throw new IllegalArgumentException("vehicleId: " + vehicleId);
+        long k0 = (long) LONGS.get(hash, 0), k1 = (long) LONGS.get(hash, 8);
+
+        long stamp = lock.writeLock();
+        try {
+            if ((size + 1) * 2L > vehicles.length) rehash(vehicles.length * 2);
+            int i = slot(k0, k1);
+            if (vehicles[i] == 0) {
+                keys[2 * i] = k0;
+                keys[2 * i + 1] = k1;
+                size++;
+            }
+            tenants[i] = tenantId;
+            vehicles[i] = (int) vehicleId; // INT UNSIGNED
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void remove(byte[] hash) {
+        long k0 = (long) LONGS.get(hash, 0), k1 = (long) LONGS.get(hash, 8);
+
+        long stamp = lock.writeLock();
+        try {
+            int i = slot(k0, k1);
+            if (vehicles[i] == 0) return;
+
+            // backward shift: pull later entries of the probe chain into the gap, no tombstones
+            for (int j = i; ; ) {
+                j = (j + 1) & mask;
+                if (vehicles[j] == 0) break;
+                int home = home(keys[2 * j]);
+                boolean stays = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+                if (stays) continue;
+
+                keys[2 * i] = keys[2 * j];
+                keys[2 * i + 1] = keys[2 * j + 1];
+                tenants[i] = tenants[j];
+                vehicles[i] = vehicles[j];
+                i = j;
+            }
+            keys[2 * i] = 0;
+            keys[2 * i + 1] = 0;
+            tenants[i] = 0;
+            vehicles[i] = 0;
+            size--;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // ---------------------------------------------------------------
+
+    /** May run against a concurrent write; the caller validates. Bounded so it always ends. */
+    private Target find(long k0, long k1) {
+        long[] ks = keys;
+        long[] ts = tenants;
+        int[] vs = vehicles;
+        int m = vs.length - 1;
+        if (ks.length != 2 * vs.length || ts.length != vs.length) return null; // resize in progress
+
+        int i = home(k0) & m;
+        for (int n = 0; n <= m; n++, i = (i + 1) & m) {
+            int v = vs[i];
+            if (v == 0) return null;
+            if (ks[2 * i] == k0 && ks[2 * i + 1] == k1) return new Target(ts[i], Integer.toUnsignedLong(v));
+        }
+        return null;
+    }
+
+    /** Slot holding the key, or the empty slot where it would go. */
+    private int slot(long k0, long k1) {
+        int i = home(k0);
+        while (vehicles[i] != 0 && (keys[2 * i] != k0 || keys[2 * i + 1] != k1)) i = (i + 1) & mask;
+        return i;
+    }
+
+    private int home(long k0) {
+        return (int) (k0 ^ (k0 >>> 32)) & mask;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldTenants = tenants;
+        int[] oldVehicles = vehicles;
+
+        allocate(capacity);
+        for (int j = 0; j < oldVehicles.length; j++) {
+            if (oldVehicles[j] == 0) continue;
+            int i = slot(oldKeys[2 * j], oldKeys[2 * j + 1]);
+            keys[2 * i] = oldKeys[2 * j];
+            keys[2 * i + 1] = oldKeys[2 * j + 1];
+            tenants[i] = oldTenants[j];
+            vehicles[i] = oldVehicles[j];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity * 2];
+        tenants = new long[capacity];
+        vehicles = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    private static int capacityFor(int expected) {
+        long want = Math.max(MIN_CAPACITY, (long) expected * 2);
+        if (want > 1 << 30) throw new IllegalArgumentException("Too many tokens: " + expected);
+        return Integer.highestOneBit((int) want - 1) << 1;
+    }
+}
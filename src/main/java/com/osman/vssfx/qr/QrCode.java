@@ -0,0 +1,420 @@
+package com.osman.vssfx.qr;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal QR Code encoder (ISO/IEC 18004) for sticker URLs: byte mode, error correction
+ * level M, versions 1–10 (up to 213 bytes). The smallest fitting version is used and the
+ * mask with the lowest penalty score is chosen, as the standard prescribes.
+ * <p>
+ * Instances are immutable; {@link #isDark(int, int)} reads the final module grid.
+ */
+public final class QrCode {
+
+    public static final int MAX_VERSION = 10;
+
+    // Level M, index = version
+    private static final int[] ECC_PER_BLOCK = {-1, 10, 16, 26, 18, 24, 16, 18, 22, 22, 26};
+    private static final int[] BLOCKS        = {-1,  1,  1,  1,  2,  2,  4,  4,  4,  5,  5};
+    private static final int FORMAT_M = 0; // format bits of level M
+
+    private final int version;
+    private final int size;
+    private final boolean[][] modules;    // [y][x]
+    private final boolean[][] isFunction; // only needed while building
+
+    private QrCode(int version) {
+        this.version = version;
+        this.size = version * 4 + 17;
+        this.modules = new boolean[size][size];
+        this.isFunction = new boolean[size][size];
+    }
+
+    /** @throws IllegalArgumentException if the text does not fit in version {@value #MAX_VERSION} */
+    public static QrCode encode(String text) {
+        byte[] data = text.getBytes(StandardCharsets.UTF_8);
+
+        int version = 1;
+        while (8 * dataCodewords(version) < 4 + countBits(version) + data.length * 8) {
+            if (++version > MAX_VERSION) {
+                throw new IllegalArgumentException("Text too long for a version " + MAX_VERSION + " QR code: " + data.length + " bytes");
+            }
+        }
+
+        QrCode qr = new QrCode(version);
+        qr.drawFunctionPatterns();
+        qr.drawCodewords(qr.addEccAndInterleave(dataSegment(data, version)));
+
+        int best = 0;
+        int minPenalty = Integer.MAX_VALUE;
+        for (int mask = 0; mask < 8; mask++) {
+            qr.applyMask(mask);
+            qr.drawFormatBits(mask);
+            int penalty = qr.penalty();
+            if (penalty < minPenalty) {
+                best = mask;
+                minPenalty = penalty;
+            }
+            qr.applyMask(mask); // XOR: undo
+        }
+        qr.applyMask(best);
+        qr.drawFormatBits(best);
+        return qr;
+    }
+
+    public int version() { return version; }
+
+    /** Modules per side, without the quiet zone (4 modules on each side when printing). */
+    public int size() { return size; }
+
+    public boolean isDark(int x, int y) {
+        return x >= 0 && x < size && y >= 0 && y < size && modules[y][x];
+    }
+
+    // ---------------------------------------------------------------
+    // Data
+
+    private static int countBits(int version) {
+        return version < 10 ? 8 : 16;
+    }
+
+    private static int rawModules(int version) {
+        int result = (16 * version + 128) * version + 64;
+        if (version >= 2) {
+            int align = version / 7 + 2;
+            result -= (25 * align - 10) * align - 55;
+            if (version >= 7) result -= 36;
+        }
+        return result;
+    }
+
+    private static int dataCodewords(int version) {
+        return rawModules(version) / 8 - ECC_PER_BLOCK[version] * BLOCKS[version];
+    }
+
+    /** Mode indicator, length, bytes, terminator and pad codewords. */
+    private static byte[] dataSegment(byte[] data, int version) {
+        int capacity = dataCodewords(version);
+        BitBuffer bb = new BitBuffer(capacity * 8);
+        bb.append(0b0100, 4);
+        bb.append(data.length, countBits(version));
+        for (byte b : data) bb.append(b & 0xFF, 8);
+
+        bb.append(0, Math.min(4, capacity * 8 - bb.length));
+        bb.append(0, (8 - bb.length % 8) % 8);
+        for (int pad = 0xEC; bb.length < capacity * 8; pad ^= 0xEC ^ 0x11) bb.append(pad, 8);
+        return bb.bytes;
+    }
+
+    private byte[] addEccAndInterleave(byte[] data) {
+        int numBlocks = BLOCKS[version];
+        int eccLen = ECC_PER_BLOCK[version];
+        int raw = rawModules(version) / 8;
+        int numShort = numBlocks - raw % numBlocks;
+        int shortLen = raw / numBlocks;
+
+        byte[] divisor = ReedSolomon.divisor(eccLen);
+        byte[][] blocks = new byte[numBlocks][];
+        for (int i = 0, k = 0; i < numBlocks; i++) {
+            int datLen = shortLen - eccLen + (i < numShort ? 0 : 1);
+            byte[] block = new byte[shortLen + 1];
+            System.arraycopy(data, k, block, 0, datLen);
+            byte[] ecc = ReedSolomon.remainder(data, k, datLen, divisor);
+            System.arraycopy(ecc, 0, block, block.length - eccLen, eccLen);
+            k += datLen;
+            blocks[i] = block;
+        }
+
+        byte[] result = new byte[raw];
+        int n = 0;
+        for (int i = 0; i < blocks[0].length; i++) {
+            for (int j = 0; j < numBlocks; j++) {
+                // short blocks have no byte at the padding position
+                if (i != shortLen - eccLen || j >= numShort) result[n++] = blocks[j][i];
+            }
+        }
+        return result;
+    }
+
+    // ---------------------------------------------------------------
+    // Module grid
+
+    private void set(int x, int y, boolean dark) {
+        modules[y][x] = dark;
+        isFunction[y][x] = true;
+    }
+
+    private void drawFunctionPatterns() {
+        for (int i = 0; i < size; i++) {
+            set(6, i, i % 2 == 0);
+            set(i, 6, i % 2 == 0);
+        }
+
+        drawFinder(3, 3);
+        drawFinder(size - 4, 3);
+        drawFinder(3, size - 4);
+
+        int[] align = alignmentPositions();
+        int last = align.length - 1;
+        for (int i = 0; i <= last; i++) {
+            for (int j = 0; j <= last; j++) {
+                boolean corner = (i == 0 && j == 0) || (i == 0 && j == last) || (i == last && j == 0);
+                if (!corner) drawAlignment(align[i], align[j]);
+            }
+        }
+
+        drawFormatBits(0); // reserves the area; overwritten after masking
+        drawVersion();
+    }
+
+    private void drawFinder(int cx, int cy) {
+        for (int dy = -4; dy <= 4; dy++) {
+            for (int dx = -4; dx <= 4; dx++) {
+                int x = cx + dx, y = cy + dy;
+                if (x < 0 || x >= size || y < 0 || y >= size) continue;
+                int dist = Math.max(Math.abs(dx), Math.abs(dy));
+                set(x, y, dist != 2 && dist != 4);
+            }
+        }
+    }
+
+    private void drawAlignment(int cx, int cy) {
+        for (int dy = -2; dy <= 2; dy++) {
+            for (int dx = -2; dx <= 2; dx++) {
+                set(cx + dx, cy + dy, Math.max(Math.abs(dx), Math.abs(dy)) != 1);
+            }
+        }
+    }
+
+    private int[] alignmentPositions() {
+        if (version == 1) return new int[0];
+        int count = version / 7 + 2;
+        int step = (version * 4 + count * 2 + 1) / (count * 2 - 2) * 2;
+        int[] result = new int[count];
+        result[0] = 6;
+        for (int i = count - 1, pos = size - 7; i >= 1; i--, pos -= step) result[i] = pos;
+        return result;
+    }
+
+    private void drawFormatBits(int mask) {
+        int data = FORMAT_M << 3 | mask;
+        int rem = data;
+        for (int i = 0; i < 10; i++) rem = (rem << 1) ^ ((rem >>> 9) * 0x537);
+        int bits = (data << 10 | rem) ^ 0x5412;
+
+        for (int i = 0; i <= 5; i++) set(8, i, bit(bits, i));
+        set(8, 7, bit(bits, 6));
+        set(8, 8, bit(bits, 7));
+        set(7, 8, bit(bits, 8));
+        for (int i = 9; i < 15; i++) set(14 - i, 8, bit(bits, i));
+
+        for (int i = 0; i < 8; i++) set(size - 1 - i, 8, bit(bits, i));
+        for (int i = 8; i < 15; i++) set(8, size - 15 + i, bit(bits, i));
+        set(8, size - 8, true); // dark module
+    }
+
+    private void drawVersion() {
+        if (version < 7) return;
+        int rem = version;
+        for (int i = 0; i < 12; i++) rem = (rem << 1) ^ ((rem >>> 11) * 0x1F25);
+        int bits = version << 12 | rem;
+
+        for (int i = 0; i < 18; i++) {
+            boolean b = bit(bits, i);
+            int a = size - 11 + i % 3, c = i / 3;
+            set(a, c, b);
+            set(c, a, b);
+        }
+    }
+
+    /** Zigzag placement, two columns at a time from the bottom right, skipping the timing column. */
+    private void drawCodewords(byte[] data) {
+        int i = 0;
+        for (int right = size - 1; right >= 1; right -= 2) {
+            if (right == 6) right = 5;
+            for (int vert = 0; vert < size; vert++) {
+                for (int j = 0; j < 2; j++) {
+                    int x = right - j;
+                    boolean upward = ((right + 1) & 2) == 0;
+                    int y = upward ? size - 1 - vert : vert;
+                    if (!isFunction[y][x] && i < data.length * 8) {
+                        modules[y][x] = bit(data[i >>> 3], 7 - (i & 7));
+                        i++;
+                    }
+                }
+            }
+        }
+    }
+
+    private void applyMask(int mask) {
+        byte[][] table = MASK_TABLES[version];
+        for (int y = 0; y < size; y++) {
+            byte[] row = table[y];
+            boolean[] m = modules[y];
+            for (int x = 0; x < size; x++) m[x] ^= ((row[x] >>> mask) & 1) != 0;
+        }
+    }
+
+    /**
+     * Bit {@code m} of [version][y][x] tells whether mask m inverts that module; 0 on function
+     * modules. Depends only on the version, so all versions are built in the static initializer:
+     * sheets encode in parallel, and class initialization publishes the tables to every thread.
+     */
+    private static final byte[][][] MASK_TABLES = new byte[MAX_VERSION + 1][][];
+
+    static {
+        for (int v = 1; v <= MAX_VERSION; v++) {
+            QrCode qr = new QrCode(v);
+            qr.drawFunctionPatterns();
+            MASK_TABLES[v] = maskTable(qr.isFunction);
+        }
+    }
+
+    private static byte[][] maskTable(boolean[][] isFunction) {
+        int size = isFunction.length;
+        byte[][] table = new byte[size][size];
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                if (isFunction[y][x]) continue;
+                int bits = 0;
+                if ((x + y) % 2 == 0) bits |= 1;
+                if (y % 2 == 0) bits |= 1 << 1;
+                if (x % 3 == 0) bits |= 1 << 2;
+                if ((x + y) % 3 == 0) bits |= 1 << 3;
+                if ((x / 3 + y / 2) % 2 == 0) bits |= 1 << 4;
+                if (x * y % 2 + x * y % 3 == 0) bits |= 1 << 5;
+                if ((x * y % 2 + x * y % 3) % 2 == 0) bits |= 1 << 6;
+                if (((x + y) % 2 + x * y % 3) % 2 == 0) bits |= 1 << 7;
+                table[y][x] = (byte) bits;
+            }
+        }
+        return table;
+    }
+
+    // ---------------------------------------------------------------
+    // Mask penalty (N1..N4), on rows and columns packed into longs (size <= 57)
+
+    private static final int FINDER_THEN_LIGHT = 0b00001011101; // bit k = module k
+    private static final int LIGHT_THEN_FINDER = 0b10111010000;
+
+    private int penalty() {
+        long[] rows = new long[size];
+        long[] cols = new long[size];
+        for (int y = 0; y < size; y++) {
+            boolean[] m = modules[y];
+            for (int x = 0; x < size; x++) {
+                long b = m[x] ? 1L : 0L;
+                rows[y] |= b << x;
+                cols[x] |= b << y;
+            }
+        }
+
+        long full = (1L << size) - 1;
+        long finderStarts = (1L << (size - 10)) - 1;
+        int result = 0;
+        int dark = 0;
+
+        for (int i = 0; i < size; i++) {
+            result += linePenalty(rows[i], full, finderStarts) + linePenalty(cols[i], full, finderStarts);
+            dark += Long.bitCount(rows[i]);
+        }
+
+        // N2: 2x2 blocks of one colour
+        for (int y = 0; y + 1 < size; y++) {
+            long a = rows[y], b = rows[y + 1];
+            long same = (a & (a >>> 1) & b & (b >>> 1)) | (~a & (~a >>> 1) & ~b & (~b >>> 1));
+            result += 3 * Long.bitCount(same & (full >>> 1));
+        }
+
+        // N4: dark/light balance
+        int total = size * size;
+        int k = (Math.abs(dark * 20 - total * 10) + total - 1) / total - 1;
+        return result + Math.max(0, k) * 10;
+    }
+
+    /** N1: runs of five or more; N3: finder-like 1:1:3:1:1 patterns with four light modules on one side. */
+    private static int linePenalty(long line, long full, long finderStarts) {
+        int result = runPenalty(line) + runPenalty(~line & full);
+
+        long m1 = finderStarts, m2 = finderStarts;
+        for (int k = 0; k < 11; k++) {
+            long on = line >>> k, off = ~line >>> k;
+            m1 &= ((FINDER_THEN_LIGHT >>> k) & 1) != 0 ? on : off;
+            m2 &= ((LIGHT_THEN_FINDER >>> k) & 1) != 0 ? on : off;
+        }
+        return result + 40 * (Long.bitCount(m1) + Long.bitCount(m2));
+    }
+
+    /** A run of length n >= 5 scores n - 2: its n - 4 windows of five, plus 2 at its start. */
+    private static int runPenalty(long c) {
+        long windows = c & (c >>> 1) & (c >>> 2) & (c >>> 3) & (c >>> 4);
+        return Long.bitCount(windows) + 2 * Long.bitCount(windows & ~(c << 1));
+    }
+
+    private static boolean bit(int x, int i) {
+        return ((x >>> i) & 1) != 0;
+    }
+
+    // ---------------------------------------------------------------
+
+    private static final class BitBuffer {
+        final byte[] bytes;
+        int length;
+
+        BitBuffer(int capacityBits) {
+            this.bytes = new byte[(capacityBits + 7) / 8];
+        }
+
+        void append(int value, int bits) {
+            for (int i = bits - 1; i >= 0; i--, length++) {
+                if (((value >>> i) & 1) != 0) bytes[length >>> 3] |= (byte) (0x80 >>> (length & 7));
+            }
+        }
+    }
+
+    /** GF(2^8) with the QR polynomial 0x11D. */
+    private static final class ReedSolomon {
+
+        static byte[] divisor(int degree) {
+            byte[] result = new byte[degree];
+            result[degree - 1] = 1;
+            int root = 1;
+            for (int i = 0; i < degree; i++) {
+                for (int j = 0; j < degree; j++) {
+                    result[j] = (byte) multiply(result[j] & 0xFF, root);
+                    if (j + 1 < degree) result[j] ^= result[j + 1];
+                }
+                root = multiply(root, 0x02);
+            }
+            return result;
+        }
+
+        static byte[] remainder(byte[] data, int off, int len, byte[] divisor) {
+            byte[] result = new byte[divisor.length];
+            for (int i = off; i < off + len; i++) {
+                int factor = (data[i] ^ result[0]) & 0xFF;
+                System.arraycopy(result, 1, result, 0, result.length - 1);
+                result[result.length - 1] = 0;
+                for (int j = 0; j < result.length; j++) result[j] ^= (byte) multiply(divisor[j] & 0xFF, factor);
+            }
+            return result;
+        }
+
+        private static final int[] EXP = new int[512];
+        private static final int[] LOG = new int[256];
+
+        static {
+            for (int i = 0, x = 1; i < 255; i++) {
+                EXP[i] = x;
+                LOG[x] = i;
+                x <<= 1;
+                if (x >= 0x100) x ^= 0x11D;
+            }
+            for (int i = 255; i < EXP.length; i++) EXP[i] = EXP[i - 255];
+        }
+
+        static int multiply(int x, int y) {
+            return x == 0 || y == 0 ? 0 : EXP[LOG[x] + LOG[y]];
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.osman.vssfx.qr;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Print sheets for a sticker roll: one A4 SVG per page ({@code etiket-001.svg}, ...), a grid
+ * of labels each holding a QR code and its display code underneath. Sizes are in millimetres
+ * so the sheets print at scale; dark modules are drawn as one path per label, merged into
+ * horizontal runs to keep the files small.
+ * <p>
+ * Pages are independent, so they are encoded and written in parallel.
+ */
+public final class QrSheetWriter {
+
+    /** What goes on one label. */
+    public record Label(String displayCode, String content) {}
+
+    private static final double PAGE_W = 210, PAGE_H = 297, MARGIN = 10;
+    private static final int COLS = 5, ROWS = 7;
+    public static final int PER_PAGE = COLS * ROWS;
+
+    private static final double CELL_W = (PAGE_W - 2 * MARGIN) / COLS;
+    private static final double CELL_H = (PAGE_H - 2 * MARGIN) / ROWS;
+    private static final double QR_MM = 30;   // QR code with quiet zone
+    private static final int QUIET = 4;       // modules, as the standard requires
+
+    private QrSheetWriter() {}
+
+    /**
+     * @param pageDone called with the number of pages written so far, from worker threads
+     * @return the number of pages
+     */
+    public static int write(Path dir, List<Label> labels, IntConsumer pageDone) throws IOException {
+        int pages = (labels.size() + PER_PAGE - 1) / PER_PAGE;
+        Files.createDirectories(dir);
+
+        AtomicInteger done = new AtomicInteger();
+        try {
+            IntStream.range(0, pages).parallel().forEach(p -> {
+                List<Label> onPage = labels.subList(p * PER_PAGE, Math.min(labels.size(), (p + 1) * PER_PAGE));
+                Path file = dir.resolve(String.format("etiket-%03d.svg", p + 1));
+                try {
+                    Files.writeString(file, page(onPage, p + 1, pages), StandardCharsets.UTF_8);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                pageDone.accept(done.incrementAndGet());
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return pages;
+    }
+
+    private static String page(List<Label> labels, int pageNo, int pages) {
+        StringBuilder sb = new StringBuilder(labels.size() * 6_000);
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"210mm\" height=\"297mm\" viewBox=\"0 0 210 297\">\n")
+                .append("<rect width=\"210\" height=\"297\" fill=\"#fff\"/>\n");
+
+        for (int i = 0; i < labels.size(); i++) {
+            double x = MARGIN + (i % COLS) * CELL_W;
+            double y = MARGIN + (i / COLS) * CELL_H;
+            label(sb, labels.get(i), x, y);
+        }
+
+        sb.append("<text x=\"105\" y=\"293\" font-family=\"sans-serif\" font-size=\"2.5\" fill=\"#888\" text-anchor=\"middle\">")
+                .append(pageNo).append(" / ").append(pages).append("</text>\n")
+                .append("</svg>\n");
+        return sb.toString();
+    }
+
+    private static void label(StringBuilder sb, Label label, double x, double y) {
+        QrCode qr = QrCode.encode(label.content());
+        double module = QR_MM / (qr.size() + 2 * QUIET);
+        double qrX = x + (CELL_W - QR_MM) / 2 + QUIET * module;
+        double qrY = y + 2 + QUIET * module;
+
+        // kesim çizgisi
+        sb.append("<rect x=\"").append(f(x)).append("\" y=\"").append(f(y))
+                .append("\" width=\"").append(f(CELL_W)).append("\" height=\"").append(f(CELL_H))
+                .append("\" fill=\"none\" stroke=\"#ddd\" stroke-width=\"0.1\"/>\n");
+
+        sb.append("<path transform=\"translate(").append(f(qrX)).append(' ').append(f(qrY))
+                .append(") scale(").append(f(module)).append(")\" shape-rendering=\"crispEdges\" d=\"");
+        for (int row = 0; row < qr.size(); row++) {
+            for (int col = 0; col < qr.size(); ) {
+                if (!qr.isDark(col, row)) {
+                    col++;
+                    continue;
+                }
+                int start = col;
+                while (col < qr.size() && qr.isDark(col, row)) col++;
+                int run = col - start;
+                sb.append('M').append(start).append(' ').append(row)
+                        .append('h').append(run).append("v1h-").append(run).append('z');
+            }
+        }
+        sb.append("\"/>\n");
+
+        sb.append("<text x=\"").append(f(x + CELL_W / 2)).append("\" y=\"").append(f(y + 2 + QR_MM + 4))
+                .append("\" font-family=\"monospace\" font-size=\"4\" font-weight=\"bold\" text-anchor=\"middle\">")
+                .append(xml(label.displayCode())).append("</text>\n");
+    }
+
+    private static String xml(String s) {
+        return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    private static String f(double v) {
+        return String.format(Locale.ROOT, "%.3f", v);
+    }
+}
@@ -0,0 +1,112 @@
+package com.osman.vssfx.qr;
+
+import com.osman.vssfx.config.AppConfig;
+import com.osman.vssfx.dao.QrTagDAO;
+import com.osman.vssfx.dao.QrTagDAO.NewTag;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Mints a roll of QR sticker tags and its print sheets in one go.
+ * <ol>
+ *   <li>tokens and display codes come from one {@link SecureRandom}; hashing runs in parallel,</li>
+ *   <li>the sheets are written into a temporary folder next to the target,</li>
+ *   <li>the hashes are stored by {@link QrTagDAO#insertNew} in a single transaction,</li>
+ *   <li>only then is the folder moved into place.</li>
+ * </ol>
+ * The plain tokens exist only in memory and on the sheets. If anything fails before the
+ * transaction commits, the temporary folder is removed and nothing is stored. Once the tags are
+ * stored the sheets are their only copy and are never deleted: if the final move fails, the
+ * result points at the temporary folder instead ({@link Result#moved()} is false).
+ */
+public final class QrTagMinter {
+
+    public static final int MAX_BATCH = 50_000;
+
+    /** @param folder where the sheets are; the temporary folder when {@code moved} is false */
+    public record Result(int tags, int pages, Path folder, boolean moved) {}
+
+    /** @param total -1 while unknown; steps: sheets, then database rows */
+    @FunctionalInterface
+    public interface Progress {
+        void update(long done, long total);
+    }
+
+    private final QrTagDAO dao;
+    private final String scanUrl;
+    private final SecureRandom random = new SecureRandom();
+
+    public QrTagMinter(QrTagDAO dao, String baseUrl) {
+        this.dao = dao;
+        this.scanUrl = baseUrl.endsWith("/") ? baseUrl + "v/" : baseUrl + "/v/";
+    }
+
+    public static QrTagMinter fromConfig() {
+        return new QrTagMinter(new QrTagDAO(), AppConfig.publicScanBaseUrl());
+    }
+
+    public Result mint(long tenantId, int count, Path folder, Progress progress) throws Exception {
+        if (count < 1 || count > MAX_BATCH) {
+            throw new IllegalArgumentException("Adet 1 ile " + MAX_BATCH + " arasında olmalı.");
+        }
+        if (Files.exists(folder)) throw new IllegalArgumentException("Klasör zaten var: " + folder.getFileName());
+
+        String[] tokens = new String[count];
+        String[] codes = new String[count];
+        synchronized (random) {
+            for (int i = 0; i < count; i++) {
+                tokens[i] = QrTokens.newToken(random);
+                codes[i] = QrTokens.newDisplayCode(random);
+            }
+        }
+
+        byte[][] hashes = new byte[count][];
+        IntStream.range(0, count).parallel().forEach(i -> hashes[i] = TokenHasher.hash(tokens[i]));
+
+        List<QrSheetWriter.Label> labels = new ArrayList<>(count);
+        List<NewTag> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            labels.add(new QrSheetWriter.Label(codes[i], scanUrl + tokens[i]));
+            rows.add(new NewTag(hashes[i], codes[i]));
+        }
+        Arrays.fill(tokens, null);
+
+        long total = (long) count * 2;
+        Path parent = folder.toAbsolutePath().getParent();
+        Path tmp = Files.createTempDirectory(parent, ".qr-");
+        int pages;
+        try {
+            pages = QrSheetWriter.write(tmp, labels,
+                    done -> progress.update(Math.min(count, (long) done * QrSheetWriter.PER_PAGE), total));
+            dao.insertNew(tenantId, rows, inserted -> progress.update(count + inserted, total));
+        } catch (Exception e) {
+            deleteTree(tmp);
+            throw e;
+        }
+
+        // kayıtlar işlendi: sayfalar jetonların tek kopyası, hiçbir durumda silinmez
+        try {
+            Files.move(tmp, folder);
+            return new Result(count, pages, folder, true);
+        } catch (IOException e) {
+            System.err.println("[qr] sheets left in " + tmp + ": " + e.getMessage());
+            return new Result(count, pages, tmp, false);
+        }
+    }
+
+    private static void deleteTree(Path dir) throws IOException {
+        if (!Files.exists(dir)) return;
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path p : files.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(p);
+        }
+    }
+}
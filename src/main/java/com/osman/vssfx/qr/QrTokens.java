@@ -0,0 +1,35 @@
+package com.osman.vssfx.qr;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Sticker tokens and display codes. The token only exists in the printed QR code; the
+ * database keeps its {@link TokenHasher} digest, so a leaked table cannot be turned back
+ * into scannable stickers.
+ */
+public final class QrTokens {
+
+    /** 256 bits, base64url without padding: 43 characters. */
+    public static final int TOKEN_BYTES = 32;
+
+    // 0/O, 1/I are left out: the code is read and typed by people
+    private static final char[] CODE_ALPHABET = "23456789ABCDEFGHJKLMNPQRSTUVWXYZ".toCharArray();
+    public static final int CODE_LENGTH = 8;
+
+    private static final Base64.Encoder B64 = Base64.getUrlEncoder().withoutPadding();
+
+    private QrTokens() {}
+
+    public static String newToken(SecureRandom random) {
+        byte[] b = new byte[TOKEN_BYTES];
+        random.nextBytes(b);
+        return B64.encodeToString(b);
+    }
+
+    public static String newDisplayCode(SecureRandom random) {
+        char[] c = new char[CODE_LENGTH];
+        for (int i = 0; i < c.length; i++) c[i] = CODE_ALPHABET[random.nextInt(CODE_ALPHABET.length)];
+        return new String(c);
+    }
+}
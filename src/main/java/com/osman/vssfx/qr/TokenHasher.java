@@ -0,0 +1,37 @@
+package com.osman.vssfx.qr;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * The one place sticker tokens are hashed: SHA-256 over the token's UTF-8 bytes, stored as
+ * the 32 raw bytes in {@code qr_tags.token_hash BINARY(32)}. SQL-side equivalent:
+ * {@code UNHEX(SHA2(token, 256))}.
+ */
+public final class TokenHasher {
+
+    public static final int LENGTH = 32;
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private TokenHasher() {}
+
+    public static byte[] hash(String token) {
+        MessageDigest md = SHA256.get();
+        md.reset();
+        return md.digest(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** For logs and diagnostics only. */
+    public static String hex(byte[] hash) {
+        return HexFormat.of().formatHex(hash);
+    }
+}
@@ -0,0 +1,76 @@
+package com.osman.vssfx.reminders;
+
+import com.osman.vssfx.model.Reminder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Local stand-in for a real gateway: appends each message to {@code <dir>/<name>.outbox}.
+ * Useful for development and for checking what would have been sent.
+ */
+public final class OutboxChannel implements ReminderChannel {
+
+    private final String name;
+    private final int bit;
+    private final Predicate<Reminder> wants;
+    private final Function<Reminder, String> address;
+    private final Path file;
+
+    public OutboxChannel(String name, int bit, Path dir, Predicate<Reminder> wants, Function<Reminder, String> address) {
+        this.name = name;
+        this.bit = bit;
+        this.wants = wants;
+        this.address = address;
+        this.file = dir.resolve(name + ".outbox");
+    }
+
+    public static OutboxChannel email(Path dir) {
+        return new OutboxChannel("email", 1, dir, Reminder::isChannelEmail, Reminder::getCustomerEmail);
+    }
+
+    public static OutboxChannel sms(Path dir) {
+        return new OutboxChannel("sms", 2, dir, Reminder::isChannelSms, Reminder::getCustomerPhone);
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public int bit() {
+        return bit;
+    }
+
+    @Override
+    public boolean wants(Reminder r) {
+        return wants.test(r);
+    }
+
+    @Override
+    public void send(Reminder r) throws IOException {
+        String to = address.apply(r);
+        if (to == null || to.isBlank()) {
+            throw new IllegalStateException(name + ": müşteri iletişim bilgisi yok (" + r.getPlateNo() + ").");
+        }
+
+        String entry = "--- " + LocalDateTime.now() + " #" + r.getReminderId() + " tenant=" + r.getTenantId() + "\n"
+                + "To: " + to + "\n"
+                + "Subject: " + r.getTitle() + " (" + r.getPlateNo() + ")\n"
+                + (r.getMessage() == null ? "" : r.getMessage() + "\n")
+                + "\n";
+
+        synchronized (this) {
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, entry, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.osman.vssfx.reminders;
+
+import com.osman.vssfx.model.Reminder;
+
+/** One delivery route (e-mail, SMS, ...). Implementations must be thread-safe. */
+public interface ReminderChannel {
+
+    /** Short name used in logs and error messages, e.g. "email". */
+    String name();
+
+    /**
+     * This channel's bit in {@code reminders.sent_channels}; distinct per channel and stable
+     * across releases (1 = e-mail, 2 = SMS).
+     */
+    int bit();
+
+    /** Whether this reminder asked for this channel. */
+    boolean wants(Reminder r);
+
+    /** Delivers or throws; the message of the exception is stored as last_error. */
+    void send(Reminder r) throws Exception;
+}
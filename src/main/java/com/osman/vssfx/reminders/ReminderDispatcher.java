@@ -0,0 +1,253 @@
+package com.osman.vssfx.reminders;
+
+import com.osman.vssfx.config.AppConfig;
+import com.osman.vssfx.dao.ReminderDAO;
+import com.osman.vssfx.events.EventBus;
+import com.osman.vssfx.metrics.Metrics;
+import com.osman.vssfx.events.RowChange;
+import com.osman.vssfx.model.Reminder;
+import com.osman.vssfx.model.ReminderStatus;
+
+import java.net.InetAddress;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends due reminders through the configured channels.
+ * <p>
+ * A claim thread leases batches of reminders that fall due within {@code horizon}
+ * ({@link ReminderDAO#claimDue}, SELECT ... FOR UPDATE SKIP LOCKED) and parks them in a
+ * {@link DelayQueue}; it wakes every {@code poll} interval, or earlier when a reminder is
+ * added or edited in this process. A send thread takes each reminder from the queue when it is
+ * due, re-checks that it is still claimed and PENDING, and hands it to the channels.
+ * <p>
+ * Leases are renewed on every claim pass and released on {@link #close()}; if an instance dies,
+ * its reminders become claimable again once the lease runs out.
+ * <p>
+ * Each channel that delivers is recorded on the reminder right away ({@code sent_channels});
+ * when another channel fails, the retry sends only on the channels still missing. Delivery is
+ * at-least-once per channel: a crash between a send and its record can repeat that message.
+ */
+public final class ReminderDispatcher implements AutoCloseable {
+
+    public record Settings(int batchSize, Duration horizon, Duration poll, Duration lease,
+                           int maxAttempts, Duration retryDelay) {
+
+        public static Settings fromConfig() {
+            return new Settings(
+                    AppConfig.reminderBatchSize(),
+                    Duration.ofSeconds(AppConfig.reminderHorizonSeconds()),
+                    Duration.ofSeconds(AppConfig.reminderPollSeconds()),
+                    Duration.ofSeconds(AppConfig.reminderLeaseSeconds()),
+                    AppConfig.reminderMaxAttempts(),
+                    Duration.ofSeconds(AppConfig.reminderRetrySeconds()));
+        }
+    }
+
+    private record Due(long id, long dueAtMillis) implements Delayed {
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed o) {
+            return Long.compare(dueAtMillis, ((Due) o).dueAtMillis);
+        }
+    }
+
+    private final ReminderDAO dao;
+    private final List<ReminderChannel> channels;
+    private final Settings settings;
+    private final String owner;
+
+    private final DelayQueue<Due> queue = new DelayQueue<>();
+    private final Map<Long, Long> queued = new ConcurrentHashMap<>(); // id -> geçerli vade (ms)
+    private final Semaphore wake = new Semaphore(0);
+
+    private volatile boolean running;
+    private Thread claimer, sender;
+    private EventBus.Subscription changes;
+
+    public ReminderDispatcher(ReminderDAO dao, List<ReminderChannel> channels, Settings settings) {
+        this.dao = dao;
+        this.channels = List.copyOf(channels);
+        this.settings = settings;
+        this.owner = instanceId();
+    }
+
+    /** Dispatcher with the file outbox channels and settings from app.properties. */
+    public static ReminderDispatcher fromConfig() {
+        var dir = AppConfig.reminderOutboxDir();
+        return new ReminderDispatcher(new ReminderDAO(),
+                List.of(OutboxChannel.email(dir), OutboxChannel.sms(dir)),
+                Settings.fromConfig());
+    }
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+
+        changes = EventBus.subscribe(Reminder.class, this::onChanges);
+        claimer = Thread.ofPlatform().daemon().name("reminder-claim").start(this::claimLoop);
+        sender = Thread.ofPlatform().daemon().name("reminder-send").start(this::sendLoop);
+    }
+
+    /** Runs a claim pass now instead of at the next poll. */
+    public void nudge() {
+        wake.release();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!running) return;
+        running = false;
+
+        changes.close();
+        wake.release();
+        sender.interrupt();
+        try {
+            claimer.join(5_000);
+            sender.join(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        try {
+            dao.releaseClaims(owner);
+        } catch (SQLException e) {
+            log("claims not released (they expire with the lease): " + e.getMessage());
+        }
+        queue.clear();
+        queued.clear();
+    }
+
+    // ---------------------------------------------------------------
+
+    private void onChanges(List<RowChange<Reminder>> batch) {
+        LocalDateTime horizon = LocalDateTime.now().plus(settings.horizon());
+        for (RowChange<Reminder> ch : batch) {
+            Reminder r = ch.row();
+            if (r != null && r.getStatus() == ReminderStatus.PENDING && !r.getRemindAt().isAfter(horizon)) {
+                nudge(); // yakında vadesi gelecek yeni / düzenlenmiş kayıt
+                return;
+            }
+        }
+    }
+
+    private void claimLoop() {
+        Metrics.bindTenant(Metrics.SYSTEM); // tüm tenant'lar için çalışır
+        while (running) {
+            try {
+                claimPass();
+            } catch (SQLException | RuntimeException e) {
+                log("claim failed: " + e.getMessage());
+            }
+
+            try {
+                wake.tryAcquire(settings.poll().toMillis(), TimeUnit.MILLISECONDS);
+                wake.drainPermits();
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void claimPass() throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime horizon = now.plus(settings.horizon());
+        LocalDateTime leaseUntil = horizon.plus(settings.lease());
+
+        dao.renewClaims(owner, List.copyOf(queued.keySet()), leaseUntil);
+
+        List<Reminder> batch;
+        do {
+            batch = dao.claimDue(owner, now, horizon, leaseUntil, settings.batchSize());
+            for (Reminder r : batch) enqueue(r);
+        } while (running && batch.size() == settings.batchSize());
+    }
+
+    /** A reminder whose due time changed is queued again; the old entry is skipped when taken. */
+    private void enqueue(Reminder r) {
+        long at = r.getRemindAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        Long previous = queued.put(r.getReminderId(), at);
+        if (previous == null || previous != at) queue.put(new Due(r.getReminderId(), at));
+    }
+
+    private void sendLoop() {
+        Metrics.bindTenant(Metrics.SYSTEM); // tüm tenant'lar için çalışır
+        while (running) {
+            Due due;
+            try {
+                due = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (!queued.remove(due.id(), due.dueAtMillis())) continue; // eski vade
+
+            try {
+                deliver(due.id());
+            } catch (SQLException | RuntimeException e) {
+                log("reminder #" + due.id() + " not recorded (retried after the lease): " + e.getMessage());
+            }
+        }
+    }
+
+    private void deliver(long id) throws SQLException {
+        Reminder r = dao.findClaimed(id, owner);
+        if (r == null) return; // düzenlendi, iptal edildi ya da başka örnek aldı
+
+        if (r.getRemindAt().isAfter(LocalDateTime.now())) {
+            enqueue(r);
+            return;
+        }
+
+        List<String> errors = new ArrayList<>();
+        boolean any = false;
+        for (ReminderChannel ch : channels) {
+            if (!ch.wants(r)) continue;
+            any = true;
+            if ((r.getSentChannels() & ch.bit()) != 0) continue; // önceki denemede gönderildi
+            try {
+                ch.send(r);
+            } catch (Exception e) {
+                errors.add(ch.name() + ": " + e.getMessage());
+                continue;
+            }
+            dao.markChannelSent(r, owner, ch.bit());
+        }
+        if (!any) errors.add("Seçili kanal için gönderici yok.");
+
+        if (errors.isEmpty()) {
+            dao.markSent(r, owner, LocalDateTime.now());
+        } else {
+            dao.markFailed(r, owner, String.join("; ", errors), settings.maxAttempts(),
+                    LocalDateTime.now().plus(settings.retryDelay()));
+        }
+    }
+
+    private static String instanceId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        String id = host + ":" + ProcessHandle.current().pid();
+        return id.length() <= 64 ? id : id.substring(id.length() - 64);
+    }
+
+    private static void log(String s) {
+        System.err.println("[reminders] " + s);
+    }
+}
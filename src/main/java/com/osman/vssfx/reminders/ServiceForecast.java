@@ -0,0 +1,107 @@
+package com.osman.vssfx.reminders;
+
+import com.osman.vssfx.dao.ServiceScheduleDAO.Reading;
+import com.osman.vssfx.dao.ServiceScheduleDAO.Rule;
+import com.osman.vssfx.dao.ServiceScheduleDAO.VehicleHistory;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Projects when a service rule next falls due for a vehicle. Pure calculation, no I/O.
+ * <p>
+ * The cycle starts at the last maintenance of the rule's type, or at the vehicle's service entry
+ * date when there is none. The month interval gives a fixed date; the km interval is turned into a
+ * date with the vehicle's average daily km, measured from the oldest odometer reading of the last
+ * year (or the oldest overall, if that is too recent) to today's km. The earlier of the two wins.
+ */
+public final class ServiceForecast {
+
+    /** Fewer days than this between readings says nothing useful about a vehicle's usage. */
+    static final int MIN_RATE_DAYS = 14;
+
+    /**
+     * @param basis    maint_id the cycle starts from, 0 if the vehicle has no matching maintenance
+     * @param dueKm    odometer reading at which the km interval runs out, null without a km interval
+     *                 or a known starting km
+     * @param remindAt {@code leadDays} before {@code dueDate}, never earlier than now
+     */
+    public record Forecast(long basis, LocalDate dueDate, Integer dueKm, LocalDateTime remindAt) {}
+
+    private ServiceForecast() {}
+
+    /** @return the forecast, or null when neither interval can be projected */
+    public static Forecast forecast(Rule rule, VehicleHistory v, LocalDateTime now, int remindHour) {
+        LocalDate today = now.toLocalDate();
+        List<Reading> readings = v.readings();
+
+        Reading last = null;
+        for (Reading r : readings) {
+            if (r.type() != null && r.type().equalsIgnoreCase(rule.maintType())) last = r; // en yenisi sonda
+        }
+
+        long basis = last == null ? 0 : last.maintId();
+        LocalDate from = last != null ? last.date() : v.since();
+        Integer fromKm = last != null ? Integer.valueOf(last.km())
+                : readings.isEmpty() ? null : readings.get(0).km(); // kayıt yoksa bilinen ilk km
+
+        int currentKm = v.currentKm();
+        for (Reading r : readings) currentKm = Math.max(currentKm, r.km());
+
+        LocalDate due = null;
+        Integer dueKm = null;
+
+        if (rule.intervalMonths() != null && from != null) {
+            due = from.plusMonths(rule.intervalMonths());
+        }
+
+        if (rule.intervalKm() != null && fromKm != null) {
+            dueKm = fromKm + rule.intervalKm();
+            int left = dueKm - currentKm;
+            LocalDate byKm = null;
+            if (left <= 0) {
+                byKm = today; // km aşıldı
+            } else {
+                double perDay = dailyKm(currentKm, readings, today);
+                if (perDay > 0) byKm = today.plusDays((long) Math.ceil(left / perDay));
+            }
+            if (byKm != null && (due == null || byKm.isBefore(due))) due = byKm;
+        }
+
+        if (due == null) return null;
+
+        LocalDateTime at = due.minusDays(rule.leadDays()).atTime(LocalTime.of(remindHour, 0));
+        LocalDateTime earliest = now.truncatedTo(ChronoUnit.MINUTES);
+        if (at.isBefore(earliest)) at = earliest; // gecikmiş: hemen hatırlat
+        return new Forecast(basis, due, dueKm, at);
+    }
+
+    /**
+     * Average km per day up to {@code today}, or 0 when the history is too short or shows no use.
+     * {@code readings} are oldest first.
+     */
+    static double dailyKm(int currentKm, List<Reading> readings, LocalDate today) {
+        if (readings.isEmpty()) return 0;
+
+        LocalDate yearAgo = today.minusYears(1);
+        Reading start = readings.get(0);
+        for (Reading r : readings) {
+            if (!r.date().isBefore(yearAgo)) {
+                start = r;
+                break;
+            }
+        }
+
+        long days = ChronoUnit.DAYS.between(start.date(), today);
+        if (days < MIN_RATE_DAYS) { // son yıl çok kısa: tüm geçmişe bak
+            start = readings.get(0);
+            days = ChronoUnit.DAYS.between(start.date(), today);
+        }
+        int km = currentKm - start.km();
+        if (days < MIN_RATE_DAYS || km <= 0) return 0;
+        return (double) km / days;
+    }
+}
@@ -0,0 +1,127 @@
+package com.osman.vssfx.reminders;
+
+import com.osman.vssfx.config.AppConfig;
+import com.osman.vssfx.dao.ServiceScheduleDAO;
+import com.osman.vssfx.dao.ServiceScheduleDAO.Planned;
+import com.osman.vssfx.dao.ServiceScheduleDAO.Rule;
+import com.osman.vssfx.dao.ServiceScheduleDAO.VehicleHistory;
+import com.osman.vssfx.metrics.Metrics;
+
+import java.sql.SQLException;
+import java.text.NumberFormat;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Turns service_rules into reminders. A background thread drains the dirty-vehicle queue
+ * ({@link ServiceScheduleDAO#runBatch}) every {@code interval}, so only vehicles whose km,
+ * maintenance or rules changed since the previous pass are recomputed. The reminders it writes
+ * are sent by {@link ReminderDispatcher} like manual ones.
+ */
+public final class ServiceReminderGenerator implements AutoCloseable {
+
+    public record Settings(int batchSize, Duration interval, int remindHour) {
+
+        public static Settings fromConfig() {
+            return new Settings(
+                    AppConfig.serviceGeneratorBatchSize(),
+                    Duration.ofSeconds(AppConfig.serviceGeneratorIntervalSeconds()),
+                    AppConfig.serviceGeneratorRemindHour());
+        }
+    }
+
+    private final ServiceScheduleDAO dao;
+    private final Settings settings;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public ServiceReminderGenerator(ServiceScheduleDAO dao, Settings settings) {
+        this.dao = dao;
+        this.settings = settings;
+    }
+
+    public static ServiceReminderGenerator fromConfig() {
+        return new ServiceReminderGenerator(new ServiceScheduleDAO(), Settings.fromConfig());
+    }
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        worker = Thread.ofPlatform().daemon().name("service-reminders").start(this::loop);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!running) return;
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Processes the queue until it is empty.
+     *
+     * @return number of vehicles recomputed
+     */
+    public int drain() throws SQLException {
+        int total = 0, n;
+        do {
+            n = dao.runBatch(settings.batchSize(), this::plan);
+            total += n;
+        } while (running && n == settings.batchSize());
+        return total;
+    }
+
+    // ---------------------------------------------------------------
+
+    private void loop() {
+        Metrics.bindTenant(Metrics.SYSTEM); // tüm tenant'lar için çalışır
+        while (running) {
+            try {
+                int n = drain();
+                if (n > 0) log(n + " vehicle(s) recomputed");
+            } catch (SQLException | RuntimeException e) {
+                log("pass failed (vehicles stay queued): " + e.getMessage());
+            }
+
+            try {
+                Thread.sleep(settings.interval());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private List<Planned> plan(VehicleHistory v, List<Rule> rules) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Planned> out = new ArrayList<>(rules.size());
+        for (Rule rule : rules) {
+            ServiceForecast.Forecast f = ServiceForecast.forecast(rule, v, now, settings.remindHour());
+            if (f == null) continue;
+            out.add(new Planned(rule.ruleId(), f.basis(), f.remindAt(), rule.title(), message(v, rule, f),
+                    rule.channelEmail(), rule.channelSms()));
+        }
+        return out;
+    }
+
+    private static String message(VehicleHistory v, Rule rule, ServiceForecast.Forecast f) {
+        NumberFormat km = NumberFormat.getIntegerInstance(Locale.forLanguageTag("tr-TR"));
+        StringBuilder sb = new StringBuilder()
+                .append(v.plateNo()).append(" plakalı aracınızın ").append(rule.maintType())
+                .append(" bakımı için tahmini tarih: ").append(f.dueDate());
+        if (f.dueKm() != null) sb.append(" (veya ").append(km.format(f.dueKm())).append(" km)");
+        return sb.append('.').toString();
+    }
+
+    private static void log(String s) {
+        System.err.println("[service-reminders] " + s);
+    }
+}
@@ -1,4 +1,99 @@
 package com.osman.vssfx.ui;
 
-/** Placeholder for navigation helpers (scene switching, etc.). */
-public class AppNavigator {}
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Switches the root of the single application scene between the top-level screens.
+ * <p>
+ * Login and register hold no session state, so each is loaded once and the same root and
+ * controller are shown again on every visit; a controller implementing {@link Reusable} is
+ * told so it can reset its form. The main view belongs to one session (tenant data, background
+ * work cancelled on detach) and is loaded fresh on every login.
+ * <p>
+ * The theme stylesheet lives on the scene, so it carries over to every root without being
+ * applied again. All methods except {@link #preload} run on the FX thread.
+ */
+public final class AppNavigator {
+
+    public enum View {
+        LOGIN("LoginView.fxml", true),
+        REGISTER("RegisterView.fxml", true),
+        MAIN("MainView.fxml", false);
+
+        final String fxml;
+        final boolean reusable;
+
+        View(String fxml, boolean reusable) {
+            this.fxml = fxml;
+            this.reusable = reusable;
+        }
+    }
+
+    /** Implemented by controllers of reusable views; called each time the view is shown again. */
+    public interface Reusable {
+        void onShown();
+    }
+
+    private record Loaded(Parent root, Object controller) {}
+
+    private static final String VIEWS = "/com/osman/vssfx/ui/views/";
+
+    private static final Map<View, Loaded> CACHE = new EnumMap<>(View.class); // FX thread only
+    private static Scene scene;
+
+    private AppNavigator() {}
+
+    /** Creates the application scene with {@code first} as its root. */
+    public static Scene createScene(View first, double width, double height) throws IOException {
+        Loaded view = get(first);
+        scene = new Scene(view.root(), width, height);
+        return scene;
+    }
+
+    public static void show(View view) throws IOException {
+        if (scene == null) throw new IllegalStateException("Scene not created yet.");
+
+        boolean cached = CACHE.containsKey(view);
+        Loaded loaded = get(view);
+        scene.setRoot(loaded.root());
+        if (cached && loaded.controller() instanceof Reusable r) r.onShown();
+    }
+
+    /**
+     * Loads a reusable view on the calling (background) thread and hands it to the FX thread for
+     * the cache. The nodes are not attached to a scene until shown, so building them here is
+     * allowed. No-op for views that are not reusable.
+     */
+    public static void preload(View view) throws IOException {
+        if (!view.reusable) return;
+        Loaded loaded = load(view);
+        Platform.runLater(() -> CACHE.putIfAbsent(view, loaded)); // show() daha önce yüklediyse onunki kalır
+    }
+
+    // ---------------------------------------------------------------
+
+    private static Loaded get(View view) throws IOException {
+        Loaded hit = CACHE.get(view);
+        if (hit != null) return hit;
+
+        Loaded loaded = load(view);
+        if (view.reusable) CACHE.put(view, loaded);
+        return loaded;
+    }
+
+    private static Loaded load(View view) throws IOException {
+        var url = AppNavigator.class.getResource(VIEWS + view.fxml);
+        if (url == null) throw new IllegalStateException(view.fxml + " bulunamadı!");
+
+        FXMLLoader loader = new FXMLLoader(url);
+        Parent root = loader.load();
+        return new Loaded(root, loader.getController());
+    }
+}
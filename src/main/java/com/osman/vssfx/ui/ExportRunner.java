@@ -0,0 +1,112 @@
+package com.osman.vssfx.ui;
+
+import com.osman.vssfx.dao.ExportDAO;
+import com.osman.vssfx.export.TabularWriter;
+import javafx.concurrent.Task;
+import javafx.scene.control.ProgressBar;
+import javafx.stage.FileChooser;
+import javafx.stage.Window;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Consumer;
+
+/**
+ * Save dialog + background export with a progress bar, for one controller. The file is written
+ * next to the target under a temporary name and moved into place only when complete.
+ */
+public final class ExportRunner {
+
+    @FunctionalInterface
+    public interface Job {
+        long run(TabularWriter out, ExportDAO.Progress progress) throws Exception;
+    }
+
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final UiExecutor bg;
+    private final ProgressBar bar;
+    private final Consumer<String> msg;
+    private Task<Long> running;
+
+    public ExportRunner(UiExecutor bg, ProgressBar bar, Consumer<String> msg) {
+        this.bg = bg;
+        this.bar = bar;
+        this.msg = msg;
+        bar.setVisible(false);
+        bar.setManaged(false);
+    }
+
+    /**
+     * @param baseName file name without date and extension, e.g. "araclar"
+     * @param count    row count for the progress bar (runs in the background)
+     */
+    public void start(Window owner, String baseName, String sheetName, TabularWriter.Format format,
+                      UiExecutor.Work<Long> count, Job job) {
+        if (running != null) {
+            msg.accept("Bir dışa aktarma zaten sürüyor.");
+            return;
+        }
+
+        FileChooser fc = new FileChooser();
+        fc.setTitle("Dışa Aktar");
+        fc.setInitialFileName(baseName + "_" + STAMP.format(LocalDate.now()) + "." + format.extension());
+        fc.getExtensionFilters().add(new FileChooser.ExtensionFilter(
+                format.name() + " (*." + format.extension() + ")", "*." + format.extension()));
+        File chosen = fc.showSaveDialog(owner);
+        if (chosen == null) return;
+
+        Path target = chosen.toPath().toAbsolutePath();
+        msg.accept("Dışa aktarılıyor...");
+
+        running = bg.submit(null, progress -> {
+            long total = count.call();
+            progress.update(0, total);
+
+            Path tmp = Files.createTempFile(target.getParent(), ".export-", ".part");
+            try {
+                long rows;
+                try (TabularWriter out = format.open(tmp, sheetName)) {
+                    rows = job.run(out, done -> progress.update(done, Math.max(total, done)));
+                }
+                move(tmp, target);
+                return rows;
+            } catch (Exception e) {
+                Files.deleteIfExists(tmp);
+                throw e;
+            }
+        }, rows -> {
+            done();
+            msg.accept("Dışa aktarıldı: " + rows + " satır → " + target.getFileName());
+        }, e -> {
+            done();
+            e.printStackTrace();
+            msg.accept("Dışa aktarma başarısız: " + e.getMessage());
+        });
+
+        bar.progressProperty().bind(running.progressProperty());
+        bar.setVisible(true);
+        bar.setManaged(true);
+    }
+
+    private void done() {
+        running = null;
+        bar.progressProperty().unbind();
+        bar.setVisible(false);
+        bar.setManaged(false);
+    }
+
+    private static void move(Path from, Path to) throws IOException {
+        try {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.osman.vssfx.ui;
+
+import com.osman.vssfx.model.Customer;
+import com.osman.vssfx.model.Driver;
+
+import java.util.function.Predicate;
+
+/**
+ * Search predicates for the table filters.
+ * <p>
+ * Matching is case-insensitive without lower-casing every field of every row: the query is
+ * folded once and fields are compared in place, so a keystroke over a large list allocates
+ * nothing per row.
+ */
+public final class Filters {
+
+    private Filters() {}
+
+    /** Customers whose name, surname, phone or e-mail contains {@code query}; blank = all. */
+    public static Predicate<Customer> customer(String query) {
+        String q = query == null ? "" : query.trim();
+        if (q.isEmpty()) return c -> true;
+
+        Needle n = new Needle(q);
+        return c -> n.in(c.getFirstName())
+                || n.in(c.getLastName())
+                || n.in(c.getPhone())
+                || n.in(c.getEmail());
+    }
+
+    /** Drivers whose name, surname, licence no or phone contains {@code query}; blank = all. */
+    public static Predicate<Driver> driver(String query) {
+        String q = query == null ? "" : query.trim();
+        if (q.isEmpty()) return d -> true;
+
+        Needle n = new Needle(q);
+        return d -> n.in(d.getFirstName())
+                || n.in(d.getLastName())
+                || n.in(d.getLicenseNo())
+                || n.in(d.getPhone());
+    }
+
+    public static boolean containsIgnoreCase(String s, String part) {
+        return part.isEmpty() ? s != null : new Needle(part).in(s);
+    }
+
+    public static boolean startsWithIgnoreCase(String s, String prefix) {
+        return s != null && s.regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+
+    /**
+     * Case-insensitive substring search. Candidate positions are found by comparing the first
+     * character against its precomputed lower/upper forms; only those are checked in full.
+     */
+    private static final class Needle {
+        private final String part;
+        private final char lower;
+        private final char upper;
+
+        Needle(String part) {
+            this.part = part;
+            this.lower = Character.toLowerCase(part.charAt(0));
+            this.upper = Character.toUpperCase(part.charAt(0));
+        }
+
+        boolean in(String s) {
+            if (s == null) return false;
+            int rest = part.length() - 1;
+            int max = s.length() - part.length();
+            for (int i = 0; i <= max; i++) {
+                char ch = s.charAt(i);
+                if (ch != lower && ch != upper && (ch < 128 || !sameIgnoringCase(ch))) continue;
+                if (s.regionMatches(true, i + 1, part, 1, rest)) return true;
+            }
+            return false;
+        }
+
+        // String.regionMatches(true, ...) ile aynı kural (ör. 'İ' ~ 'i')
+        private boolean sameIgnoringCase(char ch) {
+            return Character.toUpperCase(ch) == upper || Character.toLowerCase(ch) == lower;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.osman.vssfx.ui;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Loads the classes a set of FXML views will need (controllers, controls and their skins) off
+ * the FX thread, so the first {@code FXMLLoader.load} of each tab only instantiates. The views
+ * themselves are not loaded here: their controllers query the database in {@code initialize}.
+ * <p>
+ * Classes are loaded but not initialized; static initializers still run on the FX thread.
+ */
+public final class FxmlWarmup {
+
+    private static final String VIEWS = "/com/osman/vssfx/ui/views/";
+
+    private static final Pattern IMPORT = Pattern.compile("<\\?import\\s+([\\w.]+?)(\\.\\*)?\\s*\\?>");
+    private static final Pattern ELEMENT = Pattern.compile("<([A-Z]\\w*)[\\s/>]");
+    private static final Pattern CONTROLLER = Pattern.compile("fx:controller=\"([\\w.]+)\"");
+    private static final Pattern TAB_VIEW = Pattern.compile("userData=\"(\\w+\\.fxml)\"");
+
+    private FxmlWarmup() {}
+
+    /** {@code root} and the tab views it names in {@code userData}. */
+    public static List<String> withTabs(String root) throws IOException {
+        List<String> views = new ArrayList<>(List.of(root));
+        Matcher m = TAB_VIEW.matcher(read(root));
+        while (m.find()) views.add(m.group(1));
+        return views;
+    }
+
+    /** @return number of classes loaded */
+    public static int preload(List<String> views) throws IOException {
+        ClassLoader cl = FxmlWarmup.class.getClassLoader();
+        Set<String> names = new LinkedHashSet<>();
+
+        for (String view : views) {
+            String fxml = read(view);
+
+            Matcher c = CONTROLLER.matcher(fxml);
+            if (c.find()) names.add(c.group(1));
+
+            List<String> packages = new ArrayList<>();
+            Matcher imp = IMPORT.matcher(fxml);
+            while (imp.find()) {
+                if (imp.group(2) != null) packages.add(imp.group(1));
+                else names.add(imp.group(1));
+            }
+
+            Matcher el = ELEMENT.matcher(fxml);
+            while (el.find()) {
+                for (String pkg : packages) names.add(pkg + "." + el.group(1));
+            }
+        }
+
+        int loaded = 0;
+        for (String name : names) {
+            if (load(name, cl) == null) continue; // joker importtan türetilen yanlış aday
+            loaded++;
+            // skin sınıfları ilk çizimde yüklenir
+            String simple = name.substring(name.lastIndexOf('.') + 1);
+            if (name.startsWith("javafx.scene.control.") && load("javafx.scene.control.skin." + simple + "Skin", cl) != null) {
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+
+    private static Class<?> load(String name, ClassLoader cl) {
+        try {
+            return Class.forName(name, false, cl);
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+    }
+
+    private static String read(String view) throws IOException {
+        try (InputStream in = FxmlWarmup.class.getResourceAsStream(VIEWS + view)) {
+            if (in == null) throw new IOException(view + " bulunamadı");
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
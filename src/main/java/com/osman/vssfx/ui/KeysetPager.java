@@ -0,0 +1,102 @@
+package com.osman.vssfx.ui;
+
+import javafx.collections.ObservableList;
+import javafx.scene.control.TableRow;
+import javafx.scene.control.TableView;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Fills an ObservableList page by page using keyset (seek) pagination.
+ * <p>
+ * The next page is requested when the TableView renders a row close to the end of the
+ * loaded items, so only what the user actually scrolls through is fetched.
+ */
+public final class KeysetPager<T> {
+
+    /** Returns up to {@code limit} rows that come after {@code afterKey} (null = first page). */
+    @FunctionalInterface
+    public interface PageFetcher<T> {
+        List<T> fetch(Long afterKey, int limit) throws Exception;
+    }
+
+    private final UiExecutor bg;
+    private final ObservableList<T> target;
+    private final ToLongFunction<T> keyOf;
+    private final int pageSize;
+    private final int prefetchRows;
+
+    private PageFetcher<T> fetcher;
+    private Long lastKey;
+    private boolean hasMore;
+    private boolean loading;
+    private long generation;
+
+    private Consumer<Integer> onPageLoaded = n -> {};
+    private Consumer<Throwable> onError = Throwable::printStackTrace;
+
+    public KeysetPager(UiExecutor bg, ObservableList<T> target, ToLongFunction<T> keyOf, int pageSize) {
+        if (pageSize < 1) throw new IllegalArgumentException("pageSize < 1");
+        this.bg = bg;
+        this.target = target;
+        this.keyOf = keyOf;
+        this.pageSize = pageSize;
+        this.prefetchRows = Math.max(1, pageSize / 4);
+    }
+
+    /** Installs a row factory that asks for the next page when the last rows become visible. */
+    public <R> void attach(TableView<R> table) {
+        table.setRowFactory(tv -> new TableRow<R>() {
+            @Override
+            public void updateIndex(int i) {
+                super.updateIndex(i);
+                if (i >= 0 && i >= table.getItems().size() - prefetchRows) loadNext();
+            }
+        });
+    }
+
+    /** Drops loaded rows and starts over with the given source; a page still loading is cancelled. */
+    public void reset(PageFetcher<T> fetcher) {
+        this.fetcher = fetcher;
+        this.generation++;
+        this.lastKey = null;
+        this.hasMore = true;
+        this.loading = false;
+        target.clear();
+        loadNext();
+    }
+
+    public void loadNext() {
+        if (fetcher == null || loading || !hasMore) return;
+        loading = true;
+
+        final long gen = generation;
+        final Long after = lastKey;
+        final PageFetcher<T> f = fetcher;
+
+        bg.submit("page", () -> f.fetch(after, pageSize), page -> {
+            if (gen != generation) return; // reset() çağrıldı, eski sayfa
+            loading = false;
+
+            hasMore = page.size() >= pageSize;
+            if (!page.isEmpty()) lastKey = keyOf.applyAsLong(page.get(page.size() - 1));
+            target.addAll(page);
+            onPageLoaded.accept(page.size());
+        }, ex -> {
+            if (gen != generation) return;
+            loading = false;
+            hasMore = false;
+            onError.accept(ex);
+        });
+    }
+
+    public boolean hasMore() { return hasMore; }
+
+    public boolean isLoading() { return loading; }
+
+    public void setOnPageLoaded(Consumer<Integer> onPageLoaded) { this.onPageLoaded = onPageLoaded; }
+
+    public void setOnError(Consumer<Throwable> onError) { this.onError = onError; }
+}
@@ -0,0 +1,75 @@
+package com.osman.vssfx.ui;
+
+import com.osman.vssfx.events.RowChange;
+import javafx.collections.ObservableList;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Applies row-level changes to an already sorted ObservableList in place, so a table keeps
+ * its scroll position and only the touched rows are re-rendered.
+ */
+public final class RowPatcher<T> {
+
+    private final ObservableList<T> list;
+    private final ToLongFunction<T> idOf;
+    private final Comparator<T> order;
+
+    /** @param order the order {@code list} is kept in (e.g. id descending) */
+    public RowPatcher(ObservableList<T> list, ToLongFunction<T> idOf, Comparator<T> order) {
+        this.list = list;
+        this.idOf = idOf;
+        this.order = order;
+    }
+
+    /**
+     * Inserted / updated rows replace the row with the same id or are added at their sorted
+     * position if {@code accept} allows it (e.g. they match the active search); rows no longer
+     * accepted are removed.
+     *
+     * @return false if the batch contains INVALIDATED and the list must be reloaded instead
+     */
+    public boolean apply(List<RowChange<T>> changes, Predicate<T> accept) {
+        for (RowChange<T> ch : changes) {
+            if (ch.op() == RowChange.Op.INVALIDATED) return false;
+        }
+
+        for (RowChange<T> ch : changes) {
+            int pos = indexOfId(ch.id());
+
+            if (ch.op() == RowChange.Op.DELETED || !accept.test(ch.row())) {
+                if (pos >= 0) list.remove(pos);
+                continue;
+            }
+
+            if (pos >= 0 && order.compare(list.get(pos), ch.row()) == 0) {
+                list.set(pos, ch.row()); // sıralama anahtarı değişmedi
+                continue;
+            }
+
+            if (pos >= 0) list.remove(pos);
+            list.add(insertionPoint(ch.row()), ch.row());
+        }
+        return true;
+    }
+
+    private int indexOfId(long id) {
+        for (int i = 0; i < list.size(); i++) {
+            if (idOf.applyAsLong(list.get(i)) == id) return i;
+        }
+        return -1;
+    }
+
+    private int insertionPoint(T row) {
+        int lo = 0, hi = list.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (order.compare(list.get(mid), row) <= 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
@@ -2,12 +2,9 @@ package com.osman.vssfx.ui;
 
 import javafx.scene.Scene;
 
-import java.io.*;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.Properties;
+import java.util.Locale;
 
+/** Light/dark stylesheet on the scene; the choice is kept in {@link UiPrefs}. */
 public final class ThemeManager {
 
     public enum Theme { LIGHT, DARK }
@@ -16,44 +13,24 @@ public final class ThemeManager {
     private static final String LIGHT_CSS = "/com/osman/vssfx/ui/theme-light.css";
     private static final String DARK_CSS  = "/com/osman/vssfx/ui/theme-dark.css";
 
-    // Preference storage (user home)
-    private static final String APP_DIR_NAME = ".vssfx";
-    private static final String PREF_FILE_NAME = "theme.properties";
+    // Preference key (UiPrefs, same key as the old theme.properties)
     private static final String KEY = "theme";
 
     private ThemeManager() {}
 
-    private static Path prefPath() {
-        String home = System.getProperty("user.home");
-        return Paths.get(home, APP_DIR_NAME, PREF_FILE_NAME);
-    }
-
+    /** In-memory lookup; no disk access after the first {@link UiPrefs} use. */
     public static Theme loadTheme() {
-        Path path = prefPath();
-        if (!Files.exists(path)) return Theme.LIGHT;
-
-        Properties p = new Properties();
-        try (InputStream in = Files.newInputStream(path)) {
-            p.load(in);
-            String raw = p.getProperty(KEY, Theme.LIGHT.name());
-            return Theme.valueOf(raw.trim().toUpperCase());
-        } catch (Exception e) {
+        String raw = UiPrefs.get(KEY, Theme.LIGHT.name());
+        try {
+            return Theme.valueOf(raw.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
             return Theme.LIGHT;
         }
     }
 
+    /** Written behind by {@link UiPrefs}; saving the current theme again writes nothing. */
     public static void saveTheme(Theme theme) {
-        try {
-            Path path = prefPath();
-            Files.createDirectories(path.getParent());
-
-            Properties p = new Properties();
-            p.setProperty(KEY, theme.name());
-
-            try (OutputStream out = Files.newOutputStream(path)) {
-                p.store(out, "VSSFX UI Theme");
-            }
-        } catch (Exception ignored) {}
+        UiPrefs.put(KEY, theme.name());
     }
 
     /** Convenience: loads saved theme and applies it. */
@@ -77,7 +54,7 @@ public final class ThemeManager {
             scene.getStylesheets().add(url.toExternalForm());
         }
 
-        // Persist choice
+        // Persist choice (no-op if unchanged)
         saveTheme(theme);
     }
 
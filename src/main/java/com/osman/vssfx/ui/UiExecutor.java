@@ -0,0 +1,155 @@
+package com.osman.vssfx.ui;
+
+import com.osman.vssfx.dao.Jdbc;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.concurrent.Task;
+import javafx.scene.Node;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Runs blocking work (DAO calls) off the FX thread for one controller.
+ * <p>
+ * Work runs on virtual threads; callbacks run on the FX thread. Work submitted under a key
+ * supersedes earlier work with the same key: the older task is cancelled and its result is
+ * dropped even if it finishes later. All methods must be called on the FX thread.
+ * <p>
+ * Cancelling never interrupts the worker: an interrupted virtual thread inside Connector/J
+ * closes the pooled connection's socket. The task is marked cancelled and the statement it is
+ * running, if any, is cancelled on the server through {@link Jdbc.Cancellation}.
+ */
+public final class UiExecutor {
+
+    private static final ExecutorService VIRTUAL =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ui-bg-", 0).factory());
+
+    @FunctionalInterface
+    public interface Work<T> {
+        T call() throws Exception;
+    }
+
+    private final Map<String, BgTask<?>> latest = new HashMap<>();
+    private final Set<Task<?>> running = new HashSet<>();
+    private final ReadOnlyBooleanWrapper busy = new ReadOnlyBooleanWrapper(false);
+    private final List<Runnable> detachHooks = new ArrayList<>();
+
+    /** Long-running work that reports how far it got; {@code update} may be called from any thread. */
+    @FunctionalInterface
+    public interface ProgressWork<T> {
+        T call(Progress progress) throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface Progress {
+        /** @param total -1 if unknown */
+        void update(long done, long total);
+    }
+
+    /**
+     * @param key  null = never superseded nor cancelled (e.g. writes); otherwise only the newest task
+     *             for the key delivers its result
+     */
+    public <T> Task<T> submit(String key, Work<T> work, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        return submit(key, progress -> work.call(), onSuccess, onError);
+    }
+
+    /** Same as {@link #submit(String, Work, Consumer, Consumer)}; bind to the returned task's progressProperty. */
+    public <T> Task<T> submit(String key, ProgressWork<T> work, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        BgTask<T> task = new BgTask<>(work);
+
+        if (key != null) {
+            BgTask<?> previous = latest.put(key, task);
+            if (previous != null) previous.stop();
+        }
+
+        task.setOnSucceeded(ev -> {
+            if (finish(key, task)) onSuccess.accept(task.getValue());
+        });
+        task.setOnFailed(ev -> {
+            if (finish(key, task)) onError.accept(task.getException());
+            else if (key == null) System.err.println("[ui-bg] write failed after view was closed: " + task.getException());
+        });
+        task.setOnCancelled(ev -> finish(key, task));
+
+        running.add(task);
+        busy.set(true);
+        VIRTUAL.execute(task);
+        return task;
+    }
+
+    /**
+     * Cancels keyed work (reads) in flight. Work submitted without a key (writes) is not
+     * interrupted, so it is never left half done inside JDBC or file I/O; it runs to completion
+     * but its callbacks are dropped, and a failure is only logged.
+     */
+    public void cancelAll() {
+        List<BgTask<?>> reads = List.copyOf(latest.values());
+        latest.clear();
+        running.clear();
+        busy.set(false);
+        reads.forEach(BgTask::stop);
+    }
+
+    /**
+     * Cancels in-flight work once {@code node} is removed from its scene (e.g. logout) and runs
+     * the hooks registered with {@link #onDetached}.
+     */
+    public void cancelWhenDetached(Node node) {
+        node.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (oldScene == null || newScene != null) return;
+            cancelAll();
+            List<Runnable> hooks = List.copyOf(detachHooks);
+            detachHooks.clear();
+            hooks.forEach(Runnable::run);
+        });
+    }
+
+    /** E.g. {@code bg.onDetached(subscription::close)}. */
+    public void onDetached(Runnable hook) {
+        detachHooks.add(hook);
+    }
+
+    public ReadOnlyBooleanProperty busyProperty() { return busy.getReadOnlyProperty(); }
+
+    public boolean isBusy() { return busy.get(); }
+
+    private static final class BgTask<T> extends Task<T> {
+        private final ProgressWork<T> work;
+        private final Jdbc.Cancellation statements = new Jdbc.Cancellation();
+
+        BgTask(ProgressWork<T> work) {
+            this.work = work;
+        }
+
+        @Override
+        protected T call() throws Exception {
+            // Task.updateProgress FX'e yığılmadan birleştirir
+            return Jdbc.cancellable(statements, () -> work.call((done, total) -> updateProgress(done, total)));
+        }
+
+        /** Cancels without interrupting; the server-side cancel opens a connection, so not on the FX thread. */
+        void stop() {
+            if (cancel(false)) VIRTUAL.execute(statements::cancel);
+        }
+    }
+
+    /** @return true if the task's result should still be delivered */
+    private boolean finish(String key, Task<?> task) {
+        boolean wasRunning = running.remove(task);
+        busy.set(!running.isEmpty());
+
+        if (key == null) return wasRunning && !task.isCancelled();
+        if (latest.get(key) != task) return false;
+        latest.remove(key);
+        return wasRunning && !task.isCancelled();
+    }
+}
@@ -0,0 +1,164 @@
+package com.osman.vssfx.ui;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UI preferences (theme, window geometry, selected tab, table columns) kept in memory and
+ * written behind. {@code ~/.vssfx/ui.properties} is read once, on first use; reads after that
+ * are map lookups. A change marks the store dirty and schedules one write
+ * {@link #WRITE_DELAY_MS} later, so a burst of changes (dragging a column, resizing the window)
+ * ends up as a single write on the {@code ui-prefs} thread. The file is written to a temporary
+ * file next to it and moved into place, so a crash never leaves it half written.
+ * <p>
+ * {@link #flush()} writes pending changes synchronously; the application calls it on exit.
+ * Safe to use from any thread.
+ */
+public final class UiPrefs {
+
+    static final long WRITE_DELAY_MS = 500;
+
+    private static final String APP_DIR_NAME = ".vssfx";
+    private static final String FILE_NAME = "ui.properties";
+    private static final String LEGACY_THEME_FILE = "theme.properties"; // eski ThemeManager dosyası
+
+    private static final Map<String, String> VALUES = new ConcurrentHashMap<>();
+    private static final AtomicLong VERSION = new AtomicLong();
+    private static final AtomicBoolean SCHEDULED = new AtomicBoolean();
+    private static final ScheduledExecutorService WRITER = Executors.newSingleThreadScheduledExecutor(
+            r -> Thread.ofPlatform().daemon().name("ui-prefs").unstarted(r));
+
+    private static long written; // son yazılan VERSION; sadece write() içinde (synchronized)
+
+    static {
+        load();
+    }
+
+    private UiPrefs() {}
+
+    public static String get(String key, String def) {
+        return VALUES.getOrDefault(key, def);
+    }
+
+    public static double getDouble(String key, double def) {
+        String raw = VALUES.get(key);
+        if (raw == null) return def;
+        try {
+            return Double.parseDouble(raw);
+        } catch (NumberFormatException e) {
+            return def;
+        }
+    }
+
+    public static boolean getBool(String key, boolean def) {
+        String raw = VALUES.get(key);
+        return raw == null ? def : Boolean.parseBoolean(raw);
+    }
+
+    /** Stores {@code value} ({@code null} removes the key); unchanged values do not cause a write. */
+    public static void put(String key, String value) {
+        String old = value == null ? VALUES.remove(key) : VALUES.put(key, value);
+        if (Objects.equals(old, value)) return;
+
+        VERSION.incrementAndGet();
+        if (SCHEDULED.compareAndSet(false, true)) {
+            try {
+                WRITER.schedule(UiPrefs::writeScheduled, WRITE_DELAY_MS, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                SCHEDULED.set(false); // flush() sonrası: yazıcı kapandı
+            }
+        }
+    }
+
+    public static void put(String key, double value) {
+        put(key, Double.toString(value));
+    }
+
+    public static void put(String key, boolean value) {
+        put(key, Boolean.toString(value));
+    }
+
+    /** Writes pending changes now and stops the writer thread; later changes stay in memory. */
+    public static void flush() {
+        WRITER.shutdown();
+        write();
+    }
+
+    // ---------------------------------------------------------------
+
+    private static void writeScheduled() {
+        SCHEDULED.set(false); // bundan sonraki değişiklik yeni bir yazma planlar
+        write();
+    }
+
+    private static synchronized void write() {
+        long version = VERSION.get();
+        if (version == written) return;
+
+        Properties p = new Properties();
+        p.putAll(VALUES);
+
+        Path path = path(FILE_NAME);
+        Path tmp = null;
+        try {
+            Files.createDirectories(path.getParent());
+            tmp = Files.createTempFile(path.getParent(), FILE_NAME, ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                p.store(out, "VSSFX UI preferences");
+            }
+            try {
+                Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            written = version;
+        } catch (IOException e) {
+            System.err.println("[ui-prefs] write failed: " + e.getMessage());
+            try {
+                if (tmp != null) Files.deleteIfExists(tmp);
+            } catch (IOException ignored) {}
+        }
+    }
+
+    private static void load() {
+        Path path = path(FILE_NAME);
+        boolean migrate = !Files.exists(path);
+        Properties p = read(migrate ? path(LEGACY_THEME_FILE) : path);
+        for (String key : p.stringPropertyNames()) VALUES.put(key, p.getProperty(key));
+
+        // ilk açılış: eski tema dosyası yeni dosyaya taşınsın
+        if (migrate && !VALUES.isEmpty()) VERSION.incrementAndGet();
+    }
+
+    private static Properties read(Path path) {
+        Properties p = new Properties();
+        if (!Files.exists(path)) return p;
+        try (InputStream in = Files.newInputStream(path)) {
+            p.load(in);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("[ui-prefs] " + path.getFileName() + " unreadable, using defaults: " + e.getMessage());
+            p.clear();
+        }
+        return p;
+    }
+
+    private static Path path(String file) {
+        return Paths.get(System.getProperty("user.home"), APP_DIR_NAME, file);
+    }
+}
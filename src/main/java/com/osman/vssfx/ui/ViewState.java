@@ -0,0 +1,149 @@
+package com.osman.vssfx.ui;
+
+import javafx.beans.InvalidationListener;
+import javafx.collections.ObservableList;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.control.Tab;
+import javafx.scene.control.TabPane;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.stage.Screen;
+import javafx.stage.Stage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Restores UI state from {@link UiPrefs} and keeps it up to date there: window geometry, the
+ * selected tab of a tab pane and table column widths / sort order. Each {@code bind} method
+ * applies the saved state first, then listens for changes; the listeners only update the
+ * in-memory store, writing the file is left to {@code UiPrefs}. FX thread only.
+ */
+public final class ViewState {
+
+    private static final double MIN_WIDTH = 400;
+    private static final double MIN_HEIGHT = 300;
+
+    private ViewState() {}
+
+    /** Call before {@code stage.show()}. A position no longer on any screen is ignored. */
+    public static void bindWindow(Stage stage, String key) {
+        double x = UiPrefs.getDouble(key + ".x", Double.NaN);
+        double y = UiPrefs.getDouble(key + ".y", Double.NaN);
+        double w = UiPrefs.getDouble(key + ".width", Double.NaN);
+        double h = UiPrefs.getDouble(key + ".height", Double.NaN);
+
+        if (w >= MIN_WIDTH && h >= MIN_HEIGHT) {
+            stage.setWidth(w);
+            stage.setHeight(h);
+            // monitör çıkarıldıysa pencere görünmez yerde açılmasın
+            if (!Double.isNaN(x) && !Double.isNaN(y)
+                    && !Screen.getScreensForRectangle(new Rectangle2D(x, y, w, h)).isEmpty()) {
+                stage.setX(x);
+                stage.setY(y);
+            }
+        }
+        stage.setMaximized(UiPrefs.getBool(key + ".maximized", false));
+
+        // büyütülmüş / simge durumundayken normal boyut korunur
+        InvalidationListener bounds = o -> {
+            if (stage.isMaximized() || stage.isIconified() || stage.isFullScreen()) return;
+            UiPrefs.put(key + ".x", stage.getX());
+            UiPrefs.put(key + ".y", stage.getY());
+            UiPrefs.put(key + ".width", stage.getWidth());
+            UiPrefs.put(key + ".height", stage.getHeight());
+        };
+        stage.xProperty().addListener(bounds);
+        stage.yProperty().addListener(bounds);
+        stage.widthProperty().addListener(bounds);
+        stage.heightProperty().addListener(bounds);
+        stage.maximizedProperty().addListener((obs, was, is) -> UiPrefs.put(key + ".maximized", is));
+    }
+
+    /**
+     * Tabs are identified by their {@code userData} (the view they load), else by their text.
+     * Selects the saved tab if it still exists; call before listeners that react to selection.
+     */
+    public static void bindSelectedTab(TabPane tabs, String key) {
+        String saved = UiPrefs.get(key, null);
+        if (saved != null) {
+            for (Tab t : tabs.getTabs()) {
+                if (saved.equals(tabKey(t))) {
+                    tabs.getSelectionModel().select(t);
+                    break;
+                }
+            }
+        }
+        tabs.getSelectionModel().selectedItemProperty().addListener((obs, oldT, t) -> {
+            if (t != null) UiPrefs.put(key, tabKey(t));
+        });
+    }
+
+    /**
+     * Column widths and sort order. Columns are identified by their id ({@code fx:id}); columns
+     * without one are skipped. Sort order is stored as {@code colA:A,colB:D}.
+     */
+    public static void bindTable(TableView<?> table, String key) {
+        List<TableColumn<?, ?>> columns = new ArrayList<>();
+        collect(table.getColumns(), columns);
+
+        for (TableColumn<?, ?> c : columns) {
+            String widthKey = key + ".width." + c.getId();
+            double w = UiPrefs.getDouble(widthKey, Double.NaN);
+            if (w > 0) c.setPrefWidth(w);
+            c.widthProperty().addListener((obs, oldW, newW) -> UiPrefs.put(widthKey, newW.doubleValue()));
+        }
+
+        String sortKey = key + ".sort";
+        String saved = UiPrefs.get(sortKey, "");
+        if (!saved.isEmpty()) restoreSort(table, columns, saved);
+
+        Runnable saveSort = () -> UiPrefs.put(sortKey, sortString(table));
+        table.getSortOrder().addListener((InvalidationListener) o -> saveSort.run());
+        for (TableColumn<?, ?> c : columns) c.sortTypeProperty().addListener(o -> saveSort.run());
+    }
+
+    // ---------------------------------------------------------------
+
+    private static String tabKey(Tab t) {
+        return t.getUserData() instanceof String view ? view : t.getText();
+    }
+
+    private static void collect(List<? extends TableColumn<?, ?>> from, List<TableColumn<?, ?>> into) {
+        for (TableColumn<?, ?> c : from) {
+            if (c.getColumns().isEmpty()) {
+                if (c.getId() != null) into.add(c);
+            } else {
+                collect(c.getColumns(), into);
+            }
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static void restoreSort(TableView<?> table, List<TableColumn<?, ?>> columns, String saved) {
+        List<TableColumn> order = new ArrayList<>();
+        for (String part : saved.split(",")) {
+            int sep = part.lastIndexOf(':');
+            if (sep < 0) continue;
+            String id = part.substring(0, sep);
+            for (TableColumn<?, ?> c : columns) {
+                if (!id.equals(c.getId()) || !c.isSortable()) continue;
+                c.setSortType("D".equals(part.substring(sep + 1))
+                        ? TableColumn.SortType.DESCENDING : TableColumn.SortType.ASCENDING);
+                order.add(c);
+            }
+        }
+        ((ObservableList) table.getSortOrder()).setAll(order); // kolon artık yoksa sadece kalanlar
+    }
+
+    private static String sortString(TableView<?> table) {
+        StringBuilder sb = new StringBuilder();
+        for (TableColumn<?, ?> c : table.getSortOrder()) {
+            if (c.getId() == null) continue;
+            if (!sb.isEmpty()) sb.append(',');
+            sb.append(c.getId()).append(':')
+                    .append(c.getSortType() == TableColumn.SortType.DESCENDING ? 'D' : 'A');
+        }
+        return sb.toString();
+    }
+}
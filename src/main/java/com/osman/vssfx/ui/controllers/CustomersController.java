@@ -2,7 +2,12 @@ package com.osman.vssfx.ui.controllers;
 
 import com.osman.vssfx.auth.SessionContext;
 import com.osman.vssfx.dao.CustomerDAO;
+import com.osman.vssfx.events.EventBus;
+import com.osman.vssfx.events.RowChange;
 import com.osman.vssfx.model.Customer;
+import com.osman.vssfx.ui.Filters;
+import com.osman.vssfx.ui.RowPatcher;
+import com.osman.vssfx.ui.UiExecutor;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
@@ -11,15 +16,20 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 public class CustomersController {
 
     private final CustomerDAO dao = new CustomerDAO();
+    private final UiExecutor bg = new UiExecutor();
 
     private final ObservableList<Customer> master = FXCollections.observableArrayList();
     private FilteredList<Customer> filtered;
+    private final RowPatcher<Customer> patcher = new RowPatcher<>(master, Customer::getCustomerId,
+            (a, b) -> Long.compare(b.getCustomerId(), a.getCustomerId()));
 
     @FXML private TextField searchField;
+    @FXML private ProgressIndicator loadingSpinner;
 
     @FXML private TableView<Customer> table;
     @FXML private TableColumn<Customer, Long> colId;
@@ -58,6 +68,15 @@ public class CustomersController {
             if (c != null) fillForm(c);
         });
 
+        // DB işlemleri arka planda; görünüm sahneden çıkınca iptal
+        loadingSpinner.visibleProperty().bind(bg.busyProperty());
+        loadingSpinner.managedProperty().bind(bg.busyProperty());
+        bg.cancelWhenDetached(table);
+
+        // Yazmalardan sonra tüm listeyi çekmek yerine sadece değişen satırlar
+        EventBus.Subscription changes = EventBus.subscribe(Customer.class, this::onCustomerChanges);
+        bg.onDetached(changes::close);
+
         reload();
     }
 
@@ -68,42 +87,69 @@ public class CustomersController {
     }
 
     private void applyFilter(String q) {
-        String s = (q == null) ? "" : q.trim().toLowerCase();
-        filtered.setPredicate(c -> {
-            if (s.isEmpty()) return true;
-            return safe(c.getFirstName()).contains(s)
-                    || safe(c.getLastName()).contains(s)
-                    || safe(c.getPhone()).contains(s)
-                    || safe(c.getEmail()).contains(s);
-        });
+        filtered.setPredicate(Filters.customer(q));
     }
 
-    private String safe(String x) { return x == null ? "" : x.toLowerCase(); }
-
     private void reload() {
+        long tid;
         try {
-            master.setAll(dao.findAllByTenant(tenantId()));
-            msg("Yüklendi: " + master.size());
+            tid = tenantId();
         } catch (Exception e) {
-            e.printStackTrace();
             msg("Veritabanı hatası: " + e.getMessage());
+            return;
         }
+
+        bg.submit("reload", () -> dao.findAllByTenant(tid), list -> {
+            master.setAll(list);
+            msg("Yüklendi: " + master.size());
+        }, e -> fail("Veritabanı hatası: ", e));
     }
 
-    @FXML public void onRefresh() { reload(); }
+    private void onCustomerChanges(List<RowChange<Customer>> changes) {
+        Long tid = SessionContext.tenantId();
+        if (tid == null) return;
+
+        List<RowChange<Customer>> mine = changes.stream().filter(ch -> ch.tenantId() == tid).toList();
+        if (mine.isEmpty()) return;
+
+        Customer selected = table.getSelectionModel().getSelectedItem();
+        if (!patcher.apply(mine, c -> true)) { // filtre FilteredList'te
+            reload();
+            return;
+        }
+
+        if (selected != null && table.getSelectionModel().getSelectedItem() != selected) {
+            filtered.stream()
+                    .filter(c -> c.getCustomerId().equals(selected.getCustomerId()))
+                    .findFirst()
+                    .ifPresent(c -> table.getSelectionModel().select(c));
+        }
+    }
+
+    @FXML
+    public void onRefresh() {
+        // "Yenile" önbelleği atlar
+        Long tid = SessionContext.tenantId();
+        if (tid != null) dao.invalidateCache(tid);
+        reload();
+    }
 
     @FXML
     public void onAdd() {
+        Customer c;
+        long tid;
         try {
-            Customer c = readFormForInsert();
-            long id = dao.insert(tenantId(), c);
-            msg("Eklendi. ID=" + id);
-            reload();
-            onClear();
+            c = readFormForInsert();
+            tid = tenantId();
         } catch (Exception e) {
-            e.printStackTrace();
             msg("Ekleme başarısız: " + e.getMessage());
+            return;
         }
+
+        bg.submit(null, () -> dao.insert(tid, c), id -> {
+            onClear();
+            msg("Eklendi. ID=" + id);
+        }, e -> fail("Ekleme başarısız: ", e));
     }
 
     @FXML
@@ -111,15 +157,19 @@ public class CustomersController {
         Customer selected = table.getSelectionModel().getSelectedItem();
         if (selected == null) { msg("Önce bir satır seçin."); return; }
 
+        Customer c;
+        long tid;
         try {
-            Customer c = readFormForUpdate(selected);
-            dao.update(tenantId(), c);
-            msg("Güncellendi.");
-            reload();
+            c = readFormForUpdate(selected);
+            tid = tenantId();
         } catch (Exception e) {
-            e.printStackTrace();
             msg("Güncelleme başarısız: " + e.getMessage());
+            return;
         }
+
+        bg.submit(null, () -> { dao.update(tid, c); return null; }, x -> {
+            msg("Güncellendi.");
+        }, e -> fail("Güncelleme başarısız: ", e));
     }
 
     @FXML
@@ -127,26 +177,23 @@ public class CustomersController {
         Customer selected = table.getSelectionModel().getSelectedItem();
         if (selected == null) { msg("Önce bir satır seçin."); return; }
 
-        try {
-            Alert a = new Alert(Alert.AlertType.CONFIRMATION);
-            a.setTitle("Silme Onayı");
-            a.setHeaderText("Seçili müşteri silinsin mi?");
-            a.setContentText("Bu işlem geri alınamaz.");
+        Alert a = new Alert(Alert.AlertType.CONFIRMATION);
+        a.setTitle("Silme Onayı");
+        a.setHeaderText("Seçili müşteri silinsin mi?");
+        a.setContentText("Bu işlem geri alınamaz.");
 
-            ButtonType ok = new ButtonType("Evet", ButtonBar.ButtonData.OK_DONE);
-            ButtonType cancel = new ButtonType("Vazgeç", ButtonBar.ButtonData.CANCEL_CLOSE);
-            a.getButtonTypes().setAll(ok, cancel);
+        ButtonType ok = new ButtonType("Evet", ButtonBar.ButtonData.OK_DONE);
+        ButtonType cancel = new ButtonType("Vazgeç", ButtonBar.ButtonData.CANCEL_CLOSE);
+        a.getButtonTypes().setAll(ok, cancel);
 
-            if (a.showAndWait().orElse(cancel) != ok) return;
+        if (a.showAndWait().orElse(cancel) != ok) return;
 
-            dao.delete(tenantId(), selected.getCustomerId());
-            msg("Silindi.");
-            reload();
+        long tid = tenantId();
+        long customerId = selected.getCustomerId();
+        bg.submit(null, () -> { dao.delete(tid, customerId); return null; }, x -> {
             onClear();
-        } catch (Exception e) {
-            e.printStackTrace();
-            msg("Silme başarısız: " + e.getMessage());
-        }
+            msg("Silindi.");
+        }, e -> fail("Silme başarısız: ", e));
     }
 
     @FXML
@@ -206,4 +253,9 @@ public class CustomersController {
     }
 
     private void msg(String s) { msgLabel.setText(s == null ? "" : s); }
+
+    private void fail(String prefix, Throwable e) {
+        e.printStackTrace();
+        msg(prefix + e.getMessage());
+    }
 }
@@ -0,0 +1,119 @@
+package com.osman.vssfx.ui.controllers;
+
+import com.osman.vssfx.auth.SessionContext;
+import com.osman.vssfx.dao.MaintenanceSummaryDAO;
+import com.osman.vssfx.dao.MaintenanceSummaryDAO.FleetTotals;
+import com.osman.vssfx.dao.MaintenanceSummaryDAO.VehicleCost;
+import com.osman.vssfx.events.EventBus;
+import com.osman.vssfx.events.RowChange;
+import com.osman.vssfx.model.Maintenance;
+import com.osman.vssfx.model.Vehicle;
+import com.osman.vssfx.ui.UiExecutor;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.fxml.FXML;
+import javafx.scene.control.*;
+
+import java.math.BigDecimal;
+import java.text.NumberFormat;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+
+public class DashboardController {
+
+    private static final int TOP_N = 20;
+
+    private final MaintenanceSummaryDAO dao = new MaintenanceSummaryDAO();
+    private final UiExecutor bg = new UiExecutor();
+
+    private record Snapshot(FleetTotals totals, List<VehicleCost> top) {}
+
+    @FXML private ProgressIndicator loadingSpinner;
+
+    @FXML private Label totalCostLabel, maintCountLabel, lastMaintLabel;
+
+    @FXML private TableView<VehicleCost> table;
+    @FXML private TableColumn<VehicleCost, String> colPlate;
+    @FXML private TableColumn<VehicleCost, String> colVehicle;
+    @FXML private TableColumn<VehicleCost, Long> colCount;
+    @FXML private TableColumn<VehicleCost, String> colCost;
+    @FXML private TableColumn<VehicleCost, String> colLastDate;
+    @FXML private TableColumn<VehicleCost, Integer> colLastKm;
+
+    @FXML private Label msgLabel;
+
+    private static final DateTimeFormatter D = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+    private static final Locale TR = Locale.forLanguageTag("tr-TR");
+
+    @FXML
+    public void initialize() {
+        colPlate.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().plateNo()));
+        colVehicle.setCellValueFactory(c -> new SimpleStringProperty(
+                c.getValue().make() + " " + c.getValue().model()));
+        colCount.setCellValueFactory(c -> new SimpleObjectProperty<>(c.getValue().maintCount()));
+        colCost.setCellValueFactory(c -> new SimpleStringProperty(money(c.getValue().totalCost())));
+        colLastDate.setCellValueFactory(c -> new SimpleStringProperty(date(c.getValue().lastMaintDate())));
+        colLastKm.setCellValueFactory(c -> new SimpleObjectProperty<>(c.getValue().lastKm()));
+
+        table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+
+        loadingSpinner.visibleProperty().bind(bg.busyProperty());
+        loadingSpinner.managedProperty().bind(bg.busyProperty());
+        bg.cancelWhenDetached(table);
+
+        // Özet tabloları tetikleyicilerle güncellenir; değişiklikte iki küçük sorgu yeterli
+        EventBus.Subscription maint = EventBus.subscribe(Maintenance.class, this::onChanges);
+        EventBus.Subscription vehicles = EventBus.subscribe(Vehicle.class, this::onChanges);
+        bg.onDetached(maint::close);
+        bg.onDetached(vehicles::close);
+
+        reload();
+    }
+
+    private <T> void onChanges(List<RowChange<T>> changes) {
+        Long tid = SessionContext.tenantId();
+        if (tid == null) return;
+        if (changes.stream().anyMatch(ch -> ch.tenantId() == tid)) reload();
+    }
+
+    private void reload() {
+        Long tid = SessionContext.tenantId();
+        if (tid == null) {
+            msg("Oturum bulunamadı. Lütfen tekrar giriş yapın.");
+            return;
+        }
+
+        bg.submit("reload", () -> new Snapshot(dao.fleetTotals(tid), dao.topByCost(tid, TOP_N)), s -> {
+            totalCostLabel.setText(money(s.totals().totalCost()));
+            maintCountLabel.setText(String.valueOf(s.totals().maintCount()));
+            lastMaintLabel.setText(s.totals().lastMaintDate() == null ? "-" : date(s.totals().lastMaintDate()));
+            table.getItems().setAll(s.top());
+            msg("");
+        }, e -> fail("Veritabanı hatası: ", e));
+    }
+
+    @FXML
+    public void onRefresh() {
+        reload();
+    }
+
+    private static String money(BigDecimal v) {
+        NumberFormat f = NumberFormat.getNumberInstance(TR);
+        f.setMinimumFractionDigits(2);
+        f.setMaximumFractionDigits(2);
+        return f.format(v == null ? BigDecimal.ZERO : v) + " ₺";
+    }
+
+    private static String date(LocalDate d) {
+        return d == null ? "" : D.format(d);
+    }
+
+    private void msg(String s) { msgLabel.setText(s == null ? "" : s); }
+
+    private void fail(String prefix, Throwable e) {
+        e.printStackTrace();
+        msg(prefix + e.getMessage());
+    }
+}
@@ -0,0 +1,122 @@
+package com.osman.vssfx.ui.controllers;
+
+import com.osman.vssfx.metrics.Metrics;
+import com.osman.vssfx.metrics.Metrics.OpSnapshot;
+import com.osman.vssfx.metrics.Metrics.PoolSnapshot;
+import com.osman.vssfx.ui.UiExecutor;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.fxml.FXML;
+import javafx.scene.control.*;
+import javafx.util.Duration;
+
+import java.util.List;
+import java.util.Locale;
+
+public class DiagnosticsController {
+
+    private record Data(List<OpSnapshot> ops, PoolSnapshot pool) {}
+
+    private final UiExecutor bg = new UiExecutor();
+
+    @FXML private ProgressIndicator loadingSpinner;
+    @FXML private CheckBox byTenantCheck;
+    @FXML private Label poolLabel;
+
+    @FXML private TableView<OpSnapshot> table;
+    @FXML private TableColumn<OpSnapshot, String> colOp;
+    @FXML private TableColumn<OpSnapshot, String> colTenant;
+    @FXML private TableColumn<OpSnapshot, String> colCalls;
+    @FXML private TableColumn<OpSnapshot, String> colErrors;
+    @FXML private TableColumn<OpSnapshot, String> colRows;
+    @FXML private TableColumn<OpSnapshot, String> colMean;
+    @FXML private TableColumn<OpSnapshot, String> colP50;
+    @FXML private TableColumn<OpSnapshot, String> colP90;
+    @FXML private TableColumn<OpSnapshot, String> colP99;
+    @FXML private TableColumn<OpSnapshot, String> colMax;
+    @FXML private TableColumn<OpSnapshot, String> colError;
+
+    @FXML private Label msgLabel;
+
+    @FXML
+    public void initialize() {
+        colOp.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().op()));
+        colTenant.setCellValueFactory(c -> new SimpleStringProperty(tenantText(c.getValue().tenantId())));
+        colCalls.setCellValueFactory(c -> new SimpleStringProperty(String.valueOf(c.getValue().calls())));
+        colErrors.setCellValueFactory(c -> new SimpleStringProperty(String.valueOf(c.getValue().errors())));
+        colRows.setCellValueFactory(c -> new SimpleStringProperty(String.valueOf(c.getValue().rows())));
+        colMean.setCellValueFactory(c -> new SimpleStringProperty(ms(c.getValue().meanMillis())));
+        colP50.setCellValueFactory(c -> new SimpleStringProperty(ms(c.getValue().p50Millis())));
+        colP90.setCellValueFactory(c -> new SimpleStringProperty(ms(c.getValue().p90Millis())));
+        colP99.setCellValueFactory(c -> new SimpleStringProperty(ms(c.getValue().p99Millis())));
+        colMax.setCellValueFactory(c -> new SimpleStringProperty(ms(c.getValue().maxMillis())));
+        colError.setCellValueFactory(c -> new SimpleStringProperty(
+                c.getValue().lastError() == null ? "" : c.getValue().lastError()));
+        table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+
+        loadingSpinner.visibleProperty().bind(bg.busyProperty());
+        loadingSpinner.managedProperty().bind(bg.busyProperty());
+        bg.cancelWhenDetached(table);
+
+        // sekme açıkken 2 sn'de bir tazele
+        Timeline poll = new Timeline(new KeyFrame(Duration.seconds(2), e -> reload()));
+        poll.setCycleCount(Timeline.INDEFINITE);
+        poll.play();
+        bg.onDetached(poll::stop);
+
+        reload();
+    }
+
+    @FXML
+    public void onRefresh() {
+        reload();
+    }
+
+    @FXML
+    public void onReset() {
+        Metrics.reset();
+        msg("Sayaçlar sıfırlandı.");
+        reload();
+    }
+
+    private void reload() {
+        boolean byTenant = byTenantCheck.isSelected();
+        bg.submit("metrics", () -> new Data(Metrics.operations(byTenant), Metrics.pool()),
+                this::show, e -> fail("Metrikler okunamadı: ", e));
+    }
+
+    private void show(Data d) {
+        OpSnapshot selected = table.getSelectionModel().getSelectedItem();
+        table.getItems().setAll(d.ops());
+        if (selected != null) {
+            // seçim yenilemede kaybolmasın
+            d.ops().stream()
+                    .filter(o -> o.op().equals(selected.op()) && o.tenantId() == selected.tenantId())
+                    .findFirst()
+                    .ifPresent(o -> table.getSelectionModel().select(o));
+        }
+
+        PoolSnapshot p = d.pool();
+        poolLabel.setText(String.format(Locale.ROOT,
+                "Havuz: %d aktif / %d boşta / %d toplam · bağlantı bekleme p50 %s, p99 %s, maks %s ms",
+                p.active(), p.idle(), p.total(),
+                ms(p.acquireP50Millis()), ms(p.acquireP99Millis()), ms(p.acquireMaxMillis())));
+    }
+
+    private static String tenantText(long tenantId) {
+        if (tenantId < 0) return "hepsi";
+        return tenantId == Metrics.SYSTEM ? "sistem" : String.valueOf(tenantId);
+    }
+
+    private static String ms(double v) {
+        return String.format(Locale.ROOT, v < 10 ? "%.2f" : "%.0f", v);
+    }
+
+    private void msg(String s) { msgLabel.setText(s == null ? "" : s); }
+
+    private void fail(String prefix, Throwable e) {
+        e.printStackTrace();
+        msg(prefix + e.getMessage());
+    }
+}
@@ -0,0 +1,449 @@
+package com.osman.vssfx.ui.controllers;
+
+import com.osman.vssfx.auth.SessionContext;
+import com.osman.vssfx.dao.AssignmentDAO;
+import com.osman.vssfx.dao.AssignmentDAO.AvailableVehicle;
+import com.osman.vssfx.dao.DriverDAO;
+import com.osman.vssfx.events.EventBus;
+import com.osman.vssfx.events.RowChange;
+import com.osman.vssfx.model.Assignment;
+import com.osman.vssfx.model.Driver;
+import com.osman.vssfx.model.Vehicle;
+import com.osman.vssfx.ui.Filters;
+import com.osman.vssfx.ui.RowPatcher;
+import com.osman.vssfx.ui.UiExecutor;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.fxml.FXML;
+import javafx.scene.control.*;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+/** Sürücüler + zimmet ekranı: sürücü formu, boştaki araca zimmetleme ve aktif zimmet kapatma. */
+public class DriversController {
+
+    private final DriverDAO dao = new DriverDAO();
+    private final AssignmentDAO assignmentDAO = new AssignmentDAO();
+    private final UiExecutor bg = new UiExecutor();
+
+    private final ObservableList<Driver> master = FXCollections.observableArrayList();
+    private FilteredList<Driver> filtered;
+    private final RowPatcher<Driver> patcher = new RowPatcher<>(master, Driver::getDriverId,
+            (a, b) -> Long.compare(b.getDriverId(), a.getDriverId()));
+
+    private final ObservableList<Assignment> active = FXCollections.observableArrayList();
+    // findActive ile aynı sıra: start_datetime DESC
+    private final RowPatcher<Assignment> activePatcher = new RowPatcher<>(active, Assignment::getAssignmentId,
+            Comparator.comparing(Assignment::getStartDatetime).thenComparing(Assignment::getAssignmentId).reversed());
+
+    private final ObservableList<AvailableVehicle> vehicles = FXCollections.observableArrayList();
+
+    @FXML private TextField searchField;
+    @FXML private CheckBox availableOnlyCheck;
+    @FXML private ProgressIndicator loadingSpinner;
+
+    @FXML private TableView<Driver> table;
+    @FXML private TableColumn<Driver, String> colId;
+    @FXML private TableColumn<Driver, String> colFirstName;
+    @FXML private TableColumn<Driver, String> colLastName;
+    @FXML private TableColumn<Driver, String> colLicense;
+    @FXML private TableColumn<Driver, String> colPhone;
+    @FXML private TableColumn<Driver, String> colVehicle;
+
+    @FXML private TableView<Assignment> activeTable;
+    @FXML private TableColumn<Assignment, String> colAsgDriver;
+    @FXML private TableColumn<Assignment, String> colAsgLicense;
+    @FXML private TableColumn<Assignment, String> colAsgPlate;
+    @FXML private TableColumn<Assignment, String> colAsgVehicle;
+    @FXML private TableColumn<Assignment, String> colAsgStart;
+    @FXML private TableColumn<Assignment, String> colAsgStartKm;
+
+    @FXML private TextField firstNameField, lastNameField, licenseField, phoneField;
+
+    @FXML private Label assignDriverLabel;
+    @FXML private ComboBox<AvailableVehicle> vehicleBox;
+    @FXML private TextField startKmField;
+
+    @FXML private Label closeLabel;
+    @FXML private TextField endKmField;
+
+    @FXML private Label msgLabel;
+
+    private static final DateTimeFormatter DT = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
+
+    @FXML
+    public void initialize() {
+        colId.setCellValueFactory(c -> new SimpleStringProperty(String.valueOf(c.getValue().getDriverId())));
+        colFirstName.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().getFirstName()));
+        colLastName.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().getLastName()));
+        colLicense.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().getLicenseNo()));
+        colPhone.setCellValueFactory(c -> new SimpleStringProperty(
+                c.getValue().getPhone() == null ? "" : c.getValue().getPhone()));
+        colVehicle.setCellValueFactory(c -> new SimpleStringProperty(
+                c.getValue().isAvailable() ? "Boşta" : c.getValue().getActivePlateNo()));
+
+        filtered = new FilteredList<>(master, x -> true);
+        table.setItems(filtered);
+        table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+        table.getSelectionModel().selectedItemProperty().addListener((obs, oldV, d) -> {
+            if (d != null) fillForm(d);
+            showAssignDriver(d);
+        });
+
+        colAsgDriver.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().getDriverName()));
+        colAsgLicense.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().getLicenseNo()));
+        colAsgPlate.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().getPlateNo()));
+        colAsgVehicle.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().getMakeModel()));
+        colAsgStart.setCellValueFactory(c -> new SimpleStringProperty(
+                c.getValue().getStartDatetime() == null ? "" : DT.format(c.getValue().getStartDatetime())));
+        colAsgStartKm.setCellValueFactory(c -> new SimpleStringProperty(String.valueOf(c.getValue().getStartKm())));
+
+        activeTable.setItems(active);
+        activeTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+        activeTable.getSelectionModel().selectedItemProperty().addListener((obs, oldV, a) -> showClose(a));
+
+        vehicleBox.setItems(vehicles);
+        vehicleBox.setCellFactory(cb -> new ListCell<>() {
+            @Override protected void updateItem(AvailableVehicle v, boolean empty) {
+                super.updateItem(v, empty);
+                setText(empty || v == null ? null : formatVehicle(v));
+            }
+        });
+        vehicleBox.setButtonCell(new ListCell<>() {
+            @Override protected void updateItem(AvailableVehicle v, boolean empty) {
+                super.updateItem(v, empty);
+                setText(empty || v == null ? null : formatVehicle(v));
+            }
+        });
+        vehicleBox.valueProperty().addListener((obs, oldV, v) -> {
+            if (v != null) startKmField.setText(String.valueOf(v.currentKm()));
+        });
+
+        startKmField.setTextFormatter(new TextFormatter<>(c -> c.getControlNewText().matches("\\d{0,9}") ? c : null));
+        endKmField.setTextFormatter(new TextFormatter<>(c -> c.getControlNewText().matches("\\d{0,9}") ? c : null));
+
+        searchField.textProperty().addListener((obs, oldV, q) -> applyFilter());
+        availableOnlyCheck.selectedProperty().addListener((obs, oldV, on) -> applyFilter());
+
+        loadingSpinner.visibleProperty().bind(bg.busyProperty());
+        loadingSpinner.managedProperty().bind(bg.busyProperty());
+        bg.cancelWhenDetached(table);
+
+        EventBus.Subscription driverChanges = EventBus.subscribe(Driver.class, this::onDriverChanges);
+        EventBus.Subscription assignmentChanges = EventBus.subscribe(Assignment.class, this::onAssignmentChanges);
+        EventBus.Subscription vehicleChanges = EventBus.subscribe(Vehicle.class, this::onVehicleChanges);
+        bg.onDetached(driverChanges::close);
+        bg.onDetached(assignmentChanges::close);
+        bg.onDetached(vehicleChanges::close);
+
+        showAssignDriver(null);
+        showClose(null);
+        reload();
+        reloadActive();
+        reloadVehicles();
+    }
+
+    private long tenantId() {
+        Long tid = SessionContext.tenantId();
+        if (tid == null) throw new IllegalStateException("Oturum bulunamadı. Lütfen tekrar giriş yapın.");
+        return tid;
+    }
+
+    private void applyFilter() {
+        Predicate<Driver> p = Filters.driver(searchField.getText());
+        filtered.setPredicate(availableOnlyCheck.isSelected() ? p.and(Driver::isAvailable) : p);
+    }
+
+    private void reload() {
+        long tid;
+        try {
+            tid = tenantId();
+        } catch (Exception e) {
+            msg("Veritabanı hatası: " + e.getMessage());
+            return;
+        }
+
+        bg.submit("reload", () -> dao.findAllByTenant(tid), list -> {
+            master.setAll(list);
+            msg("Yüklendi: " + master.size() + " sürücü");
+        }, e -> fail("Veritabanı hatası: ", e));
+    }
+
+    private void reloadActive() {
+        long tid;
+        try {
+            tid = tenantId();
+        } catch (Exception e) {
+            msg("Zimmetler yüklenemedi: " + e.getMessage());
+            return;
+        }
+
+        bg.submit("active", () -> assignmentDAO.findActive(tid), active::setAll,
+                e -> fail("Zimmetler yüklenemedi: ", e));
+    }
+
+    private void reloadVehicles() {
+        long tid;
+        try {
+            tid = tenantId();
+        } catch (Exception e) {
+            msg("Araçlar yüklenemedi: " + e.getMessage());
+            return;
+        }
+
+        bg.submit("vehicles", () -> assignmentDAO.findAvailableVehicles(tid), list -> {
+            AvailableVehicle current = vehicleBox.getValue();
+            vehicles.setAll(list);
+            vehicleBox.setValue(current == null ? null : list.stream()
+                    .filter(v -> v.vehicleId() == current.vehicleId()).findFirst().orElse(null));
+        }, e -> fail("Araçlar yüklenemedi: ", e));
+    }
+
+    private void onDriverChanges(List<RowChange<Driver>> changes) {
+        Long tid = SessionContext.tenantId();
+        if (tid == null) return;
+
+        List<RowChange<Driver>> mine = changes.stream().filter(ch -> ch.tenantId() == tid).toList();
+        if (mine.isEmpty()) return;
+
+        Driver selected = table.getSelectionModel().getSelectedItem();
+        if (!patcher.apply(mine, d -> true)) { // filtre FilteredList'te
+            reload();
+            return;
+        }
+
+        if (selected != null && table.getSelectionModel().getSelectedItem() != selected) {
+            filtered.stream()
+                    .filter(d -> d.getDriverId().equals(selected.getDriverId()))
+                    .findFirst()
+                    .ifPresent(d -> table.getSelectionModel().select(d));
+        }
+    }
+
+    private void onAssignmentChanges(List<RowChange<Assignment>> changes) {
+        Long tid = SessionContext.tenantId();
+        if (tid == null) return;
+
+        List<RowChange<Assignment>> mine = changes.stream().filter(ch -> ch.tenantId() == tid).toList();
+        if (mine.isEmpty()) return;
+
+        if (!activePatcher.apply(mine, Assignment::isActive)) { // kapanan zimmet listeden düşer
+            reloadActive();
+            reload();
+        }
+        reloadVehicles();
+    }
+
+    // Araç durumu (ACTIVE / IN_SERVICE ...) boştaki araç listesini değiştirir
+    private void onVehicleChanges(List<RowChange<Vehicle>> changes) {
+        Long tid = SessionContext.tenantId();
+        if (tid == null || changes.stream().noneMatch(ch -> ch.tenantId() == tid)) return;
+        reloadVehicles();
+    }
+
+    @FXML
+    public void onRefresh() {
+        reload();
+        reloadActive();
+        reloadVehicles();
+    }
+
+    // ---------------------------------------------------------------
+    // Sürücü formu
+
+    @FXML
+    public void onAdd() {
+        Driver d;
+        long tid;
+        try {
+            d = new Driver();
+            applyFormTo(d);
+            tid = tenantId();
+        } catch (Exception e) {
+            msg("Ekleme başarısız: " + e.getMessage());
+            return;
+        }
+
+        bg.submit(null, () -> dao.insert(tid, d), id -> {
+            onClear();
+            msg("Eklendi. ID=" + id);
+        }, e -> fail("Ekleme başarısız: ", e));
+    }
+
+    @FXML
+    public void onUpdate() {
+        Driver selected = table.getSelectionModel().getSelectedItem();
+        if (selected == null) { msg("Önce bir sürücü seçin."); return; }
+
+        Driver d;
+        long tid;
+        try {
+            d = new Driver();
+            d.setDriverId(selected.getDriverId());
+            applyFormTo(d);
+            tid = tenantId();
+        } catch (Exception e) {
+            msg("Güncelleme başarısız: " + e.getMessage());
+            return;
+        }
+
+        bg.submit(null, () -> { dao.update(tid, d); return null; }, x -> {
+            msg("Güncellendi.");
+        }, e -> fail("Güncelleme başarısız: ", e));
+    }
+
+    @FXML
+    public void onDelete() {
+        Driver selected = table.getSelectionModel().getSelectedItem();
+        if (selected == null) { msg("Önce bir sürücü seçin."); return; }
+
+        Alert a = new Alert(Alert.AlertType.CONFIRMATION);
+        a.setTitle("Silme Onayı");
+        a.setHeaderText("Seçili sürücü silinsin mi?");
+        a.setContentText("Zimmet geçmişi olan sürücüler silinemez.");
+
+        ButtonType ok = new ButtonType("Evet", ButtonBar.ButtonData.OK_DONE);
+        ButtonType cancel = new ButtonType("Vazgeç", ButtonBar.ButtonData.CANCEL_CLOSE);
+        a.getButtonTypes().setAll(ok, cancel);
+
+        if (a.showAndWait().orElse(cancel) != ok) return;
+
+        long tid = tenantId();
+        long driverId = selected.getDriverId();
+        bg.submit(null, () -> { dao.delete(tid, driverId); return null; }, x -> {
+            onClear();
+            msg("Silindi.");
+        }, e -> fail("Silme başarısız: ", e));
+    }
+
+    @FXML
+    public void onClear() {
+        firstNameField.clear();
+        lastNameField.clear();
+        licenseField.clear();
+        phoneField.clear();
+        table.getSelectionModel().clearSelection();
+        msg("");
+    }
+
+    // ---------------------------------------------------------------
+    // Zimmet
+
+    @FXML
+    public void onAssign() {
+        Driver driver = table.getSelectionModel().getSelectedItem();
+        AvailableVehicle vehicle = vehicleBox.getValue();
+        if (driver == null) { msg("Önce bir sürücü seçin."); return; }
+        if (!driver.isAvailable()) { msg("Sürücünün zaten aktif zimmeti var (" + driver.getActivePlateNo() + ")."); return; }
+        if (vehicle == null) { msg("Boşta bir araç seçin."); return; }
+
+        int startKm;
+        long tid;
+        try {
+            startKm = parseKm(startKmField, "Başlangıç KM");
+            tid = tenantId();
+        } catch (Exception e) {
+            msg("Zimmet başarısız: " + e.getMessage());
+            return;
+        }
+
+        long driverId = driver.getDriverId();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        bg.submit(null, () -> assignmentDAO.assign(tid, driverId, vehicle.vehicleId(), startKm, now), a -> {
+            vehicleBox.setValue(null);
+            startKmField.clear();
+            msg("Zimmetlendi: " + a.getDriverName() + " → " + a.getPlateNo());
+        }, e -> fail("Zimmet başarısız: ", e));
+    }
+
+    @FXML
+    public void onCloseAssignment() {
+        Assignment selected = activeTable.getSelectionModel().getSelectedItem();
+        if (selected == null) { msg("Önce aktif zimmetlerden birini seçin."); return; }
+
+        int endKm;
+        long tid;
+        try {
+            endKm = parseKm(endKmField, "Bitiş KM");
+            tid = tenantId();
+        } catch (Exception e) {
+            msg("Zimmet kapatılamadı: " + e.getMessage());
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        bg.submit(null, () -> { assignmentDAO.close(tid, selected, endKm, now); return null; }, x -> {
+            endKmField.clear();
+            msg("Zimmet kapatıldı: " + selected.getPlateNo());
+        }, e -> fail("Zimmet kapatılamadı: ", e));
+    }
+
+    private void showAssignDriver(Driver d) {
+        assignDriverLabel.setText(d == null ? "Sürücü: seçilmedi"
+                : "Sürücü: " + d.getFullName() + (d.isAvailable() ? "" : " (zimmetli: " + d.getActivePlateNo() + ")"));
+    }
+
+    private void showClose(Assignment a) {
+        closeLabel.setText(a == null ? "Zimmet: seçilmedi" : "Zimmet: " + a.getDriverName() + " / " + a.getPlateNo());
+        endKmField.setText(a == null ? "" : String.valueOf(a.getStartKm()));
+    }
+
+    // ---------------------------------------------------------------
+
+    private void applyFormTo(Driver d) {
+        String fn = text(firstNameField);
+        String ln = text(lastNameField);
+        String license = text(licenseField);
+
+        if (fn.isEmpty() || ln.isEmpty()) throw new IllegalArgumentException("Ad ve Soyad boş olamaz.");
+        if (license.isEmpty()) throw new IllegalArgumentException("Ehliyet No boş olamaz.");
+
+        d.setFirstName(fn);
+        d.setLastName(ln);
+        d.setLicenseNo(license);
+        d.setPhone(blankToNull(text(phoneField)));
+    }
+
+    private void fillForm(Driver d) {
+        firstNameField.setText(d.getFirstName() == null ? "" : d.getFirstName());
+        lastNameField.setText(d.getLastName() == null ? "" : d.getLastName());
+        licenseField.setText(d.getLicenseNo() == null ? "" : d.getLicenseNo());
+        phoneField.setText(d.getPhone() == null ? "" : d.getPhone());
+    }
+
+    private int parseKm(TextField f, String label) {
+        String s = text(f);
+        if (s.isEmpty()) throw new IllegalArgumentException(label + " boş olamaz.");
+        try {
+            return Integer.parseInt(s);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(label + " geçerli bir sayı olmalı.");
+        }
+    }
+
+    private String formatVehicle(AvailableVehicle v) {
+        return v.plateNo() + " • " + v.make() + " " + v.model() + " (" + v.currentKm() + " km)";
+    }
+
+    private String text(TextField f) { return (f.getText() == null) ? "" : f.getText().trim(); }
+
+    private String blankToNull(String s) {
+        if (s == null) return null;
+        String t = s.trim();
+        return t.isEmpty() ? null : t;
+    }
+
+    private void msg(String s) { msgLabel.setText(s == null ? "" : s); }
+
+    private void fail(String prefix, Throwable e) {
+        e.printStackTrace();
+        msg(prefix + e.getMessage());
+    }
+}
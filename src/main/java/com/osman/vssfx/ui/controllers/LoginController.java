@@ -1,15 +1,13 @@
 package com.osman.vssfx.ui.controllers;
 
 import com.osman.vssfx.auth.AuthService;
-import com.osman.vssfx.ui.ThemeManager;
+import com.osman.vssfx.ui.AppNavigator;
 import javafx.application.Platform;
 import javafx.concurrent.Task;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
 import javafx.scene.control.*;
 
-public class LoginController {
+public class LoginController implements AppNavigator.Reusable {
 
     @FXML private TextField tenantIdField;
     @FXML private TextField emailField;
@@ -37,6 +35,19 @@ public class LoginController {
         passwordVisibleField.setOnAction(e -> onLogin());
     }
 
+    /** Çıkış / kayıt ekranından dönüşte aynı form tekrar gösterilir: şifreyi ve mesajı temizle. */
+    @Override
+    public void onShown() {
+        passwordField.clear();
+        msgLabel.setText("");
+        setLoading(false);
+
+        Platform.runLater(() -> {
+            if (emailField.getText() == null || emailField.getText().isBlank()) emailField.requestFocus();
+            else passwordField.requestFocus();
+        });
+    }
+
     @FXML
     public void onTogglePassword() {
         boolean show = showPasswordBtn.isSelected();
@@ -58,15 +69,7 @@ public class LoginController {
     @FXML
     public void onGoRegister() {
         try {
-            var url = getClass().getResource("/com/osman/vssfx/ui/views/RegisterView.fxml");
-            if (url == null) throw new IllegalStateException("RegisterView.fxml bulunamadı!");
-
-            Parent registerRoot = FXMLLoader.load(url);
-
-            var scene = loginBtn.getScene();
-            scene.setRoot(registerRoot);
-
-            ThemeManager.apply(scene, ThemeManager.loadTheme());
+            AppNavigator.show(AppNavigator.View.REGISTER);
         } catch (Exception e) {
             e.printStackTrace();
             msgLabel.setText("Kayıt ekranı açılamadı: " + e.getMessage());
@@ -100,15 +103,8 @@ public class LoginController {
 
         task.setOnSucceeded(ev -> {
             try {
-                var url = getClass().getResource("/com/osman/vssfx/ui/views/MainView.fxml");
-                if (url == null) throw new IllegalStateException("MainView.fxml bulunamadı!");
-                Parent mainRoot = FXMLLoader.load(url);
-
-                var scene = loginBtn.getScene();
-                scene.setRoot(mainRoot);
-
-                ThemeManager.apply(scene, ThemeManager.loadTheme());
-
+                // ana ekran oturuma ait: her girişte yeniden yüklenir
+                AppNavigator.show(AppNavigator.View.MAIN);
             } catch (Exception ex) {
                 ex.printStackTrace();
                 msgLabel.setText("Ana ekran yüklenemedi: " + ex.getMessage());
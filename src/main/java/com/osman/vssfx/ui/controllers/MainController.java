@@ -1,21 +1,42 @@
 package com.osman.vssfx.ui.controllers;
 
 import com.osman.vssfx.auth.SessionContext;
+import com.osman.vssfx.config.AppConfig;
+import com.osman.vssfx.ui.AppNavigator;
 import com.osman.vssfx.ui.ThemeManager;
+import com.osman.vssfx.ui.ViewState;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.Tab;
+import javafx.scene.control.TabPane;
+import javafx.scene.control.TableView;
+import javafx.scene.input.KeyCombination;
+import javafx.util.Duration;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
 
 public class MainController {
 
+    private static final String VIEWS = "/com/osman/vssfx/ui/views/";
+    private static final KeyCombination DIAGNOSTICS_KEY = KeyCombination.keyCombination("Shortcut+Shift+D");
+
     @FXML private ComboBox<String> themeBox;
+    @FXML private TabPane tabs;
+
+    private Tab diagnosticsTab;
 
     @FXML
     public void initialize() {
         // Login kontrolü: oturum yoksa LoginView'e dön
         if (!SessionContext.isLoggedIn()) {
-            goToLogin();
+            Platform.runLater(this::goToLogin); // bu görünüm henüz sahneye konmadı
             return;
         }
 
@@ -33,9 +54,100 @@ public class MainController {
             var scene = themeBox.getScene();
             if (scene == null) return;
 
-            ThemeManager.apply(scene, t);
-            ThemeManager.saveTheme(t);
+            ThemeManager.apply(scene, t); // seçimi de kaydeder
+        });
+
+        // son açık sekme; yükleme dinleyicisinden önce, sadece o sekme yüklensin
+        ViewState.bindSelectedTab(tabs, "main.tab");
+
+        // Sekmeler ilk seçildiklerinde yüklenir
+        tabs.getSelectionModel().selectedItemProperty().addListener((obs, oldT, t) -> ensureLoaded(t));
+        ensureLoaded(tabs.getSelectionModel().getSelectedItem());
+
+        // gizli tanılama sekmesi: Ctrl+Shift+D aç/kapa; tüm firmaların metrikleri, sadece yönetici
+        if (SessionContext.isAdmin()) {
+            tabs.sceneProperty().addListener((obs, oldS, newS) -> {
+                if (oldS != null) oldS.getAccelerators().remove(DIAGNOSTICS_KEY);
+                if (newS != null) newS.getAccelerators().put(DIAGNOSTICS_KEY, this::toggleDiagnostics);
+            });
+            if (AppConfig.showDiagnostics()) toggleDiagnostics();
+        }
+
+        if (AppConfig.prewarmTabs()) {
+            tabs.sceneProperty().addListener((obs, oldS, newS) -> {
+                if (oldS == null && newS != null) schedulePrewarm();
+            });
+        }
+    }
+
+    private void ensureLoaded(Tab tab) {
+        if (tab == null || tab.getContent() != null) return;
+        if (!(tab.getUserData() instanceof String view)) return;
+
+        try {
+            var url = getClass().getResource(VIEWS + view);
+            if (url == null) throw new IllegalStateException(view + " bulunamadı!");
+
+            Parent content = FXMLLoader.load(url);
+            bindTables(content, view);
+            tab.setContent(content);
+        } catch (Exception e) {
+            e.printStackTrace();
+            tab.setContent(new Label("Sekme yüklenemedi: " + e.getMessage()));
+        }
+    }
+
+    /** Kolon genişlikleri ve sıralama: anahtar görünüm adı + tablonun fx:id'si. */
+    private static void bindTables(Parent content, String view) {
+        String prefix = "table." + view.replace(".fxml", "");
+        for (var node : content.lookupAll(".table-view")) {
+            if (node instanceof TableView<?> table && table.getId() != null) {
+                ViewState.bindTable(table, prefix + "." + table.getId());
+            }
+        }
+    }
+
+    /** Her açılışta yeni sekme: kapatılınca içindeki yenileme durur. */
+    private void toggleDiagnostics() {
+        if (!SessionContext.isAdmin()) return;
+        if (diagnosticsTab != null) {
+            tabs.getTabs().remove(diagnosticsTab);
+            diagnosticsTab = null;
+            return;
+        }
+        diagnosticsTab = new Tab("Tanılama");
+        diagnosticsTab.setUserData("DiagnosticsView.fxml");
+        tabs.getTabs().add(diagnosticsTab);
+        tabs.getSelectionModel().select(diagnosticsTab);
+    }
+
+    /**
+     * Görünen sekme çizildikten sonra diğerlerini tek tek, aralarda FX thread'ini
+     * bırakarak yükler; kullanıcı o sekmeye geçtiğinde veriler hazır olur. Ağır görünümler
+     * (rapor küpü, panel, hatırlatmalar) her girişte yüklenmesin diye atlanır.
+     */
+    private void schedulePrewarm() {
+        Set<String> skip = AppConfig.prewarmSkip();
+        Deque<Tab> pending = new ArrayDeque<>();
+        for (Tab t : tabs.getTabs()) {
+            if (t.getContent() == null && !skip.contains(t.getUserData())) pending.add(t);
+        }
+        if (pending.isEmpty()) return;
+
+        PauseTransition step = new PauseTransition(Duration.millis(AppConfig.prewarmDelayMs()));
+        step.setOnFinished(e -> {
+            if (tabs.getScene() == null) return; // çıkış yapıldı
+
+            Tab next = pending.poll();
+            if (next == null) return;
+            ensureLoaded(next);
+
+            if (!pending.isEmpty()) {
+                step.setDuration(Duration.millis(150));
+                step.playFromStart();
+            }
         });
+        step.play();
     }
 
     @FXML
@@ -46,18 +158,8 @@ public class MainController {
 
     private void goToLogin() {
         try {
-            var scene = (themeBox != null) ? themeBox.getScene() : null;
-            if (scene == null) return;
-
-            var url = getClass().getResource("/com/osman/vssfx/ui/views/LoginView.fxml");
-            if (url == null) throw new IllegalStateException("LoginView.fxml bulunamadı!");
-
-            Parent loginRoot = FXMLLoader.load(url);
-            scene.setRoot(loginRoot);
-
-            // tema login ekranına da uygulansın
-            ThemeManager.apply(scene, ThemeManager.loadTheme());
-
+            // giriş ekranı önbellekten gelir; tema sahnede olduğu için tekrar uygulanmaz
+            AppNavigator.show(AppNavigator.View.LOGIN);
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -1,10 +1,17 @@
 package com.osman.vssfx.ui.controllers;
 
 import com.osman.vssfx.auth.SessionContext;
+import com.osman.vssfx.dao.ExportDAO;
 import com.osman.vssfx.dao.VehicleDAO;
+import com.osman.vssfx.events.EventBus;
+import com.osman.vssfx.events.RowChange;
+import com.osman.vssfx.export.TabularWriter;
 import com.osman.vssfx.model.Vehicle;
 import com.osman.vssfx.dao.MaintenanceDAO;
 import com.osman.vssfx.model.Maintenance;
+import com.osman.vssfx.ui.ExportRunner;
+import com.osman.vssfx.ui.RowPatcher;
+import com.osman.vssfx.ui.UiExecutor;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -13,16 +20,30 @@ import javafx.scene.control.cell.PropertyValueFactory;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
 
 public class MaintenanceController {
 
     private final VehicleDAO vehicleDAO = new VehicleDAO();
     private final MaintenanceDAO maintenanceDAO = new MaintenanceDAO();
+    private final ExportDAO exportDAO = new ExportDAO();
+    private final UiExecutor bg = new UiExecutor();
 
     private final ObservableList<Vehicle> vehicles = FXCollections.observableArrayList();
     private final ObservableList<Maintenance> master = FXCollections.observableArrayList();
 
+    private final RowPatcher<Vehicle> vehiclePatcher = new RowPatcher<>(vehicles, Vehicle::getVehicleId,
+            (a, b) -> Long.compare(b.getVehicleId(), a.getVehicleId()));
+    // findByVehicle ile aynı sıra: maint_date DESC, maint_id DESC
+    private final RowPatcher<Maintenance> maintenancePatcher = new RowPatcher<>(master, Maintenance::getMaintId,
+            Comparator.comparing(Maintenance::getMaintDate).thenComparing(Maintenance::getMaintId).reversed());
+    private boolean patchingVehicles;
+    private ExportRunner export;
+
     @FXML private ComboBox<Vehicle> vehicleBox;
+    @FXML private ProgressIndicator loadingSpinner;
+    @FXML private ProgressBar exportProgress;
 
     @FXML private TableView<Maintenance> table;
     @FXML private TableColumn<Maintenance, Long> colId;
@@ -57,6 +78,7 @@ public class MaintenanceController {
         });
 
         vehicleBox.valueProperty().addListener((obs, oldV, v) -> {
+            if (patchingVehicles) return; // aynı araç, satırı yenilendi
             onClear();
             if (v != null) reloadMaintenance(v.getVehicleId());
             else master.clear();
@@ -87,6 +109,18 @@ public class MaintenanceController {
                 c.getControlNewText().matches("\\d{0,10}(\\.\\d{0,2})?") ? c : null
         ));
 
+        // DB işlemleri arka planda; görünüm sahneden çıkınca iptal
+        loadingSpinner.visibleProperty().bind(bg.busyProperty());
+        loadingSpinner.managedProperty().bind(bg.busyProperty());
+        bg.cancelWhenDetached(table);
+        export = new ExportRunner(bg, exportProgress, this::msg);
+
+        // Araç KM'i bakım eklenince tetikleyiciyle değişir; diğer sekmelerdeki değişiklikler de buraya düşer
+        EventBus.Subscription vehicleChanges = EventBus.subscribe(Vehicle.class, this::onVehicleChanges);
+        EventBus.Subscription maintenanceChanges = EventBus.subscribe(Maintenance.class, this::onMaintenanceChanges);
+        bg.onDetached(vehicleChanges::close);
+        bg.onDetached(maintenanceChanges::close);
+
         reloadVehicles();
     }
 
@@ -104,48 +138,144 @@ public class MaintenanceController {
     }
 
     private void reloadVehicles() {
+        long tid;
         try {
-            vehicles.setAll(vehicleDAO.findAllByTenant(tenantId()));
-            if (!vehicles.isEmpty()) vehicleBox.getSelectionModel().selectFirst();
-            msg("Araçlar yüklendi: " + vehicles.size());
+            tid = tenantId();
         } catch (Exception e) {
-            e.printStackTrace();
             msg("Araçlar yüklenemedi: " + e.getMessage());
+            return;
         }
+
+        bg.submit("vehicles", () -> vehicleDAO.findAllByTenant(tid), list -> {
+            Vehicle current = vehicleBox.getValue();
+            vehicles.setAll(list);
+
+            // seçili araç hâlâ varsa seçili kalsın
+            Vehicle keep = current == null ? null : vehicles.stream()
+                    .filter(x -> x.getVehicleId() == current.getVehicleId())
+                    .findFirst().orElse(null);
+            if (keep != null) vehicleBox.setValue(keep);
+            else if (!vehicles.isEmpty()) vehicleBox.getSelectionModel().selectFirst();
+            msg("Araçlar yüklendi: " + vehicles.size());
+        }, e -> fail("Araçlar yüklenemedi: ", e));
     }
 
+    // Araç değişince önceki araç sorgusu iptal edilir, sonucu yok sayılır
     private void reloadMaintenance(long vehicleId) {
+        long tid;
         try {
-            master.setAll(maintenanceDAO.findByVehicle(tenantId(), vehicleId));
-            msg("Bakım kayıtları yüklendi: " + master.size());
+            tid = tenantId();
         } catch (Exception e) {
-            e.printStackTrace();
             msg("Bakım kayıtları yüklenemedi: " + e.getMessage());
+            return;
+        }
+
+        bg.submit("maintenance", () -> maintenanceDAO.findByVehicle(tid, vehicleId), list -> {
+            master.setAll(list);
+            msg("Bakım kayıtları yüklendi: " + master.size());
+        }, e -> fail("Bakım kayıtları yüklenemedi: ", e));
+    }
+
+    private void onVehicleChanges(List<RowChange<Vehicle>> changes) {
+        Long tid = SessionContext.tenantId();
+        if (tid == null) return;
+
+        List<RowChange<Vehicle>> mine = changes.stream().filter(ch -> ch.tenantId() == tid).toList();
+        if (mine.isEmpty()) return;
+
+        Vehicle current = vehicleBox.getValue();
+        Vehicle same = null;
+        boolean patched;
+        patchingVehicles = true;
+        try {
+            patched = vehiclePatcher.apply(mine, v -> true);
+            if (patched && current != null) {
+                same = vehicles.stream()
+                        .filter(v -> v.getVehicleId() == current.getVehicleId())
+                        .findFirst().orElse(null);
+                vehicleBox.setValue(same);
+            }
+        } finally {
+            patchingVehicles = false;
+        }
+
+        if (!patched) {
+            reloadVehicles();
+        } else if (current != null && same == null) {
+            // seçili araç silindi
+            onClear();
+            master.clear();
+            if (!vehicles.isEmpty()) vehicleBox.getSelectionModel().selectFirst();
+        }
+    }
+
+    private void onMaintenanceChanges(List<RowChange<Maintenance>> changes) {
+        Long tid = SessionContext.tenantId();
+        Vehicle v = vehicleBox.getValue();
+        if (tid == null || v == null) return;
+
+        List<RowChange<Maintenance>> mine = changes.stream().filter(ch -> ch.tenantId() == tid).toList();
+        if (mine.isEmpty()) return;
+
+        if (!maintenancePatcher.apply(mine, m -> m.getVehicleId() == v.getVehicleId())) {
+            reloadMaintenance(v.getVehicleId());
         }
     }
 
     @FXML
     public void onRefresh() {
+        // "Yenile" önbelleği atlar
+        Long tid = SessionContext.tenantId();
+        if (tid != null) vehicleDAO.invalidateCache(tid);
         reloadVehicles();
         Vehicle v = vehicleBox.getValue();
         if (v != null) reloadMaintenance(v.getVehicleId());
     }
 
+    @FXML
+    public void onExportCsv() {
+        exportHistory(TabularWriter.Format.CSV);
+    }
+
+    @FXML
+    public void onExportXlsx() {
+        exportHistory(TabularWriter.Format.XLSX);
+    }
+
+    // Seçili araç değil, tüm araçların bakım geçmişi (vw_maintenance_history)
+    private void exportHistory(TabularWriter.Format format) {
+        long tid;
+        try {
+            tid = tenantId();
+        } catch (Exception e) {
+            msg(e.getMessage());
+            return;
+        }
+
+        export.start(table.getScene().getWindow(), "bakim_gecmisi", "Bakım Geçmişi", format,
+                () -> exportDAO.countMaintenance(tid),
+                (out, progress) -> exportDAO.exportMaintenanceHistory(tid, out, progress));
+    }
+
     @FXML
     public void onAdd() {
         Vehicle v = vehicleBox.getValue();
         if (v == null) { msg("Önce araç seçin."); return; }
 
+        Maintenance m;
+        long tid;
         try {
-            Maintenance m = readFormForInsert(v.getVehicleId());
-            long id = maintenanceDAO.insert(tenantId(), m);
-            msg("Eklendi. ID=" + id);
-            reloadMaintenance(v.getVehicleId());
-            onClear();
+            m = readFormForInsert(v.getVehicleId());
+            tid = tenantId();
         } catch (Exception e) {
-            e.printStackTrace();
             msg("Ekleme başarısız: " + e.getMessage());
+            return;
         }
+
+        bg.submit(null, () -> maintenanceDAO.insert(tid, m), id -> {
+            onClear();
+            msg("Eklendi. ID=" + id);
+        }, e -> fail("Ekleme başarısız: ", e));
     }
 
     @FXML
@@ -156,15 +286,19 @@ public class MaintenanceController {
         Maintenance selected = table.getSelectionModel().getSelectedItem();
         if (selected == null) { msg("Önce bir kayıt seçin."); return; }
 
+        Maintenance m;
+        long tid;
         try {
-            Maintenance m = readFormForUpdate(selected, v.getVehicleId());
-            maintenanceDAO.update(tenantId(), m);
-            msg("Güncellendi.");
-            reloadMaintenance(v.getVehicleId());
+            m = readFormForUpdate(selected, v.getVehicleId());
+            tid = tenantId();
         } catch (Exception e) {
-            e.printStackTrace();
             msg("Güncelleme başarısız: " + e.getMessage());
+            return;
         }
+
+        bg.submit(null, () -> { maintenanceDAO.update(tid, m); return null; }, x -> {
+            msg("Güncellendi.");
+        }, e -> fail("Güncelleme başarısız: ", e));
     }
 
     @FXML
@@ -175,26 +309,23 @@ public class MaintenanceController {
         Maintenance selected = table.getSelectionModel().getSelectedItem();
         if (selected == null) { msg("Önce bir kayıt seçin."); return; }
 
-        try {
-            Alert a = new Alert(Alert.AlertType.CONFIRMATION);
-            a.setTitle("Silme Onayı");
-            a.setHeaderText("Seçili bakım kaydı silinsin mi?");
-            a.setContentText("Bu işlem geri alınamaz.");
+        Alert a = new Alert(Alert.AlertType.CONFIRMATION);
+        a.setTitle("Silme Onayı");
+        a.setHeaderText("Seçili bakım kaydı silinsin mi?");
+        a.setContentText("Bu işlem geri alınamaz.");
 
-            ButtonType ok = new ButtonType("Evet", ButtonBar.ButtonData.OK_DONE);
-            ButtonType cancel = new ButtonType("Vazgeç", ButtonBar.ButtonData.CANCEL_CLOSE);
-            a.getButtonTypes().setAll(ok, cancel);
+        ButtonType ok = new ButtonType("Evet", ButtonBar.ButtonData.OK_DONE);
+        ButtonType cancel = new ButtonType("Vazgeç", ButtonBar.ButtonData.CANCEL_CLOSE);
+        a.getButtonTypes().setAll(ok, cancel);
 
-            if (a.showAndWait().orElse(cancel) != ok) return;
+        if (a.showAndWait().orElse(cancel) != ok) return;
 
-            maintenanceDAO.delete(tenantId(), selected.getMaintId());
-            msg("Silindi.");
-            reloadMaintenance(v.getVehicleId());
+        long tid = tenantId();
+        long maintId = selected.getMaintId();
+        bg.submit(null, () -> { maintenanceDAO.delete(tid, maintId); return null; }, x -> {
             onClear();
-        } catch (Exception e) {
-            e.printStackTrace();
-            msg("Silme başarısız: " + e.getMessage());
-        }
+            msg("Silindi.");
+        }, e -> fail("Silme başarısız: ", e));
     }
 
     @FXML
@@ -262,4 +393,9 @@ public class MaintenanceController {
     }
 
     private void msg(String s) { msgLabel.setText(s == null ? "" : s); }
+
+    private void fail(String prefix, Throwable e) {
+        e.printStackTrace();
+        msg(prefix + e.getMessage());
+    }
 }
@@ -0,0 +1,128 @@
+package com.osman.vssfx.ui.controllers;
+
+import com.osman.vssfx.auth.SessionContext;
+import com.osman.vssfx.dao.QrTagDAO;
+import com.osman.vssfx.qr.QrTagMinter;
+import com.osman.vssfx.ui.UiExecutor;
+import javafx.concurrent.Task;
+import javafx.fxml.FXML;
+import javafx.scene.control.*;
+import javafx.stage.DirectoryChooser;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+public class QrTagsController {
+
+    private final QrTagDAO dao = new QrTagDAO();
+    private final UiExecutor bg = new UiExecutor();
+
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+
+    @FXML private ProgressIndicator loadingSpinner;
+    @FXML private Label newLabel, activatedLabel, revokedLabel;
+
+    @FXML private TextField countField;
+    @FXML private Button mintButton;
+    @FXML private ProgressBar mintProgress;
+    @FXML private Label msgLabel;
+
+    @FXML
+    public void initialize() {
+        countField.setText("1000");
+
+        loadingSpinner.visibleProperty().bind(bg.busyProperty());
+        loadingSpinner.managedProperty().bind(bg.busyProperty());
+        bg.cancelWhenDetached(countField);
+
+        mintProgress.setVisible(false);
+        mintProgress.setManaged(false);
+
+        reload();
+    }
+
+    @FXML
+    public void onRefresh() {
+        reload();
+    }
+
+    private void reload() {
+        Long tid = SessionContext.tenantId();
+        if (tid == null) {
+            msg("Oturum bulunamadı. Lütfen tekrar giriş yapın.");
+            return;
+        }
+
+        bg.submit("counts", () -> dao.countByStatus(tid), this::showCounts, e -> fail("Sayılar yüklenemedi: ", e));
+    }
+
+    private void showCounts(Map<QrTagDAO.Status, Long> counts) {
+        newLabel.setText(String.valueOf(counts.get(QrTagDAO.Status.NEW)));
+        activatedLabel.setText(String.valueOf(counts.get(QrTagDAO.Status.ACTIVATED)));
+        revokedLabel.setText(String.valueOf(counts.get(QrTagDAO.Status.REVOKED)));
+    }
+
+    @FXML
+    public void onMint() {
+        Long tid = SessionContext.tenantId();
+        if (tid == null) {
+            msg("Oturum bulunamadı. Lütfen tekrar giriş yapın.");
+            return;
+        }
+
+        int count;
+        try {
+            count = Integer.parseInt(countField.getText().trim());
+        } catch (NumberFormatException e) {
+            msg("Adet sayı olmalı.");
+            return;
+        }
+        if (count < 1 || count > QrTagMinter.MAX_BATCH) {
+            msg("Adet 1 ile " + QrTagMinter.MAX_BATCH + " arasında olmalı.");
+            return;
+        }
+
+        DirectoryChooser dc = new DirectoryChooser();
+        dc.setTitle("Baskı sayfalarının kaydedileceği klasör");
+        File parent = dc.showDialog(countField.getScene().getWindow());
+        if (parent == null) return;
+
+        Path folder = parent.toPath().resolve("qr-etiketler_" + STAMP.format(LocalDateTime.now()));
+        msg("Etiketler üretiliyor...");
+        mintButton.setDisable(true);
+
+        QrTagMinter minter = QrTagMinter.fromConfig();
+        Task<QrTagMinter.Result> task = bg.submit(null,
+                progress -> minter.mint(tid, count, folder, progress::update),
+                r -> {
+                    done();
+                    msg(r.tags() + " etiket oluşturuldu, " + r.pages() + " sayfa → " + r.folder()
+                            + (r.moved() ? "" : " (klasör taşınamadı; sayfaları bu geçici klasörden alın, silmeyin)"));
+                    reload();
+                }, e -> {
+                    done();
+                    fail("Etiketler oluşturulamadı: ", e);
+                });
+
+        mintProgress.progressProperty().bind(task.progressProperty());
+        mintProgress.setVisible(true);
+        mintProgress.setManaged(true);
+    }
+
+    private void done() {
+        mintButton.setDisable(false);
+        mintProgress.progressProperty().unbind();
+        mintProgress.setVisible(false);
+        mintProgress.setManaged(false);
+    }
+
+    private void msg(String s) { msgLabel.setText(s == null ? "" : s); }
+
+    private void fail(String prefix, Throwable e) {
+        e.printStackTrace();
+        msg(prefix + e.getMessage());
+    }
+}
@@ -1,15 +1,13 @@
 package com.osman.vssfx.ui.controllers;
 
 import com.osman.vssfx.auth.AuthService;
-import com.osman.vssfx.ui.ThemeManager;
+import com.osman.vssfx.ui.AppNavigator;
 import javafx.application.Platform;
 import javafx.concurrent.Task;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
 import javafx.scene.control.*;
 
-public class RegisterController {
+public class RegisterController implements AppNavigator.Reusable {
 
     @FXML private TextField companyField;
     @FXML private TextField fullNameField;
@@ -39,6 +37,15 @@ public class RegisterController {
         password2Field.setOnAction(e -> onRegister());
     }
 
+    /** Form tekrar açıldığında şifreler ve mesajlar kalmasın. */
+    @Override
+    public void onShown() {
+        passwordField.clear();
+        password2Field.clear();
+        clearMessages();
+        setLoading(false);
+    }
+
     @FXML
     public void onTogglePassword() {
         boolean show = showPasswordBtn.isSelected();
@@ -60,15 +67,7 @@ public class RegisterController {
     @FXML
     public void onBackToLogin() {
         try {
-            var url = getClass().getResource("/com/osman/vssfx/ui/views/LoginView.fxml");
-            if (url == null) throw new IllegalStateException("LoginView.fxml bulunamadı!");
-
-            Parent loginRoot = FXMLLoader.load(url);
-
-            var scene = registerBtn.getScene();
-            scene.setRoot(loginRoot);
-
-            ThemeManager.apply(scene, ThemeManager.loadTheme());
+            AppNavigator.show(AppNavigator.View.LOGIN);
         } catch (Exception e) {
             e.printStackTrace();
             msg("Giriş ekranına dönülemedi: " + e.getMessage());
@@ -0,0 +1,347 @@
+package com.osman.vssfx.ui.controllers;
+
+import com.osman.vssfx.auth.SessionContext;
+import com.osman.vssfx.dao.ReminderDAO;
+import com.osman.vssfx.dao.VehicleDAO;
+import com.osman.vssfx.events.EventBus;
+import com.osman.vssfx.events.RowChange;
+import com.osman.vssfx.model.Reminder;
+import com.osman.vssfx.model.ReminderStatus;
+import com.osman.vssfx.model.Vehicle;
+import com.osman.vssfx.ui.RowPatcher;
+import com.osman.vssfx.ui.UiExecutor;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.fxml.FXML;
+import javafx.scene.control.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.List;
+
+public class RemindersController {
+
+    private static final int LIMIT = 500;
+
+    private final ReminderDAO dao = new ReminderDAO();
+    private final VehicleDAO vehicleDAO = new VehicleDAO();
+    private final UiExecutor bg = new UiExecutor();
+
+    private final ObservableList<Reminder> master = FXCollections.observableArrayList();
+    private final ObservableList<Vehicle> vehicles = FXCollections.observableArrayList();
+
+    // findByTenant ile aynı sıra: remind_at DESC, reminder_id DESC
+    private final RowPatcher<Reminder> patcher = new RowPatcher<>(master, Reminder::getReminderId,
+            Comparator.comparing(Reminder::getRemindAt).thenComparing(Reminder::getReminderId).reversed());
+
+    @FXML private ProgressIndicator loadingSpinner;
+
+    @FXML private TableView<Reminder> table;
+    @FXML private TableColumn<Reminder, String> colAt;
+    @FXML private TableColumn<Reminder, String> colPlate;
+    @FXML private TableColumn<Reminder, String> colCustomer;
+    @FXML private TableColumn<Reminder, String> colTitle;
+    @FXML private TableColumn<Reminder, String> colChannels;
+    @FXML private TableColumn<Reminder, String> colStatus;
+    @FXML private TableColumn<Reminder, String> colError;
+
+    @FXML private ComboBox<Vehicle> vehicleBox;
+    @FXML private DatePicker datePicker;
+    @FXML private TextField timeField, titleField;
+    @FXML private TextArea messageArea;
+    @FXML private CheckBox emailCheck, smsCheck;
+    @FXML private Label msgLabel;
+
+    private static final DateTimeFormatter DT = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
+    private static final DateTimeFormatter HM = DateTimeFormatter.ofPattern("HH:mm");
+
+    @FXML
+    public void initialize() {
+        colAt.setCellValueFactory(c -> new SimpleStringProperty(
+                c.getValue().getRemindAt() == null ? "" : DT.format(c.getValue().getRemindAt())));
+        colPlate.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().getPlateNo()));
+        colCustomer.setCellValueFactory(c -> new SimpleStringProperty(
+                c.getValue().getCustomerName() == null ? "-" : c.getValue().getCustomerName()));
+        colTitle.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().getTitle()));
+        colChannels.setCellValueFactory(c -> new SimpleStringProperty(channelsText(c.getValue())));
+        colStatus.setCellValueFactory(c -> new SimpleStringProperty(String.valueOf(c.getValue().getStatus())));
+        colError.setCellValueFactory(c -> new SimpleStringProperty(
+                c.getValue().getLastError() == null ? "" : c.getValue().getLastError()));
+
+        table.setItems(master);
+        table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+        table.getSelectionModel().selectedItemProperty().addListener((obs, oldV, r) -> {
+            if (r != null) fillForm(r);
+        });
+
+        vehicleBox.setItems(vehicles);
+        vehicleBox.setCellFactory(cb -> new ListCell<>() {
+            @Override protected void updateItem(Vehicle v, boolean empty) {
+                super.updateItem(v, empty);
+                setText(empty || v == null ? null : formatVehicle(v));
+            }
+        });
+        vehicleBox.setButtonCell(new ListCell<>() {
+            @Override protected void updateItem(Vehicle v, boolean empty) {
+                super.updateItem(v, empty);
+                setText(empty || v == null ? null : formatVehicle(v));
+            }
+        });
+
+        timeField.setTextFormatter(new TextFormatter<>(c ->
+                c.getControlNewText().matches("\\d{0,2}(:\\d{0,2})?") ? c : null
+        ));
+
+        loadingSpinner.visibleProperty().bind(bg.busyProperty());
+        loadingSpinner.managedProperty().bind(bg.busyProperty());
+        bg.cancelWhenDetached(table);
+
+        // Dağıtıcı gönderince durum satırı burada güncellenir
+        EventBus.Subscription reminderChanges = EventBus.subscribe(Reminder.class, this::onReminderChanges);
+        EventBus.Subscription vehicleChanges = EventBus.subscribe(Vehicle.class, this::onVehicleChanges);
+        bg.onDetached(reminderChanges::close);
+        bg.onDetached(vehicleChanges::close);
+
+        onClear();
+        reloadVehicles();
+        reload();
+    }
+
+    private long tenantId() {
+        Long tid = SessionContext.tenantId();
+        if (tid == null) throw new IllegalStateException("Oturum bulunamadı. Lütfen tekrar giriş yapın.");
+        return tid;
+    }
+
+    private void reload() {
+        long tid;
+        try {
+            tid = tenantId();
+        } catch (Exception e) {
+            msg("Veritabanı hatası: " + e.getMessage());
+            return;
+        }
+
+        bg.submit("reload", () -> dao.findByTenant(tid, LIMIT), list -> {
+            master.setAll(list);
+            msg("Yüklendi: " + master.size());
+        }, e -> fail("Veritabanı hatası: ", e));
+    }
+
+    private void reloadVehicles() {
+        long tid;
+        try {
+            tid = tenantId();
+        } catch (Exception e) {
+            msg("Araçlar yüklenemedi: " + e.getMessage());
+            return;
+        }
+
+        bg.submit("vehicles", () -> vehicleDAO.findAllByTenant(tid), list -> {
+            Vehicle current = vehicleBox.getValue();
+            vehicles.setAll(list);
+            if (current != null) selectVehicle(current.getVehicleId());
+        }, e -> fail("Araçlar yüklenemedi: ", e));
+    }
+
+    private void onReminderChanges(List<RowChange<Reminder>> changes) {
+        Long tid = SessionContext.tenantId();
+        if (tid == null) return;
+
+        List<RowChange<Reminder>> mine = changes.stream().filter(ch -> ch.tenantId() == tid).toList();
+        if (mine.isEmpty()) return;
+
+        Reminder selected = table.getSelectionModel().getSelectedItem();
+        if (!patcher.apply(mine, r -> true)) {
+            reload();
+            return;
+        }
+
+        if (selected != null && table.getSelectionModel().getSelectedItem() != selected) {
+            master.stream()
+                    .filter(r -> r.getReminderId().equals(selected.getReminderId()))
+                    .findFirst()
+                    .ifPresent(r -> table.getSelectionModel().select(r));
+        }
+    }
+
+    // Plaka değişikliği / yeni araç: liste önbellekten gelir, yeniden çekmek ucuz
+    private void onVehicleChanges(List<RowChange<Vehicle>> changes) {
+        Long tid = SessionContext.tenantId();
+        if (tid == null || changes.stream().noneMatch(ch -> ch.tenantId() == tid)) return;
+        reloadVehicles();
+    }
+
+    @FXML
+    public void onRefresh() {
+        Long tid = SessionContext.tenantId();
+        if (tid != null) vehicleDAO.invalidateCache(tid);
+        reloadVehicles();
+        reload();
+    }
+
+    @FXML
+    public void onAdd() {
+        Reminder r;
+        long tid;
+        try {
+            r = new Reminder();
+            applyFormTo(r);
+            tid = tenantId();
+        } catch (Exception e) {
+            msg("Ekleme başarısız: " + e.getMessage());
+            return;
+        }
+
+        bg.submit(null, () -> dao.insert(tid, r), id -> {
+            onClear();
+            msg("Eklendi. ID=" + id);
+        }, e -> fail("Ekleme başarısız: ", e));
+    }
+
+    @FXML
+    public void onUpdate() {
+        Reminder selected = table.getSelectionModel().getSelectedItem();
+        if (selected == null) { msg("Önce bir satır seçin."); return; }
+
+        Reminder r;
+        long tid;
+        try {
+            r = new Reminder();
+            r.setReminderId(selected.getReminderId());
+            applyFormTo(r);
+            tid = tenantId();
+        } catch (Exception e) {
+            msg("Güncelleme başarısız: " + e.getMessage());
+            return;
+        }
+
+        bg.submit(null, () -> { dao.update(tid, r); return null; }, x -> {
+            msg("Güncellendi.");
+        }, e -> fail("Güncelleme başarısız: ", e));
+    }
+
+    @FXML
+    public void onCancelReminder() {
+        Reminder selected = table.getSelectionModel().getSelectedItem();
+        if (selected == null) { msg("Önce bir satır seçin."); return; }
+
+        long tid = tenantId();
+        long id = selected.getReminderId();
+        bg.submit(null, () -> { dao.cancel(tid, id); return null; }, x -> {
+            msg("İptal edildi.");
+        }, e -> fail("İptal başarısız: ", e));
+    }
+
+    @FXML
+    public void onDelete() {
+        Reminder selected = table.getSelectionModel().getSelectedItem();
+        if (selected == null) { msg("Önce bir satır seçin."); return; }
+
+        Alert a = new Alert(Alert.AlertType.CONFIRMATION);
+        a.setTitle("Silme Onayı");
+        a.setHeaderText("Seçili hatırlatma silinsin mi?");
+        a.setContentText("Bu işlem geri alınamaz.");
+
+        ButtonType ok = new ButtonType("Evet", ButtonBar.ButtonData.OK_DONE);
+        ButtonType cancel = new ButtonType("Vazgeç", ButtonBar.ButtonData.CANCEL_CLOSE);
+        a.getButtonTypes().setAll(ok, cancel);
+
+        if (a.showAndWait().orElse(cancel) != ok) return;
+
+        long tid = tenantId();
+        long id = selected.getReminderId();
+        bg.submit(null, () -> { dao.delete(tid, id); return null; }, x -> {
+            onClear();
+            msg("Silindi.");
+        }, e -> fail("Silme başarısız: ", e));
+    }
+
+    @FXML
+    public void onClear() {
+        datePicker.setValue(LocalDate.now().plusDays(1));
+        timeField.setText("09:00");
+        titleField.clear();
+        messageArea.clear();
+        emailCheck.setSelected(true);
+        smsCheck.setSelected(false);
+        table.getSelectionModel().clearSelection();
+        msg("");
+    }
+
+    private void applyFormTo(Reminder r) {
+        Vehicle v = vehicleBox.getValue();
+        if (v == null) throw new IllegalArgumentException("Araç seçilmedi.");
+        if (datePicker.getValue() == null) throw new IllegalArgumentException("Tarih boş olamaz.");
+
+        LocalTime time;
+        try {
+            time = LocalTime.parse(text(timeField), DateTimeFormatter.ofPattern("H:mm"));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Saat SS:dd biçiminde olmalı (ör. 09:30).");
+        }
+
+        String title = text(titleField);
+        if (title.isEmpty()) throw new IllegalArgumentException("Başlık boş olamaz.");
+
+        r.setVehicleId(v.getVehicleId());
+        r.setRemindAt(LocalDateTime.of(datePicker.getValue(), time));
+        r.setTitle(title);
+        r.setMessage(blankToNull(messageArea.getText()));
+        r.setChannelEmail(emailCheck.isSelected());
+        r.setChannelSms(smsCheck.isSelected());
+    }
+
+    private void fillForm(Reminder r) {
+        selectVehicle(r.getVehicleId());
+        datePicker.setValue(r.getRemindAt() == null ? null : r.getRemindAt().toLocalDate());
+        timeField.setText(r.getRemindAt() == null ? "" : HM.format(r.getRemindAt()));
+        titleField.setText(r.getTitle() == null ? "" : r.getTitle());
+        messageArea.setText(r.getMessage() == null ? "" : r.getMessage());
+        emailCheck.setSelected(r.isChannelEmail());
+        smsCheck.setSelected(r.isChannelSms());
+
+        if (r.getStatus() == ReminderStatus.FAILED) msg("Son hata: " + r.getLastError());
+    }
+
+    private void selectVehicle(long vehicleId) {
+        vehicles.stream()
+                .filter(v -> v.getVehicleId() == vehicleId)
+                .findFirst()
+                .ifPresent(v -> vehicleBox.setValue(v));
+    }
+
+    private static String channelsText(Reminder r) {
+        if (r.isChannelEmail() && r.isChannelSms()) return "E-posta, SMS";
+        if (r.isChannelEmail()) return "E-posta";
+        if (r.isChannelSms()) return "SMS";
+        return "";
+    }
+
+    private String formatVehicle(Vehicle v) {
+        String plate = v.getPlateNo() == null ? "" : v.getPlateNo();
+        String make  = v.getMake() == null ? "" : v.getMake();
+        String model = v.getModel() == null ? "" : v.getModel();
+        return plate + " • " + make + " " + model;
+    }
+
+    private String text(TextField f) { return (f.getText() == null) ? "" : f.getText().trim(); }
+
+    private String blankToNull(String s) {
+        if (s == null) return null;
+        String t = s.trim();
+        return t.isEmpty() ? null : t;
+    }
+
+    private void msg(String s) { msgLabel.setText(s == null ? "" : s); }
+
+    private void fail(String prefix, Throwable e) {
+        e.printStackTrace();
+        msg(prefix + e.getMessage());
+    }
+}
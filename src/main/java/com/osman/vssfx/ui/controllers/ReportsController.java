@@ -0,0 +1,194 @@
+package com.osman.vssfx.ui.controllers;
+
+import com.osman.vssfx.analytics.MaintenanceCube;
+import com.osman.vssfx.analytics.MaintenanceCube.Cell;
+import com.osman.vssfx.analytics.MaintenanceCube.Dimension;
+import com.osman.vssfx.analytics.MaintenanceCube.Slice;
+import com.osman.vssfx.auth.SessionContext;
+import com.osman.vssfx.dao.ReportDAO;
+import com.osman.vssfx.events.EventBus;
+import com.osman.vssfx.events.RowChange;
+import com.osman.vssfx.model.Customer;
+import com.osman.vssfx.model.Maintenance;
+import com.osman.vssfx.model.Vehicle;
+import com.osman.vssfx.ui.UiExecutor;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.fxml.FXML;
+import javafx.scene.control.*;
+
+import java.math.BigDecimal;
+import java.text.NumberFormat;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+
+public class ReportsController {
+
+    private final ReportDAO dao = new ReportDAO();
+    private final UiExecutor bg = new UiExecutor();
+
+    private record Pivot(List<Cell> cells, long totalCents, long micros) {}
+
+    // Detaya inme adımları; en üstteki aktif filtre
+    private record Step(Slice slice, Dimension by, String label) {}
+
+    private MaintenanceCube cube;
+    private final Deque<Step> trail = new ArrayDeque<>();
+    private long totalCents;
+
+    @FXML private ComboBox<Dimension> dimensionBox;
+    @FXML private ProgressIndicator loadingSpinner;
+    @FXML private Label trailLabel;
+
+    @FXML private TableView<Cell> table;
+    @FXML private TableColumn<Cell, String> colLabel;
+    @FXML private TableColumn<Cell, Long> colCount;
+    @FXML private TableColumn<Cell, String> colCost;
+    @FXML private TableColumn<Cell, String> colShare;
+
+    @FXML private Label msgLabel;
+
+    private static final Locale TR = Locale.forLanguageTag("tr-TR");
+
+    @FXML
+    public void initialize() {
+        colLabel.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().label()));
+        colCount.setCellValueFactory(c -> new SimpleObjectProperty<>(c.getValue().count()));
+        colCost.setCellValueFactory(c -> new SimpleStringProperty(money(c.getValue().cost())));
+        colShare.setCellValueFactory(c -> new SimpleStringProperty(totalCents == 0 ? ""
+                : String.format(TR, "%%%.1f", c.getValue().costCents() * 100.0 / totalCents)));
+
+        table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+
+        // Çift tıklama: seçili değere göre filtrele, sıradaki boyuta geç
+        table.setRowFactory(tv -> {
+            TableRow<Cell> row = new TableRow<>();
+            row.setOnMouseClicked(ev -> {
+                if (ev.getClickCount() == 2 && !row.isEmpty()) drillInto(row.getItem());
+            });
+            return row;
+        });
+
+        dimensionBox.getItems().setAll(Dimension.values());
+        dimensionBox.getSelectionModel().select(Dimension.MONTH);
+        dimensionBox.valueProperty().addListener((obs, oldV, d) -> repivot());
+
+        loadingSpinner.visibleProperty().bind(bg.busyProperty());
+        loadingSpinner.managedProperty().bind(bg.busyProperty());
+        bg.cancelWhenDetached(table);
+
+        // Küp yüklemesi pahalı: değişiklikte otomatik yükleme yok, sadece uyarı
+        EventBus.Subscription maint = EventBus.subscribe(Maintenance.class, this::onChanges);
+        EventBus.Subscription vehicles = EventBus.subscribe(Vehicle.class, this::onChanges);
+        EventBus.Subscription customers = EventBus.subscribe(Customer.class, this::onChanges);
+        bg.onDetached(maint::close);
+        bg.onDetached(vehicles::close);
+        bg.onDetached(customers::close);
+
+        reload();
+    }
+
+    private <T> void onChanges(List<RowChange<T>> changes) {
+        Long tid = SessionContext.tenantId();
+        if (tid == null || cube == null) return;
+        if (changes.stream().anyMatch(ch -> ch.tenantId() == tid)) {
+            msg("Veriler değişti. Güncel rapor için Yenile'ye basın.");
+        }
+    }
+
+    private void reload() {
+        Long tid = SessionContext.tenantId();
+        if (tid == null) {
+            msg("Oturum bulunamadı. Lütfen tekrar giriş yapın.");
+            return;
+        }
+
+        long started = System.nanoTime();
+        bg.submit("load", () -> dao.loadMaintenanceCube(tid), c -> {
+            cube = c;
+            trail.clear(); // sözlük kodları yeni küpte farklı olabilir
+            msg(String.format(TR, "Yüklendi: %,d kayıt (%d ms)", c.size(), (System.nanoTime() - started) / 1_000_000));
+            repivot();
+        }, e -> fail("Rapor yüklenemedi: ", e));
+    }
+
+    private void repivot() {
+        if (cube == null) return;
+
+        MaintenanceCube c = cube;
+        Dimension by = dimensionBox.getValue();
+        Slice slice = trail.isEmpty() ? Slice.all() : trail.peek().slice();
+
+        bg.submit("pivot", () -> {
+            long t0 = System.nanoTime();
+            List<Cell> cells = c.pivot(by, slice);
+            long micros = (System.nanoTime() - t0) / 1_000;
+
+            long total = 0;
+            for (Cell cell : cells) total += cell.costCents();
+            return new Pivot(cells, total, micros);
+        }, p -> {
+            totalCents = p.totalCents();
+            table.getItems().setAll(p.cells());
+            table.getSelectionModel().clearSelection();
+            trailLabel.setText(trailText());
+            colCost.setText("Maliyet (Σ " + money(BigDecimal.valueOf(p.totalCents(), 2)) + ")");
+            msg(String.format(TR, "%d grup · %.1f ms", p.cells().size(), p.micros() / 1000.0));
+        }, e -> fail("Rapor hesaplanamadı: ", e));
+    }
+
+    private void drillInto(Cell cell) {
+        Slice current = trail.isEmpty() ? Slice.all() : trail.peek().slice();
+        Slice next = current.with(cell.dimension(), cell.code());
+        trail.push(new Step(next, cell.dimension(), cell.dimension() + ": " + cell.label()));
+
+        Dimension nextBy = null;
+        for (Dimension d : Dimension.values()) {
+            if (!next.isFixed(d)) { nextBy = d; break; }
+        }
+
+        if (nextBy == null || nextBy == dimensionBox.getValue()) repivot();
+        else dimensionBox.getSelectionModel().select(nextBy); // listener yeniden hesaplar
+    }
+
+    private String trailText() {
+        if (trail.isEmpty()) return "Tüm bakımlar";
+
+        StringBuilder sb = new StringBuilder();
+        trail.descendingIterator().forEachRemaining(s -> {
+            if (!sb.isEmpty()) sb.append("  ›  ");
+            sb.append(s.label());
+        });
+        return sb.toString();
+    }
+
+    @FXML
+    public void onBack() {
+        if (trail.isEmpty()) return;
+
+        Step last = trail.pop();
+        if (last.by() == dimensionBox.getValue()) repivot();
+        else dimensionBox.getSelectionModel().select(last.by());
+    }
+
+    @FXML
+    public void onRefresh() {
+        reload();
+    }
+
+    private static String money(BigDecimal v) {
+        NumberFormat f = NumberFormat.getNumberInstance(TR);
+        f.setMinimumFractionDigits(2);
+        f.setMaximumFractionDigits(2);
+        return f.format(v == null ? BigDecimal.ZERO : v) + " ₺";
+    }
+
+    private void msg(String s) { msgLabel.setText(s == null ? "" : s); }
+
+    private void fail(String prefix, Throwable e) {
+        e.printStackTrace();
+        msg(prefix + e.getMessage());
+    }
+}
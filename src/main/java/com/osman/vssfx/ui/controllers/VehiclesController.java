@@ -1,24 +1,48 @@
 package com.osman.vssfx.ui.controllers;
 
 import com.osman.vssfx.auth.SessionContext;
+import com.osman.vssfx.dao.ExportDAO;
 import com.osman.vssfx.dao.VehicleDAO;
+import com.osman.vssfx.events.EventBus;
+import com.osman.vssfx.events.RowChange;
+import com.osman.vssfx.export.TabularWriter;
 import com.osman.vssfx.model.Vehicle;
 import com.osman.vssfx.model.VehicleStatus;
+import com.osman.vssfx.ui.ExportRunner;
+import com.osman.vssfx.ui.Filters;
+import com.osman.vssfx.ui.KeysetPager;
+import com.osman.vssfx.ui.RowPatcher;
+import com.osman.vssfx.ui.UiExecutor;
+import javafx.animation.PauseTransition;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.util.Duration;
+
+import java.util.List;
 
 public class VehiclesController {
 
+    private static final int PAGE_SIZE = 200;
+    private static final Duration SEARCH_DEBOUNCE = Duration.millis(250);
+
     private final VehicleDAO dao = new VehicleDAO();
+    private final UiExecutor bg = new UiExecutor();
     private final ObservableList<Vehicle> master = FXCollections.observableArrayList();
-    private FilteredList<Vehicle> filtered;
+    private final KeysetPager<Vehicle> pager = new KeysetPager<>(bg, master, Vehicle::getVehicleId, PAGE_SIZE);
+    private final PauseTransition searchDebounce = new PauseTransition(SEARCH_DEBOUNCE);
+    private final RowPatcher<Vehicle> patcher = new RowPatcher<>(master, Vehicle::getVehicleId,
+            (a, b) -> Long.compare(b.getVehicleId(), a.getVehicleId()));
+    private String activeQuery = "";
+    private final ExportDAO exportDAO = new ExportDAO();
+    private ExportRunner export;
 
     @FXML private TextField searchField;
+    @FXML private ProgressIndicator loadingSpinner;
+    @FXML private ProgressBar exportProgress;
 
     @FXML private TableView<Vehicle> table;
     @FXML private TableColumn<Vehicle, Long> colId;
@@ -112,18 +136,34 @@ public class VehiclesController {
         kmField.setTextFormatter(new TextFormatter<>(c ->
                 c.getControlNewText().matches("\\d{0,10}") ? c : null));
 
-        filtered = new FilteredList<>(master, v -> true);
-        table.setItems(filtered);
+        table.setItems(master);
 
         // Kolonlar boşluğu doldursun
         table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
 
-        searchField.textProperty().addListener((obs, oldV, q) -> applyFilter(q));
+        // Arama: yazmayı bırakınca sunucuda indeksli önek araması
+        searchDebounce.setOnFinished(e -> reload());
+        searchField.textProperty().addListener((obs, oldV, q) -> searchDebounce.playFromStart());
+
+        // DB işlemleri arka planda; görünüm sahneden çıkınca iptal
+        loadingSpinner.visibleProperty().bind(bg.busyProperty());
+        loadingSpinner.managedProperty().bind(bg.busyProperty());
+        bg.cancelWhenDetached(table);
+        export = new ExportRunner(bg, exportProgress, this::msg);
+
+        // Sayfalı yükleme: tablo sona yaklaşınca sonraki sayfa gelir
+        pager.attach(table);
+        pager.setOnPageLoaded(n -> msg("Yüklendi: " + master.size() + (pager.hasMore() ? "+" : "")));
+        pager.setOnError(e -> fail("Veritabanı hatası: ", e));
 
         table.getSelectionModel().selectedItemProperty().addListener((obs, oldV, v) -> {
             if (v != null) fillForm(v);
         });
 
+        // Yazmalardan sonra tüm listeyi çekmek yerine sadece değişen satırlar
+        EventBus.Subscription changes = EventBus.subscribe(Vehicle.class, this::onVehicleChanges);
+        bg.onDetached(changes::close);
+
         reload();
     }
 
@@ -133,42 +173,106 @@ public class VehiclesController {
         return tid;
     }
 
-    private void applyFilter(String q) {
-        String s = (q == null) ? "" : q.trim().toLowerCase();
-        filtered.setPredicate(v -> {
-            if (s.isEmpty()) return true;
-            return safe(v.getPlateNo()).contains(s)
-                    || safe(v.getMake()).contains(s)
-                    || safe(v.getModel()).contains(s);
-        });
-    }
-
-    private String safe(String x) { return x == null ? "" : x.toLowerCase(); }
-
     private void reload() {
+        searchDebounce.stop();
         try {
-            master.setAll(dao.findAllByTenant(tenantId()));
-            msg("Yüklendi: " + master.size());
+            long tid = tenantId();
+            String q = searchField.getText() == null ? "" : searchField.getText().trim();
+            activeQuery = q;
+
+            if (q.isEmpty()) pager.reset((after, limit) -> dao.findPageByTenant(tid, after, limit));
+            else pager.reset((after, limit) -> dao.searchPageByTenant(tid, q, after, limit));
         } catch (Exception e) {
             e.printStackTrace();
             msg("Veritabanı hatası: " + e.getMessage());
         }
     }
 
-    @FXML public void onRefresh() { reload(); }
+    private void onVehicleChanges(List<RowChange<Vehicle>> changes) {
+        Long tid = SessionContext.tenantId();
+        if (tid == null) return;
+
+        List<RowChange<Vehicle>> mine = changes.stream().filter(ch -> ch.tenantId() == tid).toList();
+        if (mine.isEmpty()) return;
+
+        Vehicle selected = table.getSelectionModel().getSelectedItem();
+        if (!patcher.apply(mine, this::belongsInView)) {
+            reload();
+            return;
+        }
+
+        // seçili satır yenisiyle değiştiyse seçim korunsun (form da güncellenir)
+        if (selected != null && table.getSelectionModel().getSelectedItem() != selected) {
+            master.stream()
+                    .filter(v -> v.getVehicleId() == selected.getVehicleId())
+                    .findFirst()
+                    .ifPresent(v -> table.getSelectionModel().select(v));
+        }
+    }
+
+    /** Whether a changed row would be part of what the current search has loaded so far. */
+    private boolean belongsInView(Vehicle v) {
+        if (!activeQuery.isEmpty()) {
+            String q = activeQuery;
+            boolean match = Filters.startsWithIgnoreCase(v.getPlateNo(), q)
+                    || Filters.startsWithIgnoreCase(v.getMake(), q)
+                    || Filters.startsWithIgnoreCase(v.getModel(), q);
+            if (!match) return false;
+        }
+        // sonraki sayfalarda gelecek satırı şimdiden ekleme, yoksa iki kez görünür
+        if (!pager.hasMore() || master.isEmpty()) return true;
+        return v.getVehicleId() >= master.get(master.size() - 1).getVehicleId();
+    }
+
+    @FXML
+    public void onRefresh() {
+        // "Yenile" önbelleği atlar
+        Long tid = SessionContext.tenantId();
+        if (tid != null) dao.invalidateCache(tid);
+        reload();
+    }
+
+    @FXML
+    public void onExportCsv() {
+        exportVehicles(TabularWriter.Format.CSV);
+    }
+
+    @FXML
+    public void onExportXlsx() {
+        exportVehicles(TabularWriter.Format.XLSX);
+    }
+
+    // Tablodaki sayfa değil, firmanın tüm araçları
+    private void exportVehicles(TabularWriter.Format format) {
+        long tid;
+        try {
+            tid = tenantId();
+        } catch (Exception e) {
+            msg(e.getMessage());
+            return;
+        }
+
+        export.start(table.getScene().getWindow(), "araclar", "Araçlar", format,
+                () -> exportDAO.countVehicles(tid),
+                (out, progress) -> exportDAO.exportVehicles(tid, out, progress));
+    }
 
     @FXML
     public void onAdd() {
+        Vehicle v;
+        long tid;
         try {
-            Vehicle v = readFormForInsert();
-            long id = dao.insert(tenantId(), v);
-            msg("Eklendi. ID=" + id);
-            reload();
-            onClear();
+            v = readFormForInsert();
+            tid = tenantId();
         } catch (Exception e) {
-            e.printStackTrace();
             msg("Ekleme başarısız: " + e.getMessage());
+            return;
         }
+
+        bg.submit(null, () -> dao.insert(tid, v), id -> {
+            onClear();
+            msg("Eklendi. ID=" + id);
+        }, e -> fail("Ekleme başarısız: ", e));
     }
 
     @FXML
@@ -176,15 +280,19 @@ public class VehiclesController {
         Vehicle selected = table.getSelectionModel().getSelectedItem();
         if (selected == null) { msg("Önce bir satır seçin."); return; }
 
+        Vehicle v;
+        long tid;
         try {
-            Vehicle v = readFormForUpdate(selected);
-            dao.update(tenantId(), v);
-            msg("Güncellendi.");
-            reload();
+            v = readFormForUpdate(selected);
+            tid = tenantId();
         } catch (Exception e) {
-            e.printStackTrace();
             msg("Güncelleme başarısız: " + e.getMessage());
+            return;
         }
+
+        bg.submit(null, () -> { dao.update(tid, v); return null; }, x -> {
+            msg("Güncellendi.");
+        }, e -> fail("Güncelleme başarısız: ", e));
     }
 
     @FXML
@@ -192,27 +300,24 @@ public class VehiclesController {
         Vehicle selected = table.getSelectionModel().getSelectedItem();
         if (selected == null) { msg("Önce bir satır seçin."); return; }
 
-        try {
-            // Basit onay (Türkçe)
-            Alert a = new Alert(Alert.AlertType.CONFIRMATION);
-            a.setTitle("Silme Onayı");
-            a.setHeaderText("Seçili araç silinsin mi?");
-            a.setContentText("Bu işlem geri alınamaz.");
+        // Basit onay (Türkçe)
+        Alert a = new Alert(Alert.AlertType.CONFIRMATION);
+        a.setTitle("Silme Onayı");
+        a.setHeaderText("Seçili araç silinsin mi?");
+        a.setContentText("Bu işlem geri alınamaz.");
 
-            ButtonType ok = new ButtonType("Evet", ButtonBar.ButtonData.OK_DONE);
-            ButtonType cancel = new ButtonType("Vazgeç", ButtonBar.ButtonData.CANCEL_CLOSE);
-            a.getButtonTypes().setAll(ok, cancel);
+        ButtonType ok = new ButtonType("Evet", ButtonBar.ButtonData.OK_DONE);
+        ButtonType cancel = new ButtonType("Vazgeç", ButtonBar.ButtonData.CANCEL_CLOSE);
+        a.getButtonTypes().setAll(ok, cancel);
 
-            if (a.showAndWait().orElse(cancel) != ok) return;
+        if (a.showAndWait().orElse(cancel) != ok) return;
 
-            dao.delete(tenantId(), selected.getVehicleId());
-            msg("Silindi.");
-            reload();
+        long tid = tenantId();
+        long vehicleId = selected.getVehicleId();
+        bg.submit(null, () -> { dao.delete(tid, vehicleId); return null; }, x -> {
             onClear();
-        } catch (Exception e) {
-            e.printStackTrace();
-            msg("Silme başarısız: " + e.getMessage());
-        }
+            msg("Silindi.");
+        }, e -> fail("Silme başarısız: ", e));
     }
 
     @FXML
@@ -297,6 +402,11 @@ public class VehiclesController {
 
     private void msg(String s) { msgLabel.setText(s == null ? "" : s); }
 
+    private void fail(String prefix, Throwable e) {
+        e.printStackTrace();
+        msg(prefix + e.getMessage());
+    }
+
     private String statusText(VehicleStatus st) {
         if (st == null) return "";
         return switch (st) {
@@ -0,0 +1,49 @@
+package com.osman.vssfx.web;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Size-bounded LRU map whose entries also expire after a fixed time. */
+final class ExpiringLru<K, V> {
+
+    private record Entry<V>(V value, long storedAt) {}
+
+    private final long ttlNanos;
+
+    // guarded by this
+    private final LinkedHashMap<K, Entry<V>> map;
+
+    ExpiringLru(int maxSize, long ttlSeconds) {
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        int max = Math.max(1, maxSize);
+        this.map = new LinkedHashMap<>(Math.min(max, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > max;
+            }
+        };
+    }
+
+    /** Value or null if absent / expired. */
+    synchronized V get(K key) {
+        Entry<V> e = map.get(key);
+        if (e == null) return null;
+        if (System.nanoTime() - e.storedAt() > ttlNanos) {
+            map.remove(key);
+            return null;
+        }
+        return e.value();
+    }
+
+    synchronized void put(K key, V value) {
+        map.put(key, new Entry<>(value, System.nanoTime()));
+    }
+
+    synchronized void remove(K key) {
+        map.remove(key);
+    }
+
+    synchronized int size() {
+        return map.size();
+    }
+}
@@ -0,0 +1,280 @@
+package com.osman.vssfx.web;
+
+import com.osman.vssfx.config.AppConfig;
+import com.osman.vssfx.dao.PublicVehicleDAO;
+import com.osman.vssfx.dao.PublicVehicleDAO.PublicCard;
+import com.osman.vssfx.dao.QrTagDAO;
+import com.osman.vssfx.metrics.Metrics;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+/**
+ * Optional public endpoint for QR scans, on the JDK HttpServer with one virtual thread per request.
+ * <pre>
+ *   GET /v/{token}      vehicle card page
+ *   GET /api/v/{token}  the same as JSON
+ *   GET /health         cache counters
+ * </pre>
+ * Requests are rate limited per client IP before anything else; malformed tokens are rejected
+ * without hashing; {@link TokenResolver} answers unknown and revoked tokens from memory.
+ */
+public final class PublicScanServer implements AutoCloseable {
+
+    /** @param proxyHops with {@code trustProxy}, how many trusted proxies append to X-Forwarded-For */
+    public record Settings(String bind, int port, boolean trustProxy, int proxyHops,
+                           int ratePerMinute, int rateBurst, int maxClients,
+                           TokenResolver.Settings resolver) {
+
+        public static Settings fromConfig() {
+            return new Settings(
+                    AppConfig.publicScanBind(),
+                    AppConfig.publicScanPort(),
+                    AppConfig.publicScanTrustProxy(),
+                    AppConfig.publicScanProxyHops(),
+                    AppConfig.publicScanRatePerMinute(),
+                    AppConfig.publicScanRateBurst(),
+                    AppConfig.publicScanMaxClients(),
+                    new TokenResolver.Settings(
+                            AppConfig.publicScanCacheSize(),
+                            AppConfig.publicScanCacheTtlSeconds(),
+                            Duration.ofSeconds(AppConfig.publicScanIndexPollSeconds()),
+                            Duration.ofSeconds(AppConfig.publicScanIndexRebuildSeconds())));
+        }
+    }
+
+    private static final Pattern TOKEN = Pattern.compile("[A-Za-z0-9_-]{8,128}");
+    private static final DateTimeFormatter D = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    private final Settings settings;
+    private final TokenResolver resolver;
+    private final RateLimiter limiter;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public PublicScanServer(PublicVehicleDAO dao, QrTagDAO tags, Settings settings) {
+        this.settings = settings;
+        this.resolver = new TokenResolver(dao, tags, settings.resolver());
+        this.limiter = new RateLimiter(settings.ratePerMinute(), settings.rateBurst(), settings.maxClients());
+    }
+
+    public static PublicScanServer fromConfig() {
+        return new PublicScanServer(new PublicVehicleDAO(), new QrTagDAO(), Settings.fromConfig());
+    }
+
+    public synchronized void start() throws IOException {
+        if (server != null) return;
+
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server = HttpServer.create(new InetSocketAddress(settings.bind(), settings.port()), 0);
+        server.setExecutor(executor);
+        server.createContext("/v/", ex -> handle(ex, "/v/", false));
+        server.createContext("/api/v/", ex -> handle(ex, "/api/v/", true));
+        server.createContext("/health", this::health);
+        server.start();
+        limiter.start();
+        resolver.start();
+
+        System.err.println("[public-scan] listening on " + settings.bind() + ":" + settings.port());
+    }
+
+    @Override
+    public synchronized void close() {
+        if (server == null) return;
+        resolver.close();
+        limiter.close();
+        server.stop(1);
+        executor.close();
+        server = null;
+    }
+
+    // ---------------------------------------------------------------
+
+    private void handle(HttpExchange ex, String prefix, boolean json) throws IOException {
+        Metrics.bindTenant(Metrics.SYSTEM); // istek başına sanal thread, oturum yok
+        try (ex) {
+            if (!"GET".equals(ex.getRequestMethod()) && !"HEAD".equals(ex.getRequestMethod())) {
+                ex.getResponseHeaders().set("Allow", "GET, HEAD");
+                send(ex, 405, json, error(json, "Yöntem desteklenmiyor."), false);
+                return;
+            }
+
+            long wait = limiter.acquire(clientOf(ex));
+            if (wait > 0) {
+                ex.getResponseHeaders().set("Retry-After", String.valueOf(wait));
+                send(ex, 429, json, error(json, "Çok fazla istek. Lütfen biraz sonra tekrar deneyin."), false);
+                return;
+            }
+
+            String token = ex.getRequestURI().getPath().substring(prefix.length());
+            if (!TOKEN.matcher(token).matches()) {
+                send(ex, 404, json, error(json, "QR kodu tanınmadı."), false);
+                return;
+            }
+
+            Optional<PublicCard> card;
+            try {
+                card = resolver.resolve(token);
+            } catch (SQLException | RuntimeException e) {
+                System.err.println("[public-scan] lookup failed: " + e.getMessage());
+                send(ex, 503, json, error(json, "Servis şu an yanıt veremiyor."), false);
+                return;
+            }
+
+            if (card.isEmpty()) {
+                send(ex, 404, json, error(json, "QR kodu tanınmadı veya artık geçerli değil."), false);
+                return;
+            }
+            send(ex, 200, json, json ? toJson(card.get()) : toHtml(card.get()), true);
+        }
+    }
+
+    private void health(HttpExchange ex) throws IOException {
+        try (ex) {
+            String body = "{\"indexSize\":" + resolver.indexSize()
+                    + ",\"indexMisses\":" + resolver.indexMisses.sum()
+                    + ",\"cacheHits\":" + resolver.cacheHits.sum()
+                    + ",\"queries\":" + resolver.queries.sum() + "}";
+            send(ex, 200, true, body, false);
+        }
+    }
+
+    /**
+     * The client's address as seen by the outermost trusted proxy. Each proxy appends the address
+     * it received the request from, so with {@code proxyHops} trusted proxies that is the
+     * {@code proxyHops}-th entry from the right; everything left of it came from the client and
+     * may be forged. Fewer entries than hops means the request bypassed the proxies.
+     */
+    private String clientOf(HttpExchange ex) {
+        String peer = ex.getRemoteAddress().getAddress().getHostAddress();
+        if (!settings.trustProxy()) return peer;
+
+        // birden çok başlık satırı tek liste gibi okunur (sıra korunur)
+        var headers = ex.getRequestHeaders().get("X-Forwarded-For");
+        if (headers == null || headers.isEmpty()) return peer;
+
+        String[] hops = String.join(",", headers).split(",");
+        int i = hops.length - Math.max(1, settings.proxyHops());
+        if (i < 0) return peer;
+        String client = hops[i].trim();
+        return client.isEmpty() ? peer : client;
+    }
+
+    private static void send(HttpExchange ex, int status, boolean json, String body, boolean cacheable) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        var h = ex.getResponseHeaders();
+        h.set("Content-Type", json ? "application/json; charset=utf-8" : "text/html; charset=utf-8");
+        h.set("Cache-Control", cacheable ? "public, max-age=60" : "no-store");
+        h.set("X-Content-Type-Options", "nosniff");
+
+        boolean head = "HEAD".equals(ex.getRequestMethod());
+        ex.sendResponseHeaders(status, head ? -1 : bytes.length);
+        if (!head) {
+            try (OutputStream out = ex.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // Yanıt gövdeleri
+
+    private static String error(boolean json, String message) {
+        if (json) return "{\"error\":" + jsonString(message) + "}";
+        return page("<p class=\"muted\">" + html(message) + "</p>");
+    }
+
+    private static String toJson(PublicCard c) {
+        return "{\"displayCode\":" + jsonString(c.displayCode())
+                + ",\"plateNo\":" + jsonString(c.plateNo())
+                + ",\"make\":" + jsonString(c.make())
+                + ",\"model\":" + jsonString(c.model())
+                + ",\"modelYear\":" + c.modelYear()
+                + ",\"colour\":" + jsonString(c.colour())
+                + ",\"currentKm\":" + c.currentKm()
+                + ",\"lastMaintDate\":" + jsonString(c.lastMaintDate() == null ? null : c.lastMaintDate().toString())
+                + ",\"service\":{\"name\":" + jsonString(c.serviceName())
+                + ",\"phone\":" + jsonString(c.servicePhone())
+                + ",\"whatsapp\":" + jsonString(c.serviceWhatsapp()) + "}}";
+    }
+
+    private static String toHtml(PublicCard c) {
+        StringBuilder sb = new StringBuilder()
+                .append("<h1>").append(html(c.plateNo())).append("</h1>")
+                .append("<p>").append(html(c.make())).append(' ').append(html(c.model()))
+                .append(" (").append(c.modelYear()).append(")")
+                .append(c.colour() == null ? "" : " · " + html(c.colour())).append("</p>")
+                .append("<p>Kilometre: ").append(c.currentKm()).append("</p>");
+        if (c.lastMaintDate() != null) {
+            sb.append("<p>Son bakım: ").append(D.format(c.lastMaintDate())).append("</p>");
+        }
+        sb.append("<hr><p><b>").append(html(c.serviceName())).append("</b></p>");
+        if (c.servicePhone() != null) {
+            sb.append("<p><a href=\"tel:").append(html(c.servicePhone())).append("\">")
+                    .append(html(c.servicePhone())).append("</a></p>");
+        }
+        if (c.serviceWhatsapp() != null) {
+            sb.append("<p><a href=\"https://wa.me/").append(html(c.serviceWhatsapp().replaceAll("\\D", "")))
+                    .append("\">WhatsApp</a></p>");
+        }
+        if (c.displayCode() != null) sb.append("<p class=\"muted\">").append(html(c.displayCode())).append("</p>");
+        return page(sb.toString());
+    }
+
+    private static String page(String body) {
+        return "<!DOCTYPE html><html lang=\"tr\"><head><meta charset=\"utf-8\">"
+                + "<meta name=\"viewport\" content=\"width=device-width, initial-scale=1\">"
+                + "<title>Araç Bilgisi</title><style>"
+                + "body{font-family:sans-serif;max-width:28rem;margin:2rem auto;padding:0 1rem}"
+                + ".muted{color:#777}</style></head><body>" + body + "</body></html>";
+    }
+
+    private static String html(String s) {
+        if (s == null) return "";
+        StringBuilder sb = new StringBuilder(s.length() + 8);
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            switch (ch) {
+                case '<' -> sb.append("&lt;");
+                case '>' -> sb.append("&gt;");
+                case '&' -> sb.append("&amp;");
+                case '"' -> sb.append("&quot;");
+                case '\'' -> sb.append("&#39;");
+                default -> sb.append(ch);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String jsonString(String s) {
+        if (s == null) return "null";
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            switch (ch) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (ch < 0x20 || ch == '<') sb.append(String.format("\\u%04x", (int) ch));
+                    else sb.append(ch);
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -0,0 +1,97 @@
+package com.osman.vssfx.web;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket per client key (IP address): {@code burst} requests at once, refilled at
+ * {@code perMinute}.
+ * <p>
+ * At most {@code maxClients} buckets are kept, in least-recently-used order; a new client beyond
+ * that evicts the longest-idle one, so memory stays bounded however many addresses (IPv6, proxies)
+ * show up. Buckets idle long enough to be full again are dropped by a sweep on a timer, which
+ * walks from the oldest entry and stops at the first one still refilling. Every operation is
+ * O(1) under one lock, except the sweep, which is O(buckets dropped).
+ */
+final class RateLimiter implements AutoCloseable {
+
+    private static final long SWEEP_SECONDS = 60;
+
+    private static final class Bucket {
+        double tokens;
+        long updatedAt;
+
+        Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.updatedAt = now;
+        }
+    }
+
+    private final double capacity;
+    private final double perNano;
+    private final long refillNanos; // boş kovanın dolma süresi; bu kadar boşta kalan silinebilir
+    private final Map<String, Bucket> buckets; // guarded by this
+
+    private ScheduledExecutorService sweeper;
+
+    RateLimiter(int perMinute, int burst, int maxClients) {
+        this.capacity = Math.max(1, burst);
+        this.perNano = Math.max(1, perMinute) / 60_000_000_000.0;
+        this.refillNanos = (long) Math.ceil(capacity / perNano);
+
+        int max = Math.max(16, maxClients);
+        this.buckets = new LinkedHashMap<>(Math.min(max, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                return size() > max;
+            }
+        };
+    }
+
+    synchronized void start() {
+        if (sweeper != null) return;
+        sweeper = Executors.newSingleThreadScheduledExecutor(
+                r -> Thread.ofPlatform().daemon().name("public-scan-rate-sweep").unstarted(r));
+        sweeper.scheduleWithFixedDelay(() -> sweep(System.nanoTime()), SWEEP_SECONDS, SWEEP_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (sweeper == null) return;
+        sweeper.shutdownNow();
+        sweeper = null;
+    }
+
+    /** @return 0 if the request may pass, otherwise seconds until the next token */
+    synchronized long acquire(String client) {
+        long now = System.nanoTime();
+
+        Bucket b = buckets.get(client);
+        if (b == null) {
+            b = new Bucket(capacity, now);
+            buckets.put(client, b); // doluysa en uzun süredir boşta olan çıkarılır
+        }
+
+        b.tokens = Math.min(capacity, b.tokens + (now - b.updatedAt) * perNano);
+        b.updatedAt = now;
+        if (b.tokens >= 1) {
+            b.tokens -= 1;
+            return 0;
+        }
+        return Math.max(1, (long) Math.ceil((1 - b.tokens) / perNano / 1_000_000_000.0));
+    }
+
+    // dolmuş kovalar tekrar oluşturulunca aynı durumdadır; silmek güvenli.
+    // Erişim sırası = son istek sırası, ilk dolmamış kovada durulur.
+    synchronized void sweep(long now) {
+        Iterator<Bucket> it = buckets.values().iterator();
+        while (it.hasNext()) {
+            if (now - it.next().updatedAt < refillNanos) break;
+            it.remove();
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.osman.vssfx.web;
+
+import com.osman.vssfx.dao.PublicVehicleDAO;
+import com.osman.vssfx.dao.PublicVehicleDAO.PublicCard;
+import com.osman.vssfx.dao.QrTagDAO;
+import com.osman.vssfx.metrics.Metrics;
+import com.osman.vssfx.qr.ActiveTokenIndex;
+import com.osman.vssfx.qr.TokenHasher;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Scanned token to public vehicle card, in front of {@link PublicVehicleDAO}.
+ * <ol>
+ *   <li>An {@link ActiveTokenIndex} of all ACTIVATED tags maps the token hash to its vehicle;
+ *       unknown and revoked tokens end there. It is loaded once, then follows qr_tag_changes
+ *       every {@code poll}, and is reloaded from scratch every {@code rebuild} in case tags
+ *       were changed without the procedures.</li>
+ *   <li>An LRU of cards by vehicle serves repeat scans; entries expire after {@code cacheTtl},
+ *       which bounds how stale km / last service can be.</li>
+ * </ol>
+ * Until the first load completes, lookups go to the database by hash. Concurrent misses for
+ * the same key share one query, so a scan burst on a cold sticker costs a single lookup.
+ */
+final class TokenResolver implements AutoCloseable {
+
+    record Settings(int cacheSize, long cacheTtlSeconds, Duration poll, Duration rebuild) {}
+
+    /**
+     * change_id is assigned at INSERT but visible at COMMIT, so a lower id can appear after a
+     * higher one was read. Each poll re-reads this many ids back; replaying is harmless because
+     * changes of one tag are ordered by its row lock.
+     */
+    private static final long REPLAY_IDS = 100;
+
+    private final PublicVehicleDAO dao;
+    private final QrTagDAO tags;
+    private final Settings settings;
+
+    private final ExpiringLru<Long, PublicCard> cards;
+    private final ConcurrentHashMap<Object, CompletableFuture<Optional<PublicCard>>> inflight = new ConcurrentHashMap<>();
+
+    private volatile ActiveTokenIndex index; // null: henüz yüklenmedi, sorgular veritabanına gider
+    private long lastChangeId;
+    private long indexBuiltAt;
+
+    final LongAdder cacheHits = new LongAdder();
+    final LongAdder indexMisses = new LongAdder();
+    final LongAdder queries = new LongAdder();
+
+    private volatile boolean running;
+    private Thread syncer;
+
+    TokenResolver(PublicVehicleDAO dao, QrTagDAO tags, Settings settings) {
+        this.dao = dao;
+        this.tags = tags;
+        this.settings = settings;
+        this.cards = new ExpiringLru<>(settings.cacheSize(), settings.cacheTtlSeconds());
+    }
+
+    synchronized void start() {
+        if (running) return;
+        running = true;
+        syncer = Thread.ofPlatform().daemon().name("public-scan-index").start(this::syncLoop);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!running) return;
+        running = false;
+        syncer.interrupt();
+    }
+
+    /** -1 until the first load. */
+    int indexSize() {
+        ActiveTokenIndex idx = index;
+        return idx == null ? -1 : idx.size();
+    }
+
+    Optional<PublicCard> resolve(String token) throws SQLException {
+        byte[] h = TokenHasher.hash(token);
+
+        ActiveTokenIndex idx = index;
+        if (idx == null) {
+            return load(TokenHasher.hex(h), () -> Optional.ofNullable(dao.findByTokenHash(h)));
+        }
+
+        ActiveTokenIndex.Target t = idx.get(h);
+        if (t == null) {
+            indexMisses.increment();
+            return Optional.empty();
+        }
+
+        PublicCard hit = cards.get(t.vehicleId());
+        if (hit != null) {
+            cacheHits.increment();
+            return Optional.of(hit);
+        }
+        return load(t.vehicleId(), () -> {
+            PublicCard card = dao.findByVehicle(t.tenantId(), t.vehicleId());
+            if (card != null) cards.put(t.vehicleId(), card);
+            return Optional.ofNullable(card);
+        });
+    }
+
+    private Optional<PublicCard> load(Object key, Callable<Optional<PublicCard>> query) throws SQLException {
+        CompletableFuture<Optional<PublicCard>> mine = new CompletableFuture<>();
+        CompletableFuture<Optional<PublicCard>> shared = inflight.putIfAbsent(key, mine);
+        if (shared != null) return await(shared);
+
+        try {
+            queries.increment();
+            Optional<PublicCard> card = query.call();
+            mine.complete(card);
+            return card;
+        } catch (SQLException | RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } catch (Exception e) {
+            mine.completeExceptionally(e);
+            throw new SQLException(e);
+        } finally {
+            inflight.remove(key, mine);
+        }
+    }
+
+    // ---------------------------------------------------------------
+
+    private void syncLoop() {
+        Metrics.bindTenant(Metrics.SYSTEM); // tüm tenant'lar için çalışır
+        while (running) {
+            try {
+                sync();
+            } catch (SQLException | RuntimeException e) {
+                System.err.println("[public-scan] index sync failed: " + e.getMessage());
+            }
+
+            try {
+                Thread.sleep(settings.poll());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void sync() throws SQLException {
+        long now = System.nanoTime();
+        ActiveTokenIndex current = index;
+
+        if (current == null || now - indexBuiltAt > settings.rebuild().toNanos()) {
+            long from = tags.lastChangeId(); // taramadan önce: tarama sırasındaki değişiklikler de uygulanır
+            ActiveTokenIndex fresh = new ActiveTokenIndex((int) Math.min(1 << 29, tags.countActive()));
+            tags.forEachActive(t -> fresh.put(t.tokenHash(), t.tenantId(), t.vehicleId()));
+
+            lastChangeId = apply(fresh, from);
+            indexBuiltAt = now;
+            index = fresh;
+            return;
+        }
+
+        lastChangeId = apply(current, lastChangeId);
+    }
+
+    /** @return the highest change_id seen */
+    private long apply(ActiveTokenIndex idx, long afterId) throws SQLException {
+        long[] last = {afterId};
+        tags.forEachChange(Math.max(0, afterId - REPLAY_IDS), ch -> {
+            if (ch.status() == QrTagDAO.Status.ACTIVATED) idx.put(ch.tokenHash(), ch.tenantId(), ch.vehicleId());
+            else idx.remove(ch.tokenHash());
+            last[0] = Math.max(last[0], ch.changeId());
+        });
+        return last[0];
+    }
+
+    private static Optional<PublicCard> await(CompletableFuture<Optional<PublicCard>> f) throws SQLException {
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a shared lookup.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException sql) throw sql;
+            if (cause instanceof RuntimeException re) throw re;
+            throw new SQLException(cause);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.osman.vssfx.qr;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Correctness of the open-addressing table behind scan resolution. Plain surefire POJO test
+ * (public {@code test*} methods, no framework on the class path).
+ * <p>
+ * Keys are built so the first long is the home slot: with the minimum capacity of 1024 a key
+ * {@code key(slot, n)} probes from {@code slot}, which lets the tests place chains across the
+ * end of the table on purpose.
+ */
+public class ActiveTokenIndexTest {
+
+    private static final int CAPACITY = 1024; // ActiveTokenIndex.MIN_CAPACITY
+
+    public void testRemoveThenGet() {
+        ActiveTokenIndex index = new ActiveTokenIndex(0);
+        byte[] a = key(5, 1), b = key(5, 2);
+        index.put(a, 1, 10);
+        index.put(b, 1, 20);
+
+        index.remove(a);
+        check(index.get(a) == null, "removed key still resolves");
+        checkTarget(index, b, 1, 20);
+        check(index.size() == 1, "size after remove: " + index.size());
+
+        index.remove(a); // yok: değişmemeli
+        check(index.size() == 1, "size after removing an absent key: " + index.size());
+
+        index.put(a, 2, 30);
+        checkTarget(index, a, 2, 30);
+        check(index.size() == 2, "size after re-adding: " + index.size());
+    }
+
+    public void testPutReplacesTarget() {
+        ActiveTokenIndex index = new ActiveTokenIndex(0);
+        byte[] a = key(7, 1);
+        index.put(a, 1, 10);
+        index.put(a, 3, 40);
+        checkTarget(index, a, 3, 40);
+        check(index.size() == 1, "size after replacing: " + index.size());
+    }
+
+    /** Chain 1022, 1023, 0, 1, 2 with mixed home slots; every removal order must keep the rest reachable. */
+    public void testRemoveAcrossWrappedProbeChain() {
+        int[] homes = {1022, 1022, 1023, 1022, 0, 1, 1023};
+        List<byte[]> keys = new ArrayList<>();
+        for (int n = 0; n < homes.length; n++) keys.add(key(homes[n], n));
+
+        for (int first = 0; first < keys.size(); first++) {
+            ActiveTokenIndex index = new ActiveTokenIndex(0);
+            for (int n = 0; n < keys.size(); n++) index.put(keys.get(n), 1, n + 1);
+
+            // first'ten başlayarak hepsini sırayla sil, her adımda kalanları doğrula
+            List<Integer> live = new ArrayList<>();
+            for (int n = 0; n < keys.size(); n++) live.add(n);
+            for (int step = 0; step < keys.size(); step++) {
+                int victim = (first + step) % keys.size();
+                index.remove(keys.get(victim));
+                live.remove(Integer.valueOf(victim));
+
+                check(index.get(keys.get(victim)) == null, "removed key " + victim + " still resolves");
+                for (int n : live) checkTarget(index, keys.get(n), 1, n + 1);
+                check(index.size() == live.size(), "size " + index.size() + " != " + live.size());
+            }
+        }
+    }
+
+    /** Random puts and removes around the wrap point, checked against a HashMap after every step. */
+    public void testClusteredOperationsMatchHashMap() {
+        Random random = new Random(42);
+        ActiveTokenIndex index = new ActiveTokenIndex(0);
+        Map<Integer, Long> expected = new HashMap<>();
+        List<byte[]> keys = new ArrayList<>();
+        for (int n = 0; n < 64; n++) keys.add(key((CAPACITY - 8 + random.nextInt(12)) % CAPACITY, n));
+
+        for (int op = 0; op < 20_000; op++) {
+            int n = random.nextInt(keys.size());
+            if (random.nextBoolean()) {
+                long vehicle = 1 + random.nextInt(1_000);
+                index.put(keys.get(n), 1, vehicle);
+                expected.put(n, vehicle);
+            } else {
+                index.remove(keys.get(n));
+                expected.remove(n);
+            }
+
+            check(index.size() == expected.size(), "op " + op + ": size " + index.size() + " != " + expected.size());
+            for (int k = 0; k < keys.size(); k++) {
+                Long vehicle = expected.get(k);
+                ActiveTokenIndex.Target t = index.get(keys.get(k));
+                if (vehicle == null) check(t == null, "op " + op + ": key " + k + " should be absent");
+                else check(t != null && t.vehicleId() == vehicle, "op " + op + ": key " + k + " -> " + t + ", expected " + vehicle);
+            }
+        }
+    }
+
+    /** Grows 1024 -> 2048 -> 4096 (at half full), with a wrapped chain that must survive each rehash. */
+    public void testGrowthPastHalfFull() {
+        ActiveTokenIndex index = new ActiveTokenIndex(0);
+        Random random = new Random(7);
+        List<byte[]> keys = new ArrayList<>();
+        for (int n = 0; n < 5; n++) keys.add(key(CAPACITY - 1, n)); // 1023, 0, 1, 2, 3
+        for (int n = 5; n < 2_000; n++) keys.add(randomKey(random));
+
+        for (int n = 0; n < keys.size(); n++) {
+            index.put(keys.get(n), n % 3, n + 1);
+            if (n == 511 || n == 512 || n == 1024 || n == keys.size() - 1) {
+                for (int k = 0; k <= n; k++) checkTarget(index, keys.get(k), k % 3, k + 1);
+            }
+        }
+        check(index.size() == keys.size(), "size " + index.size());
+
+        for (int n = 0; n < keys.size(); n += 2) index.remove(keys.get(n));
+        for (int n = 0; n < keys.size(); n++) {
+            if (n % 2 == 0) check(index.get(keys.get(n)) == null, "removed key " + n + " still resolves");
+            else checkTarget(index, keys.get(n), n % 3, n + 1);
+        }
+        check(index.size() == keys.size() / 2, "size after removals " + index.size());
+    }
+
+    /** vehicle_id is INT UNSIGNED: values past Integer.MAX_VALUE must round-trip. */
+    public void testVehicleIdsAboveIntMax() {
+        ActiveTokenIndex index = new ActiveTokenIndex(0);
+        long[] ids = {Integer.MAX_VALUE, Integer.MAX_VALUE + 1L, 3_000_000_000L, 0xFFFF_FFFFL};
+        for (int n = 0; n < ids.length; n++) index.put(key(100, n), 9, ids[n]);
+        for (int n = 0; n < ids.length; n++) checkTarget(index, key(100, n), 9, ids[n]);
+
+        // 0 boş slot işareti; 2^32 int'e sığmaz (0'a düşerdi)
+        for (long bad : new long[]{0, -1, 0x1_0000_0000L}) {
+            try {
+                index.put(key(200, 0), 1, bad);
+                throw new AssertionError("accepted vehicleId " + bad);
+            } catch (IllegalArgumentException expected) {
+                // beklenen
+            }
+        }
+        check(index.size() == ids.length, "size " + index.size());
+    }
+
+    // ---------------------------------------------------------------
+
+    /** 32-byte digest whose first long is {@code home} (home slot at capacity 1024) and second long {@code n}. */
+    private static byte[] key(int home, long n) {
+        return ByteBuffer.allocate(32).putLong(home).putLong(n).array();
+    }
+
+    private static byte[] randomKey(Random random) {
+        byte[] b = new byte[32];
+        random.nextBytes(b);
+        return b;
+    }
+
+    private static void checkTarget(ActiveTokenIndex index, byte[] key, long tenant, long vehicle) {
+        ActiveTokenIndex.Target t = index.get(key);
+        check(t != null, "key missing, expected vehicle " + vehicle);
+        check(t.tenantId() == tenant && t.vehicleId() == vehicle, t + ", expected tenant " + tenant + " vehicle " + vehicle);
+    }
+
+    private static void check(boolean ok, String message) {
+        if (!ok) throw new AssertionError(message);
+    }
+}
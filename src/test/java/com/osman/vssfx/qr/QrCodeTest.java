@@ -0,0 +1,356 @@
+package com.osman.vssfx.qr;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Reads encoded symbols back the way a scanner would, using only the layout and tables of
+ * ISO/IEC 18004 (not the encoder's helpers): function patterns, format and version information,
+ * the codeword zigzag, block interleaving, Reed-Solomon syndromes and the byte-mode segment.
+ * Plain surefire POJO test (public {@code test*} methods, no framework on the class path).
+ */
+public class QrCodeTest {
+
+    // Level M format information after masking, index = mask pattern (ISO/IEC 18004 Table C.1)
+    private static final int[] FORMAT_M = {
+            0b101010000010010, 0b101000100100101, 0b101111001111100, 0b101101101001011,
+            0b100010111111001, 0b100000011001110, 0b100111110010111, 0b100101010100000};
+
+    // Version information (Table D.1)
+    private static final int VERSION_7 = 0b000111110010010100;
+    private static final int VERSION_10 = 0b001010010011010011;
+
+    /** Level M block structure: {total codewords, ECC codewords per block, blocks}. */
+    private static final int[][] LAYOUT = new int[11][];
+
+    static {
+        LAYOUT[1] = new int[]{26, 10, 1};
+        LAYOUT[7] = new int[]{196, 18, 4};
+        LAYOUT[10] = new int[]{346, 26, 5};
+    }
+
+    private static final int[][] ALIGNMENT = new int[11][];
+
+    static {
+        ALIGNMENT[1] = new int[0];
+        ALIGNMENT[7] = new int[]{6, 22, 38};
+        ALIGNMENT[10] = new int[]{6, 28, 50};
+    }
+
+    public void testVersion1() {
+        checkSymbol(text(14), 1); // sürüm 1-M bayt kapasitesi: 14
+    }
+
+    public void testVersion7() {
+        checkSymbol(text(107), 7); // 6-M: 106
+    }
+
+    public void testVersion10() {
+        checkSymbol(text(213), 10); // 10-M: 213, MAX_VERSION
+    }
+
+    public void testTooLongIsRejected() {
+        try {
+            QrCode.encode(text(214));
+            throw new AssertionError("accepted 214 bytes");
+        } catch (IllegalArgumentException expected) {
+            // beklenen
+        }
+    }
+
+    /** Sheets encode on a parallel stream; every thread must produce the same symbol. */
+    public void testParallelEncodesMatchSequential() throws Exception {
+        List<String> texts = new ArrayList<>();
+        for (int n = 1; n <= 213; n += 4) texts.add(text(n));
+
+        List<QrCode> expected = new ArrayList<>();
+        for (String t : texts) expected.add(QrCode.encode(t));
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            for (int round = 0; round < 4; round++) {
+                List<Future<QrCode>> futures = new ArrayList<>();
+                for (String t : texts) futures.add(pool.submit(() -> QrCode.encode(t)));
+                for (int i = 0; i < texts.size(); i++) {
+                    check(sameModules(expected.get(i), futures.get(i).get()), "parallel encode differs for " + texts.get(i).length() + " bytes");
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // ---------------------------------------------------------------
+
+    private static void checkSymbol(String text, int version) {
+        QrCode qr = QrCode.encode(text);
+        check(qr.version() == version, "version " + qr.version() + ", expected " + version);
+        check(qr.size() == 4 * version + 17, "size " + qr.size());
+
+        checkFinders(qr);
+        checkTiming(qr);
+        checkAlignment(qr);
+        check(qr.isDark(8, qr.size() - 8), "dark module missing");
+
+        int mask = checkFormat(qr);
+        checkVersionInfo(qr);
+
+        byte[] codewords = readCodewords(qr, mask);
+        byte[] data = deinterleaveAndCheckEcc(codewords, version);
+        checkSegment(data, text.getBytes(StandardCharsets.UTF_8), version);
+    }
+
+    private static void checkFinders(QrCode qr) {
+        int s = qr.size();
+        int[][] corners = {{0, 0}, {s - 7, 0}, {0, s - 7}};
+        for (int[] c : corners) {
+            for (int dy = -1; dy <= 7; dy++) {
+                for (int dx = -1; dx <= 7; dx++) {
+                    int x = c[0] + dx, y = c[1] + dy;
+                    if (x < 0 || y < 0 || x >= s || y >= s) continue;
+                    int ring = Math.max(Math.abs(dx - 3), Math.abs(dy - 3));
+                    boolean dark = ring != 2 && ring != 4; // 4: ayırıcı
+                    check(qr.isDark(x, y) == dark, "finder module (" + x + "," + y + ")");
+                }
+            }
+        }
+    }
+
+    private static void checkTiming(QrCode qr) {
+        for (int i = 8; i < qr.size() - 8; i++) {
+            check(qr.isDark(i, 6) == (i % 2 == 0), "horizontal timing at " + i);
+            check(qr.isDark(6, i) == (i % 2 == 0), "vertical timing at " + i);
+        }
+    }
+
+    private static void checkAlignment(QrCode qr) {
+        for (int[] c : alignmentCenters(qr)) {
+            for (int dy = -2; dy <= 2; dy++) {
+                for (int dx = -2; dx <= 2; dx++) {
+                    boolean dark = Math.max(Math.abs(dx), Math.abs(dy)) != 1;
+                    check(qr.isDark(c[0] + dx, c[1] + dy) == dark, "alignment module (" + (c[0] + dx) + "," + (c[1] + dy) + ")");
+                }
+            }
+        }
+    }
+
+    /** Both copies must carry the same level M format word; returns its mask. */
+    private static int checkFormat(QrCode qr) {
+        int s = qr.size();
+        // kopya 1: sol üst köşe, bit 14 (MSB) ilk
+        int[][] first = {{0, 8}, {1, 8}, {2, 8}, {3, 8}, {4, 8}, {5, 8}, {7, 8}, {8, 8},
+                {8, 7}, {8, 5}, {8, 4}, {8, 3}, {8, 2}, {8, 1}, {8, 0}};
+        int a = 0, b = 0;
+        for (int[] p : first) a = a << 1 | (qr.isDark(p[0], p[1]) ? 1 : 0);
+        // kopya 2: sol alt (bit 14..8), sonra sağ üst (bit 7..0)
+        for (int i = 0; i < 7; i++) b = b << 1 | (qr.isDark(8, s - 1 - i) ? 1 : 0);
+        for (int i = 0; i < 8; i++) b = b << 1 | (qr.isDark(s - 8 + i, 8) ? 1 : 0);
+
+        check(a == b, "format copies differ: " + Integer.toBinaryString(a) + " / " + Integer.toBinaryString(b));
+        for (int mask = 0; mask < 8; mask++) {
+            if (FORMAT_M[mask] == a) return mask;
+        }
+        throw new AssertionError("not a level M format word: " + Integer.toBinaryString(a));
+    }
+
+    private static void checkVersionInfo(QrCode qr) {
+        if (qr.version() < 7) return;
+        int expected = qr.version() == 7 ? VERSION_7 : VERSION_10;
+        int s = qr.size();
+        // bit i: sağ üst blokta (s-11 + i%3, i/3), sol altta yansıması
+        for (int i = 0; i < 18; i++) {
+            boolean bit = ((expected >>> i) & 1) != 0;
+            check(qr.isDark(s - 11 + i % 3, i / 3) == bit, "upper-right version bit " + i);
+            check(qr.isDark(i / 3, s - 11 + i % 3) == bit, "lower-left version bit " + i);
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // Data area
+
+    private static byte[] readCodewords(QrCode qr, int mask) {
+        int s = qr.size();
+        int total = LAYOUT[qr.version()][0];
+        byte[] out = new byte[total];
+        int i = 0;
+        boolean upward = true;
+        for (int right = s - 1; right >= 1; right -= 2) {
+            if (right == 6) right = 5; // dikey zamanlama sütunu atlanır
+            for (int vert = 0; vert < s; vert++) {
+                int y = upward ? s - 1 - vert : vert;
+                for (int x = right; x >= right - 1; x--) {
+                    if (isFunction(qr, x, y)) continue;
+                    boolean dark = qr.isDark(x, y) ^ masked(mask, x, y);
+                    if (i < total * 8 && dark) out[i >>> 3] |= (byte) (0x80 >>> (i & 7));
+                    i++;
+                }
+            }
+            upward = !upward;
+        }
+        check(i >= total * 8, "only " + i + " data modules for " + total + " codewords");
+        check(i - total * 8 < 8, (i - total * 8) + " remainder bits");
+        return out;
+    }
+
+    /** Splits the interleaved codewords into blocks, checks each block's syndromes, returns the data codewords. */
+    private static byte[] deinterleaveAndCheckEcc(byte[] codewords, int version) {
+        int total = LAYOUT[version][0], ecc = LAYOUT[version][1], blocks = LAYOUT[version][2];
+        int shortLen = total / blocks;
+        int numLong = total % blocks; // uzun bloklar sonda, bir veri baytı fazla
+        int shortData = shortLen - ecc;
+
+        int[] dataLen = new int[blocks];
+        byte[][] block = new byte[blocks][];
+        for (int j = 0; j < blocks; j++) {
+            dataLen[j] = shortData + (j >= blocks - numLong ? 1 : 0);
+            block[j] = new byte[dataLen[j] + ecc];
+        }
+
+        int n = 0;
+        for (int i = 0; i < shortData + 1; i++) {
+            for (int j = 0; j < blocks; j++) {
+                if (i < dataLen[j]) block[j][i] = codewords[n++];
+            }
+        }
+        for (int i = 0; i < ecc; i++) {
+            for (int j = 0; j < blocks; j++) block[j][dataLen[j] + i] = codewords[n++];
+        }
+        check(n == total, "read " + n + " of " + total + " codewords");
+
+        byte[] data = new byte[total - ecc * blocks];
+        int k = 0;
+        for (int j = 0; j < blocks; j++) {
+            for (int e = 0; e < ecc; e++) {
+                check(evaluate(block[j], EXP[e]) == 0, "block " + j + " syndrome " + e + " is not zero");
+            }
+            System.arraycopy(block[j], 0, data, k, dataLen[j]);
+            k += dataLen[j];
+        }
+        return data;
+    }
+
+    /** Byte mode indicator, count, the bytes, terminator, then alternating 0xEC / 0x11 pad codewords. */
+    private static void checkSegment(byte[] data, byte[] expected, int version) {
+        int countBits = version < 10 ? 8 : 16;
+        int[] pos = {0};
+
+        check(bits(data, pos, 4) == 0b0100, "not a byte-mode segment");
+        check(bits(data, pos, countBits) == expected.length, "character count");
+        for (int i = 0; i < expected.length; i++) {
+            check(bits(data, pos, 8) == (expected[i] & 0xFF), "data byte " + i);
+        }
+
+        int terminator = Math.min(4, data.length * 8 - pos[0]);
+        check(bits(data, pos, terminator) == 0, "terminator");
+        int fill = (8 - pos[0] % 8) % 8;
+        check(bits(data, pos, fill) == 0, "bit padding");
+        for (int pad = 0xEC; pos[0] < data.length * 8; pad ^= 0xEC ^ 0x11) {
+            check(bits(data, pos, 8) == pad, "pad codeword at bit " + pos[0]);
+        }
+    }
+
+    // ---------------------------------------------------------------
+
+    private static boolean isFunction(QrCode qr, int x, int y) {
+        int s = qr.size();
+        if (x < 9 && y < 9 || x >= s - 8 && y < 9 || x < 9 && y >= s - 8) return true; // bulucu + ayırıcı + format
+        if (x == 6 || y == 6) return true;
+        for (int[] c : alignmentCenters(qr)) {
+            if (Math.abs(x - c[0]) <= 2 && Math.abs(y - c[1]) <= 2) return true;
+        }
+        if (qr.version() >= 7) {
+            if (x >= s - 11 && x < s - 8 && y < 6) return true;
+            if (y >= s - 11 && y < s - 8 && x < 6) return true;
+        }
+        return false;
+    }
+
+    private static List<int[]> alignmentCenters(QrCode qr) {
+        int[] pos = ALIGNMENT[qr.version()];
+        if (pos == null) {
+            pos = new int[0];
+            if (qr.version() > 1) throw new AssertionError("no alignment table for version " + qr.version());
+        }
+        List<int[]> out = new ArrayList<>();
+        int last = pos.length - 1;
+        for (int i = 0; i <= last; i++) {
+            for (int j = 0; j <= last; j++) {
+                boolean finder = (i == 0 && j == 0) || (i == 0 && j == last) || (i == last && j == 0);
+                if (!finder) out.add(new int[]{pos[i], pos[j]});
+            }
+        }
+        return out;
+    }
+
+    // Table 10: maske koşulu doğruysa modül ters çevrilmiştir (i = satır, j = sütun)
+    private static boolean masked(int mask, int j, int i) {
+        return switch (mask) {
+            case 0 -> (i + j) % 2 == 0;
+            case 1 -> i % 2 == 0;
+            case 2 -> j % 3 == 0;
+            case 3 -> (i + j) % 3 == 0;
+            case 4 -> (i / 2 + j / 3) % 2 == 0;
+            case 5 -> (i * j) % 2 + (i * j) % 3 == 0;
+            case 6 -> ((i * j) % 2 + (i * j) % 3) % 2 == 0;
+            case 7 -> ((i + j) % 2 + (i * j) % 3) % 2 == 0;
+            default -> throw new IllegalArgumentException("mask " + mask);
+        };
+    }
+
+    private static int bits(byte[] data, int[] pos, int count) {
+        int v = 0;
+        for (int k = 0; k < count; k++, pos[0]++) {
+            v = v << 1 | ((data[pos[0] >>> 3] >>> (7 - (pos[0] & 7))) & 1);
+        }
+        return v;
+    }
+
+    // GF(2^8), polinom 0x11D; üreteç kökleri α^0..α^(ecc-1)
+    private static final int[] EXP = new int[256];
+    private static final int[] LOG = new int[256];
+
+    static {
+        for (int i = 0, x = 1; i < 255; i++) {
+            EXP[i] = x;
+            LOG[x] = i;
+            x <<= 1;
+            if (x >= 0x100) x ^= 0x11D;
+        }
+    }
+
+    /** Codewords as polynomial coefficients, highest degree first, evaluated at {@code x}. */
+    private static int evaluate(byte[] poly, int x) {
+        int r = 0;
+        for (byte c : poly) r = multiply(r, x) ^ (c & 0xFF);
+        return r;
+    }
+
+    private static int multiply(int a, int b) {
+        return a == 0 || b == 0 ? 0 : EXP[(LOG[a] + LOG[b]) % 255];
+    }
+
+    private static String text(int bytes) {
+        StringBuilder sb = new StringBuilder("https://scan.example/t/");
+        for (int i = 0; sb.length() < bytes; i++) sb.append((char) ('a' + i % 26));
+        sb.setLength(bytes);
+        return sb.toString();
+    }
+
+    private static boolean sameModules(QrCode a, QrCode b) {
+        if (a.size() != b.size()) return false;
+        for (int y = 0; y < a.size(); y++) {
+            for (int x = 0; x < a.size(); x++) {
+                if (a.isDark(x, y) != b.isDark(x, y)) return false;
+            }
+        }
+        return true;
+    }
+
+    private static void check(boolean ok, String message) {
+        if (!ok) throw new AssertionError(message);
+    }
+}